@@ -0,0 +1,76 @@
+package org.example.benchmark;
+
+import org.example.manageClasses.ColumnarProductManager;
+import org.example.manageClasses.CustomerManager;
+import org.example.manageClasses.ProductManager;
+import org.example.model.Customer;
+import org.example.model.Product;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+
+// Общие данные для бенчмарков: каталог и покупатели с ID 1..size
+final class BenchmarkData {
+
+    // Запас и баланс, которых хватает на любой прогон без пополнения
+    static final int UNLIMITED_STOCK = Integer.MAX_VALUE;
+    static final long UNLIMITED_BALANCE_MINOR = Long.MAX_VALUE / 4;
+
+    private BenchmarkData() {
+    }
+
+    static ProductManager catalogue(int size) {
+        ProductManager productManager = new ProductManager();
+        for (int id = 1; id <= size; id++) {
+            productManager.addProduct(Product.withPriceMinor(id, productName(id), 100 + id % 1000, UNLIMITED_STOCK));
+        }
+        return productManager;
+    }
+
+    // Тот же каталог в столбцах; вставка пакетами, чтобы не брать блокировку на каждый продукт
+    static ColumnarProductManager columnarCatalogue(int size) {
+        ColumnarProductManager productManager = new ColumnarProductManager();
+        List<Product> batch = new ArrayList<>();
+        for (int id = 1; id <= size; id++) {
+            batch.add(Product.withPriceMinor(id, productName(id), 100 + id % 1000, UNLIMITED_STOCK));
+            if (batch.size() == 100_000) {
+                productManager.addProducts(batch);
+                batch.clear();
+            }
+        }
+        productManager.addProducts(batch);
+        return productManager;
+    }
+
+    static CustomerManager customers(int size) {
+        CustomerManager customerManager = new CustomerManager(size);
+        for (int id = 1; id <= size; id++) {
+            customerManager.addCustomer(Customer.withBalanceMinor(id, "Покупатель " + id, UNLIMITED_BALANCE_MINOR));
+        }
+        return customerManager;
+    }
+
+    static String productName(int id) {
+        return "Продукт " + id;
+    }
+
+    // Заранее перемешанные ID, чтобы обращения не шли по порядку вставки
+    static int[] shuffledIds(int size, int count, long seed) {
+        int[] ids = new int[count];
+        long state = seed;
+        for (int i = 0; i < count; i++) {
+            state = state * 6364136223846793005L + 1442695040888963407L;
+            ids[i] = (int) Long.remainderUnsigned(state >>> 16, size) + 1;
+        }
+        return ids;
+    }
+
+    // Консольный вывод менеджеров не должен попадать в замер
+    static PrintStream silenceStdout() {
+        PrintStream original = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        return original;
+    }
+}
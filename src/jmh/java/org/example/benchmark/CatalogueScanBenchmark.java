@@ -0,0 +1,67 @@
+package org.example.benchmark;
+
+import org.example.manageClasses.ColumnarProductManager;
+import org.example.manageClasses.ProductManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+// Агрегаты по всему каталогу: объекты Product против столбцов ColumnarProductManager.
+// Каталог в 10M строк в объектах не помещается в 4 ГБ вместе со столбцами, поэтому куча больше
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms8g", "-Xmx8g"})
+public class CatalogueScanBenchmark {
+
+    private static final int THRESHOLD = 500;
+
+    @State(Scope.Benchmark)
+    public static class Catalogue {
+        @Param({"100000", "1000000", "10000000"})
+        public int catalogueSize;
+
+        ProductManager objects;
+        ColumnarProductManager columns;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            objects = BenchmarkData.catalogue(catalogueSize);
+            columns = BenchmarkData.columnarCatalogue(catalogueSize);
+        }
+    }
+
+    @Benchmark
+    public long inventoryValueObjects(Catalogue catalogue) {
+        return catalogue.objects.streamProducts()
+                .mapToLong(product -> product.getPriceMinor() * product.getQuantityIncludingHolds())
+                .sum();
+    }
+
+    @Benchmark
+    public long inventoryValueColumns(Catalogue catalogue) {
+        return catalogue.columns.inventoryValueMinor();
+    }
+
+    @Benchmark
+    public long countBelowObjects(Catalogue catalogue) {
+        return catalogue.objects.streamProducts().filter(product -> product.getQuantity() < THRESHOLD).count();
+    }
+
+    @Benchmark
+    public int countBelowColumns(Catalogue catalogue) {
+        return catalogue.columns.countBelow(THRESHOLD);
+    }
+}
@@ -0,0 +1,63 @@
+package org.example.benchmark;
+
+import org.example.manageClasses.CustomerManager;
+import org.example.model.Customer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class CustomerManagerBenchmark {
+
+    private static final int ID_SAMPLE = 1 << 16;
+
+    @State(Scope.Benchmark)
+    public static class Customers {
+        @Param({"1000", "100000", "1000000", "10000000"})
+        public int customerCount;
+
+        CustomerManager customerManager;
+        int[] ids;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            customerManager = BenchmarkData.customers(customerCount);
+            ids = BenchmarkData.shuffledIds(customerCount, ID_SAMPLE, 7);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        int next;
+    }
+
+    @Benchmark
+    public Customer findById(Customers customers, Cursor cursor) {
+        int id = customers.ids[cursor.next];
+        cursor.next = (cursor.next + 1) & (ID_SAMPLE - 1);
+        return customers.customerManager.findById(id);
+    }
+
+    // Промах: ID за пределами диапазона, проверяет длину цепочки пробирования
+    @Benchmark
+    public boolean containsMissing(Customers customers, Cursor cursor) {
+        int id = customers.ids[cursor.next] + customers.customerCount;
+        cursor.next = (cursor.next + 1) & (ID_SAMPLE - 1);
+        return customers.customerManager.contains(id);
+    }
+}
@@ -0,0 +1,87 @@
+package org.example.benchmark;
+
+import org.example.manageClasses.ProductManager;
+import org.example.model.Product;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+// Поиск, обновление и удаление в каталоге. Число потоков задается ключом -t,
+// изменяющие операции всегда однопоточные: ProductManager не потокобезопасен
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class ProductManagerBenchmark {
+
+    private static final int ID_SAMPLE = 1 << 16;
+
+    @State(Scope.Benchmark)
+    public static class Catalogue {
+        @Param({"1000", "100000", "1000000", "10000000"})
+        public int catalogueSize;
+
+        ProductManager productManager;
+        int[] ids;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            productManager = BenchmarkData.catalogue(catalogueSize);
+            ids = BenchmarkData.shuffledIds(catalogueSize, ID_SAMPLE, 42);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        int next;
+
+        int nextId(int[] ids) {
+            int id = ids[next];
+            next = (next + 1) & (ID_SAMPLE - 1);
+            return id;
+        }
+    }
+
+    @Benchmark
+    public Product findById(Catalogue catalogue, Cursor cursor) {
+        return catalogue.productManager.findById(cursor.nextId(catalogue.ids));
+    }
+
+    @Benchmark
+    public Product findByName(Catalogue catalogue, Cursor cursor) {
+        // Имя строится вне индекса, но входит в замер, как при вводе с консоли
+        return catalogue.productManager.findByName(BenchmarkData.productName(cursor.nextId(catalogue.ids)));
+    }
+
+    @Benchmark
+    @Threads(1)
+    public void updateProduct(Catalogue catalogue, Cursor cursor) {
+        int id = cursor.nextId(catalogue.ids);
+        Product current = catalogue.productManager.findById(id);
+        catalogue.productManager.updateProduct(id, Product.withPriceMinor(id, current.getName(),
+                current.getPriceMinor() + 1, current.getQuantity()));
+    }
+
+    // Удаление с возвратом того же продукта, чтобы размер каталога не менялся между итерациями
+    @Benchmark
+    @Threads(1)
+    public void deleteAndRestoreProduct(Catalogue catalogue, Cursor cursor) {
+        int id = cursor.nextId(catalogue.ids);
+        Product removed = catalogue.productManager.findById(id);
+        catalogue.productManager.deleteProduct(id);
+        catalogue.productManager.addProduct(removed);
+    }
+}
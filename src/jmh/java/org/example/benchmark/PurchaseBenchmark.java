@@ -0,0 +1,175 @@
+package org.example.benchmark;
+
+import org.example.PurchaseFileSaver;
+import org.example.journal.BinaryPurchaseEncoder;
+import org.example.journal.Durability;
+import org.example.journal.JournalOutput;
+import org.example.journal.PurchaseJournal;
+import org.example.journal.SummaryPurchaseEncoder;
+import org.example.journal.TextPurchaseEncoder;
+import org.example.manageClasses.ConcurrentPurchaseManager;
+import org.example.manageClasses.CustomerManager;
+import org.example.manageClasses.ProductManager;
+import org.example.manageClasses.PurchaseManager;
+import org.example.model.Customer;
+import org.example.model.Product;
+import org.example.model.Purchase;
+import org.example.model.PurchaseItem;
+import org.example.model.PurchaseResult;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Покупка целиком (проверки, списание, запись в журнал) и отдельно стоимость сохранения покупки.
+// Число касс задается ключом -t. Вариант sink=file пишет purchases.txt в текущий каталог,
+// поэтому запускать из временного каталога; savePurchaseToFile пишет во временный каталог сам.
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class PurchaseBenchmark {
+
+    private static final int ID_SAMPLE = 1 << 16;
+
+    @State(Scope.Benchmark)
+    public static class Store {
+        @Param({"1000", "100000", "1000000", "10000000"})
+        public int catalogueSize;
+
+        // binary/text — асинхронный журнал во временный файл, fanout — двоичный журнал и сводка
+        // из одной очереди, file — синхронная запись в purchases.txt
+        @Param({"binary", "text", "fanout", "file"})
+        public String sink;
+
+        ProductManager productManager;
+        CustomerManager customerManager;
+        PurchaseManager purchaseManager;
+        PurchaseJournal journal;
+        Path journalFile;
+        Path summaryFile;
+        Purchase samplePurchase;
+        int[] productIds;
+        int[] customerIds;
+        PrintStream stdout;
+
+        @Setup(Level.Trial)
+        public void setUp() throws IOException {
+            stdout = BenchmarkData.silenceStdout();
+            productManager = BenchmarkData.catalogue(catalogueSize);
+            customerManager = BenchmarkData.customers(Math.min(catalogueSize, 100_000));
+            productIds = BenchmarkData.shuffledIds(catalogueSize, ID_SAMPLE, 42);
+            customerIds = BenchmarkData.shuffledIds(customerManager.getAllCustomers().size(), ID_SAMPLE, 7);
+
+            if ("file".equals(sink)) {
+                purchaseManager = new ConcurrentPurchaseManager(productManager, customerManager);
+            } else if ("fanout".equals(sink)) {
+                journalFile = Files.createTempFile("purchases-bench", ".bin");
+                summaryFile = Files.createTempFile("purchases-bench", ".txt");
+                journal = new PurchaseJournal(List.of(new JournalOutput(journalFile, new BinaryPurchaseEncoder()),
+                        new JournalOutput(summaryFile, new SummaryPurchaseEncoder(customerId -> {
+                            Customer customer = customerManager.findById(customerId);
+                            return customer != null ? customer.getName() : null;
+                        }))),
+                        PurchaseJournal.DEFAULT_QUEUE_CAPACITY, PurchaseJournal.DEFAULT_FLUSH_INTERVAL_MILLIS,
+                        Durability.NONE);
+                purchaseManager = new ConcurrentPurchaseManager(productManager, customerManager, journal,
+                        ConcurrentPurchaseManager.DEFAULT_STRIPES);
+            } else {
+                journalFile = Files.createTempFile("purchases-bench", "binary".equals(sink) ? ".bin" : ".txt");
+                journal = new PurchaseJournal(journalFile,
+                        "binary".equals(sink) ? new BinaryPurchaseEncoder() : new TextPurchaseEncoder(),
+                        PurchaseJournal.DEFAULT_QUEUE_CAPACITY, PurchaseJournal.DEFAULT_FLUSH_INTERVAL_MILLIS,
+                        Durability.NONE);
+                purchaseManager = new ConcurrentPurchaseManager(productManager, customerManager, journal,
+                        ConcurrentPurchaseManager.DEFAULT_STRIPES);
+            }
+            Product sampleProduct = productManager.findById(1);
+            samplePurchase = new Purchase(1, List.of(new PurchaseItem(sampleProduct, sampleProduct.getPriceMinor(), 3)));
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() throws IOException {
+            if (journal != null) {
+                journal.close();
+                Files.deleteIfExists(journalFile);
+            }
+            if (summaryFile != null) {
+                Files.deleteIfExists(summaryFile);
+            }
+            System.setOut(stdout);
+        }
+    }
+
+    // Синхронная запись сводки от размера каталога и вида журнала не зависит, поэтому без параметров
+    @State(Scope.Benchmark)
+    public static class FileSaver {
+        PurchaseFileSaver purchaseFileSaver;
+        Path directory;
+        Path purchaseFile;
+        Customer sampleCustomer;
+        Product sampleProduct;
+        PrintStream stdout;
+
+        @Setup(Level.Trial)
+        public void setUp() throws IOException {
+            stdout = BenchmarkData.silenceStdout();
+            directory = Files.createTempDirectory("purchases-bench");
+            purchaseFile = directory.resolve("purchases.txt");
+            purchaseFileSaver = new PurchaseFileSaver(purchaseFile);
+            sampleCustomer = BenchmarkData.customers(1).findById(1);
+            sampleProduct = BenchmarkData.catalogue(1).findById(1);
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() throws IOException {
+            Files.deleteIfExists(purchaseFile);
+            Files.deleteIfExists(directory);
+            System.setOut(stdout);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        int next;
+
+        int advance() {
+            int current = next;
+            next = (next + 1) & (ID_SAMPLE - 1);
+            return current;
+        }
+    }
+
+    @Benchmark
+    public PurchaseResult makePurchase(Store store, Cursor cursor) {
+        int i = cursor.advance();
+        return store.purchaseManager.makePurchase(store.customerIds[i], store.productIds[i], 1);
+    }
+
+    @Benchmark
+    public void savePurchaseInfo(Store store) {
+        store.purchaseManager.savePurchaseInfo(store.samplePurchase);
+    }
+
+    @Benchmark
+    public void savePurchaseToFile(FileSaver saver) {
+        saver.purchaseFileSaver.savePurchaseToFile(saver.sampleCustomer, saver.sampleProduct, 3);
+    }
+}
@@ -1,37 +1,83 @@
 package org.example;
 
+import java.io.PrintStream;
 import java.util.List;
-import java.util.Scanner;
+import java.util.NoSuchElementException;
+import java.util.function.IntPredicate;
+import java.util.function.Predicate;
 
+import org.example.interfaces.ICustomerManager;
+import org.example.interfaces.IProductManager;
 import org.example.interfaces.Input;
 import org.example.model.Customer;
 import org.example.model.Product;
+import org.example.validation.CharClass;
+import org.example.validation.NumberParser;
+import org.example.validation.RuleSet;
+import org.example.validation.TextRule;
 
 public class InputValidator {
 
+    // Правила собираются один раз: буквы латиницы и кириллицы и пробельные символы
+    private static final CharClass TEXT_CHARS = CharClass.ranges('a', 'z', 'A', 'Z', 'а', 'я', 'А', 'Я')
+            .or(CharClass.of("ёЁ")).or(CharClass.WHITESPACE);
+    public static final RuleSet TEXT = new RuleSet(
+            TextRule.notEmpty("Ошибка: ввод не может быть пустым."),
+            TextRule.onlyOf(TEXT_CHARS, "Ошибка! Ввод не должен быть числом. Пожалуйста, введите текст заново."));
+    // Названия и имена в том виде, в каком они могут храниться в каталоге (в начальных данных есть
+    // "Яйца (десяток)"): по этим правилам проверяется импорт, поэтому выгрузка всегда читается обратно
+    public static final RuleSet STORED_NAME = new RuleSet(
+            TextRule.notEmpty("название не может быть пустым"),
+            TextRule.noneOf(CharClass.DIGITS, "название не должно содержать цифры"),
+            TextRule.noneOf(CharClass.ranges('\u0000', '\u001F', '\u007F', '\u009F'),
+                    "название не должно содержать управляющие символы"));
+    private static final TextRule NO_DIGITS = TextRule.noneOf(CharClass.DIGITS,
+            "Ошибка! Название продукта не должно содержать цифры. Пожалуйста, введите другое название.");
+
     private final Input input;
+    private final PrintStream out;
 
     public InputValidator( Input input ) {
+        this(input, System.out);
+    }
+
+    // Подсказки и ошибки выводятся туда же, откуда читается ввод, - в консоль или в сеанс кассы
+    public InputValidator(Input input, PrintStream out) {
         this.input = input;
+        this.out = out;
     }
 
     public String getValidTextInput(String promptMessage) {
         String user_input = "";
         while (true) {
-            System.out.print(promptMessage);
+            out.print(promptMessage);
             user_input = input.nextLine().trim();
-            if (user_input.isEmpty()) {
-                System.out.println("Ошибка: ввод не может быть пустым.");
-            }
-            else if (user_input.matches("[a-zA-Zа-яА-ЯёЁ\\s]+")) {
+            String error = TEXT.firstViolation(user_input);
+            if (error == null) {
                 break;
-            } else {
-                System.out.println("Ошибка! Ввод не должен быть числом. Пожалуйста, введите текст заново.");
             }
+            out.println(error);
         }
         return user_input;
     }
 
+    // Правила проверки без диалога: общие для консольного ввода и импорта из файла
+    public static boolean isValidText(String text) {
+        return TEXT.test(text);
+    }
+
+    public static boolean isValidPrice(long priceMinor) {
+        return priceMinor > 0;
+    }
+
+    public static boolean isValidQuantity(int quantity) {
+        return quantity > 0;
+    }
+
+    public static boolean isValidBalance(long balanceMinor) {
+        return balanceMinor > 0;
+    }
+
     public double getValidPositivePrice(String promptMessage) {
         double price;
         while (true) {
@@ -39,7 +85,7 @@ public class InputValidator {
             if (price >= 0) {
                 break; // Valid price
             } else {
-                System.out.println("Ошибка: цена не может быть отрицательной или нулевой. Введите положительное число.");
+                out.println("Ошибка: цена не может быть отрицательной или нулевой. Введите положительное число.");
             }
         }
         return price;
@@ -53,7 +99,7 @@ public class InputValidator {
             if (quantity > 0) {
                 break; // Если количество положительное, выходим из цикла
             } else {
-                System.out.println("Ошибка: количество не может быть отрицательным или нулевым. Введите положительное число.");
+                out.println("Ошибка: количество не может быть отрицательным или нулевым. Введите положительное число.");
             }
         }
         return quantity;
@@ -62,46 +108,57 @@ public class InputValidator {
 
 
 
+    // Число читается целой строкой и разбирается без исключений: неверный ввод - обычный повтор запроса
     public double getValidDoubleInput(String promptMessage) {
-        double user_input;
         while (true) {
-            System.out.print(promptMessage);
-            try {
-                user_input = input.nextDouble();
-                input.nextLine();
-                break;
-            }catch (Exception e) {
-                System.out.println("Ошибка! Введите  число.");
-                input.nextLine();
-                // Очистка некорректного ввода
+            out.print(promptMessage);
+            double user_input = NumberParser.parseDecimal(readLine());
+            if (!Double.isNaN(user_input)) {
+                return user_input;
             }
+            out.println("Ошибка! Введите  число.");
         }
-        return user_input;
     }
 
     public int getValidIntInput(String promptMessage) {
-        int user_input;
         while (true) {
-            System.out.print(promptMessage);
-            try{
-                user_input = input.nextInt();
-                input.nextLine();
-                break;
-            }catch (Exception e) {
-                System.out.println("Ошибка! Введите корректное целое число.");
-                input.nextLine();
-
+            out.print(promptMessage);
+            long user_input = NumberParser.parseInt(readLine().trim());
+            if (user_input != NumberParser.INVALID) {
+                return (int) user_input;
             }
+            out.println("Ошибка! Введите корректное целое число.");
+        }
+    }
 
-
-                // Очистка некорректного ввода
-
+    private String readLine() {
+        String line = input.nextLine();
+        if (line == null) {
+            throw new NoSuchElementException("Ввод закончился");
         }
-        return user_input;
+        return line;
     }
 
 
     public String getValidUniqueProductName(String promptMessage, List<Product> products) {
+        return getValidUniqueProductName(promptMessage,
+                name -> products.stream().anyMatch(product -> product.getName().equalsIgnoreCase(name)));
+    }
+
+    // Проверка уникальности через индекс названий менеджера продуктов
+    public String getValidUniqueProductName(String promptMessage, IProductManager productManager) {
+        return getValidUniqueProductName(promptMessage, name -> productManager.findByName(name) != null);
+    }
+
+    // Новое название изменяемого продукта: свое прежнее название допускается, чужое - нет
+    public String getValidUniqueProductName(String promptMessage, IProductManager productManager, int productId) {
+        return getValidUniqueProductName(promptMessage, name -> {
+            Product owner = productManager.findByName(name);
+            return owner != null && owner.getId() != productId;
+        });
+    }
+
+    private String getValidUniqueProductName(String promptMessage, Predicate<String> nameExists) {
         String name;
         boolean exists=false;
 
@@ -109,21 +166,18 @@ public class InputValidator {
             name = getValidTextInput(promptMessage);
 
             // Проверка, что имя не является числом
-            if (name.matches(".*\\d.*")) {
-                System.out.println("Ошибка! Название продукта не должно содержать цифры. Пожалуйста, введите другое название.");
+            if (!NO_DIGITS.test(name)) {
+                out.println(NO_DIGITS.getMessage());
                 continue; // Повторно запрашиваем ввод, если в имени есть цифры
             }
 
             // Проверка уникальности имени
-
-            String finalName = name;
-            exists = products.stream()
-                    .anyMatch(product -> product.getName().equalsIgnoreCase(finalName));
+            exists = nameExists.test(name);
 
             if (exists) {
-                System.out.println("Ошибка! Продукт с таким названием уже существует. Пожалуйста, введите другое название.");
+                out.println("Ошибка! Продукт с таким названием уже существует. Пожалуйста, введите другое название.");
             }else {
-                System.out.println("Название уникально, продолжаем добавление.");
+                out.println("Название уникально, продолжаем добавление.");
             }
 
 
@@ -135,18 +189,25 @@ public class InputValidator {
 
 
     public int getValidExistingCustomerId(String promptMessage, List<Customer> customers) {
+        return getValidExistingCustomerId(promptMessage,
+                customerId -> customers.stream().anyMatch(c -> c.getId() == customerId));
+    }
+
+    // Проверка существования через индекс менеджера покупателей
+    public int getValidExistingCustomerId(String promptMessage, ICustomerManager customerManager) {
+        return getValidExistingCustomerId(promptMessage, customerManager::contains);
+    }
+
+    private int getValidExistingCustomerId(String promptMessage, IntPredicate customerExists) {
         int customerId;
         while (true) {
             customerId = getValidIntInput(promptMessage);
 
             // Проверка, существует ли введенный ID среди существующих покупателей
-            int finalCustomerId = customerId;
-            boolean exists = customers.stream().anyMatch(c -> c.getId() == finalCustomerId);
-
-            if (exists) {
+            if (customerExists.test(customerId)) {
                 break; // Если ID найден, выходим из цикла
             } else {
-                System.out.println("Ошибка! Покупатель с таким ID не существует. Попробуйте снова.");
+                out.println("Ошибка! Покупатель с таким ID не существует. Попробуйте снова.");
             }
         }
         return customerId;
@@ -154,18 +215,25 @@ public class InputValidator {
 
 
     public int getValidExistingProductId(String promptMessage, List<Product> products) {
+        return getValidExistingProductId(promptMessage,
+                productId -> products.stream().anyMatch(p -> p.getId() == productId));
+    }
+
+    // Проверка существования через индекс ID менеджера продуктов
+    public int getValidExistingProductId(String promptMessage, IProductManager productManager) {
+        return getValidExistingProductId(promptMessage, productId -> productManager.findById(productId) != null);
+    }
+
+    private int getValidExistingProductId(String promptMessage, IntPredicate productExists) {
         int productId;
         while (true) {
             productId = getValidIntInput(promptMessage);
 
             // Проверка, существует ли введенный ID среди существующих продуктов
-            int finalProductId = productId;
-            boolean exists = products.stream().anyMatch(p -> p.getId() == finalProductId);
-
-            if (exists) {
+            if (productExists.test(productId)) {
                 break; // Если ID найден, выходим из цикла
             } else {
-                System.out.println("Ошибка! Продукт с таким ID не существует. Попробуйте снова.");
+                out.println("Ошибка! Продукт с таким ID не существует. Попробуйте снова.");
             }
         }
         return productId;
@@ -0,0 +1,73 @@
+package org.example;
+
+import org.example.model.Customer;
+import org.example.model.Money;
+import org.example.model.Page;
+import org.example.model.Product;
+
+import java.io.BufferedWriter;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.Charset;
+
+// Вывод списков страницей через один буферизованный поток: одна запись в консоль на страницу
+// вместо println и склейки строк на каждую строку списка
+public class ListingPrinter {
+
+    private final PrintWriter out;
+
+    public ListingPrinter() {
+        this(System.out, Charset.defaultCharset());
+    }
+
+    public ListingPrinter(OutputStream stream, Charset charset) {
+        this.out = new PrintWriter(new BufferedWriter(new OutputStreamWriter(stream, charset), 16 * 1024), false);
+    }
+
+    public void printProducts(Page<Product> page, int total) {
+        out.println("Список продуктов:");
+        for (Product product : page.getItems()) {
+            out.print("- ID: ");
+            out.print(product.getId());
+            out.print(", Название: ");
+            out.print(product.getName());
+            out.print(", Цена: ");
+            out.print(Money.format(product.getPriceMinor()));
+            out.print(", Количество: ");
+            out.println(product.getQuantity());
+        }
+        printFooter(page, total);
+    }
+
+    public void printCustomers(Page<Customer> page, int total) {
+        out.println("Список покупателей:");
+        for (Customer customer : page.getItems()) {
+            out.print("- ID: ");
+            out.print(customer.getId());
+            out.print(", Имя: ");
+            out.print(customer.getName());
+            out.print(", Баланс: ");
+            out.println(Money.format(customer.getBalanceMinor()));
+        }
+        printFooter(page, total);
+    }
+
+    // total < 0 - общее число неизвестно (список отфильтрован)
+    private void printFooter(Page<?> page, int total) {
+        if (page.isEmpty()) {
+            out.println("(пусто)");
+        } else if (page.hasMore() || page.getOffset() > 0) {
+            out.print("Показаны ");
+            out.print(page.getOffset() + 1);
+            out.print("-");
+            out.print(page.getOffset() + page.getItems().size());
+            if (total >= 0) {
+                out.print(" из ");
+                out.print(total);
+            }
+            out.println(page.hasMore() ? ", есть еще" : "");
+        }
+        out.flush();
+    }
+}
@@ -1,8 +1,96 @@
 package org.example;
 
+import org.example.input.BufferedInput;
+import org.example.server.TillServer;
+
+import java.io.BufferedReader;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicBoolean;
+
 public class Main {
     public static void main(String[] args) {
+        // --batch <файл> или --batch - (стандартный ввод): выполнить команды без меню
+        if (args.length > 0 && args[0].equals("--batch")) {
+            String source = args.length > 1 ? args[1] : "-";
+            try (InputStream in = source.equals("-") ? System.in : new FileInputStream(source);
+                 BufferedInput commands = new BufferedInput(in)) {
+                new Shop().runBatch(commands);
+            } catch (IOException e) {
+                System.out.println("Ошибка при чтении файла команд: " + e.getMessage());
+            }
+            return;
+        }
+        // --import <products|customers> <файл> и --export <products|customers> <файл>: каталог в CSV и обратно
+        if (args.length == 3 && (args[0].equals("--import") || args[0].equals("--export"))) {
+            Shop shop = new Shop();
+            if (args[0].equals("--import")) {
+                shop.importCatalogue(args[1], Path.of(args[2]));
+            } else {
+                shop.exportCatalogue(args[1], Path.of(args[2]));
+            }
+            shop.close();
+            return;
+        }
+        // --server [порт]: сервер касс на локальном сокете вместо консольного меню
+        if (args.length > 0 && args[0].equals("--server")) {
+            runServer(args.length > 1 ? Integer.parseInt(args[1]) : TillServer.DEFAULT_PORT);
+            return;
+        }
         Shop shop = new Shop();
         shop.start();
     }
-}
\ No newline at end of file
+
+    // Сервер работает до команды stop в консоли; без консоли - до остановки процесса
+    private static void runServer(int port) {
+        Shop shop = new Shop();
+        TillServer server;
+        try {
+            server = new TillServer(shop, port);
+        } catch (IOException e) {
+            System.out.println("Ошибка при запуске сервера касс: " + e.getMessage());
+            shop.close();
+            return;
+        }
+        AtomicBoolean stopped = new AtomicBoolean();
+        Runnable stop = () -> {
+            if (stopped.compareAndSet(false, true)) {
+                try {
+                    server.close();
+                } catch (IOException e) {
+                    System.out.println("Ошибка при остановке сервера касс: " + e.getMessage());
+                }
+                shop.close();
+                System.out.println("Сервер касс остановлен.");
+            }
+        };
+        Runtime.getRuntime().addShutdownHook(new Thread(stop));
+        server.start();
+        System.out.println("Сервер касс запущен на порту " + server.getPort()
+                + ". Команды: status - число касс, stop - остановка.");
+
+        BufferedReader console = new BufferedReader(new InputStreamReader(System.in));
+        try {
+            String line;
+            while ((line = console.readLine()) != null) {
+                switch (line.trim()) {
+                    case "stop" -> {
+                        stop.run();
+                        return;
+                    }
+                    case "status" -> System.out.println("Касс подключено: " + server.getActiveSessions()
+                            + ", всего подключений: " + server.getAcceptedSessions());
+                    default -> System.out.println("Неизвестная команда. Доступны: status, stop.");
+                }
+            }
+            server.join();
+        } catch (IOException e) {
+            System.out.println("Ошибка чтения консоли: " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -1,28 +1,61 @@
 package org.example;
+import org.example.journal.RecordBuffer;
+import org.example.journal.SummaryPurchaseEncoder;
 import org.example.model.Customer;
 import org.example.model.Product;
+import org.example.model.Purchase;
+import org.example.model.PurchaseItem;
 
-import java.io.BufferedWriter;
-import java.io.FileWriter;
 import java.io.IOException;
-import java.text.SimpleDateFormat;
-import java.util.Date;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.function.LongConsumer;
 
+// Синхронная запись сводки покупки в purchases.txt для отдельных вызовов вне магазина;
+// касса пишет ту же сводку через журнал покупок. Формат строки задает SummaryPurchaseEncoder.
 public class PurchaseFileSaver {
 
+    private static final Path PURCHASE_FILE = Path.of("purchases.txt");
+
+    private final Path purchaseFile;
+    private final LongConsumer saveLatency;
+
+    public PurchaseFileSaver() {
+        this(PURCHASE_FILE);
+    }
+
+    public PurchaseFileSaver(Path purchaseFile) {
+        this(purchaseFile, nanos -> { });
+    }
+
+    // saveLatency получает длительность записи в наносекундах, например гистограмму из MetricsRegistry
+    public PurchaseFileSaver(Path purchaseFile, LongConsumer saveLatency) {
+        this.purchaseFile = purchaseFile;
+        this.saveLatency = saveLatency;
+    }
+
     public void savePurchaseToFile(Customer customer, Product product, int quantity) {
-        // Форматирование текущей даты
-        SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
-        String currentDate = dateFormat.format(new Date());
-
-        // Запись информации о покупке в файл
-        try (BufferedWriter writer = new BufferedWriter(new FileWriter("purchases.txt", true))) {
-            String purchaseInfo = String.format("Дата: %s, Покупатель: %s, Продукт: %s, Количество: %d\n",
-                    currentDate, customer.getName(), product.getName(), quantity);
-            writer.write(purchaseInfo);
+        Purchase purchase = new Purchase(customer.getId(),
+                List.of(new PurchaseItem(product, product.getPriceMinor(), quantity)));
+        savePurchaseToFile(customer, purchase);
+    }
+
+    // Одна строка на всю корзину вместо отдельной записи на каждый продукт
+    public void savePurchaseToFile(Customer customer, Purchase purchase) {
+        RecordBuffer line = new RecordBuffer(256);
+        new SummaryPurchaseEncoder(id -> customer.getName()).encode(purchase, line);
+
+        long started = System.nanoTime();
+        try {
+            Files.write(purchaseFile, line.toByteArray(), StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.APPEND);
             System.out.println("Информация о покупке сохранена в файл.");
         } catch (IOException e) {
             System.out.println("Ошибка при сохранении информации о покупке в файл: " + e.getMessage());
+        } finally {
+            saveLatency.accept(System.nanoTime() - started);
         }
     }
 
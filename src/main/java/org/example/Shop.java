@@ -6,42 +6,416 @@ import org.example.interfaces.ICustomerManager;
 import org.example.interfaces.IProductManager;
 import org.example.interfaces.IPurchaseManager;
 import org.example.interfaces.Input;
+import org.example.journal.BinaryPurchaseEncoder;
+import org.example.journal.Durability;
+import org.example.journal.JournalOutput;
+import org.example.journal.PurchaseJournal;
+import org.example.journal.PurchaseTextExporter;
+import org.example.journal.SummaryPurchaseEncoder;
+import org.example.manageClasses.ConcurrentPurchaseManager;
 import org.example.manageClasses.CustomerManager;
 import org.example.manageClasses.ProductManager;
-import org.example.manageClasses.PurchaseManager;
+import org.example.manageClasses.ProductViewCache;
+import org.example.metrics.EventCounters;
+import org.example.metrics.LatencyHistogram;
+import org.example.metrics.MeteredCustomerManager;
+import org.example.metrics.MeteredProductManager;
+import org.example.metrics.MeteredPurchaseManager;
+import org.example.metrics.MetricsRegistry;
+import org.example.model.Basket;
 import org.example.model.Customer;
+import org.example.model.Money;
+import org.example.model.Page;
 import org.example.model.Product;
-import org.example.model.Purchase;
+import org.example.model.PurchaseResult;
+import org.example.model.Reservation;
+import org.example.replenishment.ReorderPolicy;
+import org.example.replenishment.ReorderPolicyStore;
+import org.example.replenishment.ReorderSuggestion;
+import org.example.replenishment.ReplenishmentPlanner;
+import org.example.search.ProductSearchIndex;
+import org.example.storage.IdAllocator;
+import org.example.storage.RecoveryManager;
+import org.example.storage.SnapshotStore;
+import org.example.storage.WalCustomerManager;
+import org.example.storage.WalProductManager;
+import org.example.storage.WalPurchaseManager;
+import org.example.storage.WriteAheadLog;
+import org.example.validation.NumberParser;
 import org.example.InputValidator;
-
+import org.example.analytics.LiveSales;
+import org.example.analytics.SalesAnalytics;
+import org.example.analytics.SalesReport;
+import org.example.analytics.SalesReportStore;
+import org.example.batch.BatchProcessor;
+import org.example.batch.BatchSummary;
+import org.example.bulk.CatalogueExporter;
+import org.example.bulk.CatalogueImporter;
+import org.example.bulk.ImportSummary;
+import org.example.events.EventBus;
+import org.example.events.PublishingCustomerManager;
+import org.example.events.PublishingPurchaseManager;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Scanner;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.IntSupplier;
+import java.util.stream.Stream;
 
 public class Shop {
+    private static final int REPORT_TOP = 5;
+    private static final int REPORT_DAYS = 7;
+    private static final long CHECKPOINT_INTERVAL_MILLIS = 60_000;
+    private static final int PAGE_SIZE = 20;
+    private static final long BASKET_HOLD_MILLIS = 5 * 60_000;
+
     private IProductManager productManager;
     private ICustomerManager customerManager;
     private IPurchaseManager purchaseManager;
+    private ProductViewCache productCatalogue;
 
     private InputValidator inputValidator;
     private Input input;
-    private PurchaseFileSaver purchaseFileSaver;
+    private ListingPrinter listingPrinter;
+    private PurchaseJournal purchaseJournal;
+    private SnapshotStore snapshotStore;
+    private WriteAheadLog writeAheadLog;
+    private RecoveryManager recoveryManager;
+    private IdAllocator idAllocator;
+    private ProductSearchIndex productSearchIndex;
+    private MetricsRegistry metrics;
+    private EventBus eventBus;
+    private LiveSales liveSales;
+    private ReplenishmentPlanner replenishmentPlanner;
+    private ReorderPolicyStore reorderPolicyStore;
+    // Файлы магазина; по умолчанию в текущем каталоге
+    private final Path purchaseLog;
+    private final Path purchaseSummary;
+    private final Path purchaseTextExport;
+    private final Path snapshotFile;
+    private final Path walFile;
+    private final Path idFile;
+    private final Path salesReportState;
+    private final PrintStream out;
+    private final boolean till;
 
     public Shop() {
-        this.productManager = new ProductManager();
-        this.customerManager = new CustomerManager();
-        this.purchaseManager = new PurchaseManager(productManager, customerManager);
+        this(Path.of(""));
+    }
 
-        this.purchaseFileSaver = new PurchaseFileSaver();
+    // Все файлы состояния и журналов лежат в dataDir, например во временном каталоге теста
+    public Shop(Path dataDir) {
+        this.purchaseLog = dataDir.resolve("purchases.bin");
+        this.purchaseSummary = dataDir.resolve("purchases.txt");
+        this.purchaseTextExport = dataDir.resolve("purchases_export.txt");
+        this.snapshotFile = dataDir.resolve("shop.snapshot");
+        this.walFile = dataDir.resolve("shop.wal");
+        this.idFile = dataDir.resolve("shop.ids");
+        this.salesReportState = dataDir.resolve("purchases.analytics");
+        this.out = System.out;
+        this.till = false;
+        // Кассы читают каталог через кэш без блокировок, изменения проходят через него же
+        ProductViewCache products = new ProductViewCache(new ProductManager());
+        this.productCatalogue = products;
+        // Поисковый индекс подписан на изменения каталога, включая загрузку при восстановлении
+        this.productSearchIndex = new ProductSearchIndex(products);
+        products.addListener(productSearchIndex);
+        CustomerManager customers = new CustomerManager();
+        this.purchaseJournal = openPurchaseJournal(customers);
+
+        // Замеры поиска стоят прямо над хранилищами, чтобы учитывать и поиск внутри покупок
+        this.metrics = new MetricsRegistry();
+        IProductManager meteredProducts = new MeteredProductManager(products, metrics);
+        ICustomerManager meteredCustomers = new MeteredCustomerManager(customers, metrics);
+        LatencyHistogram saveLatency = metrics.histogram(MeteredPurchaseManager.SAVE_PURCHASE_INFO);
+        IPurchaseManager purchases = new ConcurrentPurchaseManager(meteredProducts, meteredCustomers,
+                purchaseJournal, products.getProductLocks(), saveLatency::record);
+
+        this.listingPrinter = new ListingPrinter();
         this.input = new ConsoleInput();
         this.inputValidator = new InputValidator(input);
 
-        // Добавляем начальные данные
-        initializeProducts();
-        initializeCustomers();
+        // Восстанавливаем состояние из последнего снимка и журнала изменений после него;
+        // все дальнейшие изменения проходят через декораторы журнала
+        this.snapshotStore = new SnapshotStore(snapshotFile);
+        this.writeAheadLog = openWriteAheadLog();
+        boolean restored;
+        if (writeAheadLog != null) {
+            this.recoveryManager = new RecoveryManager(snapshotStore, writeAheadLog, products, customers);
+            restored = recover();
+            this.productManager = new WalProductManager(meteredProducts, writeAheadLog);
+            this.customerManager = new WalCustomerManager(meteredCustomers, writeAheadLog);
+            this.purchaseManager = new WalPurchaseManager(purchases, writeAheadLog);
+        } else {
+            this.productManager = meteredProducts;
+            this.customerManager = meteredCustomers;
+            this.purchaseManager = purchases;
+            restored = loadSnapshot();
+        }
+        // События изменений публикуются после восстановления, загрузка состояния их не дает.
+        // Подписчики читают шину в своих потоках и кассу не задерживают
+        this.eventBus = new EventBus();
+        products.addListener(eventBus::publishProductChange);
+        this.customerManager = new PublishingCustomerManager(customerManager, eventBus);
+        this.purchaseManager = new PublishingPurchaseManager(purchaseManager, eventBus);
+        this.liveSales = new LiveSales();
+        eventBus.subscribe("metrics", new EventCounters(metrics));
+        eventBus.subscribe("sales", liveSales);
+        this.replenishmentPlanner = new ReplenishmentPlanner();
+        this.reorderPolicyStore = new ReorderPolicyStore(dataDir.resolve("replenishment.policies"));
+        attachReplenishmentPlanner(products);
+        eventBus.subscribe("replenishment", replenishmentPlanner);
+
+        // Задержка покупки снаружи, вместе с ожиданием журнала изменений
+        this.purchaseManager = new MeteredPurchaseManager(purchaseManager, metrics);
+
+        // При отсутствии сохраненного состояния добавляем начальные данные
+        if (!restored) {
+            initializeProducts();
+            initializeCustomers();
+        }
+        this.idAllocator = openIdAllocator();
+        if (recoveryManager != null) {
+            recoveryManager.startPeriodicCheckpoints(CHECKPOINT_INTERVAL_MILLIS);
+        }
+        // -Dshop.metrics.intervalMillis=60000 - печатать метрики периодически, а не только по команде
+        long metricsInterval = Long.getLong("shop.metrics.intervalMillis", 0);
+        if (metricsInterval > 0) {
+            metrics.startPeriodicReport(metricsInterval, System.out::print);
+        }
+    }
+
+    // Сеанс кассы поверх открытого магазина: свой ввод и вывод, общие менеджеры, журналы и индексы
+    private Shop(Shop store, Input input, PrintStream out) {
+        this.productManager = store.productManager;
+        this.customerManager = store.customerManager;
+        this.purchaseManager = store.purchaseManager;
+        this.productCatalogue = store.productCatalogue;
+        this.purchaseJournal = store.purchaseJournal;
+        this.snapshotStore = store.snapshotStore;
+        this.writeAheadLog = store.writeAheadLog;
+        this.recoveryManager = store.recoveryManager;
+        this.idAllocator = store.idAllocator;
+        this.productSearchIndex = store.productSearchIndex;
+        this.metrics = store.metrics;
+        this.eventBus = store.eventBus;
+        this.liveSales = store.liveSales;
+        this.replenishmentPlanner = store.replenishmentPlanner;
+        this.reorderPolicyStore = store.reorderPolicyStore;
+        this.purchaseLog = store.purchaseLog;
+        this.purchaseSummary = store.purchaseSummary;
+        this.purchaseTextExport = store.purchaseTextExport;
+        this.snapshotFile = store.snapshotFile;
+        this.walFile = store.walFile;
+        this.idFile = store.idFile;
+        this.salesReportState = store.salesReportState;
+        this.input = input;
+        this.inputValidator = new InputValidator(input, out);
+        this.listingPrinter = new ListingPrinter(out, StandardCharsets.UTF_8);
+        this.out = out;
+        this.till = true;
+    }
+
+    public Shop openTill(Input input, PrintStream out) {
+        return new Shop(this, input, out);
+    }
+
+    // Закрытие магазина без меню, например при остановке сервера касс
+    public void close() {
+        shutdown();
+    }
+
+    private WriteAheadLog openWriteAheadLog() {
+        try {
+            return new WriteAheadLog(walFile);
+        } catch (IOException e) {
+            out.println("Ошибка при открытии журнала изменений, работаем только со снимком: " + e.getMessage());
+            return null;
+        }
+    }
+
+    // Граница выданных ID хранится отдельно; данные, загруженные без нее, сдвигают выдачу за свой максимум
+    private IdAllocator openIdAllocator() {
+        IdAllocator allocator;
+        try {
+            allocator = new IdAllocator(idFile);
+        } catch (IOException e) {
+            out.println("Ошибка при загрузке границ ID, выдача только в памяти: " + e.getMessage());
+            allocator = new IdAllocator();
+        }
+        allocator.advancePast(IdAllocator.Kind.PRODUCT,
+                productManager.streamProducts().mapToInt(Product::getId).max().orElse(0));
+        allocator.advancePast(IdAllocator.Kind.CUSTOMER,
+                customerManager.streamCustomers().mapToInt(Customer::getId).max().orElse(0));
+        return allocator;
+    }
+
+    // Сохраненные пороги заказа и одна проверка каждого продукта: предложения по восстановленным
+    // остаткам видны сразу. Пороги удаленных с тех пор продуктов не загружаются
+    private void attachReplenishmentPlanner(IProductManager products) {
+        try {
+            for (ReorderPolicy policy : reorderPolicyStore.load()) {
+                if (products.findById(policy.getProductId()) != null) {
+                    replenishmentPlanner.setReorderPolicy(policy.getProductId(), policy.getReorderPoint(),
+                            policy.getLeadTimeMillis());
+                }
+            }
+        } catch (IOException e) {
+            out.println("Ошибка при загрузке порогов заказа: " + e.getMessage());
+        }
+        replenishmentPlanner.checkAll(products.getAllProducts(), System.currentTimeMillis());
+    }
+
+    private boolean recover() {
+        try {
+            long replayed = recoveryManager.recover();
+            if (replayed >= 0) {
+                out.println("Состояние магазина восстановлено, применено записей журнала: " + replayed);
+                return true;
+            }
+        } catch (IOException e) {
+            out.println("Ошибка при восстановлении состояния: " + e.getMessage());
+        }
+        return false;
+    }
+
+    private boolean loadSnapshot() {
+        try {
+            if (snapshotStore.load(productManager, customerManager) >= 0) {
+                out.println("Состояние магазина загружено из снимка " + snapshotFile);
+                return true;
+            }
+        } catch (IOException e) {
+            out.println("Ошибка при загрузке снимка: " + e.getMessage());
+        }
+        return false;
+    }
+
+    // Контрольная точка: снимок текущего состояния и очистка журнала изменений
+    public void saveSnapshot() {
+        try {
+            if (recoveryManager != null) {
+                recoveryManager.checkpoint();
+            } else {
+                snapshotStore.save(productManager, customerManager);
+            }
+            out.println("Снимок магазина сохранен в " + snapshotFile);
+        } catch (IOException e) {
+            out.println("Ошибка при сохранении снимка: " + e.getMessage());
+        }
+    }
+
+    // Предложения заказа, самые срочные первыми
+    public void showReplenishmentPlan() {
+        List<ReorderSuggestion> suggestions = replenishmentPlanner.getSuggestions();
+        if (suggestions.isEmpty()) {
+            out.println("Пополнение не требуется.");
+            return;
+        }
+        out.println("Предложения заказа:");
+        for (ReorderSuggestion suggestion : suggestions) {
+            double days = suggestion.getDaysOfCover();
+            out.println("- ID: " + suggestion.getProductId() + ", Название: " + suggestion.getProductName()
+                    + ", Остаток: " + suggestion.getStock()
+                    + String.format(Locale.ROOT, ", Продажи в день: %.1f", suggestion.getUnitsPerDay())
+                    + (Double.isInfinite(days) ? "" : String.format(Locale.ROOT, ", Хватит на дней: %.1f", days))
+                    + ", Заказать: " + suggestion.getQuantity());
+        }
+    }
+
+    public void setReorderPolicy() {
+        int productId = inputValidator.getValidExistingProductId("Введите ID продукта: ", productManager);
+        int reorderPoint;
+        while (true) {
+            reorderPoint = inputValidator.getValidIntInput("Введите порог заказа (остаток, при котором заказывать): ");
+            if (reorderPoint >= 0) {
+                break;
+            }
+            out.println("Ошибка: порог не может быть отрицательным.");
+        }
+        int leadDays = inputValidator.getValidPositiveQuantity("Введите срок поставки в днях: ");
+        replenishmentPlanner.setReorderPolicy(productId, reorderPoint, leadDays * ReplenishmentPlanner.DAY_MILLIS);
+        Product product = productManager.findById(productId);
+        if (product != null) {
+            replenishmentPlanner.check(product, System.currentTimeMillis());
+        }
+        try {
+            reorderPolicyStore.save(replenishmentPlanner);
+            out.println("Порог заказа сохранен.");
+        } catch (IOException e) {
+            out.println("Порог заказа действует до перезапуска, ошибка при сохранении: " + e.getMessage());
+        }
+    }
+
+    public void showMetrics() {
+        out.print(metrics.report());
+        out.println("Шина событий: опубликовано " + eventBus.getPublished() + ", размер кольца " + eventBus.getCapacity());
+        for (EventBus.Subscription subscription : eventBus.getSubscriptions()) {
+            out.println("- " + subscription.getName() + ": обработано " + subscription.getProcessed()
+                    + ", в очереди " + subscription.getLag() + ", пропущено " + subscription.getLost()
+                    + ", ошибок " + subscription.getFailed());
+        }
+    }
+
+    private void shutdown() {
+        eventBus.close();
+        metrics.close();
+        productCatalogue.close();
+        closePurchaseJournal();
+        saveSnapshot();
+        if (recoveryManager != null) {
+            recoveryManager.close();
+        }
+        if (writeAheadLog != null) {
+            try {
+                writeAheadLog.close();
+            } catch (IOException e) {
+                out.println("Ошибка при закрытии журнала изменений: " + e.getMessage());
+            }
+        }
     }
 
 
 
+    // Журнал покупок с фоновой записью; при ошибке открытия покупки пишутся синхронно.
+    // Одна покупка попадает и в двоичный журнал, и в текстовую сводку с одной и той же датой.
+    private PurchaseJournal openPurchaseJournal(ICustomerManager customers) {
+        SummaryPurchaseEncoder summary = new SummaryPurchaseEncoder(id -> {
+            Customer customer = customers.findById(id);
+            return customer != null ? customer.getName() : null;
+        });
+        try {
+            return new PurchaseJournal(List.of(new JournalOutput(purchaseLog, new BinaryPurchaseEncoder()),
+                            new JournalOutput(purchaseSummary, summary)),
+                    PurchaseJournal.DEFAULT_QUEUE_CAPACITY, PurchaseJournal.DEFAULT_FLUSH_INTERVAL_MILLIS, Durability.NONE);
+        } catch (IOException e) {
+            out.println("Ошибка при открытии журнала покупок: " + e.getMessage());
+            return null;
+        }
+    }
+
+    private void closePurchaseJournal() {
+        if (purchaseJournal == null) {
+            return;
+        }
+        try {
+            purchaseJournal.close();
+        } catch (IOException e) {
+            out.println("Ошибка при закрытии журнала покупок: " + e.getMessage());
+        }
+    }
+
     // Метод для инициализации продуктов питания с количеством
     private void initializeProducts() {
         productManager.addProduct(new Product(1, "Яблоки", 1.99, 50));
@@ -49,7 +423,7 @@ public class Shop {
         productManager.addProduct(new Product(3, "Молоко", 0.89, 20));
         productManager.addProduct(new Product(4, "Сыр", 3.49, 15));
         productManager.addProduct(new Product(5, "Яйца (десяток)", 2.99, 25));
-        System.out.println("Продукты успешно инициализированы.");
+        out.println("Продукты успешно инициализированы.");
     }
 
     // Метод для инициализации покупателей с балансом
@@ -58,150 +432,289 @@ public class Shop {
         customerManager.addCustomer(new Customer(2, "Иван", 500.00));
         customerManager.addCustomer(new Customer(3, "Ольга", 750.00));
         customerManager.addCustomer(new Customer(4, "Дмитрий", 1200.00));
-        System.out.println("Покупатели успешно инициализированы.");
+        out.println("Покупатели успешно инициализированы.");
     }
 
     public void start() {
-        System.out.println("Добро пожаловать в интернет-магазин продуктов питания!");
+        out.println("Добро пожаловать в интернет-магазин продуктов питания!");
 
         boolean running = true;
         while (running) {
-            System.out.println("\nВыберите опцию:");
-            System.out.println("1. Добавить продукт");
-            System.out.println("2. Изменить продукт");
-            System.out.println("3. Удалить продукт");
-            System.out.println("4. Показать все продукты");
-            System.out.println("5. Добавить покупателя");
-            System.out.println("6. Удалить покупателя");
-            System.out.println("7. Показать всех покупателей");
-            System.out.println("8. Покупка продукта");
-            System.out.println("9. Выход");
-
-            int choice = input.nextInt();
-            input.nextLine();  // Чтение новой строки после nextInt
-
-            switch (choice) {
+            out.println("\nВыберите опцию:");
+            out.println("1. Добавить продукт");
+            out.println("2. Изменить продукт");
+            out.println("3. Удалить продукт");
+            out.println("4. Показать все продукты");
+            out.println("5. Добавить покупателя");
+            out.println("6. Удалить покупателя");
+            out.println("7. Показать всех покупателей");
+            out.println("8. Покупка продукта");
+            out.println("9. Покупка корзины");
+            out.println("10. Экспорт журнала покупок в текст");
+            out.println("11. Поиск продукта");
+            out.println("12. Отчет по продажам");
+            out.println("13. Метрики");
+            out.println("14. Импорт каталога из CSV");
+            out.println("15. Экспорт каталога в CSV");
+            out.println("16. План пополнения");
+            out.println("17. Порог заказа продукта");
+            out.println("0. Выход");
+
+            // Пункт читается строкой: нечисловой ввод дает сообщение о неверном выборе, а не исключение
+            String line = input.nextLine();
+            if (line == null) {
+                throw new NoSuchElementException("Ввод закончился");
+            }
+            long choice = NumberParser.parseInt(line.trim());
+
+            switch (choice == NumberParser.INVALID ? -1 : (int) choice) {
                 case 1 -> addProduct();
                 case 2 -> updateProduct();
                 case 3 -> deleteProduct();
-                case 4 -> showAllProducts();
+                case 4 -> browseProducts();
                 case 5 -> addCustomer();
                 case 6 -> deleteCustomer();
-                case 7 -> showAllCustomers();
+                case 7 -> browseCustomers();
                 case 8 -> makePurchase();
-                case 9 -> {
+                case 9 -> checkoutBasket();
+                case 10 -> exportPurchaseLog();
+                case 11 -> searchProducts();
+                case 12 -> showSalesReport();
+                case 13 -> showMetrics();
+                case 14 -> importCatalogue();
+                case 15 -> exportCatalogue();
+                case 16 -> showReplenishmentPlan();
+                case 17 -> setReorderPolicy();
+                case 0 -> {
                     running = false;
-                    System.out.println("Выход из программы.");
+                    // Сеанс кассы только отключается, магазин закрывает владелец
+                    if (till) {
+                        out.println("Сеанс кассы завершен.");
+                    } else {
+                        shutdown();
+                        out.println("Выход из программы.");
+                    }
                 }
-                default -> System.out.println("Неверный выбор. Попробуйте снова.");
+                default -> out.println("Неверный выбор. Попробуйте снова.");
+            }
+        }
+    }
+
+    // Пакетный режим: команды из файла или потока выполняются без меню и вывода списков,
+    // в конце печатается сводка
+    public void runBatch(Input commands) {
+        out.println("Пакетный режим: выполнение команд...");
+        BatchProcessor processor = new BatchProcessor(productManager, customerManager, purchaseManager, idAllocator);
+        BatchSummary summary;
+        if (writeAheadLog != null) {
+            writeAheadLog.beginDeferred();
+        }
+        try {
+            summary = processor.run(commands);
+        } finally {
+            if (writeAheadLog != null) {
+                writeAheadLog.endDeferred();
+            }
+        }
+        printBatchSummary(summary);
+        showMetrics();
+        shutdown();
+    }
+
+    public void importCatalogue() {
+        String kind = chooseCatalogue();
+        out.print("Введите путь к файлу CSV: ");
+        importCatalogue(kind, Path.of(input.nextLine().trim()));
+    }
+
+    public void exportCatalogue() {
+        String kind = chooseCatalogue();
+        out.print("Введите путь к файлу CSV: ");
+        exportCatalogue(kind, Path.of(input.nextLine().trim()));
+    }
+
+    private String chooseCatalogue() {
+        while (true) {
+            int choice = inputValidator.getValidIntInput("Каталог (1 - продукты, 2 - покупатели): ");
+            if (choice == 1 || choice == 2) {
+                return choice == 1 ? "products" : "customers";
+            }
+            out.println("Ошибка! Выберите 1 или 2.");
+        }
+    }
+
+    // Импорт продуктов (products) или покупателей (customers) одним пакетом, со сводкой по строкам
+    public void importCatalogue(String kind, Path file) {
+        CatalogueImporter importer = new CatalogueImporter(productManager, customerManager, idAllocator);
+        ImportSummary summary;
+        try {
+            summary = switch (kind) {
+                case "products" -> importer.importProducts(file);
+                case "customers" -> importer.importCustomers(file);
+                default -> null;
+            };
+        } catch (IOException e) {
+            out.println("Ошибка при импорте каталога: " + e.getMessage());
+            return;
+        }
+        if (summary == null) {
+            out.println("Неизвестный каталог: " + kind + ". Доступны: products, customers.");
+            return;
+        }
+        out.println(String.format(Locale.ROOT, "Добавлено: %d, обновлено: %d, отклонено: %d, время: %.3f с",
+                summary.getAdded(), summary.getUpdated(), summary.getRejected(),
+                summary.getElapsedNanos() / 1_000_000_000.0));
+        for (String error : summary.getErrors()) {
+            out.println("- " + error);
+        }
+        if (summary.getRejected() > summary.getErrors().size()) {
+            out.println("... и еще ошибок: " + (summary.getRejected() - summary.getErrors().size()));
+        }
+    }
+
+    public void exportCatalogue(String kind, Path file) {
+        CatalogueExporter exporter = new CatalogueExporter(productManager, customerManager);
+        try {
+            switch (kind) {
+                case "products" -> out.println("Выгружено продуктов: " + exporter.exportProducts(file) + " в файл " + file);
+                case "customers" -> out.println("Выгружено покупателей: " + exporter.exportCustomers(file) + " в файл " + file);
+                default -> out.println("Неизвестный каталог: " + kind + ". Доступны: products, customers.");
             }
+        } catch (IOException e) {
+            out.println("Ошибка при экспорте каталога: " + e.getMessage());
+        }
+    }
+
+    private void printBatchSummary(BatchSummary summary) {
+        double seconds = summary.getElapsedNanos() / 1_000_000_000.0;
+        out.println("Команд обработано: " + summary.getCommands() + ", выполнено: " + summary.getSucceeded()
+                + ", отклонено: " + summary.getRejected());
+        out.println("Покупок успешно: " + summary.getPurchases(PurchaseResult.Status.SUCCESS)
+                + ", недостаточно средств: " + summary.getPurchases(PurchaseResult.Status.INSUFFICIENT_FUNDS)
+                + ", недостаточно товара: " + summary.getPurchases(PurchaseResult.Status.OUT_OF_STOCK)
+                + ", неверный ID или количество: " + (summary.getPurchases(PurchaseResult.Status.CUSTOMER_NOT_FOUND)
+                + summary.getPurchases(PurchaseResult.Status.PRODUCT_NOT_FOUND)
+                + summary.getPurchases(PurchaseResult.Status.INVALID_QUANTITY)));
+        out.println(String.format(Locale.ROOT, "Время: %.3f с, команд в секунду: %.0f",
+                seconds, seconds > 0 ? summary.getCommands() / seconds : 0.0));
+        for (String error : summary.getErrors()) {
+            out.println("- " + error);
+        }
+        if (summary.getRejected() > summary.getErrors().size()) {
+            out.println("... и еще ошибок: " + (summary.getRejected() - summary.getErrors().size()));
         }
     }
 
     public void addProduct() {
-        System.out.println("Список продуктов перед добавлением:");
+        out.println("Список продуктов перед добавлением:");
         showAllProducts();
 
 
-        String name = inputValidator.getValidUniqueProductName("Введите название продукта",productManager.getAllProducts());
+        String name = inputValidator.getValidUniqueProductName("Введите название продукта",productManager);
         double price = inputValidator.getValidPositivePrice("ведите цену продукта");
 
         if (price <= 0) {
-            System.out.println("Ошибка: цена не может быть отрицательной или нулевой. Продукт не добавлен.");
+            out.println("Ошибка: цена не может быть отрицательной или нулевой. Продукт не добавлен.");
             return;
         }
 
         int quantity = inputValidator.getValidPositiveQuantity("Введите количество продукта: ");
         if (quantity<=0){
-            System.out.println("Ошибка: количество не может быть отрицательным или нулевым. Продукт не добавлен.");
+            out.println("Ошибка: количество не может быть отрицательным или нулевым. Продукт не добавлен.");
             return;
         }
-        int id = productManager.getAllProducts().size() + 1;
+        int id = idAllocator.nextId(IdAllocator.Kind.PRODUCT);
 
         Product product = new Product(id, name, price, quantity);
         productManager.addProduct(product);
-        System.out.println("Продукт добавлен успешно.");
-        System.out.println("Список продуктов после  добавления:");
+        out.println("Продукт добавлен успешно.");
+        out.println("Список продуктов после  добавления:");
         showAllProducts();
 
     }
 
    public  void updateProduct() {
-        System.out.println("Список продуктов перед изменением:");
+        out.println("Список продуктов перед изменением:");
         showAllProducts();
 
-        int productId = inputValidator.getValidExistingProductId("Введите ID продукта для обновления: ",productManager.getAllProducts());
+        int productId = inputValidator.getValidExistingProductId("Введите ID продукта для обновления: ",productManager);
 
-        String name = inputValidator.getValidTextInput("Введите новое название продукта: ");
+        String name = inputValidator.getValidUniqueProductName("Введите новое название продукта: ",
+                productManager, productId);
 
 
         double price = inputValidator.getValidPositivePrice("Введите новую цену продукта: ");
 
        if (price <= 0) {
-           System.out.println("Ошибка: цена не может быть отрицательной или нулевой. Продукт не изменен.");
+           out.println("Ошибка: цена не может быть отрицательной или нулевой. Продукт не изменен.");
            return;
        }
 
         int quantity = inputValidator.getValidPositiveQuantity("Введите новое количество продукта: ");
 
        if (price <= 0) {
-           System.out.println("Ошибка: Количество не может быть отрицательной или нулевой. Продукт не изменен.");
+           out.println("Ошибка: Количество не может быть отрицательной или нулевой. Продукт не изменен.");
            return;
        }
 
 
         Product updatedProduct = new Product(productId, name, price, quantity);
         productManager.updateProduct(productId, updatedProduct);
-        System.out.println("Продукт обновлен.");
-        System.out.println("Обновленный список продуктов");
+        out.println("Продукт обновлен.");
+        out.println("Обновленный список продуктов");
         showAllProducts();
     }
 
    public void deleteProduct() {
-        System.out.println("Список продуктов перед удалением:");
+        out.println("Список продуктов перед удалением:");
         showAllProducts();
 
         int productId = inputValidator.getValidIntInput("Введите ID продукта для удаления: ");
-       boolean productExists = productManager.getAllProducts().stream()
-               .anyMatch(product -> product.getId() == productId);
+       boolean productExists = productManager.findById(productId) != null;
 
        if (!productExists) {
-           System.out.println("Ошибка: продукт с таким ID не найден.");
+           out.println("Ошибка: продукт с таким ID не найден.");
            return; // Прерываем выполнение метода, если продукт не найден
        }
         productManager.deleteProduct(productId);
-        System.out.println("Продукт удален.");
-        System.out.println("Обновленный список продуктов");
+        out.println("Продукт удален.");
+        out.println("Обновленный список продуктов");
         showAllProducts();
     }
 
+    // Первая страница каталога; весь каталог - через browseProducts
     public void showAllProducts() {
-        System.out.println("Список продуктов:");
-        for (Product product : productManager.getAllProducts()) {
-            System.out.println("- ID: " + product.getId() + ", Название: " + product.getName() +
-                    ", Цена: " + product.getPrice() + ", Количество: " + product.getQuantity());
-        }
+        listingPrinter.printProducts(Page.of(productManager.streamProducts(), 0, PAGE_SIZE),
+                productManager.getProductCount());
+    }
+
+    public void browseProducts() {
+        browse(filter -> {
+            Stream<Product> products = productManager.streamProducts();
+            return filter.isEmpty() ? products
+                    : products.filter(product -> product.getName().toLowerCase(Locale.ROOT).contains(filter));
+        }, productManager::getProductCount, listingPrinter::printProducts);
     }
 
     public void addCustomer() {
-        System.out.print("Список покупателей перед добавлением:");
+        out.print("Список покупателей перед добавлением:");
         showAllCustomers();
 
-        System.out.print("Введите имя покупателя: ");
+        out.print("Введите имя покупателя: ");
         String name =  inputValidator.getValidTextInput("Введите имя покупателя: ");
-        System.out.print("Введите баланс покупателя: ");
+        out.print("Введите баланс покупателя: ");
         double balance = inputValidator.getValidPositivePrice("Введите баланс покупателя");
         if (balance <= 0) {
-            System.out.println("Ошибка: Баланс не может быть отрицательным или нулевым. Покупатель не добавлен");
+            out.println("Ошибка: Баланс не может быть отрицательным или нулевым. Покупатель не добавлен");
             return;
         }
 
-        int id = customerManager.getAllCustomers().size() + 1;
+        int id = idAllocator.nextId(IdAllocator.Kind.CUSTOMER);
 
         Customer customer = new Customer(id, name, balance);
         customerManager.addCustomer(customer);
-        System.out.println("Покупатель добавлен.");
-        System.out.println("Обновленный список покупателей");
+        out.println("Покупатель добавлен.");
+        out.println("Обновленный список покупателей");
         showAllCustomers();
     }
 
@@ -210,21 +723,61 @@ public class Shop {
 
 
     public void deleteCustomer() {
-        System.out.print("Список покупателей перед удалением:");
+        out.print("Список покупателей перед удалением:");
         showAllCustomers();
 
         int customerId = inputValidator.getValidIntInput("Введите ID покупателя для удаления: ");
         customerManager.deleteCustomer(customerId);
-        System.out.println("Покупатель удален.");
-        System.out.println("Обновленный список покупателей");
+        out.println("Покупатель удален.");
+        out.println("Обновленный список покупателей");
         showAllCustomers();
     }
 
+    // Поиск по началу слов названия: "яйц дес" найдет "Яйца (десяток)"
+    public void searchProducts() {
+        out.print("Введите часть названия продукта: ");
+        String query = input.nextLine().trim();
+        if (query.isEmpty()) {
+            out.println("Ошибка: запрос не может быть пустым.");
+            return;
+        }
+        List<Product> found = productSearchIndex.search(query, PAGE_SIZE + 1);
+        listingPrinter.printProducts(Page.of(found.stream(), 0, PAGE_SIZE), -1);
+    }
+
     private void showAllCustomers() {
-        System.out.println("Список покупателей:");
-        for (Customer customer : customerManager.getAllCustomers()) {
-            System.out.println("- ID: " + customer.getId() + ", Имя: " + customer.getName() +
-                    ", Баланс: " + customer.getBalance());
+        listingPrinter.printCustomers(Page.of(customerManager.streamCustomers(), 0, PAGE_SIZE),
+                customerManager.getCustomerCount());
+    }
+
+    public void browseCustomers() {
+        browse(filter -> {
+            Stream<Customer> customers = customerManager.streamCustomers();
+            return filter.isEmpty() ? customers
+                    : customers.filter(customer -> customer.getName().toLowerCase(Locale.ROOT).contains(filter));
+        }, customerManager::getCustomerCount, listingPrinter::printCustomers);
+    }
+
+    // Постраничный просмотр с фильтром по части имени; общее число показывается только без фильтра
+    private <T> void browse(Function<String, Stream<T>> source, IntSupplier total, BiConsumer<Page<T>, Integer> printer) {
+        String filter = "";
+        int offset = 0;
+        while (true) {
+            Page<T> page = Page.of(source.apply(filter), offset, PAGE_SIZE);
+            printer.accept(page, filter.isEmpty() ? total.getAsInt() : -1);
+            out.println("Enter - следующая страница, < - предыдущая, текст - фильтр по названию, * - сбросить фильтр, 0 - назад");
+            String command = input.nextLine().trim();
+            if (command.equals("0") || (command.isEmpty() && !page.hasMore())) {
+                return;
+            }
+            if (command.isEmpty()) {
+                offset += PAGE_SIZE;
+            } else if (command.equals("<")) {
+                offset = Math.max(0, offset - PAGE_SIZE);
+            } else {
+                filter = command.equals("*") ? "" : command.toLowerCase(Locale.ROOT);
+                offset = 0;
+            }
         }
     }
 
@@ -232,49 +785,37 @@ public class Shop {
         boolean continueShopping = true;
 
         while (continueShopping) {
-            System.out.print("Список покупателей кооторые будут совершать покупку :");
+            out.print("Список покупателей кооторые будут совершать покупку :");
             showAllCustomers();
 
-            int customerId = inputValidator.getValidExistingCustomerId("Введите ID покупателя: ",customerManager.getAllCustomers());
-            System.out.print("Список продуктов для продажи :");
+            int customerId = inputValidator.getValidExistingCustomerId("Введите ID покупателя: ",customerManager);
+            out.print("Список продуктов для продажи :");
             showAllProducts();
 
-            int productId = inputValidator.getValidExistingProductId("Введите ID продукта: ",productManager.getAllProducts());
+            int productId = inputValidator.getValidExistingProductId("Введите ID продукта: ",productManager);
 
             int quantity = inputValidator.getValidIntInput("Введите количество для покупки: ");
 
-            Customer customer = customerManager.getAllCustomers().stream()
-                    .filter(c -> c.getId() == customerId)
-                    .findFirst()
-                    .orElse(null);
-
-            Product product = productManager.getAllProducts().stream()
-                    .filter(p -> p.getId() == productId)
-                    .findFirst()
-                    .orElse(null);
-
-            if (customer != null && product != null) {
-                if (product.getQuantity() >= quantity) {
-                    double totalCost = product.getPrice() * quantity;
-                    if (customer.hasSufficientBalance(totalCost)) {
-                        customer.deductBalance(totalCost);
-                        product.reduceQuantity(quantity);
-                        Purchase purchase = new Purchase(customerId, List.of(product), totalCost);
-                        purchaseManager.savePurchaseInfo(purchase);
-                        purchaseFileSaver.savePurchaseToFile(customer, product, quantity);
-
-                        System.out.println("Покупка успешно совершена. Остаток товара: " + product.getQuantity());
-                        System.out.println("Баланс покупателя: " + customer.getName() + "=" + customer.getBalance().toString());
-                        ;
+            // Проверка, списание и запись в журнал покупок выполняются атомарно в менеджере покупок
+            PurchaseResult result = purchaseManager.makePurchase(customerId, productId, quantity);
 
-                    } else {
-                        System.out.println("Недостаточно средств у покупателя.");
+            switch (result.getStatus()) {
+                case SUCCESS -> {
+                    Customer customer = customerManager.findById(customerId);
+                    Product product = result.getPurchase().getProducts().get(0);
+                    out.println("Покупка успешно совершена. Остаток товара: " + product.getQuantity());
+                    out.println("Баланс покупателя: " + customer.getName() + "=" + customer.getBalance().toString());
+                }
+                case INSUFFICIENT_FUNDS -> out.println("Недостаточно средств у покупателя.");
+                case OUT_OF_STOCK -> {
+                    out.println("Недостаточное количество товара.");
+                    ReorderSuggestion suggestion = replenishmentPlanner.getSuggestion(productId);
+                    if (suggestion != null) {
+                        out.println("Товар уже в плане пополнения: заказать " + suggestion.getQuantity() + " шт.");
                     }
-                } else {
-                    System.out.println("Недостаточное количество товара.");
                 }
-            } else {
-                System.out.println("Неверный ID покупателя или продукта.");
+                case INVALID_QUANTITY -> out.println("Ошибка: количество должно быть положительным.");
+                default -> out.println("Неверный ID покупателя или продукта.");
             }
                 String userChoice = inputValidator.getValidTextInput("Хотите продолжить покупки?(да/нет)").toLowerCase();
                 if(userChoice !=null && userChoice.toLowerCase().equals("да")) {
@@ -286,7 +827,7 @@ public class Shop {
 
                     } else {
 
-                        System.out.println("Неверный ввод. Попробуйте снова.");
+                        out.println("Неверный ввод. Попробуйте снова.");
                     }
 
 
@@ -294,6 +835,129 @@ public class Shop {
         }
     }
 
+    // Покупка нескольких продуктов одной операцией: одна проверка баланса и одна запись в журнал.
+    // Каждая строка сразу резервирует товар, поэтому пока собирается корзина, его не заберут другие кассы
+    public void checkoutBasket() {
+        out.print("Список покупателей кооторые будут совершать покупку :");
+        showAllCustomers();
+        int customerId = inputValidator.getValidExistingCustomerId("Введите ID покупателя: ",customerManager);
+
+        Basket basket = new Basket();
+        boolean addMore = true;
+        while (addMore) {
+            out.print("Список продуктов для продажи :");
+            showAllProducts();
+            int productId = inputValidator.getValidExistingProductId("Введите ID продукта: ",productManager);
+            int quantity = inputValidator.getValidPositiveQuantity("Введите количество для покупки: ");
+            Reservation reservation = productManager.reserve(productId, quantity, BASKET_HOLD_MILLIS);
+            if (reservation != null) {
+                basket.addReserved(reservation);
+            } else {
+                out.println("Недостаточно свободного товара с ID " + productId + ". Строка не добавлена.");
+            }
 
+            String userChoice = inputValidator.getValidTextInput("Добавить в корзину еще продукт?(да/нет)").toLowerCase();
+            addMore = userChoice.equals("да");
+        }
+        if (basket.isEmpty()) {
+            out.println("Корзина пуста.");
+            return;
+        }
+
+        PurchaseResult result = purchaseManager.checkout(customerId, basket);
+        if (!result.isSuccess()) {
+            // Неоплаченная корзина сразу освобождает товар, не дожидаясь истечения резервов
+            for (Reservation reservation : basket.getReservations()) {
+                productManager.cancelReservation(reservation.getId());
+            }
+        }
+        switch (result.getStatus()) {
+            case SUCCESS -> {
+                Customer customer = customerManager.findById(customerId);
+                out.println("Корзина оплачена. Позиций: " + basket.size()
+                        + ", сумма: " + Money.format(result.getPurchase().getTotalAmountMinor()));
+                out.println("Баланс покупателя: " + customer.getName() + "=" + customer.getBalance().toString());
+            }
+            case INSUFFICIENT_FUNDS -> out.println("Недостаточно средств у покупателя.");
+            case OUT_OF_STOCK -> out.println("Недостаточное количество товара с ID " + result.getFailedProductId() + ". Корзина не оплачена.");
+            case PRODUCT_NOT_FOUND -> out.println("Продукт с ID " + result.getFailedProductId() + " не найден. Корзина не оплачена.");
+            default -> out.println("Неверный ID покупателя или пустая корзина.");
+        }
+    }
+
+    // Отчет по продажам: журнал дочитывается с места прошлого запуска, состояние отчета сохраняется
+    public void showSalesReport() {
+        try {
+            if (purchaseJournal != null) {
+                purchaseJournal.flush();
+            }
+            SalesReportStore store = new SalesReportStore(salesReportState);
+            SalesReport report = new SalesAnalytics().update(store.load(), purchaseLog);
+            store.save(report);
+            printSalesReport(report);
+        } catch (IOException e) {
+            out.println("Ошибка при построении отчета по продажам: " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void printSalesReport(SalesReport report) {
+        out.println("С момента запуска: покупок " + liveSales.getPurchases() + ", продано единиц: "
+                + liveSales.getItemsSold() + ", выручка: " + Money.format(liveSales.getRevenueMinor()));
+        out.println("Покупок: " + report.getPurchases() + ", продано единиц: " + report.getItemsSold()
+                + ", выручка: " + Money.format(report.getRevenueMinor()));
+
+        out.println("Выручка по дням (последние " + REPORT_DAYS + "):");
+        List<Map.Entry<LocalDate, Long>> days = new ArrayList<>(report.getDailyRevenueMinor().entrySet());
+        for (Map.Entry<LocalDate, Long> day : days.subList(Math.max(0, days.size() - REPORT_DAYS), days.size())) {
+            out.println("- " + day.getKey() + ": " + Money.format(day.getValue()));
+        }
+
+        out.println("Лучшие продукты по выручке:");
+        for (int productId : report.topProductsByRevenue(REPORT_TOP)) {
+            Product product = productManager.findById(productId);
+            out.println("- ID: " + productId + ", Название: " + (product != null ? product.getName() : "(удален)")
+                    + ", Продано: " + report.getProductQuantity(productId)
+                    + ", Выручка: " + Money.format(report.getProductRevenueMinor(productId)));
+        }
+
+        out.println("Покупатели с наибольшими тратами:");
+        for (int customerId : report.topCustomersBySpend(REPORT_TOP)) {
+            Customer customer = customerManager.findById(customerId);
+            out.println("- ID: " + customerId + ", Имя: " + (customer != null ? customer.getName() : "(удален)")
+                    + ", Покупок: " + report.getCustomerPurchases(customerId)
+                    + ", Потрачено: " + Money.format(report.getCustomerSpendMinor(customerId)));
+        }
+
+        out.println("Покупки по часам:");
+        long[] hourly = report.getHourlyPurchases();
+        long busiest = Arrays.stream(hourly).max().orElse(0);
+        for (int hour = 0; hour < hourly.length; hour++) {
+            if (hourly[hour] > 0) {
+                int width = (int) Math.max(1, hourly[hour] * 40 / busiest);
+                out.println(String.format("%02d:00 %s %d", hour, "#".repeat(width), hourly[hour]));
+            }
+        }
+    }
+
+    // Выгрузка двоичного журнала покупок в прежний текстовый формат
+    public void exportPurchaseLog() {
+        try {
+            if (purchaseJournal != null) {
+                purchaseJournal.flush();
+            }
+            if (!Files.exists(purchaseLog)) {
+                out.println("Журнал покупок пуст.");
+                return;
+            }
+            long exported = new PurchaseTextExporter(productManager).export(purchaseLog, purchaseTextExport);
+            out.println("Выгружено покупок: " + exported + " в файл " + purchaseTextExport);
+        } catch (IOException e) {
+            out.println("Ошибка при экспорте журнала покупок: " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
 
 }
@@ -0,0 +1,42 @@
+package org.example.analytics;
+
+import org.example.events.DomainEvent;
+import org.example.events.EventHandler;
+import org.example.model.Purchase;
+import org.example.model.PurchaseItem;
+
+// Продажи с момента запуска по событиям покупок, без чтения журнала. Считает только поток
+// подписчика; кассы и меню читают готовые значения.
+public class LiveSales implements EventHandler {
+
+    private volatile long purchases;
+    private volatile long itemsSold;
+    private volatile long revenueMinor;
+
+    @Override
+    public void onEvent(DomainEvent event, long sequence, boolean endOfBatch) {
+        if (event.getType() != DomainEvent.Type.PURCHASE_COMPLETED) {
+            return;
+        }
+        Purchase purchase = event.getPurchase();
+        long items = 0;
+        for (PurchaseItem item : purchase.getItems()) {
+            items += item.getQuantity();
+        }
+        purchases++;
+        itemsSold += items;
+        revenueMinor += purchase.getTotalAmountMinor();
+    }
+
+    public long getPurchases() {
+        return purchases;
+    }
+
+    public long getItemsSold() {
+        return itemsSold;
+    }
+
+    public long getRevenueMinor() {
+        return revenueMinor;
+    }
+}
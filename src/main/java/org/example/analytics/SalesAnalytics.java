@@ -0,0 +1,153 @@
+package org.example.analytics;
+
+import org.example.journal.PurchaseLogReader;
+import org.example.model.Money;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+// Отчет по продажам за один проход по двоичному журналу покупок, курсором без создания
+// объектов на каждую запись. Большой журнал делится на участки по границам записей
+// (легкий проход только по полям длины), участки считаются параллельно и объединяются по порядку.
+// Повторный запуск продолжает с сохраненного в отчете смещения и не читает уже учтенные записи.
+public class SalesAnalytics {
+
+    public static final long DEFAULT_SPLIT_SIZE = 64L * 1024 * 1024;
+    private static final long HOUR_MILLIS = 3_600_000;
+
+    private final ZoneId zone;
+    private final int parallelism;
+    private final long splitSize;
+
+    public SalesAnalytics() {
+        this(ZoneId.systemDefault(), Runtime.getRuntime().availableProcessors(), DEFAULT_SPLIT_SIZE);
+    }
+
+    public SalesAnalytics(ZoneId zone, int parallelism, long splitSize) {
+        this.zone = zone;
+        this.parallelism = Math.max(1, parallelism);
+        this.splitSize = Math.max(1, splitSize);
+    }
+
+    public SalesReport analyze(Path log) throws IOException {
+        return update(new SalesReport(), log);
+    }
+
+    // Добавляет к отчету записи, появившиеся после report.getProcessedOffset(); возвращает
+    // обновленный отчет. Если журнал стал короче учтенного, он был заменен - отчет строится заново.
+    public SalesReport update(SalesReport report, Path log) throws IOException {
+        if (!Files.exists(log)) {
+            return report;
+        }
+        long start = report.getProcessedOffset();
+        if (Files.size(log) < start) {
+            report = new SalesReport();
+            start = 0;
+        }
+        List<long[]> splits = split(log, start);
+        if (splits.size() == 1 || parallelism == 1) {
+            for (long[] split : splits) {
+                report.merge(scan(log, split[0], split[1]));
+            }
+            return report;
+        }
+
+        ForkJoinPool pool = new ForkJoinPool(Math.min(parallelism, splits.size()));
+        try {
+            List<Future<SalesReport>> parts = new ArrayList<>(splits.size());
+            for (long[] split : splits) {
+                parts.add(pool.submit(() -> {
+                    try {
+                        return scan(log, split[0], split[1]);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }));
+            }
+            for (Future<SalesReport> part : parts) {
+                report.merge(part.get());
+            }
+            return report;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Построение отчета прервано", e);
+        } catch (ExecutionException e) {
+            throw new IOException("Ошибка при чтении журнала покупок", e.getCause());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    // Участки [начало, конец) около splitSize байт; последний заканчивается на последней целой записи
+    private List<long[]> split(Path log, long start) throws IOException {
+        List<long[]> splits = new ArrayList<>();
+        if (Files.size(log) - start <= splitSize) {
+            splits.add(new long[]{start, Long.MAX_VALUE});
+            return splits;
+        }
+        try (PurchaseLogReader reader = new PurchaseLogReader(log, start)) {
+            long boundary = start;
+            while (reader.next()) {
+                if (reader.recordOffset() - boundary >= splitSize) {
+                    splits.add(new long[]{boundary, reader.recordOffset()});
+                    boundary = reader.recordOffset();
+                }
+            }
+            splits.add(new long[]{boundary, reader.nextOffset()});
+        }
+        return splits;
+    }
+
+    private SalesReport scan(Path log, long from, long to) throws IOException {
+        SalesReport part = new SalesReport();
+        HourBucket bucket = new HourBucket(zone);
+        try (PurchaseLogReader reader = new PurchaseLogReader(log, from, to)) {
+            while (reader.next()) {
+                bucket.locate(reader.epochMillis());
+                part.addPurchase(reader.customerId(), bucket.epochDay, bucket.hour, reader.totalAmountMinor());
+                for (int line = 0; line < reader.lineCount(); line++) {
+                    int quantity = reader.quantity(line);
+                    part.addLine(reader.productId(line), quantity, Money.times(reader.unitPriceMinor(line), quantity));
+                }
+            }
+            part.setProcessedOffset(reader.nextOffset());
+        }
+        return part;
+    }
+
+    // Час и день покупки в часовом поясе отчета. Покупки идут по времени, поэтому границы
+    // текущего часа кэшируются и пересчитываются через ZoneId раз в час данных, а не на каждую запись.
+    private static final class HourBucket {
+        private final ZoneId zone;
+        private long hourStart = 1;
+        private long hourEnd = 0;
+        long epochDay;
+        int hour;
+
+        HourBucket(ZoneId zone) {
+            this.zone = zone;
+        }
+
+        void locate(long epochMillis) {
+            if (epochMillis >= hourStart && epochMillis < hourEnd) {
+                return;
+            }
+            ZonedDateTime time = Instant.ofEpochMilli(epochMillis).atZone(zone);
+            hourStart = time.truncatedTo(ChronoUnit.HOURS).toInstant().toEpochMilli();
+            hourEnd = hourStart + HOUR_MILLIS;
+            epochDay = time.toLocalDate().toEpochDay();
+            hour = time.getHour();
+        }
+    }
+}
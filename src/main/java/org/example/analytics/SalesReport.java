@@ -0,0 +1,216 @@
+package org.example.analytics;
+
+import org.example.model.Money;
+import org.example.util.IntObjectMap;
+
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.PriorityQueue;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+// Агрегаты продаж по журналу покупок. Память зависит от числа дней, продуктов и покупателей,
+// но не от длины журнала. Суммы - в копейках. Частичные отчеты по участкам файла объединяются merge.
+public class SalesReport {
+
+    static final int HOURS = 24;
+
+    private long purchases;
+    private long revenueMinor;
+    private long itemsSold;
+    private long processedOffset;   // журнал обработан до этого смещения
+    private final long[] hourlyPurchases = new long[HOURS];
+    private final long[] hourlyRevenueMinor = new long[HOURS];
+    // день (номер от эпохи) -> {выручка, покупок}
+    private final TreeMap<Long, long[]> daily = new TreeMap<>();
+    // ID продукта -> {продано штук, выручка}
+    private final IntObjectMap<long[]> products = new IntObjectMap<>();
+    // ID покупателя -> {покупок, потрачено}
+    private final IntObjectMap<long[]> customers = new IntObjectMap<>();
+
+    void addPurchase(int customerId, long epochDay, int hour, long totalMinor) {
+        purchases++;
+        revenueMinor = Money.add(revenueMinor, totalMinor);
+        hourlyPurchases[hour]++;
+        hourlyRevenueMinor[hour] = Money.add(hourlyRevenueMinor[hour], totalMinor);
+        long[] day = daily.computeIfAbsent(epochDay, key -> new long[2]);
+        day[0] = Money.add(day[0], totalMinor);
+        day[1]++;
+        long[] customer = counters(customers, customerId);
+        customer[0]++;
+        customer[1] = Money.add(customer[1], totalMinor);
+    }
+
+    void addLine(int productId, int quantity, long amountMinor) {
+        itemsSold += quantity;
+        long[] product = counters(products, productId);
+        product[0] += quantity;
+        product[1] = Money.add(product[1], amountMinor);
+    }
+
+    void setProcessedOffset(long processedOffset) {
+        this.processedOffset = processedOffset;
+    }
+
+    void setTotals(long purchases, long revenueMinor, long itemsSold) {
+        this.purchases = purchases;
+        this.revenueMinor = revenueMinor;
+        this.itemsSold = itemsSold;
+    }
+
+    void setHour(int hour, long purchases, long revenueMinor) {
+        hourlyPurchases[hour] = purchases;
+        hourlyRevenueMinor[hour] = revenueMinor;
+    }
+
+    void setDay(long epochDay, long revenueMinor, long purchases) {
+        daily.put(epochDay, new long[]{revenueMinor, purchases});
+    }
+
+    void setProduct(int productId, long quantity, long revenueMinor) {
+        products.put(productId, new long[]{quantity, revenueMinor});
+    }
+
+    void setCustomer(int customerId, long purchases, long spendMinor) {
+        customers.put(customerId, new long[]{purchases, spendMinor});
+    }
+
+    // Добавляет отчет по следующему участку журнала
+    void merge(SalesReport other) {
+        purchases += other.purchases;
+        revenueMinor = Money.add(revenueMinor, other.revenueMinor);
+        itemsSold += other.itemsSold;
+        for (int hour = 0; hour < HOURS; hour++) {
+            hourlyPurchases[hour] += other.hourlyPurchases[hour];
+            hourlyRevenueMinor[hour] = Money.add(hourlyRevenueMinor[hour], other.hourlyRevenueMinor[hour]);
+        }
+        other.daily.forEach((epochDay, values) -> {
+            long[] day = daily.computeIfAbsent(epochDay, key -> new long[2]);
+            day[0] = Money.add(day[0], values[0]);
+            day[1] += values[1];
+        });
+        mergeCounters(products, other.products);
+        mergeCounters(customers, other.customers);
+        processedOffset = Math.max(processedOffset, other.processedOffset);
+    }
+
+    public long getPurchases() {
+        return purchases;
+    }
+
+    public long getRevenueMinor() {
+        return revenueMinor;
+    }
+
+    public long getItemsSold() {
+        return itemsSold;
+    }
+
+    public long getProcessedOffset() {
+        return processedOffset;
+    }
+
+    public SortedMap<LocalDate, Long> getDailyRevenueMinor() {
+        TreeMap<LocalDate, Long> result = new TreeMap<>();
+        daily.forEach((epochDay, values) -> result.put(LocalDate.ofEpochDay(epochDay), values[0]));
+        return Collections.unmodifiableSortedMap(result);
+    }
+
+    public long[] getHourlyPurchases() {
+        return hourlyPurchases.clone();
+    }
+
+    public long[] getHourlyRevenueMinor() {
+        return hourlyRevenueMinor.clone();
+    }
+
+    public long getProductQuantity(int productId) {
+        long[] product = products.get(productId);
+        return product == null ? 0 : product[0];
+    }
+
+    public long getProductRevenueMinor(int productId) {
+        long[] product = products.get(productId);
+        return product == null ? 0 : product[1];
+    }
+
+    public long getCustomerPurchases(int customerId) {
+        long[] customer = customers.get(customerId);
+        return customer == null ? 0 : customer[0];
+    }
+
+    public long getCustomerSpendMinor(int customerId) {
+        long[] customer = customers.get(customerId);
+        return customer == null ? 0 : customer[1];
+    }
+
+    // ID n продуктов с наибольшей выручкой, по убыванию
+    public int[] topProductsByRevenue(int n) {
+        return top(products, n);
+    }
+
+    // ID n покупателей с наибольшими тратами, по убыванию
+    public int[] topCustomersBySpend(int n) {
+        return top(customers, n);
+    }
+
+    int dayCount() {
+        return daily.size();
+    }
+
+    void forEachDay(DayConsumer consumer) {
+        daily.forEach((epochDay, values) -> consumer.accept(epochDay, values[0], values[1]));
+    }
+
+    IntObjectMap<long[]> products() {
+        return products;
+    }
+
+    IntObjectMap<long[]> customers() {
+        return customers;
+    }
+
+    interface DayConsumer {
+        void accept(long epochDay, long revenueMinor, long purchases);
+    }
+
+    private static long[] counters(IntObjectMap<long[]> map, int id) {
+        long[] values = map.get(id);
+        if (values == null) {
+            values = new long[2];
+            map.put(id, values);
+        }
+        return values;
+    }
+
+    private static void mergeCounters(IntObjectMap<long[]> target, IntObjectMap<long[]> source) {
+        for (int i = 0; i < source.size(); i++) {
+            long[] values = counters(target, source.keyAt(i));
+            long[] added = source.valueAt(i);
+            values[0] += added[0];
+            values[1] = Money.add(values[1], added[1]);
+        }
+    }
+
+    // Куча размера n по второму счетчику (сумме): O(m log n) без сортировки всех записей
+    private static int[] top(IntObjectMap<long[]> map, int n) {
+        if (n <= 0) {
+            return new int[0];
+        }
+        PriorityQueue<Integer> heap = new PriorityQueue<>(n + 1, (left, right) -> {
+            int bySum = Long.compare(map.valueAt(left)[1], map.valueAt(right)[1]);
+            return bySum != 0 ? bySum : Integer.compare(map.keyAt(right), map.keyAt(left));
+        });
+        for (int i = 0; i < map.size(); i++) {
+            heap.add(i);
+            if (heap.size() > n) {
+                heap.poll();
+            }
+        }
+        int[] result = new int[heap.size()];
+        for (int i = result.length - 1; i >= 0; i--) {
+            result[i] = map.keyAt(heap.poll());
+        }
+        return result;
+    }
+}
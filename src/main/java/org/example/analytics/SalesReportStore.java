@@ -0,0 +1,112 @@
+package org.example.analytics;
+
+import org.example.journal.RecordBuffer;
+import org.example.util.IntObjectMap;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+// Сохраненное состояние отчета для инкрементальных запусков:
+//   int MAGIC, int VERSION, long смещение в журнале, long покупок, long выручка, long продано штук,
+//   24 x (long покупок, long выручка) по часам,
+//   int число дней, затем (long день от эпохи, long выручка, long покупок),
+//   int число продуктов, затем (int ID, long штук, long выручка),
+//   int число покупателей, затем (int ID, long покупок, long потрачено)
+public class SalesReportStore {
+
+    private static final int MAGIC = 0x47535250; // "GSRP"
+    private static final int VERSION = 1;
+
+    private final Path file;
+
+    public SalesReportStore(Path file) {
+        this.file = file;
+    }
+
+    // Возвращает пустой отчет, если состояние еще не сохранялось
+    public SalesReport load() throws IOException {
+        SalesReport report = new SalesReport();
+        if (!Files.isRegularFile(file)) {
+            return report;
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(file));
+        try {
+            if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+                throw new IOException("Файл не является состоянием отчета версии " + VERSION + ": " + file);
+            }
+            report.setProcessedOffset(buffer.getLong());
+            report.setTotals(buffer.getLong(), buffer.getLong(), buffer.getLong());
+            for (int hour = 0; hour < SalesReport.HOURS; hour++) {
+                report.setHour(hour, buffer.getLong(), buffer.getLong());
+            }
+            for (int i = buffer.getInt(); i > 0; i--) {
+                report.setDay(buffer.getLong(), buffer.getLong(), buffer.getLong());
+            }
+            for (int i = buffer.getInt(); i > 0; i--) {
+                report.setProduct(buffer.getInt(), buffer.getLong(), buffer.getLong());
+            }
+            for (int i = buffer.getInt(); i > 0; i--) {
+                report.setCustomer(buffer.getInt(), buffer.getLong(), buffer.getLong());
+            }
+        } catch (BufferUnderflowException e) {
+            throw new IOException("Состояние отчета повреждено: " + file, e);
+        }
+        return report;
+    }
+
+    public void save(SalesReport report) throws IOException {
+        RecordBuffer out = new RecordBuffer(1024 + (report.products().size() + report.customers().size()) * 20);
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeLong(report.getProcessedOffset());
+        out.writeLong(report.getPurchases());
+        out.writeLong(report.getRevenueMinor());
+        out.writeLong(report.getItemsSold());
+        long[] hourlyPurchases = report.getHourlyPurchases();
+        long[] hourlyRevenue = report.getHourlyRevenueMinor();
+        for (int hour = 0; hour < SalesReport.HOURS; hour++) {
+            out.writeLong(hourlyPurchases[hour]);
+            out.writeLong(hourlyRevenue[hour]);
+        }
+        out.writeInt(report.dayCount());
+        report.forEachDay((epochDay, revenueMinor, purchases) -> {
+            out.writeLong(epochDay);
+            out.writeLong(revenueMinor);
+            out.writeLong(purchases);
+        });
+        writeCounters(out, report.products());
+        writeCounters(out, report.customers());
+
+        // Свой временный файл на каждое сохранение: отчеты с разных касс не пишут в один файл,
+        // а переименование оставляет целым состояние последнего из них
+        Path directory = file.toAbsolutePath().getParent();
+        Path temp = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                ByteBuffer buffer = out.asByteBuffer();
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                channel.force(true);
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private static void writeCounters(RecordBuffer out, IntObjectMap<long[]> counters) {
+        out.writeInt(counters.size());
+        for (int i = 0; i < counters.size(); i++) {
+            out.writeInt(counters.keyAt(i));
+            out.writeLong(counters.valueAt(i)[0]);
+            out.writeLong(counters.valueAt(i)[1]);
+        }
+    }
+}
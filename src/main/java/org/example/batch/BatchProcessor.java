@@ -0,0 +1,237 @@
+package org.example.batch;
+
+import org.example.InputValidator;
+import org.example.interfaces.ICustomerManager;
+import org.example.interfaces.IProductManager;
+import org.example.interfaces.IPurchaseManager;
+import org.example.interfaces.Input;
+import org.example.model.Basket;
+import org.example.model.Customer;
+import org.example.model.Product;
+import org.example.model.PurchaseResult;
+import org.example.storage.IdAllocator;
+import org.example.validation.NumberParser;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Пакетный режим: команды читаются по одной на строку и выполняются без меню, подсказок
+// и вывода списков. Поля разделяются ';', пустые строки и строки с '#' пропускаются:
+//   add-product;Яблоки;1.99;50
+//   update-product;1;Яблоки;2.10;40
+//   delete-product;1
+//   add-customer;Анна;1000.00
+//   delete-customer;1
+//   purchase;<ID покупателя>;<ID продукта>;<количество>
+//   checkout;<ID покупателя>;<ID продукта>:<количество>,<ID продукта>:<количество>
+public class BatchProcessor {
+
+    private final IProductManager productManager;
+    private final ICustomerManager customerManager;
+    private final IPurchaseManager purchaseManager;
+    private final IdAllocator idAllocator;
+
+    public BatchProcessor(IProductManager productManager, ICustomerManager customerManager,
+                          IPurchaseManager purchaseManager, IdAllocator idAllocator) {
+        this.productManager = productManager;
+        this.customerManager = customerManager;
+        this.purchaseManager = purchaseManager;
+        this.idAllocator = idAllocator;
+    }
+
+    public BatchSummary run(Input input) {
+        BatchSummary summary = new BatchSummary();
+        long started = System.nanoTime();
+        long lineNumber = 0;
+        List<String> fields = new ArrayList<>(8);
+        String line;
+        while ((line = input.nextLine()) != null) {
+            lineNumber++;
+            if (line.isBlank() || line.charAt(0) == '#') {
+                continue;
+            }
+            split(line, fields);
+            String error = execute(fields, summary);
+            if (error == null) {
+                summary.commandSucceeded();
+            } else {
+                summary.commandRejected(lineNumber, error);
+            }
+        }
+        summary.setElapsedNanos(System.nanoTime() - started);
+        return summary;
+    }
+
+    // Возвращает null при успехе или причину отказа
+    private String execute(List<String> fields, BatchSummary summary) {
+        String command = fields.get(0);
+        return switch (command) {
+            case "add-product" -> fields.size() == 4 ? addProduct(fields) : wrongArity(command);
+            case "update-product" -> fields.size() == 5 ? updateProduct(fields) : wrongArity(command);
+            case "delete-product" -> fields.size() == 2 ? deleteProduct(fields) : wrongArity(command);
+            case "add-customer" -> fields.size() == 3 ? addCustomer(fields) : wrongArity(command);
+            case "delete-customer" -> fields.size() == 2 ? deleteCustomer(fields) : wrongArity(command);
+            case "purchase" -> fields.size() == 4 ? purchase(fields, summary) : wrongArity(command);
+            case "checkout" -> fields.size() == 3 ? checkout(fields, summary) : wrongArity(command);
+            default -> "неизвестная команда " + command;
+        };
+    }
+
+    private String addProduct(List<String> fields) {
+        String name = fields.get(1);
+        long priceMinor = NumberParser.parseMinor(fields.get(2));
+        long quantity = NumberParser.parseInt(fields.get(3));
+        if (priceMinor == NumberParser.INVALID || quantity == NumberParser.INVALID) {
+            return wrongNumber(fields);
+        }
+        String violation = InputValidator.STORED_NAME.firstViolation(name);
+        if (violation != null) {
+            return violation + ": " + name;
+        }
+        if (productManager.findByName(name) != null) {
+            return "название продукта уже существует: " + name;
+        }
+        if (priceMinor <= 0 || quantity <= 0) {
+            return "цена и количество должны быть положительными";
+        }
+        int id = idAllocator.nextId(IdAllocator.Kind.PRODUCT);
+        productManager.addProduct(Product.withPriceMinor(id, name, priceMinor, (int) quantity));
+        return null;
+    }
+
+    private String updateProduct(List<String> fields) {
+        long productId = NumberParser.parseInt(fields.get(1));
+        String name = fields.get(2);
+        long priceMinor = NumberParser.parseMinor(fields.get(3));
+        long quantity = NumberParser.parseInt(fields.get(4));
+        if (productId == NumberParser.INVALID || priceMinor == NumberParser.INVALID || quantity == NumberParser.INVALID) {
+            return wrongNumber(fields);
+        }
+        if (productManager.findById((int) productId) == null) {
+            return "продукт с ID " + productId + " не найден";
+        }
+        String violation = InputValidator.STORED_NAME.firstViolation(name);
+        if (violation != null) {
+            return violation + ": " + name;
+        }
+        if (priceMinor <= 0 || quantity <= 0) {
+            return "цена и количество должны быть положительными";
+        }
+        Product owner = productManager.findByName(name);
+        if (owner != null && owner.getId() != productId) {
+            return "название продукта уже занято продуктом с ID " + owner.getId() + ": " + name;
+        }
+        productManager.updateProduct((int) productId,
+                Product.withPriceMinor((int) productId, name, priceMinor, (int) quantity));
+        return null;
+    }
+
+    private String deleteProduct(List<String> fields) {
+        long parsed = NumberParser.parseInt(fields.get(1));
+        if (parsed == NumberParser.INVALID) {
+            return wrongNumber(fields);
+        }
+        int productId = (int) parsed;
+        if (productManager.findById(productId) == null) {
+            return "продукт с ID " + productId + " не найден";
+        }
+        productManager.deleteProduct(productId);
+        return null;
+    }
+
+    private String addCustomer(List<String> fields) {
+        String name = fields.get(1);
+        long balanceMinor = NumberParser.parseMinor(fields.get(2));
+        if (balanceMinor == NumberParser.INVALID) {
+            return wrongNumber(fields);
+        }
+        String violation = InputValidator.STORED_NAME.firstViolation(name);
+        if (violation != null) {
+            return violation + ": " + name;
+        }
+        if (balanceMinor <= 0) {
+            return "баланс должен быть положительным";
+        }
+        int id = idAllocator.nextId(IdAllocator.Kind.CUSTOMER);
+        customerManager.addCustomer(Customer.withBalanceMinor(id, name, balanceMinor));
+        return null;
+    }
+
+    private String deleteCustomer(List<String> fields) {
+        long parsed = NumberParser.parseInt(fields.get(1));
+        if (parsed == NumberParser.INVALID) {
+            return wrongNumber(fields);
+        }
+        int customerId = (int) parsed;
+        if (!customerManager.contains(customerId)) {
+            return "покупатель с ID " + customerId + " не найден";
+        }
+        customerManager.deleteCustomer(customerId);
+        return null;
+    }
+
+    private String purchase(List<String> fields, BatchSummary summary) {
+        long customerId = NumberParser.parseInt(fields.get(1));
+        long productId = NumberParser.parseInt(fields.get(2));
+        long quantity = NumberParser.parseInt(fields.get(3));
+        if (customerId == NumberParser.INVALID || productId == NumberParser.INVALID || quantity == NumberParser.INVALID) {
+            return wrongNumber(fields);
+        }
+        PurchaseResult result = purchaseManager.makePurchase((int) customerId, (int) productId, (int) quantity);
+        summary.purchaseFinished(result.getStatus());
+        return result.isSuccess() ? null : "покупка не выполнена: " + result.getStatus();
+    }
+
+    private String checkout(List<String> fields, BatchSummary summary) {
+        long customerId = NumberParser.parseInt(fields.get(1));
+        if (customerId == NumberParser.INVALID) {
+            return wrongNumber(fields);
+        }
+        String lines = fields.get(2);
+        Basket basket = new Basket();
+        int start = 0;
+        while (start < lines.length()) {
+            int end = lines.indexOf(',', start);
+            if (end < 0) {
+                end = lines.length();
+            }
+            int colon = lines.indexOf(':', start);
+            if (colon < 0 || colon > end) {
+                return "позиция корзины должна иметь вид <ID продукта>:<количество>";
+            }
+            long productId = NumberParser.parseInt(lines.substring(start, colon).trim());
+            long quantity = NumberParser.parseInt(lines.substring(colon + 1, end).trim());
+            if (productId == NumberParser.INVALID || quantity == NumberParser.INVALID) {
+                return wrongNumber(fields);
+            }
+            if (quantity <= 0) {
+                return "количество в корзине должно быть положительным";
+            }
+            basket.addLine((int) productId, (int) quantity);
+            start = end + 1;
+        }
+        PurchaseResult result = purchaseManager.checkout((int) customerId, basket);
+        summary.purchaseFinished(result.getStatus());
+        return result.isSuccess() ? null : "корзина не оплачена: " + result.getStatus();
+    }
+
+    private static String wrongNumber(List<String> fields) {
+        return "неверное число в команде " + fields.get(0);
+    }
+
+    private static String wrongArity(String command) {
+        return "неверное число полей в команде " + command;
+    }
+
+    // Разбор по ';' без регулярных выражений, список переиспользуется между строками
+    private static void split(String line, List<String> fields) {
+        fields.clear();
+        int start = 0;
+        int end;
+        while ((end = line.indexOf(';', start)) >= 0) {
+            fields.add(line.substring(start, end).trim());
+            start = end + 1;
+        }
+        fields.add(line.substring(start).trim());
+    }
+}
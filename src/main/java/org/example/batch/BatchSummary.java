@@ -0,0 +1,66 @@
+package org.example.batch;
+
+import org.example.model.PurchaseResult;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+// Итог пакетного прогона: сколько команд выполнено, отклонено и чем закончились покупки
+public class BatchSummary {
+
+    private static final int MAX_REPORTED_ERRORS = 20;
+
+    private final long[] purchaseStatuses = new long[PurchaseResult.Status.values().length];
+    private final List<String> errors = new ArrayList<>();
+    private long commands;
+    private long succeeded;
+    private long rejected;
+    private long elapsedNanos;
+
+    void commandSucceeded() {
+        commands++;
+        succeeded++;
+    }
+
+    // Полный список ошибок не храним: на миллионе строк он сам стал бы проблемой
+    void commandRejected(long lineNumber, String reason) {
+        commands++;
+        rejected++;
+        if (errors.size() < MAX_REPORTED_ERRORS) {
+            errors.add("строка " + lineNumber + ": " + reason);
+        }
+    }
+
+    void purchaseFinished(PurchaseResult.Status status) {
+        purchaseStatuses[status.ordinal()]++;
+    }
+
+    void setElapsedNanos(long elapsedNanos) {
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public long getCommands() {
+        return commands;
+    }
+
+    public long getSucceeded() {
+        return succeeded;
+    }
+
+    public long getRejected() {
+        return rejected;
+    }
+
+    public long getPurchases(PurchaseResult.Status status) {
+        return purchaseStatuses[status.ordinal()];
+    }
+
+    public List<String> getErrors() {
+        return Collections.unmodifiableList(errors);
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+}
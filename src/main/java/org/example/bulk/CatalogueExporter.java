@@ -0,0 +1,98 @@
+package org.example.bulk;
+
+import org.example.interfaces.ICustomerManager;
+import org.example.interfaces.IProductManager;
+import org.example.model.Customer;
+import org.example.model.Money;
+import org.example.model.Product;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+// Выгрузка каталога в CSV в формате импорта, с заголовком и ID. Записи идут потоком из менеджеров,
+// без копии каталога в памяти; строка собирается в одном переиспользуемом буфере. Название с ',',
+// кавычкой или переводом строки берется в кавычки, поэтому CatalogueImporter читает файл обратно.
+public class CatalogueExporter {
+
+    private static final int WRITE_BUFFER_CHARS = 64 * 1024;
+
+    private final IProductManager productManager;
+    private final ICustomerManager customerManager;
+
+    public CatalogueExporter(IProductManager productManager, ICustomerManager customerManager) {
+        this.productManager = productManager;
+        this.customerManager = customerManager;
+    }
+
+    // Возвращает количество выгруженных продуктов. Выгружается свободный остаток без резервов касс:
+    // импорт по названию ставит его свободным остатком, а резервы продукта остаются при нем
+    public long exportProducts(Path file) throws IOException {
+        long exported = 0;
+        try (BufferedWriter writer = open(file);
+             Stream<Product> products = productManager.streamProducts()) {
+            writer.write("id,name,price,quantity\n");
+            StringBuilder line = new StringBuilder(128);
+            Iterator<Product> iterator = products.iterator();
+            while (iterator.hasNext()) {
+                Product product = iterator.next();
+                line.setLength(0);
+                appendField(line.append(product.getId()).append(','), product.getName()).append(',');
+                Money.appendTo(line, product.getPriceMinor()).append(',')
+                        .append(product.getQuantity()).append('\n');
+                writer.append(line);
+                exported++;
+            }
+        }
+        return exported;
+    }
+
+    public long exportCustomers(Path file) throws IOException {
+        long exported = 0;
+        try (BufferedWriter writer = open(file);
+             Stream<Customer> customers = customerManager.streamCustomers()) {
+            writer.write("id,name,balance\n");
+            StringBuilder line = new StringBuilder(128);
+            Iterator<Customer> iterator = customers.iterator();
+            while (iterator.hasNext()) {
+                Customer customer = iterator.next();
+                line.setLength(0);
+                appendField(line.append(customer.getId()).append(','), customer.getName()).append(',');
+                Money.appendTo(line, customer.getBalanceMinor()).append('\n');
+                writer.append(line);
+                exported++;
+            }
+        }
+        return exported;
+    }
+
+    private static StringBuilder appendField(StringBuilder line, String value) {
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            return line.append(value);
+        }
+        line.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                line.append('"');
+            }
+            line.append(c);
+        }
+        return line.append('"');
+    }
+
+    private static BufferedWriter open(Path file) throws IOException {
+        return new BufferedWriter(new OutputStreamWriter(Files.newOutputStream(file), StandardCharsets.UTF_8),
+                WRITE_BUFFER_CHARS);
+    }
+}
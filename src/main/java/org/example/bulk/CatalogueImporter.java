@@ -0,0 +1,425 @@
+package org.example.bulk;
+
+import org.example.InputValidator;
+import org.example.interfaces.ICustomerManager;
+import org.example.interfaces.IProductManager;
+import org.example.model.Customer;
+import org.example.model.Product;
+import org.example.storage.IdAllocator;
+import org.example.validation.NumberParser;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+// Импорт каталога из CSV, поля через ',', поле в кавычках может содержать ',' и удвоенные кавычки:
+//   продукты:    [id,]название,цена,количество
+//   покупатели:  [id,]имя,баланс
+// ID из файла не используется: новые записи получают ID из распределителя, а продукт с уже
+// известным названием обновляется на месте. Строка заголовка, пустые строки и строки с '#'
+// пропускаются. Файл делится на участки по границам строк, участки разбираются параллельно
+// (fork/join), затем по порядку проверяются повторы и все записи вставляются одним пакетом.
+public class CatalogueImporter {
+
+    public static final int DEFAULT_CHUNK_BYTES = 1024 * 1024;
+    private static final int MAX_CHUNK_ERRORS = 20;
+    private static final int BOUNDARY_PROBE_BYTES = 4096;
+
+    private final IProductManager productManager;
+    private final ICustomerManager customerManager;
+    private final IdAllocator idAllocator;
+    private final int parallelism;
+    private final int chunkBytes;
+
+    public CatalogueImporter(IProductManager productManager, ICustomerManager customerManager, IdAllocator idAllocator) {
+        this(productManager, customerManager, idAllocator, Runtime.getRuntime().availableProcessors(), DEFAULT_CHUNK_BYTES);
+    }
+
+    public CatalogueImporter(IProductManager productManager, ICustomerManager customerManager, IdAllocator idAllocator,
+                             int parallelism, int chunkBytes) {
+        this.productManager = productManager;
+        this.customerManager = customerManager;
+        this.idAllocator = idAllocator;
+        this.parallelism = Math.max(1, parallelism);
+        this.chunkBytes = Math.max(1, chunkBytes);
+    }
+
+    public ImportSummary importProducts(Path file) throws IOException {
+        long started = System.nanoTime();
+        ImportSummary summary = new ImportSummary();
+        List<ProductRow> rows = parse(file, CatalogueImporter::parseProduct, summary);
+
+        // Повтор названия в самом файле отклоняется, остается первая строка
+        Map<String, ProductRow> seen = new HashMap<>(rows.size() * 2);
+        List<Product> batch = new ArrayList<>(rows.size());
+        List<ProductRow> fresh = new ArrayList<>();
+        for (ProductRow row : rows) {
+            if (seen.putIfAbsent(row.name.toLowerCase(Locale.ROOT), row) != null) {
+                summary.rowRejected(row.line, "название повторяется в файле: " + row.name);
+                continue;
+            }
+            Product existing = productManager.findByName(row.name);
+            if (existing != null) {
+                batch.add(Product.withPriceMinor(existing.getId(), row.name, row.priceMinor, row.quantity));
+                summary.rowUpdated();
+            } else {
+                fresh.add(row);
+            }
+        }
+        if (!fresh.isEmpty()) {
+            int firstId = idAllocator.reserveBlock(IdAllocator.Kind.PRODUCT, fresh.size());
+            for (int i = 0; i < fresh.size(); i++) {
+                ProductRow row = fresh.get(i);
+                batch.add(Product.withPriceMinor(firstId + i, row.name, row.priceMinor, row.quantity));
+            }
+            summary.rowsAdded(fresh.size());
+        }
+        productManager.addProducts(batch);
+        summary.setElapsedNanos(System.nanoTime() - started);
+        return summary;
+    }
+
+    // Имена покупателей не уникальны, поэтому каждая строка - новый покупатель
+    public ImportSummary importCustomers(Path file) throws IOException {
+        long started = System.nanoTime();
+        ImportSummary summary = new ImportSummary();
+        List<CustomerRow> rows = parse(file, CatalogueImporter::parseCustomer, summary);
+
+        List<Customer> batch = new ArrayList<>(rows.size());
+        if (!rows.isEmpty()) {
+            int firstId = idAllocator.reserveBlock(IdAllocator.Kind.CUSTOMER, rows.size());
+            for (int i = 0; i < rows.size(); i++) {
+                CustomerRow row = rows.get(i);
+                batch.add(Customer.withBalanceMinor(firstId + i, row.name, row.balanceMinor));
+            }
+            summary.rowsAdded(rows.size());
+        }
+        customerManager.addCustomers(batch);
+        summary.setElapsedNanos(System.nanoTime() - started);
+        return summary;
+    }
+
+    private static ProductRow parseProduct(List<String> fields, Chunk<ProductRow> chunk) {
+        int offset = fields.size() == 4 ? 1 : 0;
+        if (fields.size() != 3 + offset) {
+            chunk.reject("ожидается [id,]название,цена,количество");
+            return null;
+        }
+        String name = fields.get(offset);
+        String violation = InputValidator.STORED_NAME.firstViolation(name);
+        if (violation != null) {
+            chunk.reject(violation + ": " + name);
+            return null;
+        }
+        long priceMinor = NumberParser.parseMinor(fields.get(offset + 1));
+        long quantity = NumberParser.parseInt(fields.get(offset + 2));
+        if (priceMinor == NumberParser.INVALID || quantity == NumberParser.INVALID) {
+            chunk.reject("неверное число: " + String.join(",", fields));
+            return null;
+        }
+        if (!InputValidator.isValidPrice(priceMinor) || !InputValidator.isValidQuantity((int) quantity)) {
+            chunk.reject("цена и количество должны быть положительными");
+            return null;
+        }
+        return new ProductRow(name, priceMinor, (int) quantity);
+    }
+
+    private static CustomerRow parseCustomer(List<String> fields, Chunk<CustomerRow> chunk) {
+        int offset = fields.size() == 3 ? 1 : 0;
+        if (fields.size() != 2 + offset) {
+            chunk.reject("ожидается [id,]имя,баланс");
+            return null;
+        }
+        String name = fields.get(offset);
+        String violation = InputValidator.STORED_NAME.firstViolation(name);
+        if (violation != null) {
+            chunk.reject(violation + ": " + name);
+            return null;
+        }
+        long balanceMinor = NumberParser.parseMinor(fields.get(offset + 1));
+        if (balanceMinor == NumberParser.INVALID) {
+            chunk.reject("неверное число: " + String.join(",", fields));
+            return null;
+        }
+        if (!InputValidator.isValidBalance(balanceMinor)) {
+            chunk.reject("баланс должен быть положительным");
+            return null;
+        }
+        return new CustomerRow(name, balanceMinor);
+    }
+
+    // Разбор участков и склейка результатов по порядку: номера строк становятся сквозными
+    private <T extends Row> List<T> parse(Path file, RowParser<T> parser, ImportSummary summary) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long[] bounds = split(channel);
+            Chunk<T>[] chunks = newChunks(bounds.length - 1);
+            ParseTask<T> task = new ParseTask<>(channel, bounds, chunks, parser, 0, chunks.length);
+            if (chunks.length == 1 || parallelism == 1) {
+                task.parseRange();
+            } else {
+                ForkJoinPool pool = new ForkJoinPool(Math.min(parallelism, chunks.length));
+                try {
+                    pool.invoke(task);
+                } catch (UncheckedIOException e) {
+                    throw e.getCause();
+                } finally {
+                    pool.shutdown();
+                }
+            }
+
+            int total = 0;
+            for (Chunk<T> chunk : chunks) {
+                total += chunk.rows.size();
+            }
+            List<T> rows = new ArrayList<>(total);
+            long baseLine = 0;
+            for (Chunk<T> chunk : chunks) {
+                for (T row : chunk.rows) {
+                    row.line += baseLine;
+                    rows.add(row);
+                }
+                for (Rejection rejection : chunk.rejections) {
+                    summary.rowRejected(baseLine + rejection.line, rejection.reason);
+                }
+                summary.rowsRejectedWithoutReason(chunk.rejected - chunk.rejections.size());
+                baseLine += chunk.lines;
+            }
+            return rows;
+        }
+    }
+
+    // Границы участков около chunkBytes байт, каждая - сразу после перевода строки
+    private long[] split(FileChannel channel) throws IOException {
+        long size = channel.size();
+        List<Long> bounds = new ArrayList<>();
+        bounds.add(0L);
+        ByteBuffer probe = ByteBuffer.allocate(BOUNDARY_PROBE_BYTES);
+        long position = chunkBytes;
+        while (position < size) {
+            long boundary = -1;
+            long scan = position;
+            while (boundary < 0 && scan < size) {
+                probe.clear();
+                int read = channel.read(probe, scan);
+                for (int i = 0; i < read; i++) {
+                    if (probe.get(i) == '\n') {
+                        boundary = scan + i + 1;
+                        break;
+                    }
+                }
+                scan += read;
+            }
+            if (boundary < 0 || boundary >= size) {
+                break;
+            }
+            bounds.add(boundary);
+            position = boundary + chunkBytes;
+        }
+        bounds.add(size);
+        long[] result = new long[bounds.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = bounds.get(i);
+        }
+        return result;
+    }
+
+    private static <T extends Row> Chunk<T> parseChunk(FileChannel channel, long from, long to, RowParser<T> parser)
+            throws IOException {
+        byte[] bytes = new byte[Math.toIntExact(to - from)];
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, from + buffer.position()) < 0) {
+                break;
+            }
+        }
+        // Участок начинается сразу после '\n', поэтому многобайтовые символы UTF-8 не разрезаются
+        String text = new String(bytes, 0, buffer.position(), StandardCharsets.UTF_8);
+        Chunk<T> chunk = new Chunk<>();
+        List<String> fields = new ArrayList<>(4);
+        int start = from == 0 && text.startsWith("\uFEFF") ? 1 : 0;
+        while (start < text.length()) {
+            int end = text.indexOf('\n', start);
+            if (end < 0) {
+                end = text.length();
+            }
+            chunk.lines++;
+            String line = text.substring(start, end).trim();
+            start = end + 1;
+            if (line.isEmpty() || line.charAt(0) == '#') {
+                continue;
+            }
+            split(line, fields);
+            if (from == 0 && chunk.lines == 1 && isHeader(fields.get(0))) {
+                continue;
+            }
+            T row = parser.parse(fields, chunk);
+            if (row != null) {
+                row.line = chunk.lines;
+                chunk.rows.add(row);
+            }
+        }
+        return chunk;
+    }
+
+    private static boolean isHeader(String firstField) {
+        return firstField.equalsIgnoreCase("id") || firstField.equalsIgnoreCase("name")
+                || firstField.equalsIgnoreCase("название") || firstField.equalsIgnoreCase("имя");
+    }
+
+    // Разбор по ',' без регулярных выражений, список переиспользуется между строками.
+    // Поле в кавычках (так их пишет CatalogueExporter) читается до закрывающей кавычки, "" - это одна кавычка
+    private static void split(String line, List<String> fields) {
+        fields.clear();
+        int start = 0;
+        while (true) {
+            int first = start;
+            while (first < line.length() && line.charAt(first) == ' ') {
+                first++;
+            }
+            if (first < line.length() && line.charAt(first) == '"') {
+                StringBuilder field = new StringBuilder();
+                int i = first + 1;
+                while (i < line.length()) {
+                    char c = line.charAt(i++);
+                    if (c != '"') {
+                        field.append(c);
+                    } else if (i < line.length() && line.charAt(i) == '"') {
+                        field.append('"');
+                        i++;
+                    } else {
+                        break;
+                    }
+                }
+                fields.add(field.toString().trim());
+                start = line.indexOf(',', i);
+                if (start < 0) {
+                    return;
+                }
+                start++;
+                continue;
+            }
+            int end = line.indexOf(',', start);
+            if (end < 0) {
+                fields.add(line.substring(start).trim());
+                return;
+            }
+            fields.add(line.substring(start, end).trim());
+            start = end + 1;
+        }
+    }
+
+    // Массив обобщенного типа создается только так; элементы кладет и читает сам импортер
+    @SuppressWarnings("unchecked")
+    private static <T> Chunk<T>[] newChunks(int length) {
+        return (Chunk<T>[]) new Chunk<?>[length];
+    }
+
+    // Делит диапазон участков пополам, пока не останется один участок.
+    // Задача живет только внутри одного импорта и никогда не сериализуется
+    @SuppressWarnings("serial")
+    private static final class ParseTask<T extends Row> extends RecursiveAction {
+        private final FileChannel channel;
+        private final long[] bounds;
+        private final Chunk<T>[] chunks;
+        private final RowParser<T> parser;
+        private final int from;
+        private final int to;
+
+        ParseTask(FileChannel channel, long[] bounds, Chunk<T>[] chunks, RowParser<T> parser, int from, int to) {
+            this.channel = channel;
+            this.bounds = bounds;
+            this.chunks = chunks;
+            this.parser = parser;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > 1) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new ParseTask<>(channel, bounds, chunks, parser, from, middle),
+                        new ParseTask<>(channel, bounds, chunks, parser, middle, to));
+                return;
+            }
+            try {
+                parseRange();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        void parseRange() throws IOException {
+            for (int i = from; i < to; i++) {
+                chunks[i] = parseChunk(channel, bounds[i], bounds[i + 1], parser);
+            }
+        }
+    }
+
+    private interface RowParser<T> {
+        // Возвращает строку каталога или null, записав причину отказа в участок
+        T parse(List<String> fields, Chunk<T> chunk);
+    }
+
+    private abstract static class Row {
+        long line; // номер строки: внутри участка при разборе, затем сквозной по файлу
+    }
+
+    private static final class ProductRow extends Row {
+        final String name;
+        final long priceMinor;
+        final int quantity;
+
+        ProductRow(String name, long priceMinor, int quantity) {
+            this.name = name;
+            this.priceMinor = priceMinor;
+            this.quantity = quantity;
+        }
+    }
+
+    private static final class CustomerRow extends Row {
+        final String name;
+        final long balanceMinor;
+
+        CustomerRow(String name, long balanceMinor) {
+            this.name = name;
+            this.balanceMinor = balanceMinor;
+        }
+    }
+
+    private static final class Rejection {
+        final long line;
+        final String reason;
+
+        Rejection(long line, String reason) {
+            this.line = line;
+            this.reason = reason;
+        }
+    }
+
+    private static final class Chunk<T> {
+        final List<T> rows = new ArrayList<>();
+        final List<Rejection> rejections = new ArrayList<>();
+        long rejected;
+        long lines;
+
+        // Отказ для текущей строки участка
+        void reject(String reason) {
+            rejected++;
+            if (rejections.size() < MAX_CHUNK_ERRORS) {
+                rejections.add(new Rejection(lines, reason));
+            }
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package org.example.bulk;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+// Итог импорта каталога: сколько строк добавлено, обновлено и отклонено
+public class ImportSummary {
+
+    private static final int MAX_REPORTED_ERRORS = 20;
+
+    private final List<String> errors = new ArrayList<>();
+    private long added;
+    private long updated;
+    private long rejected;
+    private long elapsedNanos;
+
+    void rowsAdded(long count) {
+        added += count;
+    }
+
+    void rowUpdated() {
+        updated++;
+    }
+
+    // Как и в пакетном режиме, храним только первые ошибки
+    void rowRejected(long lineNumber, String reason) {
+        rejected++;
+        if (errors.size() < MAX_REPORTED_ERRORS) {
+            errors.add("строка " + lineNumber + ": " + reason);
+        }
+    }
+
+    // Отклоненные строки, чьи причины участок разбора уже не сохранил
+    void rowsRejectedWithoutReason(long count) {
+        rejected += count;
+    }
+
+    void setElapsedNanos(long elapsedNanos) {
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public long getAdded() {
+        return added;
+    }
+
+    public long getUpdated() {
+        return updated;
+    }
+
+    public long getRejected() {
+        return rejected;
+    }
+
+    public List<String> getErrors() {
+        return Collections.unmodifiableList(errors);
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+}
@@ -0,0 +1,62 @@
+package org.example.concurrent;
+
+import java.util.Arrays;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Набор блокировок, разделенных по полосам: один ID всегда попадает в одну и ту же полосу,
+// а разные ID в основном в разные, поэтому независимые операции не ждут друг друга
+public class StripedLocks {
+
+    private final Lock[] locks;
+    private final int mask;
+
+    public StripedLocks(int stripes) {
+        if (stripes <= 0) {
+            throw new IllegalArgumentException("Количество полос должно быть положительным: " + stripes);
+        }
+        int size = Integer.highestOneBit(stripes - 1) << 1;
+        if (size == 0) {
+            size = 1;
+        }
+        this.locks = new Lock[size];
+        for (int i = 0; i < size; i++) {
+            locks[i] = new ReentrantLock();
+        }
+        this.mask = size - 1;
+    }
+
+    public int stripeCount() {
+        return locks.length;
+    }
+
+    public int indexFor(int id) {
+        int h = id * 0x9E3779B9;
+        return (h ^ (h >>> 16)) & mask;
+    }
+
+    public Lock lockFor(int id) {
+        return locks[indexFor(id)];
+    }
+
+    public Lock lockAt(int index) {
+        return locks[index];
+    }
+
+    // Уникальные номера полос для набора ID по возрастанию: в этом порядке их и нужно брать,
+    // чтобы несколько потоков с пересекающимися наборами не ждали друг друга по кругу
+    public int[] sortedIndexes(int[] ids) {
+        int[] stripes = new int[ids.length];
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = indexFor(ids[i]);
+        }
+        Arrays.sort(stripes);
+        int unique = 0;
+        for (int i = 0; i < stripes.length; i++) {
+            if (i == 0 || stripes[i] != stripes[i - 1]) {
+                stripes[unique++] = stripes[i];
+            }
+        }
+        return unique == stripes.length ? stripes : Arrays.copyOf(stripes, unique);
+    }
+}
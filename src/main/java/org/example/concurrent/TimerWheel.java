@@ -0,0 +1,101 @@
+package org.example.concurrent;
+
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Predicate;
+
+// Хешированное колесо таймеров: срок округляется до такта и задача попадает в ячейку такта
+// по модулю размера колеса. Постановка - добавление в очередь ячейки без блокировок, проход по
+// такту просматривает только одну ячейку, а не все задачи, поэтому стоимость не зависит от их числа.
+// Задачи со сроком дальше одного оборота лежат в той же ячейке и ждут своего оборота.
+// Проходы выполняет один поток; ставить задачи можно из любого.
+public class TimerWheel<T> {
+
+    private final Queue<Entry<T>>[] slots;
+    private final int mask;
+    private final long tickMillis;
+    private volatile long processedTick; // последний пройденный такт
+
+    public TimerWheel(long tickMillis, int wheelSize, long startMillis) {
+        if (tickMillis <= 0 || wheelSize <= 0) {
+            throw new IllegalArgumentException("Такт и размер колеса должны быть положительными");
+        }
+        int size = Integer.highestOneBit(Math.max(1, wheelSize - 1)) << 1;
+        this.slots = newSlots(size);
+        for (int i = 0; i < size; i++) {
+            slots[i] = new ConcurrentLinkedQueue<>();
+        }
+        this.mask = size - 1;
+        this.tickMillis = tickMillis;
+        this.processedTick = startMillis / tickMillis;
+    }
+
+    // Массив обобщенного типа создается только так; ячейки заполняются сразу после создания
+    @SuppressWarnings("unchecked")
+    private static <T> Queue<Entry<T>>[] newSlots(int size) {
+        return (Queue<Entry<T>>[]) new Queue<?>[size];
+    }
+
+    public long getTickMillis() {
+        return tickMillis;
+    }
+
+    // Срок, уже пройденный колесом, переносится на ближайший такт
+    public void schedule(long deadlineMillis, T task) {
+        long tick = Math.max(ceilTick(deadlineMillis), processedTick + 1);
+        slots[(int) (tick & mask)].add(new Entry<>(tick, task));
+    }
+
+    // Проходит такты до nowMillis включительно. expire получает задачи с наступившим сроком;
+    // задачи, для которых stale вернул true (уже подтверждены или отменены), просто удаляются.
+    public int advance(long nowMillis, Predicate<T> stale, Predicate<T> expire) {
+        long target = nowMillis / tickMillis;
+        int expired = 0;
+        if (target - processedTick >= slots.length) {
+            // Колесо отстало больше чем на оборот: каждая ячейка просматривается один раз
+            processedTick = target;
+            for (Queue<Entry<T>> slot : slots) {
+                expired += sweep(slot, target, stale, expire);
+            }
+            return expired;
+        }
+        for (long tick = processedTick + 1; tick <= target; tick++) {
+            // Такт отмечается пройденным до просмотра, чтобы новые задачи шли уже в следующие ячейки
+            processedTick = tick;
+            expired += sweep(slots[(int) (tick & mask)], tick, stale, expire);
+        }
+        return expired;
+    }
+
+    private int sweep(Queue<Entry<T>> slot, long tick, Predicate<T> stale, Predicate<T> expire) {
+        int expired = 0;
+        Iterator<Entry<T>> entries = slot.iterator();
+        while (entries.hasNext()) {
+            Entry<T> entry = entries.next();
+            if (stale.test(entry.task)) {
+                entries.remove();
+            } else if (entry.tick <= tick) {
+                entries.remove();
+                if (expire.test(entry.task)) {
+                    expired++;
+                }
+            }
+        }
+        return expired;
+    }
+
+    private long ceilTick(long millis) {
+        return (millis + tickMillis - 1) / tickMillis;
+    }
+
+    private static final class Entry<T> {
+        final long tick;
+        final T task;
+
+        Entry(long tick, T task) {
+            this.tick = tick;
+            this.task = task;
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package org.example.events;
+
+import org.example.model.Customer;
+import org.example.model.Product;
+import org.example.model.Purchase;
+
+// Событие предметной области. Объекты событий создаются один раз вместе с кольцевым буфером
+// и переиспользуются: издатель заполняет слот, подписчик получает свою копию слота, которую
+// тоже нельзя сохранять после возврата из onEvent - нужные значения копируются.
+public final class DomainEvent {
+
+    public enum Type {
+        PRODUCT_ADDED,
+        PRODUCT_UPDATED,
+        PRODUCT_DELETED,
+        CUSTOMER_ADDED,
+        CUSTOMER_DELETED,
+        PURCHASE_COMPLETED
+    }
+
+    // Номер события в слоте; IN_PROGRESS, пока издатель его перезаписывает (см. EventBus)
+    volatile long sequence;
+
+    private Type type;
+    private int entityId;
+    private long epochMillis;
+    private Product product;   // продукт после изменения, для удаления - до него
+    private Customer customer; // только для CUSTOMER_ADDED
+    private Purchase purchase; // только для PURCHASE_COMPLETED
+
+    DomainEvent() {
+    }
+
+    void set(Type type, int entityId, Product product, Customer customer, Purchase purchase) {
+        this.type = type;
+        this.entityId = entityId;
+        this.epochMillis = System.currentTimeMillis();
+        this.product = product;
+        this.customer = customer;
+        this.purchase = purchase;
+    }
+
+    void copyFrom(DomainEvent other) {
+        this.type = other.type;
+        this.entityId = other.entityId;
+        this.epochMillis = other.epochMillis;
+        this.product = other.product;
+        this.customer = other.customer;
+        this.purchase = other.purchase;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    // ID продукта или покупателя; для покупки - ID покупателя
+    public int getEntityId() {
+        return entityId;
+    }
+
+    public long getEpochMillis() {
+        return epochMillis;
+    }
+
+    public Product getProduct() {
+        return product;
+    }
+
+    public Customer getCustomer() {
+        return customer;
+    }
+
+    public Purchase getPurchase() {
+        return purchase;
+    }
+}
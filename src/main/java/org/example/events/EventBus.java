@@ -0,0 +1,236 @@
+package org.example.events;
+
+import org.example.model.Customer;
+import org.example.model.Product;
+import org.example.model.ProductChange;
+import org.example.model.Purchase;
+
+import java.lang.invoke.VarHandle;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+// Шина событий на кольцевом буфере в духе Disruptor. Слоты создаются заранее и переиспользуются,
+// издатель получает номер одним атомарным инкрементом и заполняет слот без блокировок.
+// Каждый подписчик читает кольцо в своем потоке со своей позиции и забирает сразу все уже
+// опубликованные события пакетом.
+//
+// Издатель никогда не ждет подписчиков: покупка на кассе не должна зависеть от скорости метрик
+// или аналитики. Подписчик, отставший больше чем на размер кольца, пропускает перезаписанные
+// события и учитывает их в getLost(). Слот читается как в seqlock: номер в слоте сверяется
+// до и после копирования, поэтому недописанное или уже перезаписанное событие не доставляется.
+public class EventBus implements AutoCloseable {
+
+    public static final int DEFAULT_CAPACITY = 1 << 16;
+    static final long IN_PROGRESS = Long.MIN_VALUE;
+    private static final long IDLE_PARK_NANOS = 1_000_000;
+    private static final long CLOSE_TIMEOUT_MILLIS = 5_000;
+
+    private final DomainEvent[] ring;
+    private final int mask;
+    private final AtomicLong cursor = new AtomicLong(-1); // последний выданный номер
+    private final List<Subscription> subscriptions = new CopyOnWriteArrayList<>();
+    private volatile boolean closed;
+
+    public EventBus() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    // Размер кольца - степень двойки, чтобы номер слота получался маской
+    public EventBus(int capacity) {
+        if (capacity < 2 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Размер кольца должен быть степенью двойки: " + capacity);
+        }
+        ring = new DomainEvent[capacity];
+        mask = capacity - 1;
+        for (int i = 0; i < capacity; i++) {
+            ring[i] = new DomainEvent();
+            ring[i].sequence = i - capacity; // как будто предыдущий круг уже опубликован
+        }
+    }
+
+    public void publishProductChange(ProductChange change) {
+        DomainEvent.Type type = switch (change.getType()) {
+            case ADDED -> DomainEvent.Type.PRODUCT_ADDED;
+            case UPDATED -> DomainEvent.Type.PRODUCT_UPDATED;
+            case DELETED -> DomainEvent.Type.PRODUCT_DELETED;
+        };
+        Product product = change.getCurrent() != null ? change.getCurrent() : change.getPrevious();
+        publish(type, change.getProductId(), product, null, null);
+    }
+
+    public void publishCustomerAdded(Customer customer) {
+        publish(DomainEvent.Type.CUSTOMER_ADDED, customer.getId(), null, customer, null);
+    }
+
+    public void publishCustomerDeleted(int customerId) {
+        publish(DomainEvent.Type.CUSTOMER_DELETED, customerId, null, null, null);
+    }
+
+    public void publishPurchase(Purchase purchase) {
+        publish(DomainEvent.Type.PURCHASE_COMPLETED, purchase.getCustomerId(), null, null, purchase);
+    }
+
+    // Подписчик получает события, опубликованные после подписки
+    public Subscription subscribe(String name, EventHandler handler) {
+        Subscription subscription = new Subscription(name, handler, cursor.get() + 1);
+        subscriptions.add(subscription);
+        subscription.thread.start();
+        return subscription;
+    }
+
+    public List<Subscription> getSubscriptions() {
+        return Collections.unmodifiableList(subscriptions);
+    }
+
+    public long getPublished() {
+        return cursor.get() + 1;
+    }
+
+    public int getCapacity() {
+        return ring.length;
+    }
+
+    // Подписчики дочитывают уже опубликованные события и останавливаются
+    @Override
+    public void close() {
+        closed = true;
+        for (Subscription subscription : subscriptions) {
+            try {
+                subscription.thread.join(CLOSE_TIMEOUT_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private void publish(DomainEvent.Type type, int entityId, Product product, Customer customer, Purchase purchase) {
+        long sequence = cursor.incrementAndGet();
+        DomainEvent slot = ring[(int) (sequence & mask)];
+        // Ждем только издателя, который пишет этот же слот кругом раньше, - не подписчиков
+        long previous = sequence - ring.length;
+        while (slot.sequence != previous) {
+            Thread.onSpinWait();
+        }
+        slot.sequence = IN_PROGRESS;
+        VarHandle.releaseFence(); // поля слота не записываются раньше отметки
+        slot.set(type, entityId, product, customer, purchase);
+        slot.sequence = sequence;
+    }
+
+    public final class Subscription implements Runnable {
+        private final String name;
+        private final EventHandler handler;
+        private final DomainEvent event = new DomainEvent(); // копия слота для подписчика
+        private final Thread thread;
+        // Пишутся только потоком подписчика
+        private volatile long next;
+        private volatile long processed;
+        private volatile long lost;
+        private volatile long failed;
+
+        private Subscription(String name, EventHandler handler, long next) {
+            this.name = name;
+            this.handler = handler;
+            this.next = next;
+            this.thread = new Thread(this, "events-" + name);
+            this.thread.setDaemon(true);
+        }
+
+        @Override
+        public void run() {
+            long position = next;
+            int idle = 0;
+            while (true) {
+                long published = cursor.get();
+                if (position > published) {
+                    if (closed && position > cursor.get()) {
+                        return;
+                    }
+                    idle(++idle);
+                    continue;
+                }
+                if (published - position >= ring.length) {
+                    // Отстали на круг: эти слоты уже перезаписаны
+                    long oldest = published - ring.length + 1;
+                    lost += oldest - position;
+                    position = oldest;
+                }
+                long last = position - 1;
+                while (last < published && ring[(int) ((last + 1) & mask)].sequence == last + 1) {
+                    last++;
+                }
+                if (last < position) {
+                    // Слот еще заполняется или уже перезаписан следующим кругом
+                    long sequence = ring[(int) (position & mask)].sequence;
+                    if (sequence > position || (sequence == IN_PROGRESS && cursor.get() - position >= ring.length)) {
+                        lost++;
+                        position++;
+                        next = position;
+                    } else {
+                        idle(++idle);
+                    }
+                    continue;
+                }
+                idle = 0;
+                position = drain(position, last);
+                next = position;
+            }
+        }
+
+        private long drain(long from, long to) {
+            for (long sequence = from; sequence <= to; sequence++) {
+                DomainEvent slot = ring[(int) (sequence & mask)];
+                event.copyFrom(slot);
+                VarHandle.acquireFence(); // копия прочитана до повторной проверки номера
+                if (slot.sequence != sequence) {
+                    lost++;
+                    continue;
+                }
+                try {
+                    handler.onEvent(event, sequence, sequence == to);
+                } catch (RuntimeException e) {
+                    failed++;
+                }
+                processed++;
+            }
+            return to + 1;
+        }
+
+        private void idle(int idle) {
+            if (idle < 100) {
+                Thread.onSpinWait();
+            } else if (idle < 200) {
+                Thread.yield();
+            } else {
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+            }
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public long getProcessed() {
+            return processed;
+        }
+
+        // Событий пропущено из-за отставания больше чем на размер кольца
+        public long getLost() {
+            return lost;
+        }
+
+        // Событий, на которых подписчик бросил исключение
+        public long getFailed() {
+            return failed;
+        }
+
+        // Опубликовано, но еще не прочитано
+        public long getLag() {
+            return Math.max(0, cursor.get() + 1 - next);
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package org.example.events;
+
+// Подписчик шины событий. Вызывается в собственном потоке подписчика пакетами: endOfBatch
+// отмечает последнее событие из уже опубликованных - удобная точка для сброса буферов.
+public interface EventHandler {
+    void onEvent(DomainEvent event, long sequence, boolean endOfBatch);
+}
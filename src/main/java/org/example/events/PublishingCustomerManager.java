@@ -0,0 +1,68 @@
+package org.example.events;
+
+import org.example.interfaces.ICustomerManager;
+import org.example.model.Customer;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+// Декоратор менеджера покупателей: одно событие на каждое добавление и удаление
+public class PublishingCustomerManager implements ICustomerManager {
+
+    private final ICustomerManager delegate;
+    private final EventBus events;
+
+    public PublishingCustomerManager(ICustomerManager delegate, EventBus events) {
+        this.delegate = delegate;
+        this.events = events;
+    }
+
+    @Override
+    public void addCustomer(Customer customer) {
+        delegate.addCustomer(customer);
+        events.publishCustomerAdded(customer);
+    }
+
+    @Override
+    public void addCustomers(List<Customer> customers) {
+        delegate.addCustomers(customers);
+        for (Customer customer : customers) {
+            events.publishCustomerAdded(customer);
+        }
+    }
+
+    // Удаление отсутствующего покупателя ничего не меняет и события не дает
+    @Override
+    public void deleteCustomer(int customerId) {
+        boolean existed = delegate.contains(customerId);
+        delegate.deleteCustomer(customerId);
+        if (existed) {
+            events.publishCustomerDeleted(customerId);
+        }
+    }
+
+    @Override
+    public Customer findById(int customerId) {
+        return delegate.findById(customerId);
+    }
+
+    @Override
+    public boolean contains(int customerId) {
+        return delegate.contains(customerId);
+    }
+
+    @Override
+    public List<Customer> getAllCustomers() {
+        return delegate.getAllCustomers();
+    }
+
+    @Override
+    public Stream<Customer> streamCustomers() {
+        return delegate.streamCustomers();
+    }
+
+    @Override
+    public int getCustomerCount() {
+        return delegate.getCustomerCount();
+    }
+}
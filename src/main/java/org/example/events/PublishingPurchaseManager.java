@@ -0,0 +1,49 @@
+package org.example.events;
+
+import org.example.interfaces.IPurchaseManager;
+import org.example.model.Basket;
+import org.example.model.Purchase;
+import org.example.model.PurchaseResult;
+
+// Декоратор менеджера покупок: событие на каждую успешную покупку, уже после записи в журнал
+// изменений. Публикация не ждет подписчиков, поэтому на время ответа кассе почти не влияет.
+public class PublishingPurchaseManager implements IPurchaseManager {
+
+    private final IPurchaseManager delegate;
+    private final EventBus events;
+
+    public PublishingPurchaseManager(IPurchaseManager delegate, EventBus events) {
+        this.delegate = delegate;
+        this.events = events;
+    }
+
+    @Override
+    public void makePurchase(int customerId, int productId) {
+        PurchaseResult result = makePurchase(customerId, productId, 1);
+        if (!result.isSuccess()) {
+            System.out.println("Недостаточно средств или товар не найден.");
+        }
+    }
+
+    @Override
+    public PurchaseResult makePurchase(int customerId, int productId, int quantity) {
+        return published(delegate.makePurchase(customerId, productId, quantity));
+    }
+
+    @Override
+    public PurchaseResult checkout(int customerId, Basket basket) {
+        return published(delegate.checkout(customerId, basket));
+    }
+
+    @Override
+    public void savePurchaseInfo(Purchase purchase) {
+        delegate.savePurchaseInfo(purchase);
+    }
+
+    private PurchaseResult published(PurchaseResult result) {
+        if (result.isSuccess()) {
+            events.publishPurchase(result.getPurchase());
+        }
+        return result;
+    }
+}
@@ -0,0 +1,90 @@
+package org.example.input;
+
+import org.example.interfaces.Input;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.NoSuchElementException;
+
+// Быстрый ввод для пакетного режима: читает построчно через большой буфер, без регулярных
+// выражений Scanner. Числа читаются как у Scanner - следующим токеном текущей строки,
+// nextLine после числа возвращает остаток строки.
+public class BufferedInput implements Input, AutoCloseable {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final BufferedReader reader;
+    private String line;   // текущая строка, из которой еще читаются токены
+    private int position;
+
+    public BufferedInput(InputStream in) {
+        this(new InputStreamReader(in, StandardCharsets.UTF_8));
+    }
+
+    public BufferedInput(Reader reader) {
+        this.reader = new BufferedReader(reader, BUFFER_SIZE);
+    }
+
+    // Возвращает null в конце ввода
+    @Override
+    public String nextLine() {
+        if (line != null) {
+            String rest = line.substring(position);
+            line = null;
+            return rest;
+        }
+        return readLine();
+    }
+
+    @Override
+    public Double nextDouble() {
+        return Double.parseDouble(nextToken());
+    }
+
+    @Override
+    public int nextInt() {
+        return Integer.parseInt(nextToken());
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private String nextToken() {
+        while (true) {
+            if (line == null) {
+                line = readLine();
+                position = 0;
+                if (line == null) {
+                    throw new NoSuchElementException("Ввод закончился");
+                }
+            }
+            while (position < line.length() && Character.isWhitespace(line.charAt(position))) {
+                position++;
+            }
+            if (position < line.length()) {
+                break;
+            }
+            line = null;
+        }
+        int start = position;
+        while (position < line.length() && !Character.isWhitespace(line.charAt(position))) {
+            position++;
+        }
+        return line.substring(start, position);
+    }
+
+    private String readLine() {
+        try {
+            return reader.readLine();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package org.example.input;
+
+import org.example.interfaces.Input;
+
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.NoSuchElementException;
+
+// Ввод сеанса кассы по сокету. Перед каждым чтением сбрасывает накопленный вывод, чтобы касса
+// увидела подсказку, а в конце ввода, как и Scanner, бросает NoSuchElementException вместо null,
+// чтобы повторяющиеся запросы InputValidator не зациклились на отключенной кассе.
+public class SessionInput implements Input, AutoCloseable {
+
+    private final BufferedInput in;
+    private final Flushable out;
+
+    public SessionInput(InputStream in, Flushable out) {
+        this.in = new BufferedInput(in);
+        this.out = out;
+    }
+
+    @Override
+    public String nextLine() {
+        flushOutput();
+        String line = in.nextLine();
+        if (line == null) {
+            throw new NoSuchElementException("Сеанс кассы закрыт");
+        }
+        return line;
+    }
+
+    @Override
+    public Double nextDouble() {
+        flushOutput();
+        return in.nextDouble();
+    }
+
+    @Override
+    public int nextInt() {
+        flushOutput();
+        return in.nextInt();
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    private void flushOutput() {
+        try {
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
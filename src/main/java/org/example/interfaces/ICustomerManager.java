@@ -3,10 +3,22 @@ package org.example.interfaces;
 import org.example.model.Customer;
 
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface ICustomerManager
 {
     void addCustomer(Customer customer);
+    // Пакетная вставка одной операцией, например при импорте
+    void addCustomers(List<Customer> customers);
     void deleteCustomer(int customerId);
+
+    // Поиск по ID: возвращает null, если покупатель не найден
+    Customer findById(int customerId);
+    boolean contains(int customerId);
+
+    // Представление только для чтения
     List<Customer> getAllCustomers();
+
+    Stream<Customer> streamCustomers();
+    int getCustomerCount();
 }
@@ -1,12 +1,36 @@
 package org.example.interfaces;
 
 import org.example.model.Product;
+import org.example.model.Reservation;
 
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface IProductManager {
     void addProduct(Product product);
+    // Пакетная вставка одной операцией: продукт с уже занятым ID заменяется, как в addProduct
+    void addProducts(List<Product> products);
     void updateProduct(int productId, Product updatedProduct);
     void deleteProduct(int productId);
+
+    // Поиск по индексу: возвращает null, если продукт не найден
+    Product findById(int productId);
+    Product findByName(String name);
+
     List<Product> getAllProducts();
+
+    // Просмотр без копирования каталога, в порядке добавления; постранично - через Page.of
+    Stream<Product> streamProducts();
+    int getProductCount();
+
+    // Резерв остатка на время оформления: количество сразу уходит из свободного остатка и другим
+    // кассам недоступно; неподтвержденный резерв снимается через holdMillis.
+    // Возвращает null, если продукта нет или свободного остатка не хватает
+    Reservation reserve(int productId, int quantity, long holdMillis);
+
+    // Продажа зарезервированного количества; false, если резерв уже истек, отменен или подтвержден
+    boolean confirmReservation(long reservationId);
+
+    // Возврат резерва в свободный остаток; false, если резерв уже завершен
+    boolean cancelReservation(long reservationId);
 }
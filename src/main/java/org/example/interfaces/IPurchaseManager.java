@@ -1,8 +1,17 @@
 package org.example.interfaces;
 
+import org.example.model.Basket;
 import org.example.model.Purchase;
+import org.example.model.PurchaseResult;
 
 public interface IPurchaseManager {
     void makePurchase(int customerId, int productId);
+
+    // Проверка остатка и баланса, списание и сохранение покупки одной операцией
+    PurchaseResult makePurchase(int customerId, int productId, int quantity);
+
+    // Покупка всей корзины: все строки проверяются и списываются атомарно, сохраняется одна покупка
+    PurchaseResult checkout(int customerId, Basket basket);
+
     void savePurchaseInfo(Purchase purchase);
 }
@@ -0,0 +1,8 @@
+package org.example.interfaces;
+
+import org.example.model.ProductChange;
+
+// Вызывается в потоке, изменившем каталог, уже после публикации новой версии
+public interface ProductChangeListener {
+    void onProductChanged(ProductChange change);
+}
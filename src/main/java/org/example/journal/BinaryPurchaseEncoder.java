@@ -0,0 +1,68 @@
+package org.example.journal;
+
+import org.example.model.Purchase;
+import org.example.model.PurchaseItem;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.ZoneId;
+import java.util.List;
+
+// Компактный двоичный формат покупки с префиксом длины:
+//   int    длина записи в байтах, не считая самого поля длины
+//   int    CRC32 остатка записи после этого поля
+//   int    ID покупателя
+//   long   время покупки, миллисекунды эпохи
+//   int    количество позиций
+//   позиции: int ID продукта, int количество, long цена за единицу в копейках
+//   long   сумма покупки в копейках
+public class BinaryPurchaseEncoder implements PurchaseEncoder {
+
+    public static final int HEADER_SIZE = Integer.BYTES + Long.BYTES + Integer.BYTES;
+    public static final int LINE_SIZE = Integer.BYTES + Integer.BYTES + Long.BYTES;
+    public static final int TRAILER_SIZE = Long.BYTES;
+    public static final int CHECKSUM_SIZE = Integer.BYTES;
+
+    private final ZoneId zone;
+
+    public BinaryPurchaseEncoder() {
+        this(ZoneId.systemDefault());
+    }
+
+    public BinaryPurchaseEncoder(ZoneId zone) {
+        this.zone = zone;
+    }
+
+    public static int recordLength(int lineCount) {
+        return CHECKSUM_SIZE + HEADER_SIZE + lineCount * LINE_SIZE + TRAILER_SIZE;
+    }
+
+    // Конец последней целой записи: все, что за ним, оборвано при сбое
+    @Override
+    public long validLength(Path file) throws IOException {
+        try (PurchaseLogReader reader = new PurchaseLogReader(file)) {
+            while (reader.next()) {
+                // только проходим по записям
+            }
+            return reader.nextOffset();
+        }
+    }
+
+    @Override
+    public void encode(Purchase purchase, RecordBuffer out) {
+        List<PurchaseItem> items = purchase.getItems();
+        int start = out.size();
+        out.writeInt(recordLength(items.size()));
+        out.writeInt(0);
+        out.writeInt(purchase.getCustomerId());
+        out.writeLong(purchase.getPurchaseDate().atZone(zone).toInstant().toEpochMilli());
+        out.writeInt(items.size());
+        for (PurchaseItem item : items) {
+            out.writeInt(item.getProductId());
+            out.writeInt(item.getQuantity());
+            out.writeLong(item.getUnitPriceMinor());
+        }
+        out.writeLong(purchase.getTotalAmountMinor());
+        out.putInt(start + Integer.BYTES, out.checksum(start + 2 * Integer.BYTES));
+    }
+}
@@ -0,0 +1,7 @@
+package org.example.journal;
+
+// Режим надежности журнала: FSYNC - сброс на диск после каждой пачки, NONE - только запись в канал
+public enum Durability {
+    FSYNC,
+    NONE
+}
@@ -0,0 +1,23 @@
+package org.example.journal;
+
+import java.nio.file.Path;
+
+// Один из файлов, в которые журнал раскладывает каждую пачку покупок, и его формат
+public class JournalOutput {
+
+    private final Path file;
+    private final PurchaseEncoder encoder;
+
+    public JournalOutput(Path file, PurchaseEncoder encoder) {
+        this.file = file;
+        this.encoder = encoder;
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    public PurchaseEncoder getEncoder() {
+        return encoder;
+    }
+}
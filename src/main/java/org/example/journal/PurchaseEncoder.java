@@ -0,0 +1,17 @@
+package org.example.journal;
+
+import org.example.model.Purchase;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+// Формат записи покупки в журнал
+public interface PurchaseEncoder {
+    void encode(Purchase purchase, RecordBuffer out);
+
+    // Длина целой части существующего файла; журнал отрезает все, что за ней, перед дозаписью
+    default long validLength(Path file) throws IOException {
+        return Files.size(file);
+    }
+}
@@ -0,0 +1,273 @@
+package org.example.journal;
+
+import org.example.model.Purchase;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Асинхронный журнал покупок: касса только кладет покупку в ограниченную очередь,
+// а фоновый поток собирает пачки и пишет их одной операцией в постоянно открытый канал.
+// Каждая покупка кодируется один раз на каждый настроенный формат и попадает в его файл
+// одной записью пачки, поэтому строки разных касс не перемешиваются.
+public class PurchaseJournal implements AutoCloseable {
+
+    public static final int DEFAULT_QUEUE_CAPACITY = 8192;
+    public static final long DEFAULT_FLUSH_INTERVAL_MILLIS = 5;
+    private static final int MAX_BATCH = 1024;
+
+    private final FileChannel[] channels;
+    private final PurchaseEncoder[] encoders;
+    private final BlockingQueue<Purchase> queue;
+    private final long flushIntervalNanos;
+    private final Durability durability;
+    private final Thread writer;
+
+    private final AtomicLong appended = new AtomicLong();
+    private final AtomicLong failedBatches = new AtomicLong();
+    private final Object progress = new Object();
+    private long written; // под монитором progress
+    // Кассы кладут покупки под общей блокировкой, закрытие берет исключительную:
+    // после нее ни одна покупка не попадет в очередь мимо писателя
+    private final ReadWriteLock appendLock = new ReentrantReadWriteLock();
+    private volatile boolean closed;
+    // Первый сбой записи или гибели писателя: после него append и flush сразу сообщают об ошибке
+    private volatile Throwable failure;
+
+    public PurchaseJournal(Path file) throws IOException {
+        this(file, new TextPurchaseEncoder(), DEFAULT_QUEUE_CAPACITY, DEFAULT_FLUSH_INTERVAL_MILLIS, Durability.NONE);
+    }
+
+    public PurchaseJournal(Path file, PurchaseEncoder encoder, int queueCapacity,
+                           long flushIntervalMillis, Durability durability) throws IOException {
+        this(List.of(new JournalOutput(file, encoder)), queueCapacity, flushIntervalMillis, durability);
+    }
+
+    public PurchaseJournal(List<JournalOutput> outputs, int queueCapacity,
+                           long flushIntervalMillis, Durability durability) throws IOException {
+        if (outputs.isEmpty()) {
+            throw new IllegalArgumentException("Не задан ни один файл журнала покупок");
+        }
+        this.channels = new FileChannel[outputs.size()];
+        this.encoders = new PurchaseEncoder[outputs.size()];
+        try {
+            for (int i = 0; i < outputs.size(); i++) {
+                Path file = outputs.get(i).getFile();
+                channels[i] = FileChannel.open(file,
+                        StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+                encoders[i] = outputs.get(i).getEncoder();
+                // Запись, оборванную при сбое, отрезаем: иначе новые покупки оказались бы за ней
+                // и читатель, остановившись на обрыве, никогда бы до них не дошел
+                long validEnd = encoders[i].validLength(file);
+                if (validEnd < channels[i].size()) {
+                    channels[i].truncate(validEnd);
+                }
+            }
+        } catch (IOException e) {
+            closeChannels();
+            throw e;
+        }
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(flushIntervalMillis);
+        this.durability = durability;
+        this.writer = new Thread(this::writeLoop, "purchase-journal-writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    // Ставит покупку в очередь; при заполненной очереди ждет, пока писатель ее разгрузит.
+    // Если запись уже не удалась или писатель остановился, покупка не принимается
+    public void append(Purchase purchase) {
+        appendLock.readLock().lock();
+        try {
+            if (closed) {
+                throw new IllegalStateException("Журнал покупок закрыт");
+            }
+            checkFailure();
+            appended.incrementAndGet();
+            while (!queue.offer(purchase, 50, TimeUnit.MILLISECONDS)) {
+                if (failure != null) {
+                    appended.decrementAndGet();
+                    checkFailure();
+                }
+            }
+        } catch (InterruptedException e) {
+            appended.decrementAndGet();
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Запись в журнал прервана", e);
+        } finally {
+            appendLock.readLock().unlock();
+        }
+    }
+
+    // Ждет, пока все покупки, поставленные в очередь до вызова, будут записаны;
+    // сообщает о сбое, если какую-то пачку записать не удалось
+    public void flush() throws InterruptedException, IOException {
+        long target = appended.get();
+        synchronized (progress) {
+            while (written < target && writer.isAlive()) {
+                progress.wait(100);
+            }
+        }
+        Throwable current = failure;
+        if (current != null) {
+            throw new IOException("Ошибка записи журнала покупок", current);
+        }
+    }
+
+    public long getFailedBatches() {
+        return failedBatches.get();
+    }
+
+    @Override
+    public void close() throws IOException {
+        appendLock.writeLock().lock();
+        try {
+            closed = true;
+        } finally {
+            appendLock.writeLock().unlock();
+        }
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        closeChannels();
+        Throwable current = failure;
+        if (current != null) {
+            throw new IOException("Ошибка записи журнала покупок", current);
+        }
+    }
+
+    private void checkFailure() {
+        Throwable current = failure;
+        if (current != null) {
+            throw new IllegalStateException("Ошибка записи журнала покупок", current);
+        }
+    }
+
+    private void fail(Throwable cause) {
+        if (failure == null) {
+            failure = cause;
+        }
+    }
+
+    private void closeChannels() throws IOException {
+        IOException failure = null;
+        for (FileChannel channel : channels) {
+            if (channel == null) {
+                continue;
+            }
+            try {
+                channel.close();
+            } catch (IOException e) {
+                failure = e;
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    private void writeLoop() {
+        try {
+            writeBatches();
+        } catch (RuntimeException | Error e) {
+            // Писатель больше не разгружает очередь: кассы узнают об этом из append и flush
+            fail(e);
+            synchronized (progress) {
+                progress.notifyAll();
+            }
+            throw e;
+        }
+    }
+
+    private void writeBatches() {
+        List<Purchase> batch = new ArrayList<>(MAX_BATCH);
+        RecordBuffer[] buffers = new RecordBuffer[channels.length];
+        for (int i = 0; i < buffers.length; i++) {
+            buffers[i] = new RecordBuffer(64 * 1024);
+        }
+        while (true) {
+            try {
+                Purchase first = queue.poll(50, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    if (closed && queue.isEmpty()) {
+                        return;
+                    }
+                    continue;
+                }
+                batch.add(first);
+                collectBatch(batch);
+                writeBatch(batch, buffers);
+            } catch (InterruptedException e) {
+                if (closed) {
+                    return;
+                }
+            } finally {
+                if (!batch.isEmpty()) {
+                    synchronized (progress) {
+                        written += batch.size();
+                        progress.notifyAll();
+                    }
+                    batch.clear();
+                }
+            }
+        }
+    }
+
+    // Групповая фиксация: добираем записи, пока не истек интервал сброса или не набралась полная пачка
+    private void collectBatch(List<Purchase> batch) throws InterruptedException {
+        long deadline = System.nanoTime() + flushIntervalNanos;
+        queue.drainTo(batch, MAX_BATCH - batch.size());
+        while (batch.size() < MAX_BATCH && !closed) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                break;
+            }
+            Purchase next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                break;
+            }
+            batch.add(next);
+            queue.drainTo(batch, MAX_BATCH - batch.size());
+        }
+    }
+
+    // Сбой одного файла не мешает записи в остальные, пачка считается неудачной один раз
+    private void writeBatch(List<Purchase> batch, RecordBuffer[] buffers) {
+        boolean failed = false;
+        for (int i = 0; i < channels.length; i++) {
+            RecordBuffer buffer = buffers[i];
+            buffer.reset();
+            for (Purchase purchase : batch) {
+                encoders[i].encode(purchase, buffer);
+            }
+            ByteBuffer bytes = buffer.asByteBuffer();
+            try {
+                while (bytes.hasRemaining()) {
+                    channels[i].write(bytes);
+                }
+                if (durability == Durability.FSYNC) {
+                    channels[i].force(false);
+                }
+            } catch (IOException e) {
+                failed = true;
+                fail(e);
+            }
+        }
+        if (failed) {
+            failedBatches.incrementAndGet();
+        }
+    }
+}
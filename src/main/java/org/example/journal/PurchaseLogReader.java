@@ -0,0 +1,135 @@
+package org.example.journal;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+// Потоковое чтение двоичного журнала покупок через отображение файла в память.
+// Читатель работает как курсор: next() переходит к следующей записи, а геттеры читают
+// поля прямо из отображенного буфера, без создания объектов на каждую запись.
+// Большие файлы отображаются окнами; чтение останавливается на недописанной записи
+// или на записи, чья контрольная сумма не сходится.
+public class PurchaseLogReader implements AutoCloseable {
+
+    private static final long MAX_WINDOW = 256L * 1024 * 1024;
+
+    private final FileChannel channel;
+    private final long fileSize;  // граница чтения: конец файла или конец заданного участка
+    private final CRC32 crc = new CRC32();
+
+    private MappedByteBuffer window;
+    private long windowStart;
+    private long nextOffset;
+    private long recordOffset = -1;
+    private int recordPosition;   // начало данных текущей записи внутри окна (после длины и CRC)
+    private int lineCount;
+
+    public PurchaseLogReader(Path file) throws IOException {
+        this(file, 0);
+    }
+
+    // Чтение начиная с заданного смещения (смещение должно указывать на начало записи)
+    public PurchaseLogReader(Path file, long startOffset) throws IOException {
+        this(file, startOffset, Long.MAX_VALUE);
+    }
+
+    // Чтение участка [startOffset, endOffset): обе границы должны совпадать с границами записей
+    public PurchaseLogReader(Path file, long startOffset, long endOffset) throws IOException {
+        this.channel = FileChannel.open(file, StandardOpenOption.READ);
+        this.fileSize = Math.min(endOffset, channel.size());
+        this.nextOffset = Math.min(startOffset, fileSize);
+    }
+
+    public boolean next() throws IOException {
+        if (fileSize - nextOffset < Integer.BYTES) {
+            return false;
+        }
+        ensureMapped(nextOffset, Integer.BYTES);
+        int length = window.getInt((int) (nextOffset - windowStart));
+        long recordEnd = nextOffset + Integer.BYTES + length;
+        if (length < BinaryPurchaseEncoder.recordLength(0) || recordEnd > fileSize) {
+            return false; // запись обрезана или повреждена: дальше читать нечего
+        }
+        ensureMapped(nextOffset, Integer.BYTES + length);
+
+        int position = (int) (nextOffset - windowStart);
+        int dataPosition = position + Integer.BYTES + BinaryPurchaseEncoder.CHECKSUM_SIZE;
+        int count = window.getInt(dataPosition + Integer.BYTES + Long.BYTES);
+        if (BinaryPurchaseEncoder.recordLength(count) != length) {
+            return false;
+        }
+        crc.reset();
+        crc.update(window.duplicate().position(dataPosition).limit(position + Integer.BYTES + length));
+        if ((int) crc.getValue() != window.getInt(position + Integer.BYTES)) {
+            return false;
+        }
+        recordOffset = nextOffset;
+        recordPosition = dataPosition;
+        lineCount = count;
+        nextOffset = recordEnd;
+        return true;
+    }
+
+    // Смещение текущей записи в файле
+    public long recordOffset() {
+        return recordOffset;
+    }
+
+    // Смещение, с которого продолжится чтение (для инкрементальной обработки)
+    public long nextOffset() {
+        return nextOffset;
+    }
+
+    public int customerId() {
+        return window.getInt(recordPosition);
+    }
+
+    public long epochMillis() {
+        return window.getLong(recordPosition + Integer.BYTES);
+    }
+
+    public int lineCount() {
+        return lineCount;
+    }
+
+    public int productId(int line) {
+        return window.getInt(linePosition(line));
+    }
+
+    public int quantity(int line) {
+        return window.getInt(linePosition(line) + Integer.BYTES);
+    }
+
+    // Цена за единицу в копейках
+    public long unitPriceMinor(int line) {
+        return window.getLong(linePosition(line) + 2 * Integer.BYTES);
+    }
+
+    // Сумма покупки в копейках
+    public long totalAmountMinor() {
+        return window.getLong(linePosition(lineCount));
+    }
+
+    @Override
+    public void close() throws IOException {
+        window = null;
+        channel.close();
+    }
+
+    private int linePosition(int line) {
+        return recordPosition + BinaryPurchaseEncoder.HEADER_SIZE + line * BinaryPurchaseEncoder.LINE_SIZE;
+    }
+
+    // Перемещает окно отображения так, чтобы диапазон [offset, offset + length) был в нем целиком
+    private void ensureMapped(long offset, int length) throws IOException {
+        if (window != null && offset >= windowStart && offset + length <= windowStart + window.limit()) {
+            return;
+        }
+        long size = Math.min(Math.max(MAX_WINDOW, length), fileSize - offset);
+        window = channel.map(FileChannel.MapMode.READ_ONLY, offset, size);
+        windowStart = offset;
+    }
+}
@@ -0,0 +1,62 @@
+package org.example.journal;
+
+import org.example.interfaces.IProductManager;
+import org.example.model.Money;
+import org.example.model.Product;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+// Необязательный экспорт двоичного журнала в прежний текстовый формат purchases.txt.
+// Названия продуктов берутся из текущего каталога; удаленные продукты выводятся по ID.
+public class PurchaseTextExporter {
+
+    private final IProductManager productManager;
+    private final ZoneId zone;
+
+    public PurchaseTextExporter(IProductManager productManager) {
+        this(productManager, ZoneId.systemDefault());
+    }
+
+    public PurchaseTextExporter(IProductManager productManager, ZoneId zone) {
+        this.productManager = productManager;
+        this.zone = zone;
+    }
+
+    // Возвращает количество выгруженных покупок
+    public long export(Path binaryLog, Path textFile) throws IOException {
+        long exported = 0;
+        try (PurchaseLogReader reader = new PurchaseLogReader(binaryLog);
+             BufferedWriter writer = Files.newBufferedWriter(textFile, StandardCharsets.UTF_8)) {
+            StringBuilder text = new StringBuilder(256);
+            while (reader.next()) {
+                text.setLength(0);
+                text.append("Покупатель ID: ").append(reader.customerId()).append('\n');
+                text.append("Дата покупки: ")
+                        .append(LocalDateTime.ofInstant(Instant.ofEpochMilli(reader.epochMillis()), zone)).append('\n');
+                text.append("Список товаров:\n");
+                for (int line = 0; line < reader.lineCount(); line++) {
+                    text.append("- ").append(productName(reader.productId(line))).append(": ");
+                    Money.appendTo(text, reader.unitPriceMinor(line)).append(" x ").append(reader.quantity(line)).append('\n');
+                }
+                text.append("Сумма покупки: ");
+                Money.appendTo(text, reader.totalAmountMinor()).append('\n');
+                text.append("----\n");
+                writer.write(text.toString());
+                exported++;
+            }
+        }
+        return exported;
+    }
+
+    private String productName(int productId) {
+        Product product = productManager.findById(productId);
+        return product != null ? product.getName() : "ID " + productId;
+    }
+}
@@ -0,0 +1,64 @@
+package org.example.journal;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+
+// Переиспользуемый буфер пачки записей: отдает накопленные байты без копирования.
+// Числа пишутся в порядке big-endian, как в ByteBuffer по умолчанию.
+public class RecordBuffer extends ByteArrayOutputStream {
+
+    public RecordBuffer(int initialSize) {
+        super(initialSize);
+    }
+
+    public ByteBuffer asByteBuffer() {
+        return ByteBuffer.wrap(buf, 0, count);
+    }
+
+    public void writeInt(int value) {
+        ensureCapacity(Integer.BYTES);
+        buf[count++] = (byte) (value >>> 24);
+        buf[count++] = (byte) (value >>> 16);
+        buf[count++] = (byte) (value >>> 8);
+        buf[count++] = (byte) value;
+    }
+
+    public void writeLong(long value) {
+        writeInt((int) (value >>> 32));
+        writeInt((int) value);
+    }
+
+    public void writeDouble(double value) {
+        writeLong(Double.doubleToRawLongBits(value));
+    }
+
+    public void writeString(String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeInt(bytes.length);
+        writeBytes(bytes);
+    }
+
+    // Перезапись уже записанного int (например, длины записи, известной только в конце)
+    public void putInt(int position, int value) {
+        buf[position] = (byte) (value >>> 24);
+        buf[position + 1] = (byte) (value >>> 16);
+        buf[position + 2] = (byte) (value >>> 8);
+        buf[position + 3] = (byte) value;
+    }
+
+    // Контрольная сумма байтов начиная с позиции from и до конца буфера
+    public int checksum(int from) {
+        CRC32 crc = new CRC32();
+        crc.update(buf, from, count - from);
+        return (int) crc.getValue();
+    }
+
+    private void ensureCapacity(int extra) {
+        if (count + extra > buf.length) {
+            buf = Arrays.copyOf(buf, Math.max(buf.length * 2, count + extra));
+        }
+    }
+}
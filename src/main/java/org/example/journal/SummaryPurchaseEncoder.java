@@ -0,0 +1,53 @@
+package org.example.journal;
+
+import org.example.model.Money;
+import org.example.model.Purchase;
+import org.example.model.PurchaseItem;
+
+import java.nio.charset.StandardCharsets;
+import java.time.format.DateTimeFormatter;
+import java.util.function.IntFunction;
+
+// Однострочная сводка покупки в прежнем формате purchases.txt; дата берется из самой покупки,
+// поэтому совпадает с остальными форматами журнала
+public class SummaryPurchaseEncoder implements PurchaseEncoder {
+
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private final IntFunction<String> customerNames;
+
+    public SummaryPurchaseEncoder(IntFunction<String> customerNames) {
+        this.customerNames = customerNames;
+    }
+
+    @Override
+    public void encode(Purchase purchase, RecordBuffer out) {
+        StringBuilder line = new StringBuilder(96 + purchase.getItems().size() * 24);
+        line.append("Дата: ");
+        DATE_FORMAT.formatTo(purchase.getPurchaseDate(), line);
+        line.append(", Покупатель: ").append(customerName(purchase.getCustomerId()));
+        if (purchase.getItems().size() == 1) {
+            PurchaseItem item = purchase.getItems().get(0);
+            line.append(", Продукт: ").append(item.getName()).append(", Количество: ").append(item.getQuantity());
+        } else {
+            line.append(", Продукты: ");
+            for (int i = 0; i < purchase.getItems().size(); i++) {
+                PurchaseItem item = purchase.getItems().get(i);
+                if (i > 0) {
+                    line.append("; ");
+                }
+                line.append(item.getName()).append(" x ").append(item.getQuantity());
+            }
+            line.append(", Сумма: ");
+            Money.appendTo(line, purchase.getTotalAmountMinor());
+        }
+        line.append('\n');
+        out.writeBytes(line.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    // Покупатель мог быть удален до того, как писатель дошел до покупки
+    private String customerName(int customerId) {
+        String name = customerNames.apply(customerId);
+        return name != null ? name : "ID " + customerId;
+    }
+}
@@ -0,0 +1,27 @@
+package org.example.journal;
+
+import org.example.model.Money;
+import org.example.model.Purchase;
+import org.example.model.PurchaseItem;
+
+import java.nio.charset.StandardCharsets;
+
+// Текстовый формат purchases.txt: блок строк на каждую покупку
+public class TextPurchaseEncoder implements PurchaseEncoder {
+
+    @Override
+    public void encode(Purchase purchase, RecordBuffer out) {
+        StringBuilder text = new StringBuilder(128 + purchase.getItems().size() * 32);
+        text.append("Покупатель ID: ").append(purchase.getCustomerId()).append('\n');
+        text.append("Дата покупки: ").append(purchase.getPurchaseDate()).append('\n');
+        text.append("Список товаров:\n");
+        for (PurchaseItem item : purchase.getItems()) {
+            text.append("- ").append(item.getName()).append(": ");
+            Money.appendTo(text, item.getUnitPriceMinor()).append(" x ").append(item.getQuantity()).append('\n');
+        }
+        text.append("Сумма покупки: ");
+        Money.appendTo(text, purchase.getTotalAmountMinor()).append('\n');
+        text.append("----\n");
+        out.writeBytes(text.toString().getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,666 @@
+package org.example.manageClasses;
+
+import org.example.concurrent.StripedLocks;
+import org.example.interfaces.IProductManager;
+import org.example.model.Money;
+import org.example.model.Product;
+import org.example.model.Reservation;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.IntUnaryOperator;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+// Каталог по столбцам: ID, цены, остатки и резервы лежат в параллельных примитивных массивах,
+// а не в объектах Product. Строка каталога стоит около 24 байт плюс два слота индексов, поэтому
+// большой каталог занимает в несколько раз меньше кучи, а агрегаты (стоимость склада, товары
+// ниже порога) идут простыми циклами по подряд лежащим массивам, которые C2 векторизует.
+//
+// Строки добавляются в конец и не переезжают: массивы нарезаны на сегменты по SEGMENT_SIZE строк,
+// при росте копируется только оглавление сегментов. Поэтому остаток можно списывать через
+// compareAndSet прямо в столбце, пока другой поток добавляет продукты. Удаленная строка обнуляется
+// (ID 0) и попадает в список свободных, следующее добавление занимает ее, поэтому при чередовании
+// удалений и добавлений столбцы не растут. Поколение строки увеличивается при каждом удалении:
+// представление удаленного продукта больше не видит строку, даже если ее занял продукт с тем же ID.
+// ID продуктов - положительные.
+//
+// findById и поиск по названию отдают представления Product поверх строки: чтение видит текущие
+// столбцы, списание и резервы меняют их. Одинаковые названия хранятся одной строкой String.
+// Добавление, изменение и удаление - под блокировкой записи; поиск - под блокировкой чтения;
+// списание остатка и агрегаты блокировок не берут.
+public class ColumnarProductManager implements IProductManager, AutoCloseable {
+
+    static final int SEGMENT_SHIFT = 12;
+    static final int SEGMENT_SIZE = 1 << SEGMENT_SHIFT;
+    private static final int SEGMENT_MASK = SEGMENT_SIZE - 1;
+
+    private static final VarHandle INTS = MethodHandles.arrayElementVarHandle(int[].class);
+
+    private static final class Segment {
+        final int[] ids = new int[SEGMENT_SIZE];          // 0 - строка удалена
+        final long[] prices = new long[SEGMENT_SIZE];     // в копейках
+        final int[] quantities = new int[SEGMENT_SIZE];   // свободный остаток, меняется через INTS
+        final int[] reserved = new int[SEGMENT_SIZE];     // под полосой holdLocks
+        final int[] generations = new int[SEGMENT_SIZE];  // растет при удалении строки
+        final String[] names = new String[SEGMENT_SIZE];
+    }
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final StripedLocks holdLocks = new StripedLocks(64);
+    private final StockReservations reservations = new StockReservations();
+    private final RowTable byId = new RowTable();
+    private final RowTable byName = new RowTable();
+    // Удаленные строки для повторного использования; под блокировкой записи
+    private int[] freeRows = new int[16];
+    private int freeCount;
+
+    // Порядок публикации: сначала оглавление и столбцы, затем rowCount; читатели - наоборот
+    private volatile Segment[] segments = new Segment[0];
+    private volatile int rowCount;
+    private volatile int liveCount;
+
+    private final IntUnaryOperator idHashOfRow = row -> idHash(segment(row).ids[row & SEGMENT_MASK]);
+    private final IntUnaryOperator nameHashOfRow = row -> nameHash(segment(row).names[row & SEGMENT_MASK]);
+
+    @Override
+    public void addProduct(Product product) {
+        lock.writeLock().lock();
+        try {
+            put(product);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void addProducts(List<Product> products) {
+        lock.writeLock().lock();
+        try {
+            ensureCapacity(rowCount + Math.max(0, products.size() - freeCount));
+            for (Product product : products) {
+                put(product);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void updateProduct(int productId, Product updatedProduct) {
+        lock.writeLock().lock();
+        try {
+            int row = rowOfId(productId);
+            if (row >= 0) {
+                overwrite(row, updatedProduct);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void deleteProduct(int productId) {
+        lock.writeLock().lock();
+        try {
+            int row = rowOfId(productId);
+            if (row < 0) {
+                return;
+            }
+            unindexName(row);
+            byId.remove(byId.slotOf(idHash(productId), row), idHashOfRow);
+
+            Segment segment = segment(row);
+            int index = row & SEGMENT_MASK;
+            segment.ids[index] = 0;
+            segment.names[index] = null;
+            segment.prices[index] = 0;
+            Lock holdLock = holdLocks.lockFor(row);
+            holdLock.lock();
+            try {
+                segment.generations[index]++;
+                INTS.setVolatile(segment.quantities, index, 0);
+                segment.reserved[index] = 0;
+            } finally {
+                holdLock.unlock();
+            }
+            if (freeCount == freeRows.length) {
+                freeRows = Arrays.copyOf(freeRows, freeCount * 2);
+            }
+            freeRows[freeCount++] = row;
+            liveCount--;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public Product findById(int productId) {
+        lock.readLock().lock();
+        try {
+            int row = rowOfId(productId);
+            return row < 0 ? null : view(row);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Product findByName(String name) {
+        if (name == null) {
+            return null;
+        }
+        lock.readLock().lock();
+        try {
+            int row = rowOfName(name);
+            return row < 0 ? null : view(row);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<Product> getAllProducts() {
+        return streamProducts().toList();
+    }
+
+    @Override
+    public Stream<Product> streamProducts() {
+        int rows = rowCount;
+        Segment[] snapshot = segments;
+        return IntStream.range(0, rows)
+                .filter(row -> snapshot[row >>> SEGMENT_SHIFT].ids[row & SEGMENT_MASK] != 0)
+                .mapToObj(this::view);
+    }
+
+    @Override
+    public int getProductCount() {
+        return liveCount;
+    }
+
+    @Override
+    public Reservation reserve(int productId, int quantity, long holdMillis) {
+        return reservations.reserve(findById(productId), quantity, holdMillis);
+    }
+
+    @Override
+    public boolean confirmReservation(long reservationId) {
+        return reservations.confirm(reservationId);
+    }
+
+    @Override
+    public boolean cancelReservation(long reservationId) {
+        return reservations.cancel(reservationId);
+    }
+
+    // Останавливает поток снятия истекших резервов
+    @Override
+    public void close() {
+        reservations.close();
+    }
+
+    // Стоимость склада в копейках вместе с неподтвержденными резервами.
+    // Удаленные строки обнулены и в сумму ничего не добавляют
+    public long inventoryValueMinor() {
+        int rows = rowCount;
+        Segment[] snapshot = segments;
+        long total = 0;
+        for (int s = 0, base = 0; base < rows; s++, base += SEGMENT_SIZE) {
+            Segment segment = snapshot[s];
+            int length = Math.min(SEGMENT_SIZE, rows - base);
+            long[] prices = segment.prices;
+            int[] quantities = segment.quantities;
+            int[] reserved = segment.reserved;
+            for (int i = 0; i < length; i++) {
+                total += prices[i] * (quantities[i] + reserved[i]);
+            }
+        }
+        return total;
+    }
+
+    // Всего единиц на складе вместе с резервами
+    public long totalUnits() {
+        int rows = rowCount;
+        Segment[] snapshot = segments;
+        long total = 0;
+        for (int s = 0, base = 0; base < rows; s++, base += SEGMENT_SIZE) {
+            Segment segment = snapshot[s];
+            int length = Math.min(SEGMENT_SIZE, rows - base);
+            int[] quantities = segment.quantities;
+            int[] reserved = segment.reserved;
+            for (int i = 0; i < length; i++) {
+                total += quantities[i] + reserved[i];
+            }
+        }
+        return total;
+    }
+
+    // Число продуктов, у которых свободный остаток меньше threshold
+    public int countBelow(int threshold) {
+        int rows = rowCount;
+        Segment[] snapshot = segments;
+        int count = 0;
+        for (int s = 0, base = 0; base < rows; s++, base += SEGMENT_SIZE) {
+            Segment segment = snapshot[s];
+            int length = Math.min(SEGMENT_SIZE, rows - base);
+            int[] ids = segment.ids;
+            int[] quantities = segment.quantities;
+            for (int i = 0; i < length; i++) {
+                count += (ids[i] != 0 & quantities[i] < threshold) ? 1 : 0;
+            }
+        }
+        return count;
+    }
+
+    // Продукты со свободным остатком меньше threshold, в порядке строк
+    public List<Product> findBelow(int threshold) {
+        int rows = rowCount;
+        Segment[] snapshot = segments;
+        List<Product> result = new ArrayList<>();
+        for (int s = 0, base = 0; base < rows; s++, base += SEGMENT_SIZE) {
+            Segment segment = snapshot[s];
+            int length = Math.min(SEGMENT_SIZE, rows - base);
+            int[] ids = segment.ids;
+            int[] quantities = segment.quantities;
+            for (int i = 0; i < length; i++) {
+                if (ids[i] != 0 && quantities[i] < threshold) {
+                    result.add(view(base + i));
+                }
+            }
+        }
+        return result;
+    }
+
+    // Вставка или замена по ID; вызывается под блокировкой записи
+    private void put(Product product) {
+        int id = product.getId();
+        if (id <= 0) {
+            throw new IllegalArgumentException("ID продукта должен быть положительным: " + id);
+        }
+        int existing = rowOfId(id);
+        if (existing >= 0) {
+            overwrite(existing, product);
+            return;
+        }
+
+        boolean reused = freeCount > 0;
+        int row = reused ? freeRows[--freeCount] : rowCount;
+        if (!reused) {
+            ensureCapacity(row + 1);
+        }
+        Segment segment = segment(row);
+        int index = row & SEGMENT_MASK;
+        segment.prices[index] = product.getPriceMinor();
+        segment.names[index] = intern(product.getName());
+        INTS.setVolatile(segment.quantities, index, product.getQuantity());
+        segment.ids[index] = id;
+        byId.add(idHash(id), row, idHashOfRow);
+        indexName(row);
+        liveCount++;
+        if (!reused) {
+            rowCount = row + 1;
+        }
+    }
+
+    // Число занятых под каталог строк, включая свободные
+    int rowCount() {
+        return rowCount;
+    }
+
+    // Замена полей строки, как замена объекта в ProductManager; резервы строки сохраняются
+    private void overwrite(int row, Product product) {
+        Segment segment = segment(row);
+        int index = row & SEGMENT_MASK;
+        unindexName(row);
+        segment.prices[index] = product.getPriceMinor();
+        segment.names[index] = intern(product.getName());
+        INTS.setVolatile(segment.quantities, index, product.getQuantity());
+        indexName(row);
+    }
+
+    // Сегменты создаются заранее; оглавление растет вдвое, копируются только ссылки
+    private void ensureCapacity(int rows) {
+        int needed = (rows + SEGMENT_MASK) >>> SEGMENT_SHIFT;
+        Segment[] current = segments;
+        if (needed <= current.length && (needed == 0 || current[needed - 1] != null)) {
+            return;
+        }
+        Segment[] grown = needed > current.length
+                ? Arrays.copyOf(current, Math.max(needed, current.length * 2))
+                : current;
+        for (int s = needed - 1; s >= 0 && grown[s] == null; s--) {
+            grown[s] = new Segment();
+        }
+        segments = grown;
+    }
+
+    private Segment segment(int row) {
+        return segments[row >>> SEGMENT_SHIFT];
+    }
+
+    // Последний добавленный продукт с названием занимает его в индексе, как в ProductManager
+    private void indexName(int row) {
+        String name = segment(row).names[row & SEGMENT_MASK];
+        if (name == null) {
+            return;
+        }
+        int hash = nameHash(name);
+        int slot = nameSlot(name, hash);
+        if (slot >= 0) {
+            byName.slots[slot] = row + 1;
+        } else {
+            byName.add(hash, row, nameHashOfRow);
+        }
+    }
+
+    private void unindexName(int row) {
+        String name = segment(row).names[row & SEGMENT_MASK];
+        if (name != null) {
+            byName.remove(byName.slotOf(nameHash(name), row), nameHashOfRow);
+        }
+    }
+
+    // Повторяющиеся названия хранятся одной строкой: берем ту, что уже лежит в индексе
+    private String intern(String name) {
+        if (name == null) {
+            return null;
+        }
+        int slot = nameSlot(name, nameHash(name));
+        if (slot >= 0) {
+            int row = byName.slots[slot] - 1;
+            String existing = segment(row).names[row & SEGMENT_MASK];
+            if (existing.equals(name)) {
+                return existing;
+            }
+        }
+        return name;
+    }
+
+    private int rowOfId(int id) {
+        int[] slots = byId.slots;
+        int mask = slots.length - 1;
+        int entry;
+        for (int slot = idHash(id) & mask; (entry = slots[slot]) != 0; slot = (slot + 1) & mask) {
+            int row = entry - 1;
+            if (segment(row).ids[row & SEGMENT_MASK] == id) {
+                return row;
+            }
+        }
+        return -1;
+    }
+
+    private int rowOfName(String name) {
+        int slot = nameSlot(name, nameHash(name));
+        return slot < 0 ? -1 : byName.slots[slot] - 1;
+    }
+
+    private int nameSlot(String name, int hash) {
+        int[] slots = byName.slots;
+        int mask = slots.length - 1;
+        int entry;
+        for (int slot = hash & mask; (entry = slots[slot]) != 0; slot = (slot + 1) & mask) {
+            int row = entry - 1;
+            if (name.equalsIgnoreCase(segment(row).names[row & SEGMENT_MASK])) {
+                return slot;
+            }
+        }
+        return -1;
+    }
+
+    private static int idHash(int id) {
+        int h = id * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    // Хеш без учета регистра, согласованный с equalsIgnoreCase; ключ в нижнем регистре не создается
+    private static int nameHash(String name) {
+        int h = 0;
+        for (int i = 0; i < name.length(); i++) {
+            h = 31 * h + Character.toLowerCase(Character.toUpperCase(name.charAt(i)));
+        }
+        return h ^ (h >>> 16);
+    }
+
+    private Product view(int row) {
+        Segment segment = segments[row >>> SEGMENT_SHIFT];
+        int index = row & SEGMENT_MASK;
+        return new RowView(segment, index, row, segment.ids[index], segment.generations[index],
+                segment.names[index], segment.prices[index]);
+    }
+
+    // Открытая адресация по номерам строк: слот хранит строку + 1, сами ключи читаются из столбцов
+    private static final class RowTable {
+        int[] slots = new int[16];
+        int size;
+
+        void add(int hash, int row, IntUnaryOperator hashOfRow) {
+            if ((size + 1) * 3 > slots.length * 2) {
+                rehash(slots.length * 2, hashOfRow);
+            }
+            int mask = slots.length - 1;
+            int slot = hash & mask;
+            while (slots[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            slots[slot] = row + 1;
+            size++;
+        }
+
+        // Слот, указывающий на строку row, или -1
+        int slotOf(int hash, int row) {
+            int mask = slots.length - 1;
+            int entry;
+            for (int slot = hash & mask; (entry = slots[slot]) != 0; slot = (slot + 1) & mask) {
+                if (entry == row + 1) {
+                    return slot;
+                }
+            }
+            return -1;
+        }
+
+        // Удаление со сдвигом назад, как в IntObjectMap
+        void remove(int slot, IntUnaryOperator hashOfRow) {
+            if (slot < 0) {
+                return;
+            }
+            int mask = slots.length - 1;
+            int gap = slot;
+            int current = slot;
+            while (true) {
+                current = (current + 1) & mask;
+                int entry = slots[current];
+                if (entry == 0) {
+                    break;
+                }
+                int home = hashOfRow.applyAsInt(entry - 1) & mask;
+                if (((current - home) & mask) >= ((current - gap) & mask)) {
+                    slots[gap] = entry;
+                    gap = current;
+                }
+            }
+            slots[gap] = 0;
+            size--;
+        }
+
+        private void rehash(int capacity, IntUnaryOperator hashOfRow) {
+            int[] previous = slots;
+            slots = new int[capacity];
+            int mask = capacity - 1;
+            for (int entry : previous) {
+                if (entry == 0) {
+                    continue;
+                }
+                int slot = hashOfRow.applyAsInt(entry - 1) & mask;
+                while (slots[slot] != 0) {
+                    slot = (slot + 1) & mask;
+                }
+                slots[slot] = entry;
+            }
+        }
+    }
+
+    // Представление строки каталога. Поля Product хранят значения на момент выдачи и отдаются,
+    // только если продукт уже удален; живая строка читается и меняется в столбцах
+    private final class RowView extends Product {
+        private final Segment segment;
+        private final int index;
+        private final int row;
+        private final int generation;
+
+        RowView(Segment segment, int index, int row, int id, int generation, String name, long priceMinor) {
+            super(id, name, priceMinor, 0);
+            this.segment = segment;
+            this.index = index;
+            this.row = row;
+            this.generation = generation;
+        }
+
+        private boolean live() {
+            return segment.ids[index] == getId() && segment.generations[index] == generation;
+        }
+
+        @Override
+        public String getName() {
+            String name = segment.names[index];
+            return live() && name != null ? name : super.getName();
+        }
+
+        @Override
+        public double getPrice() {
+            return Money.toMajor(getPriceMinor());
+        }
+
+        @Override
+        public long getPriceMinor() {
+            return live() ? segment.prices[index] : super.getPriceMinor();
+        }
+
+        @Override
+        public int getQuantity() {
+            int quantity = (int) INTS.getVolatile(segment.quantities, index);
+            return live() ? quantity : 0;
+        }
+
+        @Override
+        public void setQuantity(int quantity) {
+            if (live()) {
+                INTS.setVolatile(segment.quantities, index, quantity);
+            }
+        }
+
+        @Override
+        public boolean isAvailable(int requestedQuantity) {
+            return getQuantity() >= requestedQuantity;
+        }
+
+        @Override
+        public boolean reduceQuantity(int amount) {
+            int[] quantities = segment.quantities;
+            while (live()) {
+                int current = (int) INTS.getVolatile(quantities, index);
+                if (current < amount) {
+                    return false;
+                }
+                if (INTS.compareAndSet(quantities, index, current, current - amount)) {
+                    if (live()) {
+                        return true;
+                    }
+                    // Строку успели удалить и отдать другому продукту: списанное возвращается ему
+                    INTS.getAndAdd(quantities, index, amount);
+                    return false;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public void restoreQuantity(int amount) {
+            if (live()) {
+                INTS.getAndAdd(segment.quantities, index, amount);
+            }
+        }
+
+        @Override
+        public boolean hold(int amount) {
+            Lock holdLock = holdLocks.lockFor(row);
+            holdLock.lock();
+            try {
+                if (!reduceQuantity(amount)) {
+                    return false;
+                }
+                segment.reserved[index] += amount;
+                return true;
+            } finally {
+                holdLock.unlock();
+            }
+        }
+
+        @Override
+        public void commitHold(int amount) {
+            Lock holdLock = holdLocks.lockFor(row);
+            holdLock.lock();
+            try {
+                if (live()) {
+                    segment.reserved[index] -= amount;
+                }
+            } finally {
+                holdLock.unlock();
+            }
+        }
+
+        @Override
+        public void releaseHold(int amount) {
+            Lock holdLock = holdLocks.lockFor(row);
+            holdLock.lock();
+            try {
+                if (live()) {
+                    segment.reserved[index] -= amount;
+                    INTS.getAndAdd(segment.quantities, index, amount);
+                }
+            } finally {
+                holdLock.unlock();
+            }
+        }
+
+        @Override
+        public int getReservedQuantity() {
+            Lock holdLock = holdLocks.lockFor(row);
+            holdLock.lock();
+            try {
+                return live() ? segment.reserved[index] : 0;
+            } finally {
+                holdLock.unlock();
+            }
+        }
+
+        @Override
+        public int getQuantityIncludingHolds() {
+            Lock holdLock = holdLocks.lockFor(row);
+            holdLock.lock();
+            try {
+                return live() ? getQuantity() + segment.reserved[index] : 0;
+            } finally {
+                holdLock.unlock();
+            }
+        }
+
+        // Два представления равны, если смотрят на одну строку одного каталога
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof RowView other)) return false;
+            return segment == other.segment && index == other.index && getId() == other.getId()
+                    && generation == other.generation;
+        }
+
+        @Override
+        public int hashCode() {
+            return Integer.hashCode(getId());
+        }
+    }
+}
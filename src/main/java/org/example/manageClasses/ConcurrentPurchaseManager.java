@@ -0,0 +1,82 @@
+package org.example.manageClasses;
+
+import org.example.concurrent.StripedLocks;
+import org.example.interfaces.ICustomerManager;
+import org.example.interfaces.IProductManager;
+import org.example.journal.PurchaseJournal;
+import org.example.model.BasketLine;
+import org.example.model.PurchaseResult;
+
+import java.util.List;
+import java.util.concurrent.locks.Lock;
+import java.util.function.LongConsumer;
+
+// Потокобезопасный вариант PurchaseManager: проверка и списание остатка и баланса выполняются
+// под блокировками полосы покупателя и полос продуктов корзины, а не под одной глобальной блокировкой.
+// Сначала берется блокировка покупателя, затем блокировки продуктов по возрастанию номера полосы,
+// поэтому взаимных блокировок нет.
+public class ConcurrentPurchaseManager extends PurchaseManager {
+
+    public static final int DEFAULT_STRIPES = 1024;
+
+    private final StripedLocks customerLocks;
+    private final StripedLocks productLocks;
+
+    public ConcurrentPurchaseManager(IProductManager productManager, ICustomerManager customerManager) {
+        this(productManager, customerManager, DEFAULT_STRIPES);
+    }
+
+    public ConcurrentPurchaseManager(IProductManager productManager, ICustomerManager customerManager, int stripes) {
+        this(productManager, customerManager, null, stripes);
+    }
+
+    public ConcurrentPurchaseManager(IProductManager productManager, ICustomerManager customerManager,
+                                     PurchaseJournal journal, int stripes) {
+        this(productManager, customerManager, journal, new StripedLocks(stripes));
+    }
+
+    // Полосы продуктов общие с каталогом (см. ProductViewCache.getProductLocks): правка карточки
+    // не пересекается с покупкой того же продукта
+    public ConcurrentPurchaseManager(IProductManager productManager, ICustomerManager customerManager,
+                                     PurchaseJournal journal, StripedLocks productLocks) {
+        this(productManager, customerManager, journal, productLocks, nanos -> { });
+    }
+
+    public ConcurrentPurchaseManager(IProductManager productManager, ICustomerManager customerManager,
+                                     PurchaseJournal journal, StripedLocks productLocks, LongConsumer saveLatency) {
+        super(productManager, customerManager, journal, saveLatency);
+        this.customerLocks = new StripedLocks(productLocks.stripeCount());
+        this.productLocks = productLocks;
+    }
+
+    @Override
+    protected PurchaseResult applyCheckout(int customerId, List<BasketLine> lines) {
+        int[] stripes = productStripes(lines);
+        Lock customerLock = customerLocks.lockFor(customerId);
+        customerLock.lock();
+        try {
+            int locked = 0;
+            try {
+                for (; locked < stripes.length; locked++) {
+                    productLocks.lockAt(stripes[locked]).lock();
+                }
+                return super.applyCheckout(customerId, lines);
+            } finally {
+                while (locked > 0) {
+                    productLocks.lockAt(stripes[--locked]).unlock();
+                }
+            }
+        } finally {
+            customerLock.unlock();
+        }
+    }
+
+    // Уникальные номера полос продуктов корзины по возрастанию
+    private int[] productStripes(List<BasketLine> lines) {
+        int[] ids = new int[lines.size()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = lines.get(i).getProductId();
+        }
+        return productLocks.sortedIndexes(ids);
+    }
+}
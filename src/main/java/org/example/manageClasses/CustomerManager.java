@@ -2,25 +2,177 @@ package org.example.manageClasses;
 
 import org.example.interfaces.ICustomerManager;
 import org.example.model.Customer;
+import org.example.util.IntObjectMap;
 
-import java.util.ArrayList;
+import java.util.AbstractList;
+import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
 
+// Кассы и фоновый писатель журнала читают покупателей параллельно: поиск идет под общей
+// блокировкой, изменения под исключительной. Список для просмотра - живое представление без копии:
+// обход читает его страницами, каждую под общей блокировкой, и не задерживает изменения надолго.
 public class CustomerManager implements ICustomerManager {
-    private List<Customer> customers = new ArrayList<>();
+    private static final int PAGE_SIZE = 1024;
+
+    // Покупатели хранятся по примитивному ID без упаковки ключей в Integer
+    private final IntObjectMap<Customer> customers;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final List<Customer> customersView = new CustomersView();
+
+    public CustomerManager() {
+        this.customers = new IntObjectMap<>();
+    }
+
+    public CustomerManager(int expectedCustomers) {
+        this.customers = new IntObjectMap<>(expectedCustomers);
+    }
 
     @Override
     public void addCustomer(Customer customer) {
-        customers.add(customer);
+        lock.writeLock().lock();
+        try {
+            customers.put(customer.getId(), customer);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void addCustomers(List<Customer> customers) {
+        lock.writeLock().lock();
+        try {
+            for (Customer customer : customers) {
+                this.customers.put(customer.getId(), customer);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
     }
 
     @Override
     public void deleteCustomer(int customerId) {
-        customers.removeIf(customer -> customer.getId() == customerId);
+        lock.writeLock().lock();
+        try {
+            customers.remove(customerId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public Customer findById(int customerId) {
+        lock.readLock().lock();
+        try {
+            return customers.get(customerId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean contains(int customerId) {
+        lock.readLock().lock();
+        try {
+            return customers.containsKey(customerId);
+        } finally {
+            lock.readLock().unlock();
+        }
     }
 
     @Override
     public List<Customer> getAllCustomers() {
-        return customers;
+        return customersView;
+    }
+
+    @Override
+    public Stream<Customer> streamCustomers() {
+        return getAllCustomers().stream();
+    }
+
+    @Override
+    public int getCustomerCount() {
+        lock.readLock().lock();
+        try {
+            return customers.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private class CustomersView extends AbstractList<Customer> {
+        @Override
+        public Customer get(int index) {
+            lock.readLock().lock();
+            try {
+                if (index < 0 || index >= customers.size()) {
+                    throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + customers.size());
+                }
+                return customers.valueAt(index);
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        @Override
+        public Iterator<Customer> iterator() {
+            return new PageIterator();
+        }
+
+        @Override
+        public Spliterator<Customer> spliterator() {
+            return Spliterators.spliterator(iterator(), size(), Spliterator.ORDERED);
+        }
+
+        @Override
+        public int size() {
+            return getCustomerCount();
+        }
+    }
+
+    // Между страницами изменения не ждут; удаление переносит последнего покупателя на место удаленного,
+    // поэтому покупатель, перенесенный на уже пройденную позицию, в этот обход не попадет
+    private class PageIterator implements Iterator<Customer> {
+        private final Customer[] page = new Customer[PAGE_SIZE];
+        private int pageLength;
+        private int pagePosition;
+        private int nextIndex;
+
+        @Override
+        public boolean hasNext() {
+            if (pagePosition < pageLength) {
+                return true;
+            }
+            readPage();
+            return pageLength > 0;
+        }
+
+        @Override
+        public Customer next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return page[pagePosition++];
+        }
+
+        private void readPage() {
+            lock.readLock().lock();
+            try {
+                int count = Math.max(0, Math.min(PAGE_SIZE, customers.size() - nextIndex));
+                for (int i = 0; i < count; i++) {
+                    page[i] = customers.valueAt(nextIndex + i);
+                }
+                nextIndex += count;
+                pageLength = count;
+                pagePosition = 0;
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
     }
 }
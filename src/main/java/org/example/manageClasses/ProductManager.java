@@ -2,38 +2,156 @@ package org.example.manageClasses;
 
 import org.example.interfaces.IProductManager;
 import org.example.model.Product;
+import org.example.model.Reservation;
 
-import java.util.ArrayList;
+import java.util.AbstractList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
 
 public class ProductManager implements IProductManager {
 
-    private final List<Product> products = new ArrayList<>();
+    // Первичный индекс по ID (сохраняет порядок добавления) и вторичный индекс по названию без учета регистра
+    private final Map<Integer, Product> productsById = new LinkedHashMap<>();
+    private final Map<String, Product> productsByName = new HashMap<>();
+    // Резервы ведет внешний менеджер каталога (ProductViewCache); отдельно от кэша их можно
+    // включить, передав общий StockReservations, который закрывает его владелец
+    private final StockReservations reservations;
+    private final List<Product> productsView = new ProductsView();
+
+    public ProductManager() {
+        this(null);
+    }
+
+    public ProductManager(StockReservations reservations) {
+        this.reservations = reservations;
+    }
 
     @Override
     public void addProduct(Product product) {
-        products.add(product);
-
+        // Повторная загрузка того же ID (например, импорт CSV) - правка на месте, как updateProduct
+        if (productsById.containsKey(product.getId())) {
+            updateProduct(product.getId(), product);
+            return;
+        }
+        productsById.put(product.getId(), product);
+        productsByName.put(nameKey(product.getName()), product);
+    }
 
+    @Override
+    public void addProducts(List<Product> products) {
+        for (Product product : products) {
+            addProduct(product);
+        }
     }
+
     @Override
     public void updateProduct(int productId, Product updatedProduct) {
-        for (int i = 0; i < products.size(); i++) {
-            if (products.get(i).getId() == productId) {
-                products.set(i, updatedProduct);
-                break;
-            }
+        Product previous = productsById.get(productId);
+        if (previous == null) {
+            return;
         }
+        // Объект остается прежним: кассы, уже нашедшие продукт, списывают с живого остатка
+        productsByName.remove(nameKey(previous.getName()), previous);
+        previous.assign(updatedProduct);
+        productsByName.put(nameKey(previous.getName()), previous);
     }
 
     @Override
     public void deleteProduct(int productId) {
-        products.removeIf(product -> product.getId()==productId);
+        Product removed = productsById.remove(productId);
+        if (removed != null) {
+            productsByName.remove(nameKey(removed.getName()), removed);
+        }
+    }
+
+    @Override
+    public Product findById(int productId) {
+        return productsById.get(productId);
+    }
 
+    @Override
+    public Product findByName(String name) {
+        return name == null ? null : productsByName.get(nameKey(name));
     }
 
+    // Живое представление только для чтения, без копирования каталога
     @Override
     public List<Product> getAllProducts() {
-        return products;
+        return productsView;
+    }
+
+    @Override
+    public Stream<Product> streamProducts() {
+        return productsById.values().stream();
+    }
+
+    @Override
+    public int getProductCount() {
+        return productsById.size();
+    }
+
+    @Override
+    public Reservation reserve(int productId, int quantity, long holdMillis) {
+        return reservations().reserve(findById(productId), quantity, holdMillis);
+    }
+
+    @Override
+    public boolean confirmReservation(long reservationId) {
+        return reservations().confirm(reservationId);
+    }
+
+    @Override
+    public boolean cancelReservation(long reservationId) {
+        return reservations().cancel(reservationId);
+    }
+
+    private StockReservations reservations() {
+        if (reservations == null) {
+            throw new UnsupportedOperationException("Резервы ведет кэш каталога, а не ProductManager");
+        }
+        return reservations;
+    }
+
+    static String nameKey(String name) {
+        return name.toLowerCase(Locale.ROOT);
+    }
+
+    // Обход и потоки идут итератором индекса в порядке добавления; get(i) проходит от начала,
+    // поэтому для перебора используйте итерацию, а не индексы
+    private class ProductsView extends AbstractList<Product> {
+        @Override
+        public Product get(int index) {
+            if (index < 0 || index >= productsById.size()) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + productsById.size());
+            }
+            Iterator<Product> iterator = productsById.values().iterator();
+            for (int i = 0; i < index; i++) {
+                iterator.next();
+            }
+            return iterator.next();
+        }
+
+        @Override
+        public Iterator<Product> iterator() {
+            return Collections.unmodifiableCollection(productsById.values()).iterator();
+        }
+
+        @Override
+        public Spliterator<Product> spliterator() {
+            return Spliterators.spliterator(iterator(), size(), Spliterator.ORDERED);
+        }
+
+        @Override
+        public int size() {
+            return productsById.size();
+        }
     }
 }
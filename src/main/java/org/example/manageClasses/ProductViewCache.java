@@ -0,0 +1,233 @@
+package org.example.manageClasses;
+
+import org.example.concurrent.StripedLocks;
+import org.example.interfaces.IProductManager;
+import org.example.interfaces.ProductChangeListener;
+import org.example.model.Product;
+import org.example.model.ProductChange;
+import org.example.model.Reservation;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.stream.Stream;
+
+// Кэш каталога для чтения из касс. Поиск по ID и названию идет по ConcurrentHashMap без блокировок,
+// изменения сериализуются между собой, но читателей не ждут. Правка продукта меняет поля живого
+// объекта под блокировкой его полосы, общей с покупками, поэтому касса не спишет остаток с устаревшей
+// копии; затем номер версии увеличивается и подписчики получают событие с прежними значениями
+// отдельной копией: новая цена видна любому чтению после этой версии.
+// Списки и постраничный просмотр идут по копии каталога в порядке добавления: она снимается
+// под блокировкой записи и сбрасывается при каждом изменении, поэтому касса не обходит карту
+// основного менеджера, пока другая касса в нее пишет.
+public class ProductViewCache implements IProductManager, AutoCloseable {
+
+    private final IProductManager delegate;
+    private final ConcurrentHashMap<Integer, Product> byId = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Product> byName = new ConcurrentHashMap<>();
+    private final List<ProductChangeListener> listeners = new CopyOnWriteArrayList<>();
+    private final AtomicLong version = new AtomicLong();
+    private final Object writeLock = new Object();
+    private final StripedLocks productLocks;
+    private volatile List<Product> listing;
+    // Резервы ведет сам кэш, единственный на цепочку менеджеров: продукт для резерва берется
+    // из byId без блокировок. Поток снятия истекших резервов останавливает close
+    private final StockReservations reservations = new StockReservations();
+
+    public ProductViewCache(IProductManager delegate) {
+        this(delegate, new StripedLocks(ConcurrentPurchaseManager.DEFAULT_STRIPES));
+    }
+
+    public ProductViewCache(IProductManager delegate, StripedLocks productLocks) {
+        this.delegate = delegate;
+        this.productLocks = productLocks;
+        delegate.streamProducts().forEach(this::index);
+    }
+
+    public void addListener(ProductChangeListener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(ProductChangeListener listener) {
+        listeners.remove(listener);
+    }
+
+    // Полосы продуктов, которые нужно передать менеджеру покупок
+    public StripedLocks getProductLocks() {
+        return productLocks;
+    }
+
+    // Номер версии каталога: растет на единицу при каждом изменении
+    public long getVersion() {
+        return version.get();
+    }
+
+    @Override
+    public void addProduct(Product product) {
+        synchronized (writeLock) {
+            apply(List.of(product), () -> delegate.addProduct(product));
+        }
+    }
+
+    // Весь пакет вставляется под одной блокировкой записи; подписчики получают событие на каждый продукт
+    @Override
+    public void addProducts(List<Product> products) {
+        synchronized (writeLock) {
+            apply(products, () -> delegate.addProducts(products));
+        }
+    }
+
+    @Override
+    public void updateProduct(int productId, Product updatedProduct) {
+        synchronized (writeLock) {
+            Product live = byId.get(productId);
+            if (live == null) {
+                return;
+            }
+            Product previous;
+            Lock lock = productLocks.lockFor(productId);
+            lock.lock();
+            try {
+                previous = copyOf(live);
+                delegate.updateProduct(productId, updatedProduct);
+            } finally {
+                lock.unlock();
+            }
+            byName.remove(ProductManager.nameKey(previous.getName()), live);
+            Product current = delegate.findById(productId);
+            index(current);
+            publish(new ProductChange(ProductChange.Type.UPDATED, version.incrementAndGet(), previous, current));
+        }
+    }
+
+    @Override
+    public void deleteProduct(int productId) {
+        synchronized (writeLock) {
+            Product removed = byId.remove(productId);
+            if (removed == null) {
+                return;
+            }
+            delegate.deleteProduct(productId);
+            listing = null;
+            unindexName(removed);
+            publish(new ProductChange(ProductChange.Type.DELETED, version.incrementAndGet(), removed, null));
+        }
+    }
+
+    @Override
+    public Product findById(int productId) {
+        return byId.get(productId);
+    }
+
+    @Override
+    public Product findByName(String name) {
+        return name == null ? null : byName.get(ProductManager.nameKey(name));
+    }
+
+    @Override
+    public List<Product> getAllProducts() {
+        List<Product> current = listing;
+        if (current != null) {
+            return current;
+        }
+        synchronized (writeLock) {
+            if (listing == null) {
+                listing = List.copyOf(delegate.getAllProducts());
+            }
+            return listing;
+        }
+    }
+
+    @Override
+    public Stream<Product> streamProducts() {
+        return getAllProducts().stream();
+    }
+
+    @Override
+    public int getProductCount() {
+        return byId.size();
+    }
+
+    @Override
+    public Reservation reserve(int productId, int quantity, long holdMillis) {
+        return reservations.reserve(findById(productId), quantity, holdMillis);
+    }
+
+    @Override
+    public boolean confirmReservation(long reservationId) {
+        return reservations.confirm(reservationId);
+    }
+
+    @Override
+    public boolean cancelReservation(long reservationId) {
+        return reservations.cancel(reservationId);
+    }
+
+    @Override
+    public void close() {
+        reservations.close();
+    }
+
+    private void index(Product product) {
+        byId.put(product.getId(), product);
+        byName.put(ProductManager.nameKey(product.getName()), product);
+    }
+
+    // Под блокировкой записи. Продукт с уже известным ID основной менеджер правит на месте, поэтому
+    // такие продукты меняются под своими полосами, как в updateProduct: резервы и кассы остаются
+    // на живом объекте и после повторной загрузки каталога
+    private void apply(List<Product> products, Runnable write) {
+        Map<Integer, Product> previous = new HashMap<>();
+        for (Product product : products) {
+            Product live = byId.get(product.getId());
+            if (live != null) {
+                previous.put(product.getId(), live);
+            }
+        }
+        int[] stripes = productLocks.sortedIndexes(previous.keySet().stream().mapToInt(Integer::intValue).toArray());
+        int locked = 0;
+        try {
+            for (; locked < stripes.length; locked++) {
+                productLocks.lockAt(stripes[locked]).lock();
+            }
+            previous.replaceAll((productId, live) -> copyOf(live));
+            write.run();
+            listing = null;
+        } finally {
+            while (locked > 0) {
+                productLocks.lockAt(stripes[--locked]).unlock();
+            }
+        }
+        for (Product product : products) {
+            Product before = previous.get(product.getId());
+            Product current = delegate.findById(product.getId());
+            if (before != null) {
+                byName.remove(ProductManager.nameKey(before.getName()), current);
+            }
+            index(current);
+            publish(new ProductChange(before == null ? ProductChange.Type.ADDED : ProductChange.Type.UPDATED,
+                    version.incrementAndGet(), before, current));
+            previous.put(product.getId(), copyOf(current));
+        }
+    }
+
+    private static Product copyOf(Product product) {
+        return Product.withPriceMinor(product.getId(), product.getName(), product.getPriceMinor(),
+                product.getQuantity());
+    }
+
+    private void unindexName(Product product) {
+        byName.remove(ProductManager.nameKey(product.getName()), product);
+    }
+
+    // Под блокировкой записи: подписчики получают события строго в порядке версий
+    private void publish(ProductChange change) {
+        for (ProductChangeListener listener : listeners) {
+            listener.onProductChanged(change);
+        }
+    }
+}
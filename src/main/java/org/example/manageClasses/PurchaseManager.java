@@ -3,57 +3,159 @@ package org.example.manageClasses;
 import org.example.interfaces.ICustomerManager;
 import org.example.interfaces.IProductManager;
 import org.example.interfaces.IPurchaseManager;
+import org.example.journal.PurchaseJournal;
+import org.example.journal.RecordBuffer;
+import org.example.journal.TextPurchaseEncoder;
+import org.example.model.Basket;
+import org.example.model.BasketLine;
 import org.example.model.Customer;
+import org.example.model.Money;
 import org.example.model.Product;
 import org.example.model.Purchase;
+import org.example.model.PurchaseItem;
+import org.example.model.PurchaseResult;
+import org.example.model.Reservation;
 
-import java.io.FileWriter;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.function.LongConsumer;
 
 public class PurchaseManager implements IPurchaseManager {
+    private static final TextPurchaseEncoder TEXT_ENCODER = new TextPurchaseEncoder();
+
     private IProductManager productManager;
     private ICustomerManager customerManager;
+    private final PurchaseJournal journal;
+    private final LongConsumer saveLatency;
 
     public PurchaseManager(IProductManager productManager, ICustomerManager customerManager) {
+        this(productManager, customerManager, null);
+    }
+
+    // Покупки записываются через асинхронный журнал вместо открытия файла на каждую покупку
+    public PurchaseManager(IProductManager productManager, ICustomerManager customerManager, PurchaseJournal journal) {
+        this(productManager, customerManager, journal, nanos -> { });
+    }
+
+    // Запись покупки вызывается изнутри checkout, мимо декораторов, поэтому ее длительность
+    // в наносекундах менеджер отдает сам (см. MeteredPurchaseManager.SAVE_PURCHASE_INFO)
+    public PurchaseManager(IProductManager productManager, ICustomerManager customerManager,
+                           PurchaseJournal journal, LongConsumer saveLatency) {
         this.productManager = productManager;
         this.customerManager = customerManager;
+        this.journal = journal;
+        this.saveLatency = saveLatency;
     }
 
     @Override
     public void makePurchase(int customerId, int productId) {
-        Customer customer = customerManager.getAllCustomers().stream()
-                .filter(c -> c.getId() == customerId)
-                .findFirst()
-                .orElse(null);
-
-        Product product = productManager.getAllProducts().stream()
-                .filter(p -> p.getId() == productId)
-                .findFirst()
-                .orElse(null);
-
-        if (customer != null && product != null && customer.hasSufficientBalance(product.getPrice())) {
-            customer.deductBalance(product.getPrice());
-            Purchase purchase = new Purchase(customerId, List.of(product), product.getPrice());
-            savePurchaseInfo(purchase);
-        } else {
+        PurchaseResult result = makePurchase(customerId, productId, 1);
+        if (!result.isSuccess()) {
             System.out.println("Недостаточно средств или товар не найден.");
         }
     }
 
+    @Override
+    public PurchaseResult makePurchase(int customerId, int productId, int quantity) {
+        if (quantity <= 0) {
+            return PurchaseResult.failure(PurchaseResult.Status.INVALID_QUANTITY, productId);
+        }
+        return checkout(customerId, Basket.of(productId, quantity));
+    }
+
+    @Override
+    public PurchaseResult checkout(int customerId, Basket basket) {
+        PurchaseResult result = applyCheckout(customerId, basket.getLines());
+        // Запись в файл выполняется уже после списания, вне критической секции
+        if (result.isSuccess()) {
+            savePurchaseInfo(result.getPurchase());
+        }
+        return result;
+    }
+
+    // Проверка остатков и баланса по всей корзине и списание; сам по себе метод не синхронизирован
+    protected PurchaseResult applyCheckout(int customerId, List<BasketLine> lines) {
+        if (lines.isEmpty()) {
+            return PurchaseResult.failure(PurchaseResult.Status.INVALID_QUANTITY);
+        }
+        Customer customer = customerManager.findById(customerId);
+        if (customer == null) {
+            return PurchaseResult.failure(PurchaseResult.Status.CUSTOMER_NOT_FOUND);
+        }
+
+        // Сначала проверяем все строки, ничего не меняя
+        Product[] products = new Product[lines.size()];
+        long totalCost = 0;
+        for (int i = 0; i < products.length; i++) {
+            BasketLine line = lines.get(i);
+            Product product = productManager.findById(line.getProductId());
+            if (product == null) {
+                return PurchaseResult.failure(PurchaseResult.Status.PRODUCT_NOT_FOUND, line.getProductId());
+            }
+            if (!product.isAvailable(line.getUnreservedQuantity())) {
+                return PurchaseResult.failure(PurchaseResult.Status.OUT_OF_STOCK, line.getProductId());
+            }
+            products[i] = product;
+            totalCost = Money.add(totalCost, Money.times(product.getPriceMinor(), line.getQuantity()));
+        }
+        if (!customer.hasSufficientBalanceMinor(totalCost)) {
+            return PurchaseResult.failure(PurchaseResult.Status.INSUFFICIENT_FUNDS);
+        }
+
+        // Затем забираем товар по всем строкам. Свободный остаток после проверки могли зарезервировать
+        // другие кассы: тогда все уже взятое возвращается и корзина не оплачивается
+        for (int i = 0; i < products.length; i++) {
+            if (!takeStock(products[i], lines.get(i))) {
+                for (int j = 0; j < i; j++) {
+                    products[j].restoreQuantity(lines.get(j).getQuantity());
+                }
+                return PurchaseResult.failure(PurchaseResult.Status.OUT_OF_STOCK, lines.get(i).getProductId());
+            }
+        }
+        customer.deductBalanceMinor(totalCost);
+        List<PurchaseItem> items = new ArrayList<>(products.length);
+        for (int i = 0; i < products.length; i++) {
+            items.add(new PurchaseItem(products[i], products[i].getPriceMinor(), lines.get(i).getQuantity()));
+        }
+        return PurchaseResult.success(new Purchase(customerId, items));
+    }
+
+    // Резервы строки подтверждаются, остальное списывается из свободного остатка. Количество истекшего
+    // резерва уже вернулось в свободный остаток и берется оттуда. При нехватке строка ничего не берет.
+    private boolean takeStock(Product product, BasketLine line) {
+        int fromStock = line.getUnreservedQuantity();
+        for (Reservation reservation : line.getReservations()) {
+            if (!productManager.confirmReservation(reservation.getId())) {
+                fromStock += reservation.getQuantity();
+            }
+        }
+        if (fromStock > 0 && !product.reduceQuantity(fromStock)) {
+            product.restoreQuantity(line.getQuantity() - fromStock);
+            return false;
+        }
+        return true;
+    }
+
     @Override
     public void savePurchaseInfo(Purchase purchase) {
-        try (FileWriter writer = new FileWriter("purchases.txt", true)) {
-            writer.write("Покупатель ID: " + purchase.getCustomerId() + "\n");
-            writer.write("Дата покупки: " + purchase.getPurchaseDate() + "\n");
-            writer.write("Список товаров:\n");
-            for (Product product : purchase.getProducts()) {
-                writer.write("- " + product.getName() + ": " + product.getPrice() + "\n");
+        long started = System.nanoTime();
+        try {
+            if (journal != null) {
+                journal.append(purchase);
+                return;
+            }
+            // Без журнала пишем синхронно, одной операцией на покупку
+            RecordBuffer buffer = new RecordBuffer(256);
+            TEXT_ENCODER.encode(purchase, buffer);
+            try (FileOutputStream out = new FileOutputStream("purchases.txt", true)) {
+                buffer.writeTo(out);
+            } catch (IOException e) {
+                e.printStackTrace();
             }
-            writer.write("Сумма покупки: " + purchase.getTotalAmount() + "\n");
-            writer.write("----\n");
-        } catch (IOException e) {
-            e.printStackTrace();
+        } finally {
+            saveLatency.accept(System.nanoTime() - started);
         }
     }
 }
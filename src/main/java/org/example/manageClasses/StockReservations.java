@@ -0,0 +1,144 @@
+package org.example.manageClasses;
+
+import org.example.concurrent.TimerWheel;
+import org.example.model.Product;
+import org.example.model.Reservation;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+// Резервы остатка для многошагового оформления. Резерв сразу списывает количество из свободного
+// остатка продукта (атомарно, поэтому при борьбе за последний товар резерв просто не выдается),
+// подтверждение оставляет его списанным, отмена и истечение возвращают. Каждый резерв завершается
+// ровно одним из трех переходов: состояние меняется через compareAndSet.
+// Истекшие резервы снимает колесо таймеров; фоновый проход запускается при первом резерве.
+public class StockReservations {
+
+    public static final long DEFAULT_TICK_MILLIS = 100;
+    public static final int DEFAULT_WHEEL_SIZE = 512;
+
+    private static final int ACTIVE = 0;
+    private static final int CONFIRMED = 1;
+    private static final int CANCELLED = 2;
+    private static final int EXPIRED = 3;
+
+    private final ConcurrentHashMap<Long, Hold> holds = new ConcurrentHashMap<>();
+    private final AtomicLong ids = new AtomicLong();
+    private final TimerWheel<Hold> wheel;
+    private final LongSupplier clock;
+    private final Object sweepLock = new Object();
+    private volatile ScheduledExecutorService sweeper;
+
+    public StockReservations() {
+        this(System::currentTimeMillis, DEFAULT_TICK_MILLIS, DEFAULT_WHEEL_SIZE);
+    }
+
+    public StockReservations(LongSupplier clock, long tickMillis, int wheelSize) {
+        this.clock = clock;
+        this.wheel = new TimerWheel<>(tickMillis, wheelSize, clock.getAsLong());
+    }
+
+    // null, если продукта нет, количество не положительное или свободного остатка не хватает
+    public Reservation reserve(Product product, int quantity, long holdMillis) {
+        if (product == null || quantity <= 0 || holdMillis <= 0 || !product.hold(quantity)) {
+            return null;
+        }
+        Reservation reservation = new Reservation(ids.incrementAndGet(), product.getId(), quantity,
+                clock.getAsLong() + holdMillis);
+        Hold hold = new Hold(reservation, product);
+        holds.put(reservation.getId(), hold);
+        wheel.schedule(reservation.getExpiresAtMillis(), hold);
+        startSweeper();
+        return reservation;
+    }
+
+    // false, если резерв уже подтвержден, отменен или истек
+    public boolean confirm(long reservationId) {
+        Hold hold = finish(reservationId, CONFIRMED);
+        if (hold == null) {
+            return false;
+        }
+        hold.product.commitHold(hold.reservation.getQuantity());
+        return true;
+    }
+
+    public boolean cancel(long reservationId) {
+        Hold hold = finish(reservationId, CANCELLED);
+        if (hold == null) {
+            return false;
+        }
+        hold.product.releaseHold(hold.reservation.getQuantity());
+        return true;
+    }
+
+    // Снимает резервы с наступившим сроком; возвращает их число
+    public int expireDue() {
+        synchronized (sweepLock) {
+            return wheel.advance(clock.getAsLong(), hold -> hold.state.get() != ACTIVE, this::expire);
+        }
+    }
+
+    public int getActiveCount() {
+        return holds.size();
+    }
+
+    public void close() {
+        ScheduledExecutorService current = sweeper;
+        if (current != null) {
+            current.shutdownNow();
+        }
+    }
+
+    private boolean expire(Hold hold) {
+        if (!hold.state.compareAndSet(ACTIVE, EXPIRED)) {
+            return false;
+        }
+        holds.remove(hold.reservation.getId(), hold);
+        hold.product.releaseHold(hold.reservation.getQuantity());
+        return true;
+    }
+
+    private Hold finish(long reservationId, int state) {
+        Hold hold = holds.get(reservationId);
+        if (hold == null || !hold.state.compareAndSet(ACTIVE, state)) {
+            return null;
+        }
+        holds.remove(reservationId, hold);
+        return hold;
+    }
+
+    private void startSweeper() {
+        if (sweeper != null) {
+            return;
+        }
+        synchronized (sweepLock) {
+            if (sweeper != null) {
+                return;
+            }
+            ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "stock-reservations");
+                thread.setDaemon(true);
+                return thread;
+            });
+            long tick = wheel.getTickMillis();
+            scheduler.scheduleWithFixedDelay(this::expireDue, tick, tick, TimeUnit.MILLISECONDS);
+            sweeper = scheduler;
+        }
+    }
+
+    private static final class Hold {
+        final Reservation reservation;
+        final Product product;
+        final AtomicInteger state = new AtomicInteger(ACTIVE);
+
+        Hold(Reservation reservation, Product product) {
+            this.reservation = reservation;
+            this.product = product;
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package org.example.metrics;
+
+import org.example.events.DomainEvent;
+import org.example.events.EventHandler;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.LongAdder;
+
+// Подписчик шины событий: число событий каждого типа в реестре метрик (events.product_added и т.д.)
+public class EventCounters implements EventHandler {
+
+    private final LongAdder[] counters = new LongAdder[DomainEvent.Type.values().length];
+
+    public EventCounters(MetricsRegistry metrics) {
+        for (DomainEvent.Type type : DomainEvent.Type.values()) {
+            counters[type.ordinal()] = metrics.counter("events." + type.name().toLowerCase(Locale.ROOT));
+        }
+    }
+
+    @Override
+    public void onEvent(DomainEvent event, long sequence, boolean endOfBatch) {
+        counters[event.getType().ordinal()].increment();
+    }
+}
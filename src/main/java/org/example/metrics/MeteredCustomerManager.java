@@ -0,0 +1,90 @@
+package org.example.metrics;
+
+import org.example.interfaces.ICustomerManager;
+import org.example.model.Customer;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+// Декоратор менеджера покупателей: задержки поиска и изменений
+public class MeteredCustomerManager implements ICustomerManager {
+
+    private final ICustomerManager delegate;
+    private final LatencyHistogram add;
+    private final LatencyHistogram addBatch;
+    private final LatencyHistogram delete;
+    private final LatencyHistogram findById;
+
+    public MeteredCustomerManager(ICustomerManager delegate, MetricsRegistry metrics) {
+        this.delegate = delegate;
+        this.add = metrics.histogram("customer.add");
+        this.addBatch = metrics.histogram("customer.addBatch");
+        this.delete = metrics.histogram("customer.delete");
+        this.findById = metrics.histogram("customer.findById");
+    }
+
+    @Override
+    public void addCustomer(Customer customer) {
+        long started = System.nanoTime();
+        try {
+            delegate.addCustomer(customer);
+        } finally {
+            add.record(System.nanoTime() - started);
+        }
+    }
+
+    @Override
+    public void addCustomers(List<Customer> customers) {
+        long started = System.nanoTime();
+        try {
+            delegate.addCustomers(customers);
+        } finally {
+            addBatch.record(System.nanoTime() - started);
+        }
+    }
+
+    @Override
+    public void deleteCustomer(int customerId) {
+        long started = System.nanoTime();
+        try {
+            delegate.deleteCustomer(customerId);
+        } finally {
+            delete.record(System.nanoTime() - started);
+        }
+    }
+
+    @Override
+    public Customer findById(int customerId) {
+        long started = System.nanoTime();
+        try {
+            return delegate.findById(customerId);
+        } finally {
+            findById.record(System.nanoTime() - started);
+        }
+    }
+
+    @Override
+    public boolean contains(int customerId) {
+        long started = System.nanoTime();
+        try {
+            return delegate.contains(customerId);
+        } finally {
+            findById.record(System.nanoTime() - started);
+        }
+    }
+
+    @Override
+    public List<Customer> getAllCustomers() {
+        return delegate.getAllCustomers();
+    }
+
+    @Override
+    public Stream<Customer> streamCustomers() {
+        return delegate.streamCustomers();
+    }
+
+    @Override
+    public int getCustomerCount() {
+        return delegate.getCustomerCount();
+    }
+}
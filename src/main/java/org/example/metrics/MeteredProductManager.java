@@ -0,0 +1,127 @@
+package org.example.metrics;
+
+import org.example.interfaces.IProductManager;
+import org.example.model.Product;
+import org.example.model.Reservation;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+// Декоратор менеджера продуктов: задержки поиска и изменений каталога
+public class MeteredProductManager implements IProductManager {
+
+    private final IProductManager delegate;
+    private final LatencyHistogram add;
+    private final LatencyHistogram addBatch;
+    private final LatencyHistogram update;
+    private final LatencyHistogram delete;
+    private final LatencyHistogram findById;
+    private final LatencyHistogram findByName;
+    private final LatencyHistogram reserve;
+
+    public MeteredProductManager(IProductManager delegate, MetricsRegistry metrics) {
+        this.delegate = delegate;
+        this.add = metrics.histogram("product.add");
+        this.addBatch = metrics.histogram("product.addBatch");
+        this.update = metrics.histogram("product.update");
+        this.delete = metrics.histogram("product.delete");
+        this.findById = metrics.histogram("product.findById");
+        this.findByName = metrics.histogram("product.findByName");
+        this.reserve = metrics.histogram("product.reserve");
+    }
+
+    @Override
+    public void addProduct(Product product) {
+        long started = System.nanoTime();
+        try {
+            delegate.addProduct(product);
+        } finally {
+            add.record(System.nanoTime() - started);
+        }
+    }
+
+    @Override
+    public void addProducts(List<Product> products) {
+        long started = System.nanoTime();
+        try {
+            delegate.addProducts(products);
+        } finally {
+            addBatch.record(System.nanoTime() - started);
+        }
+    }
+
+    @Override
+    public void updateProduct(int productId, Product updatedProduct) {
+        long started = System.nanoTime();
+        try {
+            delegate.updateProduct(productId, updatedProduct);
+        } finally {
+            update.record(System.nanoTime() - started);
+        }
+    }
+
+    @Override
+    public void deleteProduct(int productId) {
+        long started = System.nanoTime();
+        try {
+            delegate.deleteProduct(productId);
+        } finally {
+            delete.record(System.nanoTime() - started);
+        }
+    }
+
+    @Override
+    public Product findById(int productId) {
+        long started = System.nanoTime();
+        try {
+            return delegate.findById(productId);
+        } finally {
+            findById.record(System.nanoTime() - started);
+        }
+    }
+
+    @Override
+    public Product findByName(String name) {
+        long started = System.nanoTime();
+        try {
+            return delegate.findByName(name);
+        } finally {
+            findByName.record(System.nanoTime() - started);
+        }
+    }
+
+    @Override
+    public List<Product> getAllProducts() {
+        return delegate.getAllProducts();
+    }
+
+    @Override
+    public Stream<Product> streamProducts() {
+        return delegate.streamProducts();
+    }
+
+    @Override
+    public int getProductCount() {
+        return delegate.getProductCount();
+    }
+
+    @Override
+    public Reservation reserve(int productId, int quantity, long holdMillis) {
+        long started = System.nanoTime();
+        try {
+            return delegate.reserve(productId, quantity, holdMillis);
+        } finally {
+            reserve.record(System.nanoTime() - started);
+        }
+    }
+
+    @Override
+    public boolean confirmReservation(long reservationId) {
+        return delegate.confirmReservation(reservationId);
+    }
+
+    @Override
+    public boolean cancelReservation(long reservationId) {
+        return delegate.cancelReservation(reservationId);
+    }
+}
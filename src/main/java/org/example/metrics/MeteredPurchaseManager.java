@@ -0,0 +1,59 @@
+package org.example.metrics;
+
+import org.example.interfaces.IPurchaseManager;
+import org.example.model.Basket;
+import org.example.model.Purchase;
+import org.example.model.PurchaseResult;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.LongAdder;
+
+// Декоратор менеджера покупок: задержки покупок и счетчики исходов по статусу. Запись покупки
+// вызывается изнутри checkout делегата, мимо декоратора, поэтому ее задержку менеджер покупок
+// отдает сам в гистограмму SAVE_PURCHASE_INFO (см. PurchaseManager и Shop)
+public class MeteredPurchaseManager implements IPurchaseManager {
+
+    public static final String SAVE_PURCHASE_INFO = "purchase.savePurchaseInfo";
+
+    private final IPurchaseManager delegate;
+    private final LatencyHistogram makePurchase;
+    private final LatencyHistogram checkout;
+    private final LongAdder[] outcomes = new LongAdder[PurchaseResult.Status.values().length];
+
+    public MeteredPurchaseManager(IPurchaseManager delegate, MetricsRegistry metrics) {
+        this.delegate = delegate;
+        this.makePurchase = metrics.histogram("purchase.makePurchase");
+        this.checkout = metrics.histogram("purchase.checkout");
+        for (PurchaseResult.Status status : PurchaseResult.Status.values()) {
+            outcomes[status.ordinal()] = metrics.counter("purchase." + status.name().toLowerCase(Locale.ROOT));
+        }
+    }
+
+    @Override
+    public void makePurchase(int customerId, int productId) {
+        delegate.makePurchase(customerId, productId);
+    }
+
+    @Override
+    public PurchaseResult makePurchase(int customerId, int productId, int quantity) {
+        long started = System.nanoTime();
+        PurchaseResult result = delegate.makePurchase(customerId, productId, quantity);
+        makePurchase.record(System.nanoTime() - started);
+        outcomes[result.getStatus().ordinal()].increment();
+        return result;
+    }
+
+    @Override
+    public PurchaseResult checkout(int customerId, Basket basket) {
+        long started = System.nanoTime();
+        PurchaseResult result = delegate.checkout(customerId, basket);
+        checkout.record(System.nanoTime() - started);
+        outcomes[result.getStatus().ordinal()].increment();
+        return result;
+    }
+
+    @Override
+    public void savePurchaseInfo(Purchase purchase) {
+        delegate.savePurchaseInfo(purchase);
+    }
+}
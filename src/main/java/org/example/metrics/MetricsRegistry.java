@@ -0,0 +1,77 @@
+package org.example.metrics;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+// Реестр счетчиков и гистограмм по имени. Декораторы берут свои метрики один раз при создании,
+// поэтому на каждый вызов остаются только nanoTime и инкремент, без поиска по имени.
+public class MetricsRegistry implements AutoCloseable {
+
+    private final Map<String, LongAdder> counters = new ConcurrentHashMap<>();
+    private final Map<String, LatencyHistogram> histograms = new ConcurrentHashMap<>();
+    private final long startedNanos = System.nanoTime();
+    private ScheduledExecutorService scheduler;
+
+    public LongAdder counter(String name) {
+        return counters.computeIfAbsent(name, key -> new LongAdder());
+    }
+
+    public LatencyHistogram histogram(String name) {
+        return histograms.computeIfAbsent(name, key -> new LatencyHistogram());
+    }
+
+    // Текстовый отчет: по каждой операции число вызовов, вызовов в секунду с запуска и
+    // задержки p50/p99/p999/max в микросекундах, затем счетчики
+    public String report() {
+        double seconds = Math.max(1e-9, (System.nanoTime() - startedNanos) / 1e9);
+        StringBuilder text = new StringBuilder();
+        text.append(String.format(Locale.ROOT, "%-32s %10s %10s %9s %9s %9s %9s%n",
+                "операция", "вызовов", "в сек", "p50 мкс", "p99 мкс", "p999 мкс", "max мкс"));
+        for (Map.Entry<String, LatencyHistogram> entry : new TreeMap<>(histograms).entrySet()) {
+            LatencyHistogram.Snapshot snapshot = entry.getValue().snapshot();
+            if (snapshot.getTotalCount() == 0) {
+                continue;
+            }
+            text.append(String.format(Locale.ROOT, "%-32s %10d %10.1f %9.2f %9.2f %9.2f %9.2f%n",
+                    entry.getKey(), snapshot.getTotalCount(), snapshot.getTotalCount() / seconds,
+                    micros(snapshot.getValueAtPercentile(50)), micros(snapshot.getValueAtPercentile(99)),
+                    micros(snapshot.getValueAtPercentile(99.9)), micros(snapshot.getMaxValue())));
+        }
+        for (Map.Entry<String, LongAdder> entry : new TreeMap<>(counters).entrySet()) {
+            text.append(String.format(Locale.ROOT, "%-32s %10d%n", entry.getKey(), entry.getValue().sum()));
+        }
+        return text.toString();
+    }
+
+    // Периодический вывод отчета, например в консоль или лог
+    public synchronized void startPeriodicReport(long intervalMillis, Consumer<String> sink) {
+        if (scheduler != null) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "metrics-report");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleAtFixedRate(() -> sink.accept(report()), intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public synchronized void close() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+
+    private static double micros(long nanos) {
+        return nanos / 1000.0;
+    }
+}
@@ -0,0 +1,58 @@
+package org.example.model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Корзина из нескольких строк (ID продукта, количество); повторные строки одного продукта суммируются.
+// Строка может опираться на резервы: зарезервированное количество при оплате не берется повторно.
+public class Basket {
+    private final Map<Integer, Integer> quantities = new LinkedHashMap<>();
+    private final Map<Integer, List<Reservation>> reservations = new HashMap<>();
+
+    public static Basket of(int productId, int quantity) {
+        Basket basket = new Basket();
+        basket.addLine(productId, quantity);
+        return basket;
+    }
+
+    public Basket addLine(int productId, int quantity) {
+        if (quantity <= 0) {
+            throw new IllegalArgumentException("Количество должно быть положительным: " + quantity);
+        }
+        quantities.merge(productId, quantity, Math::addExact);
+        return this;
+    }
+
+    public Basket addReserved(Reservation reservation) {
+        addLine(reservation.getProductId(), reservation.getQuantity());
+        reservations.computeIfAbsent(reservation.getProductId(), id -> new ArrayList<>(1)).add(reservation);
+        return this;
+    }
+
+    public List<Reservation> getReservations() {
+        List<Reservation> all = new ArrayList<>();
+        reservations.values().forEach(all::addAll);
+        return all;
+    }
+
+    public boolean isEmpty() {
+        return quantities.isEmpty();
+    }
+
+    public int size() {
+        return quantities.size();
+    }
+
+    public List<BasketLine> getLines() {
+        List<BasketLine> lines = new ArrayList<>(quantities.size());
+        for (Map.Entry<Integer, Integer> entry : quantities.entrySet()) {
+            lines.add(new BasketLine(entry.getKey(), entry.getValue(),
+                    reservations.getOrDefault(entry.getKey(), List.of())));
+        }
+        return Collections.unmodifiableList(lines);
+    }
+}
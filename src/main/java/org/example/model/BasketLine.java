@@ -0,0 +1,41 @@
+package org.example.model;
+
+import java.util.List;
+
+// Строка корзины: ID продукта, запрошенное количество и резервы, под которые взята часть количества
+public class BasketLine {
+    private final int productId;
+    private final int quantity;
+    private final List<Reservation> reservations;
+
+    public BasketLine(int productId, int quantity) {
+        this(productId, quantity, List.of());
+    }
+
+    public BasketLine(int productId, int quantity, List<Reservation> reservations) {
+        this.productId = productId;
+        this.quantity = quantity;
+        this.reservations = List.copyOf(reservations);
+    }
+
+    public int getProductId() {
+        return productId;
+    }
+
+    public int getQuantity() {
+        return quantity;
+    }
+
+    public List<Reservation> getReservations() {
+        return reservations;
+    }
+
+    // Количество, которое при оплате берется из свободного остатка
+    public int getUnreservedQuantity() {
+        int unreserved = quantity;
+        for (Reservation reservation : reservations) {
+            unreserved -= reservation.getQuantity();
+        }
+        return unreserved;
+    }
+}
@@ -1,31 +1,44 @@
 package org.example.model;
 
 import java.math.BigDecimal;
-import java.math.RoundingMode;
 
 public class Customer {
     private int id;
     private String name;
-    private BigDecimal balance;
+    private volatile long balance; // баланс в копейках, см. Money
 
 
     public Customer(int id, String name, double balance) {
+        this(id, name, Money.ofMajor(balance));
+    }
+
+    private Customer(int id, String name, long balance) {
         this.id = id;
         this.name = name;
-        this.balance = new BigDecimal(balance).setScale(2, RoundingMode.HALF_UP);
+        this.balance = balance;
     }
 
-    public boolean hasSufficientBalance(double amount) {
-        return balance.compareTo(new BigDecimal(amount)) >= 0;
+    // Создание покупателя с балансом, уже выраженным в копейках
+    public static Customer withBalanceMinor(int id, String name, long balanceMinor) {
+        return new Customer(id, name, balanceMinor);
+    }
 
+    public boolean hasSufficientBalance(double amount) {
+        return hasSufficientBalanceMinor(Money.ofMajor(amount));
     }
 
+    public boolean hasSufficientBalanceMinor(long amountMinor) {
+        return balance >= amountMinor;
+    }
 
 
 
     public void deductBalance(double amount) {
-        BigDecimal amountToDeduct = new BigDecimal(amount);
-        this.balance = this.balance.subtract(amountToDeduct).setScale(2, RoundingMode.HALF_UP);
+        deductBalanceMinor(Money.ofMajor(amount));
+    }
+
+    public void deductBalanceMinor(long amountMinor) {
+        this.balance = Math.subtractExact(balance, amountMinor);
     }
 
     public int getId() {
@@ -45,6 +58,10 @@ public class Customer {
     }
 
     public BigDecimal getBalance() {
+        return Money.toBigDecimal(balance);
+    }
+
+    public long getBalanceMinor() {
         return balance;
     }
 
@@ -0,0 +1,72 @@
+package org.example.model;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+// Денежные суммы с фиксированной точкой: long в копейках (минорных единицах).
+// Арифметика на горячем пути идет по long без создания объектов и без ошибок двоичной плавающей точки.
+// Правило округления одно: при переводе из рублей (double или строки) - до копейки, половина вверх (HALF_UP).
+// Переполнение при умножении и сложении приводит к ArithmeticException, а не к тихому неверному результату.
+public final class Money {
+
+    public static final int SCALE = 2;
+    public static final long MINOR_PER_MAJOR = 100;
+
+    private Money() {
+    }
+
+    // Рубли -> копейки; double переводится через десятичную запись, поэтому 1.005 дает 101, а не 100
+    public static long ofMajor(double amount) {
+        if (Double.isNaN(amount) || Double.isInfinite(amount)) {
+            throw new ArithmeticException("Некорректная сумма: " + amount);
+        }
+        return BigDecimal.valueOf(amount).setScale(SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    public static long ofMajor(BigDecimal amount) {
+        return amount.setScale(SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    public static long parse(String amount) {
+        return ofMajor(new BigDecimal(amount.trim()));
+    }
+
+    public static long times(long unitPrice, int quantity) {
+        return Math.multiplyExact(unitPrice, quantity);
+    }
+
+    public static long add(long left, long right) {
+        return Math.addExact(left, right);
+    }
+
+    public static double toMajor(long minor) {
+        return minor / (double) MINOR_PER_MAJOR;
+    }
+
+    public static BigDecimal toBigDecimal(long minor) {
+        return BigDecimal.valueOf(minor, SCALE);
+    }
+
+    // Всегда две цифры после точки: 1234 -> "12.34", -5 -> "-0.05"
+    public static String format(long minor) {
+        StringBuilder text = new StringBuilder(24);
+        appendTo(text, minor);
+        return text.toString();
+    }
+
+    public static StringBuilder appendTo(StringBuilder text, long minor) {
+        if (minor < 0) {
+            text.append('-');
+            if (minor == Long.MIN_VALUE) {
+                return text.append(toBigDecimal(minor).negate());
+            }
+            minor = -minor;
+        }
+        long kopecks = minor % MINOR_PER_MAJOR;
+        text.append(minor / MINOR_PER_MAJOR).append('.');
+        if (kopecks < 10) {
+            text.append('0');
+        }
+        return text.append(kopecks);
+    }
+}
@@ -0,0 +1,56 @@
+package org.example.model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+// Одна страница списка: элементы, смещение первого из них и признак, что дальше есть еще
+public class Page<T> {
+
+    private final List<T> items;
+    private final int offset;
+    private final boolean hasMore;
+
+    private Page(List<T> items, int offset, boolean hasMore) {
+        this.items = items;
+        this.offset = offset;
+        this.hasMore = hasMore;
+    }
+
+    // Берет из потока не больше limit + 1 элементов: лишний нужен только для признака hasMore
+    public static <T> Page<T> of(Stream<T> source, int offset, int limit) {
+        if (offset < 0 || limit <= 0) {
+            throw new IllegalArgumentException("Неверные границы страницы: " + offset + ", " + limit);
+        }
+        List<T> items = new ArrayList<>(Math.min(limit, 256));
+        boolean hasMore = false;
+        Iterator<T> iterator = source.skip(offset).limit(limit + 1L).iterator();
+        while (iterator.hasNext()) {
+            T item = iterator.next();
+            if (items.size() == limit) {
+                hasMore = true;
+                break;
+            }
+            items.add(item);
+        }
+        return new Page<>(Collections.unmodifiableList(items), offset, hasMore);
+    }
+
+    public List<T> getItems() {
+        return items;
+    }
+
+    public int getOffset() {
+        return offset;
+    }
+
+    public boolean hasMore() {
+        return hasMore;
+    }
+
+    public boolean isEmpty() {
+        return items.isEmpty();
+    }
+}
@@ -1,32 +1,96 @@
 package org.example.model;
 
 import java.util.Objects;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
 
 public class Product {
+    private static final AtomicIntegerFieldUpdater<Product> QUANTITY =
+            AtomicIntegerFieldUpdater.newUpdater(Product.class, "quantity");
+
     private int id;
-    private String name;
-    private double price;
-    private int quantity; // Новое поле для количества
+    private volatile String name;
+    private volatile long price; // цена в копейках, см. Money
+    private volatile int quantity; // Новое поле для количества; свободный остаток без резервов
+    private int reserved; // удерживается резервами касс, под монитором продукта
 
     public Product(int id, String name, double price, int quantity) {
+        this(id, name, Money.ofMajor(price), quantity);
+    }
+
+    // Для представлений, которые хранят поля вне объекта (см. ColumnarProductManager)
+    protected Product(int id, String name, long price, int quantity) {
         this.id = id;
         this.name = name;
         this.price = price;
         this.quantity = quantity;
     }
 
+    // Создание продукта с ценой, уже выраженной в копейках
+    public static Product withPriceMinor(int id, String name, long priceMinor, int quantity) {
+        return new Product(id, name, priceMinor, quantity);
+    }
+
     // Проверка, есть ли товар в наличии
     public boolean isAvailable(int requestedQuantity) {
         return quantity >= requestedQuantity;
     }
 
-    // Метод для уменьшения количества после покупки
-    public void reduceQuantity(int amount) {
-        if (isAvailable(amount)) {
-            this.quantity -= amount;
+    // Метод для уменьшения количества после покупки. Проверка и списание атомарны:
+    // при нехватке остатка возвращает false, ничего не меняя
+    public boolean reduceQuantity(int amount) {
+        while (true) {
+            int current = quantity;
+            if (current < amount) {
+                return false;
+            }
+            if (QUANTITY.compareAndSet(this, current, current - amount)) {
+                return true;
+            }
         }
     }
 
+    // Возврат списанного количества, например при отмене корзины
+    public void restoreQuantity(int amount) {
+        QUANTITY.addAndGet(this, amount);
+    }
+
+    // Резерв: количество уходит из свободного остатка и удерживается до подтверждения или снятия
+    public synchronized boolean hold(int amount) {
+        if (!reduceQuantity(amount)) {
+            return false;
+        }
+        reserved += amount;
+        return true;
+    }
+
+    // Подтвержденный резерв продан: остаток уже уменьшен, удержание просто снимается
+    public synchronized void commitHold(int amount) {
+        reserved -= amount;
+    }
+
+    // Отмененный или истекший резерв возвращается в свободный остаток
+    public synchronized void releaseHold(int amount) {
+        reserved -= amount;
+        restoreQuantity(amount);
+    }
+
+    public synchronized int getReservedQuantity() {
+        return reserved;
+    }
+
+    // Остаток вместе с неподтвержденными резервами - для снимка: резервы не переживают перезапуск
+    public synchronized int getQuantityIncludingHolds() {
+        return quantity + reserved;
+    }
+
+    // Правка карточки на месте: кассы и резервы, держащие этот объект, видят новые поля,
+    // а количество, удержанное резервами, сохраняется
+    public synchronized void assign(Product source) {
+        this.name = source.getName();
+        this.price = source.getPriceMinor();
+        this.quantity = source.getQuantity();
+    }
+
     // Getters и Setters
     public int getId() {
         return id;
@@ -36,7 +100,12 @@ public class Product {
         return name;
     }
 
+    // Цена в рублях; для расчетов используйте getPriceMinor
     public double getPrice() {
+        return Money.toMajor(price);
+    }
+
+    public long getPriceMinor() {
         return price;
     }
 
@@ -54,7 +123,7 @@ public class Product {
         if (o == null || getClass() != o.getClass()) return false;
         Product product = (Product) o;
         return id == product.id &&
-                Double.compare(product.price, price) == 0 &&
+                price == product.price &&
                 quantity == product.quantity &&
                 Objects.equals(name, product.name);
     }
@@ -0,0 +1,43 @@
+package org.example.model;
+
+// Событие изменения каталога: версия каталога после изменения и продукт до и после него
+public class ProductChange {
+
+    public enum Type {
+        ADDED,
+        UPDATED,
+        DELETED
+    }
+
+    private final Type type;
+    private final long version;
+    private final Product previous; // null для ADDED
+    private final Product current;  // null для DELETED
+
+    public ProductChange(Type type, long version, Product previous, Product current) {
+        this.type = type;
+        this.version = version;
+        this.previous = previous;
+        this.current = current;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public Product getPrevious() {
+        return previous;
+    }
+
+    public Product getCurrent() {
+        return current;
+    }
+
+    public int getProductId() {
+        return current != null ? current.getId() : previous.getId();
+    }
+}
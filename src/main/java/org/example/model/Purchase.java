@@ -1,18 +1,39 @@
 package org.example.model;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 
 public class Purchase {
     private int customerId;
     private List<Product> products;
-    private double totalAmount;
+    private List<PurchaseItem> items;
+    private long totalAmount; // в копейках
     private LocalDateTime purchaseDate;
 
     public Purchase(int customerId, List<Product> products, double totalAmount) {
         this.customerId = customerId;
         this.products = products;
-        this.totalAmount = totalAmount;
+        this.totalAmount = Money.ofMajor(totalAmount);
+        this.purchaseDate = LocalDateTime.now();
+        // Для покупок без позиций считаем, что каждый продукт куплен в одном экземпляре
+        this.items = new ArrayList<>(products.size());
+        for (Product product : products) {
+            items.add(new PurchaseItem(product, product.getPriceMinor(), 1));
+        }
+    }
+
+    // Покупка корзины: сумма считается по позициям
+    public Purchase(int customerId, List<PurchaseItem> items) {
+        this.customerId = customerId;
+        this.items = items;
+        this.products = new ArrayList<>(items.size());
+        long total = 0;
+        for (PurchaseItem item : items) {
+            products.add(item.getProduct());
+            total = Money.add(total, item.getAmountMinor());
+        }
+        this.totalAmount = total;
         this.purchaseDate = LocalDateTime.now();
     }
 
@@ -30,12 +51,21 @@ public class Purchase {
         this.products = products;
     }
 
+    public List<PurchaseItem> getItems() {
+        return items;
+    }
+
+    // Сумма в рублях; для расчетов используйте getTotalAmountMinor
     public double getTotalAmount() {
+        return Money.toMajor(totalAmount);
+    }
+
+    public long getTotalAmountMinor() {
         return totalAmount;
     }
 
     public void setTotalAmount(double totalAmount) {
-        this.totalAmount = totalAmount;
+        this.totalAmount = Money.ofMajor(totalAmount);
     }
 
     public LocalDateTime getPurchaseDate() {
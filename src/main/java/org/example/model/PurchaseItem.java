@@ -0,0 +1,44 @@
+package org.example.model;
+
+// Позиция покупки: продукт, его ID, название и цена в копейках на момент покупки и купленное количество.
+// Продукт правится на месте, а журнал кодирует покупку позже в фоне, поэтому все форматы журнала
+// берут название из позиции, а не из живого продукта, и не расходятся после переименования
+public class PurchaseItem {
+    private final Product product;
+    private final int productId;
+    private final String name;
+    private final long unitPrice;
+    private final int quantity;
+
+    public PurchaseItem(Product product, long unitPriceMinor, int quantity) {
+        this.product = product;
+        this.productId = product.getId();
+        this.name = product.getName();
+        this.unitPrice = unitPriceMinor;
+        this.quantity = quantity;
+    }
+
+    public Product getProduct() {
+        return product;
+    }
+
+    public int getProductId() {
+        return productId;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getUnitPriceMinor() {
+        return unitPrice;
+    }
+
+    public int getQuantity() {
+        return quantity;
+    }
+
+    public long getAmountMinor() {
+        return Money.times(unitPrice, quantity);
+    }
+}
@@ -0,0 +1,53 @@
+package org.example.model;
+
+// Результат попытки покупки: статус и, при успехе, созданная покупка
+public class PurchaseResult {
+
+    public enum Status {
+        SUCCESS,
+        INVALID_QUANTITY,
+        CUSTOMER_NOT_FOUND,
+        PRODUCT_NOT_FOUND,
+        OUT_OF_STOCK,
+        INSUFFICIENT_FUNDS
+    }
+
+    private final Status status;
+    private final Purchase purchase;
+    private final int failedProductId;
+
+    private PurchaseResult(Status status, Purchase purchase, int failedProductId) {
+        this.status = status;
+        this.purchase = purchase;
+        this.failedProductId = failedProductId;
+    }
+
+    public static PurchaseResult success(Purchase purchase) {
+        return new PurchaseResult(Status.SUCCESS, purchase, 0);
+    }
+
+    public static PurchaseResult failure(Status status) {
+        return new PurchaseResult(status, null, 0);
+    }
+
+    // Неудача из-за конкретной строки корзины (продукт не найден или его не хватает)
+    public static PurchaseResult failure(Status status, int productId) {
+        return new PurchaseResult(status, null, productId);
+    }
+
+    public boolean isSuccess() {
+        return status == Status.SUCCESS;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public Purchase getPurchase() {
+        return purchase;
+    }
+
+    public int getFailedProductId() {
+        return failedProductId;
+    }
+}
@@ -0,0 +1,32 @@
+package org.example.model;
+
+// Резерв остатка за кассой: ID резерва, продукт, количество и момент истечения (мс эпохи)
+public class Reservation {
+    private final long id;
+    private final int productId;
+    private final int quantity;
+    private final long expiresAtMillis;
+
+    public Reservation(long id, int productId, int quantity, long expiresAtMillis) {
+        this.id = id;
+        this.productId = productId;
+        this.quantity = quantity;
+        this.expiresAtMillis = expiresAtMillis;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public int getProductId() {
+        return productId;
+    }
+
+    public int getQuantity() {
+        return quantity;
+    }
+
+    public long getExpiresAtMillis() {
+        return expiresAtMillis;
+    }
+}
@@ -0,0 +1,27 @@
+package org.example.replenishment;
+
+// Порог заказа и срок поставки, заданные для продукта вручную
+public class ReorderPolicy {
+
+    private final int productId;
+    private final int reorderPoint;
+    private final long leadTimeMillis;
+
+    public ReorderPolicy(int productId, int reorderPoint, long leadTimeMillis) {
+        this.productId = productId;
+        this.reorderPoint = reorderPoint;
+        this.leadTimeMillis = leadTimeMillis;
+    }
+
+    public int getProductId() {
+        return productId;
+    }
+
+    public int getReorderPoint() {
+        return reorderPoint;
+    }
+
+    public long getLeadTimeMillis() {
+        return leadTimeMillis;
+    }
+}
@@ -0,0 +1,77 @@
+package org.example.replenishment;
+
+import org.example.journal.RecordBuffer;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+// Пороги заказа переживают перезапуск в отдельном файле рядом со снимком: скорость продаж
+// восстанавливается по новым покупкам, а настройки вводятся вручную и теряться не должны.
+// Файл: int MAGIC, int число порогов, затем (int ID продукта, int порог, long срок поставки)
+public class ReorderPolicyStore {
+
+    private static final int MAGIC = 0x4753524F; // "GSRO"
+
+    private final Path file;
+
+    public ReorderPolicyStore(Path file) {
+        this.file = file;
+    }
+
+    // Пустой список, если пороги еще не сохранялись
+    public List<ReorderPolicy> load() throws IOException {
+        List<ReorderPolicy> policies = new ArrayList<>();
+        if (!Files.isRegularFile(file)) {
+            return policies;
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(file));
+        try {
+            if (buffer.getInt() != MAGIC) {
+                throw new IOException("Файл не является файлом порогов заказа: " + file);
+            }
+            for (int i = buffer.getInt(); i > 0; i--) {
+                policies.add(new ReorderPolicy(buffer.getInt(), buffer.getInt(), buffer.getLong()));
+            }
+        } catch (BufferUnderflowException e) {
+            throw new IOException("Файл порогов заказа поврежден: " + file, e);
+        }
+        return policies;
+    }
+
+    // Пороги снимаются под тем же монитором, что и запись: при одновременном сохранении с разных
+    // касс последний записанный файл содержит и последнее изменение
+    public synchronized void save(ReplenishmentPlanner planner) throws IOException {
+        List<ReorderPolicy> policies = planner.getReorderPolicies();
+        RecordBuffer out = new RecordBuffer(8 + policies.size() * 16);
+        out.writeInt(MAGIC);
+        out.writeInt(policies.size());
+        for (ReorderPolicy policy : policies) {
+            out.writeInt(policy.getProductId());
+            out.writeInt(policy.getReorderPoint());
+            out.writeLong(policy.getLeadTimeMillis());
+        }
+
+        Path directory = file.toAbsolutePath().getParent();
+        Path temp = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                ByteBuffer buffer = out.asByteBuffer();
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                channel.force(true);
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+}
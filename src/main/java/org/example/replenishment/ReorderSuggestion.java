@@ -0,0 +1,53 @@
+package org.example.replenishment;
+
+// Предложение заказа по одному продукту на момент последней проверки
+public class ReorderSuggestion {
+
+    private final int productId;
+    private final String productName;
+    private final int stock;
+    private final double unitsPerDay;
+    private final int quantity;
+    private final long createdAtMillis;
+
+    public ReorderSuggestion(int productId, String productName, int stock, double unitsPerDay, int quantity,
+                             long createdAtMillis) {
+        this.productId = productId;
+        this.productName = productName;
+        this.stock = stock;
+        this.unitsPerDay = unitsPerDay;
+        this.quantity = quantity;
+        this.createdAtMillis = createdAtMillis;
+    }
+
+    public int getProductId() {
+        return productId;
+    }
+
+    public String getProductName() {
+        return productName;
+    }
+
+    public int getStock() {
+        return stock;
+    }
+
+    // Скорость продаж, штук в день
+    public double getUnitsPerDay() {
+        return unitsPerDay;
+    }
+
+    // На сколько дней хватит остатка при текущей скорости; бесконечность, если продаж нет
+    public double getDaysOfCover() {
+        return unitsPerDay > 0 ? stock / unitsPerDay : Double.POSITIVE_INFINITY;
+    }
+
+    // Сколько заказать
+    public int getQuantity() {
+        return quantity;
+    }
+
+    public long getCreatedAtMillis() {
+        return createdAtMillis;
+    }
+}
@@ -0,0 +1,186 @@
+package org.example.replenishment;
+
+import org.example.events.DomainEvent;
+import org.example.events.EventHandler;
+import org.example.model.Product;
+import org.example.model.PurchaseItem;
+import org.example.util.IntObjectMap;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+// План пополнения по событиям шины. На каждую строку покупки, то есть на каждое списание остатка,
+// обновляется скорость продаж этого продукта и проверяется только он: каталог целиком не
+// просматривается. Скорость - экспоненциально затухающее среднее с окном windowMillis, поэтому
+// на продукт хранится несколько чисел независимо от числа продаж.
+//
+// Заказ предлагается, когда остаток не выше порога заказа продукта или при текущей скорости
+// закончится раньше, чем придет поставка (срок поставки продукта). Количество покрывает продажи
+// за срок поставки и еще coverMillis, плюс порог как страховой запас. Предложение снимается,
+// когда остаток после пополнения снова достаточен.
+public class ReplenishmentPlanner implements EventHandler {
+
+    public static final long DAY_MILLIS = 86_400_000L;
+    public static final int DEFAULT_REORDER_POINT = 5;
+    public static final long DEFAULT_LEAD_TIME_MILLIS = 3 * DAY_MILLIS;
+    public static final long DEFAULT_COVER_MILLIS = 7 * DAY_MILLIS;
+    public static final long DEFAULT_WINDOW_MILLIS = 7 * DAY_MILLIS;
+
+    private final int defaultReorderPoint;
+    private final long defaultLeadTimeMillis;
+    private final long coverMillis;
+    private final long windowMillis;
+    // Состояние продуктов меняется потоком подписчика и меню настройки порогов, под монитором планировщика
+    private final IntObjectMap<StockState> states = new IntObjectMap<>();
+    private final ConcurrentHashMap<Integer, ReorderSuggestion> suggestions = new ConcurrentHashMap<>();
+
+    private static final class StockState {
+        double rate;           // штук в миллисекунду на момент updatedAt
+        long updatedAt;
+        int reorderPoint;
+        long leadTimeMillis;
+        boolean customPolicy; // порог задан вручную и сохраняется в ReorderPolicyStore
+
+        StockState(int reorderPoint, long leadTimeMillis) {
+            this.reorderPoint = reorderPoint;
+            this.leadTimeMillis = leadTimeMillis;
+        }
+
+        double rateAt(long nowMillis, long windowMillis) {
+            long elapsed = Math.max(0, nowMillis - updatedAt);
+            return rate * Math.exp(-(double) elapsed / windowMillis);
+        }
+
+        void addSale(int quantity, long nowMillis, long windowMillis) {
+            rate = rateAt(nowMillis, windowMillis) + (double) quantity / windowMillis;
+            updatedAt = Math.max(updatedAt, nowMillis);
+        }
+    }
+
+    public ReplenishmentPlanner() {
+        this(DEFAULT_REORDER_POINT, DEFAULT_LEAD_TIME_MILLIS, DEFAULT_COVER_MILLIS, DEFAULT_WINDOW_MILLIS);
+    }
+
+    public ReplenishmentPlanner(int defaultReorderPoint, long defaultLeadTimeMillis, long coverMillis, long windowMillis) {
+        this.defaultReorderPoint = defaultReorderPoint;
+        this.defaultLeadTimeMillis = defaultLeadTimeMillis;
+        this.coverMillis = coverMillis;
+        this.windowMillis = Math.max(1, windowMillis);
+    }
+
+    @Override
+    public void onEvent(DomainEvent event, long sequence, boolean endOfBatch) {
+        switch (event.getType()) {
+            case PURCHASE_COMPLETED -> {
+                for (PurchaseItem item : event.getPurchase().getItems()) {
+                    recordSale(item.getProduct(), item.getQuantity(), event.getEpochMillis());
+                }
+            }
+            // Поставка или правка остатка может закрыть предложение; новый продукт с малым остатком - открыть
+            case PRODUCT_ADDED, PRODUCT_UPDATED -> check(event.getProduct(), event.getEpochMillis());
+            case PRODUCT_DELETED -> forget(event.getEntityId());
+            default -> {
+            }
+        }
+    }
+
+    public synchronized void recordSale(Product product, int quantity, long nowMillis) {
+        StockState state = state(product.getId());
+        state.addSale(quantity, nowMillis, windowMillis);
+        evaluate(product, state, nowMillis);
+    }
+
+    public synchronized void check(Product product, long nowMillis) {
+        StockState state = states.get(product.getId());
+        if (state == null) {
+            // Продаж еще не было: предложение возможно только по порогу
+            if (product.getQuantity() > defaultReorderPoint) {
+                suggestions.remove(product.getId());
+                return;
+            }
+            state = state(product.getId());
+        }
+        evaluate(product, state, nowMillis);
+    }
+
+    // Проверка всего каталога при подключении планировщика: по остаткам, восстановленным из снимка,
+    // предложения появляются сразу, а не после первой продажи или правки продукта
+    public void checkAll(Iterable<Product> products, long nowMillis) {
+        for (Product product : products) {
+            check(product, nowMillis);
+        }
+    }
+
+    // Порог заказа и срок поставки продукта; действуют со следующей проверки
+    public synchronized void setReorderPolicy(int productId, int reorderPoint, long leadTimeMillis) {
+        StockState state = state(productId);
+        state.reorderPoint = reorderPoint;
+        state.leadTimeMillis = leadTimeMillis;
+        state.customPolicy = true;
+    }
+
+    // Только пороги, заданные вручную; для остальных продуктов действуют значения по умолчанию
+    public synchronized List<ReorderPolicy> getReorderPolicies() {
+        List<ReorderPolicy> policies = new ArrayList<>();
+        for (int i = 0; i < states.size(); i++) {
+            StockState state = states.valueAt(i);
+            if (state.customPolicy) {
+                policies.add(new ReorderPolicy(states.keyAt(i), state.reorderPoint, state.leadTimeMillis));
+            }
+        }
+        return policies;
+    }
+
+    public synchronized int getReorderPoint(int productId) {
+        StockState state = states.get(productId);
+        return state != null ? state.reorderPoint : defaultReorderPoint;
+    }
+
+    public synchronized double getUnitsPerDay(int productId, long nowMillis) {
+        StockState state = states.get(productId);
+        return state != null ? state.rateAt(nowMillis, windowMillis) * DAY_MILLIS : 0;
+    }
+
+    public ReorderSuggestion getSuggestion(int productId) {
+        return suggestions.get(productId);
+    }
+
+    // Самые срочные - те, чьего остатка хватит на меньшее число дней
+    public List<ReorderSuggestion> getSuggestions() {
+        List<ReorderSuggestion> result = new ArrayList<>(suggestions.values());
+        result.sort(Comparator.comparingDouble(ReorderSuggestion::getDaysOfCover)
+                .thenComparingInt(ReorderSuggestion::getProductId));
+        return result;
+    }
+
+    private synchronized void forget(int productId) {
+        states.remove(productId);
+        suggestions.remove(productId);
+    }
+
+    private StockState state(int productId) {
+        StockState state = states.get(productId);
+        if (state == null) {
+            state = new StockState(defaultReorderPoint, defaultLeadTimeMillis);
+            states.put(productId, state);
+        }
+        return state;
+    }
+
+    private void evaluate(Product product, StockState state, long nowMillis) {
+        int stock = product.getQuantity();
+        double rate = state.rateAt(nowMillis, windowMillis);
+        boolean belowPoint = stock <= state.reorderPoint;
+        boolean runsOutBeforeDelivery = rate > 0 && stock / rate <= state.leadTimeMillis;
+        if (!belowPoint && !runsOutBeforeDelivery) {
+            suggestions.remove(product.getId());
+            return;
+        }
+        long demand = (long) Math.ceil(rate * (state.leadTimeMillis + coverMillis));
+        int quantity = (int) Math.min(Integer.MAX_VALUE, Math.max(1, demand + state.reorderPoint - stock));
+        suggestions.put(product.getId(), new ReorderSuggestion(product.getId(), product.getName(), stock,
+                rate * DAY_MILLIS, quantity, nowMillis));
+    }
+}
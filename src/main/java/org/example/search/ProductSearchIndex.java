@@ -0,0 +1,267 @@
+package org.example.search;
+
+import org.example.interfaces.IProductManager;
+import org.example.interfaces.ProductChangeListener;
+import org.example.model.Product;
+import org.example.model.ProductChange;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Поиск продуктов по частям названия. Название разбивается на слова (буквы и цифры, без учета
+// регистра, 'ё' = 'е'): "Яйца (десяток)" -> "яйца", "десяток". Обратный индекс хранит для каждого
+// слова ID продуктов, префиксное дерево над словами находит все слова с заданным началом.
+// Каждый узел дерева знает, сколько ссылок на продукты под ним, поэтому запрос из нескольких слов
+// перебирает продукты только самого редкого из них, а остальные слова проверяет по названию.
+// Индекс обновляется по событиям кэша каталога, без полного пересчета.
+public class ProductSearchIndex implements ProductChangeListener {
+
+    private final IProductManager productManager;
+    private final Map<String, Set<Integer>> postings = new HashMap<>();
+    private final Node root = new Node();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private static final class Node {
+        private static final char[] NO_KEYS = new char[0];
+        private static final Node[] NO_CHILDREN = new Node[0];
+
+        char[] keys = NO_KEYS;     // отсортированы
+        Node[] children = NO_CHILDREN;
+        int size;
+        String token;              // не null, если здесь заканчивается слово из индекса
+        int count;                 // ссылок на продукты во всем поддереве
+
+        Node child(char key) {
+            int index = Arrays.binarySearch(keys, 0, size, key);
+            return index >= 0 ? children[index] : null;
+        }
+
+        Node getOrAddChild(char key) {
+            int index = Arrays.binarySearch(keys, 0, size, key);
+            if (index >= 0) {
+                return children[index];
+            }
+            index = -index - 1;
+            if (size == keys.length) {
+                int capacity = Math.max(2, size * 2);
+                keys = Arrays.copyOf(keys, capacity);
+                children = Arrays.copyOf(children, capacity);
+            }
+            System.arraycopy(keys, index, keys, index + 1, size - index);
+            System.arraycopy(children, index, children, index + 1, size - index);
+            Node node = new Node();
+            keys[index] = key;
+            children[index] = node;
+            size++;
+            return node;
+        }
+
+        void removeChild(char key) {
+            int index = Arrays.binarySearch(keys, 0, size, key);
+            if (index >= 0) {
+                System.arraycopy(keys, index + 1, keys, index, size - index - 1);
+                System.arraycopy(children, index + 1, children, index, size - index - 1);
+                children[--size] = null;
+            }
+        }
+    }
+
+    // Индексирует текущий каталог; дальнейшие изменения приходят через onProductChanged
+    public ProductSearchIndex(IProductManager productManager) {
+        this.productManager = productManager;
+        productManager.streamProducts().forEach(this::add);
+    }
+
+    @Override
+    public void onProductChanged(ProductChange change) {
+        switch (change.getType()) {
+            case ADDED -> add(change.getCurrent());
+            case DELETED -> remove(change.getPrevious());
+            case UPDATED -> {
+                if (!change.getPrevious().getName().equals(change.getCurrent().getName())
+                        || change.getPrevious().getId() != change.getCurrent().getId()) {
+                    remove(change.getPrevious());
+                    add(change.getCurrent());
+                }
+            }
+        }
+    }
+
+    // Продукты, в названии которых для каждого слова запроса есть слово с таким началом
+    public List<Product> search(String query, int limit) {
+        List<String> queryTokens = tokens(query);
+        List<Product> result = new ArrayList<>();
+        if (queryTokens.isEmpty() || limit <= 0) {
+            return result;
+        }
+        lock.readLock().lock();
+        try {
+            // Самое редкое слово запроса задает кандидатов
+            Node rarest = null;
+            String rarestToken = null;
+            for (String token : queryTokens) {
+                Node node = find(token);
+                if (node == null) {
+                    return result;
+                }
+                if (rarest == null || node.count < rarest.count) {
+                    rarest = node;
+                    rarestToken = token;
+                }
+            }
+            Set<Integer> seen = new HashSet<>();
+            collect(rarest, rarestToken, queryTokens, seen, result, limit);
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int getTokenCount() {
+        lock.readLock().lock();
+        try {
+            return postings.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Слова названия в нормализованном виде, без повторов
+    static List<String> tokens(String text) {
+        Set<String> tokens = new LinkedHashSet<>();
+        StringBuilder current = new StringBuilder();
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                c = Character.toLowerCase(c);
+                current.append(c == 'ё' ? 'е' : c);
+            } else if (current.length() > 0) {
+                tokens.add(current.toString());
+                current.setLength(0);
+            }
+        }
+        if (current.length() > 0) {
+            tokens.add(current.toString());
+        }
+        return new ArrayList<>(tokens);
+    }
+
+    private void add(Product product) {
+        lock.writeLock().lock();
+        try {
+            for (String token : tokens(product.getName())) {
+                Set<Integer> ids = postings.computeIfAbsent(token, key -> new HashSet<>());
+                if (ids.add(product.getId())) {
+                    Node node = root;
+                    node.count++;
+                    for (int i = 0; i < token.length(); i++) {
+                        node = node.getOrAddChild(token.charAt(i));
+                        node.count++;
+                    }
+                    node.token = token;
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void remove(Product product) {
+        lock.writeLock().lock();
+        try {
+            for (String token : tokens(product.getName())) {
+                Set<Integer> ids = postings.get(token);
+                if (ids == null || !ids.remove(product.getId())) {
+                    continue;
+                }
+                if (ids.isEmpty()) {
+                    postings.remove(token);
+                }
+                removeFromTrie(token, ids.isEmpty());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Уменьшает счетчики по пути слова и отрезает ветки, в которых не осталось ссылок
+    private void removeFromTrie(String token, boolean lastPosting) {
+        Node node = root;
+        node.count--;
+        for (int i = 0; i < token.length(); i++) {
+            Node child = node.child(token.charAt(i));
+            child.count--;
+            if (child.count == 0) {
+                node.removeChild(token.charAt(i));
+                return;
+            }
+            node = child;
+        }
+        if (lastPosting) {
+            node.token = null;
+        }
+    }
+
+    private Node find(String prefix) {
+        Node node = root;
+        for (int i = 0; i < prefix.length() && node != null; i++) {
+            node = node.child(prefix.charAt(i));
+        }
+        return node;
+    }
+
+    // Обход поддерева в алфавитном порядке слов; возвращает false, когда набрано limit продуктов
+    private boolean collect(Node node, String candidateToken, List<String> queryTokens,
+                            Set<Integer> seen, List<Product> result, int limit) {
+        if (node.token != null) {
+            for (Integer id : postings.get(node.token)) {
+                if (!seen.add(id)) {
+                    continue;
+                }
+                Product product = productManager.findById(id);
+                if (product != null && matchesAll(product, candidateToken, queryTokens)) {
+                    result.add(product);
+                    if (result.size() >= limit) {
+                        return false;
+                    }
+                }
+            }
+        }
+        for (int i = 0; i < node.size; i++) {
+            if (!collect(node.children[i], candidateToken, queryTokens, seen, result, limit)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean matchesAll(Product product, String candidateToken, List<String> queryTokens) {
+        if (queryTokens.size() == 1) {
+            return true;
+        }
+        List<String> nameTokens = tokens(product.getName());
+        for (String queryToken : queryTokens) {
+            if (queryToken.equals(candidateToken)) {
+                continue;
+            }
+            boolean found = false;
+            for (String nameToken : nameTokens) {
+                if (nameToken.startsWith(queryToken)) {
+                    found = true;
+                    break;
+                }
+            }
+            if (!found) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,134 @@
+package org.example.server;
+
+import org.example.Shop;
+import org.example.input.SessionInput;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Сервер касс: каждая касса подключается по локальному сокету и работает со своим меню
+// в отдельном виртуальном потоке. Менеджеры, журналы и индексы магазина общие для всех касс,
+// поэтому одна JVM обслуживает сотни касс; ожидание ввода не занимает потоки платформы.
+public class TillServer implements AutoCloseable {
+
+    public static final int DEFAULT_PORT = 7070;
+    private static final int BACKLOG = 512;
+    private static final int OUTPUT_BUFFER_SIZE = 8 * 1024;
+
+    private final Shop store;
+    private final ServerSocket serverSocket;
+    private final ExecutorService sessions = Executors.newVirtualThreadPerTaskExecutor();
+    private final Set<Socket> connected = ConcurrentHashMap.newKeySet();
+    private final AtomicLong accepted = new AtomicLong();
+    private final Thread acceptor;
+    private volatile boolean closed;
+
+    // Порт 0 - любой свободный, см. getPort
+    public TillServer(Shop store, int port) throws IOException {
+        this.store = store;
+        this.serverSocket = new ServerSocket(port, BACKLOG, InetAddress.getLoopbackAddress());
+        this.acceptor = Thread.ofVirtual().name("till-acceptor").unstarted(this::acceptLoop);
+    }
+
+    public void start() {
+        acceptor.start();
+    }
+
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    public int getActiveSessions() {
+        return connected.size();
+    }
+
+    public long getAcceptedSessions() {
+        return accepted.get();
+    }
+
+    // Ждет остановки сервера
+    public void join() throws InterruptedException {
+        acceptor.join();
+    }
+
+    // Отключает все кассы и дожидается завершения их сеансов; магазин остается открытым
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        serverSocket.close();
+        for (Socket socket : connected) {
+            closeQuietly(socket);
+        }
+        sessions.close();
+        try {
+            acceptor.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void acceptLoop() {
+        while (!closed) {
+            Socket socket;
+            try {
+                socket = serverSocket.accept();
+            } catch (IOException e) {
+                if (!closed) {
+                    System.out.println("Ошибка при подключении кассы: " + e.getMessage());
+                }
+                continue;
+            }
+            accepted.incrementAndGet();
+            connected.add(socket);
+            // close мог уже пройти по списку подключенных касс
+            if (closed) {
+                connected.remove(socket);
+                closeQuietly(socket);
+                continue;
+            }
+            try {
+                sessions.execute(() -> serve(socket));
+            } catch (RejectedExecutionException e) {
+                connected.remove(socket);
+                closeQuietly(socket);
+            }
+        }
+    }
+
+    private void serve(Socket socket) {
+        try (socket;
+             PrintStream out = new PrintStream(new BufferedOutputStream(socket.getOutputStream(), OUTPUT_BUFFER_SIZE),
+                     false, StandardCharsets.UTF_8);
+             SessionInput input = new SessionInput(socket.getInputStream(), out)) {
+            store.openTill(input, out).start();
+            out.flush();
+        } catch (IOException | NoSuchElementException | UncheckedIOException e) {
+            // Касса отключилась: закрывается только ее сеанс
+        } catch (RuntimeException e) {
+            System.out.println("Сеанс кассы прерван: " + e);
+        } finally {
+            connected.remove(socket);
+        }
+    }
+
+    private static void closeQuietly(Socket socket) {
+        try {
+            socket.close();
+        } catch (IOException ignored) {
+            // сокет уже закрыт
+        }
+    }
+}
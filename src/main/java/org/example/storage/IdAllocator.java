@@ -0,0 +1,156 @@
+package org.example.storage;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Выдача ID новых продуктов и покупателей. На каждый тип - атомарный счетчик без блокировок;
+// на диск пишется только верхняя граница выданного блока, один раз на blockSize ID.
+// После перезапуска выдача продолжается с границы сохраненного блока: невыданные номера
+// теряются, но повторов не бывает, даже если после сбоя коллекции меньше, чем было.
+// Файл: int MAGIC, затем long граница для каждого типа в порядке Kind.
+public class IdAllocator {
+
+    public enum Kind {
+        PRODUCT,
+        CUSTOMER
+    }
+
+    public static final int DEFAULT_BLOCK_SIZE = 1000;
+    private static final int MAGIC = 0x47534944; // "GSID"
+    private static final int FILE_SIZE = Integer.BYTES + Kind.values().length * Long.BYTES;
+
+    private final Path file;
+    private final int blockSize;
+    private final Sequence[] sequences = new Sequence[Kind.values().length];
+
+    private static final class Sequence {
+        final AtomicLong next = new AtomicLong(1);
+        volatile long reserved; // выдавать можно ID до этой границы включительно
+    }
+
+    // Только в памяти, без сохранения границ
+    public IdAllocator() {
+        this.file = null;
+        this.blockSize = DEFAULT_BLOCK_SIZE;
+        for (int i = 0; i < sequences.length; i++) {
+            sequences[i] = new Sequence();
+            sequences[i].reserved = Integer.MAX_VALUE;
+        }
+    }
+
+    public IdAllocator(Path file) throws IOException {
+        this(file, DEFAULT_BLOCK_SIZE);
+    }
+
+    public IdAllocator(Path file, int blockSize) throws IOException {
+        if (blockSize <= 0) {
+            throw new IllegalArgumentException("Размер блока должен быть положительным: " + blockSize);
+        }
+        this.file = file;
+        this.blockSize = blockSize;
+        for (int i = 0; i < sequences.length; i++) {
+            sequences[i] = new Sequence();
+        }
+        load();
+    }
+
+    public int nextId(Kind kind) {
+        Sequence sequence = sequences[kind.ordinal()];
+        long id = sequence.next.getAndIncrement();
+        if (id > sequence.reserved) {
+            reserveThrough(sequence, id);
+        }
+        return toId(id);
+    }
+
+    // Блок подряд идущих ID для пакетной вставки или другого узла: [first, first + size)
+    public int reserveBlock(Kind kind, int size) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("Размер блока должен быть положительным: " + size);
+        }
+        Sequence sequence = sequences[kind.ordinal()];
+        long first = sequence.next.getAndAdd(size);
+        long last = first + size - 1;
+        toId(last);
+        if (last > sequence.reserved) {
+            reserveThrough(sequence, last);
+        }
+        return (int) first;
+    }
+
+    // Продолжить выдачу не ниже existingId + 1: для данных, загруженных без файла границ
+    public void advancePast(Kind kind, int existingId) {
+        Sequence sequence = sequences[kind.ordinal()];
+        sequence.next.accumulateAndGet(existingId + 1L, Math::max);
+        if (existingId > sequence.reserved) {
+            reserveThrough(sequence, existingId);
+        }
+    }
+
+    // Граница поднимается только после записи файла: пока запись идет, кассы с ID за старой
+    // границей ждут на этом мониторе и не получат номер, которого нет на диске
+    private synchronized void reserveThrough(Sequence sequence, long id) {
+        if (id <= sequence.reserved) {
+            return;
+        }
+        long bound = Math.min(Integer.MAX_VALUE, id + blockSize);
+        try {
+            save(sequence, bound);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Ошибка при сохранении границы ID", e);
+        }
+        sequence.reserved = bound;
+    }
+
+    private static int toId(long id) {
+        if (id > Integer.MAX_VALUE) {
+            throw new IllegalStateException("Исчерпан диапазон ID");
+        }
+        return (int) id;
+    }
+
+    private void load() throws IOException {
+        if (!Files.isRegularFile(file)) {
+            return;
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(file));
+        if (buffer.remaining() != FILE_SIZE || buffer.getInt() != MAGIC) {
+            throw new IOException("Файл границ ID поврежден: " + file);
+        }
+        for (Sequence sequence : sequences) {
+            long reserved = buffer.getLong();
+            sequence.reserved = reserved;
+            sequence.next.set(reserved + 1);
+        }
+    }
+
+    // Под монитором this; запись во временный файл и атомарное переименование, как у снимка.
+    // Для raised пишется новая граница bound, для остальных типов - текущая
+    private void save(Sequence raised, long bound) throws IOException {
+        if (file == null) {
+            return;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(FILE_SIZE);
+        buffer.putInt(MAGIC);
+        for (Sequence sequence : sequences) {
+            buffer.putLong(sequence == raised ? bound : sequence.reserved);
+        }
+        buffer.flip();
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(true);
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
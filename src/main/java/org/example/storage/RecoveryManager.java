@@ -0,0 +1,76 @@
+package org.example.storage;
+
+import org.example.interfaces.ICustomerManager;
+import org.example.interfaces.IProductManager;
+
+import java.io.IOException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// Восстановление состояния после сбоя (последний снимок + записи журнала после него)
+// и контрольные точки, после которых журнал изменений очищается
+public class RecoveryManager implements AutoCloseable {
+
+    private final SnapshotStore snapshotStore;
+    private final WriteAheadLog wal;
+    private final IProductManager productManager;
+    private final ICustomerManager customerManager;
+    private ScheduledExecutorService scheduler;
+
+    // Менеджеры передаются без декораторов журнала, чтобы восстановление не писало в журнал повторно
+    public RecoveryManager(SnapshotStore snapshotStore, WriteAheadLog wal,
+                           IProductManager productManager, ICustomerManager customerManager) {
+        this.snapshotStore = snapshotStore;
+        this.wal = wal;
+        this.productManager = productManager;
+        this.customerManager = customerManager;
+    }
+
+    // Возвращает количество примененных записей журнала или -1, если восстанавливать нечего
+    public long recover() throws IOException {
+        long snapshotSequence = snapshotStore.load(productManager, customerManager);
+        long[] replayed = {0};
+        wal.replay(Math.max(snapshotSequence, 0), (sequence, type, payload) -> {
+            WalRecords.apply(type, payload, productManager, customerManager);
+            replayed[0]++;
+        });
+        wal.advanceSequence(snapshotSequence);
+        return snapshotSequence < 0 && replayed[0] == 0 ? -1 : replayed[0];
+    }
+
+    public long checkpoint() throws IOException {
+        return wal.checkpoint(sequence -> snapshotStore.save(productManager, customerManager, sequence));
+    }
+
+    public synchronized void startPeriodicCheckpoints(long intervalMillis) {
+        if (scheduler != null) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "checkpoint");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(() -> {
+            try {
+                checkpoint();
+            } catch (IOException e) {
+                System.out.println("Ошибка при создании контрольной точки: " + e.getMessage());
+            }
+        }, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public synchronized void close() {
+        if (scheduler != null) {
+            scheduler.shutdown();
+            try {
+                scheduler.awaitTermination(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            scheduler = null;
+        }
+    }
+}
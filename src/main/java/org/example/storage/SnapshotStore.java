@@ -0,0 +1,157 @@
+package org.example.storage;
+
+import org.example.interfaces.ICustomerManager;
+import org.example.interfaces.IProductManager;
+import org.example.journal.RecordBuffer;
+import org.example.model.Customer;
+import org.example.model.Product;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+// Снимок каталога и покупателей в двоичном файле с фиксированной разметкой:
+//   заголовок: int MAGIC, int VERSION, int число продуктов, int число покупателей,
+//              long номер последней записи журнала изменений, вошедшей в снимок
+//   продукты:   int ID, int количество, long цена в копейках, int смещение имени, int длина имени
+//   покупатели: int ID, int смещение имени, int длина имени, int резерв, long баланс в копейках
+//   имена:      байты UTF-8 всех имен подряд (смещения отсчитываются от начала этого блока)
+// Загрузка читает файл через отображение в память, запись идет во временный файл с последующим
+// атомарным переименованием, поэтому после сбоя на диске остается либо старый, либо новый снимок.
+public class SnapshotStore {
+
+    private static final int MAGIC = 0x47534E50; // "GSNP"
+    private static final int VERSION = 3;
+    private static final int HEADER_SIZE = 4 * Integer.BYTES + Long.BYTES;
+    private static final int PRODUCT_RECORD_SIZE = 4 * Integer.BYTES + Long.BYTES;
+    private static final int CUSTOMER_RECORD_SIZE = 4 * Integer.BYTES + Long.BYTES;
+
+    private final Path file;
+
+    public SnapshotStore(Path file) {
+        this.file = file;
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    public boolean exists() {
+        return Files.isRegularFile(file);
+    }
+
+    public void save(IProductManager productManager, ICustomerManager customerManager) throws IOException {
+        save(productManager, customerManager, 0);
+    }
+
+    public void save(IProductManager productManager, ICustomerManager customerManager,
+                     long checkpointSequence) throws IOException {
+        List<Product> products = productManager.getAllProducts();
+        List<Customer> customers = customerManager.getAllCustomers();
+
+        RecordBuffer records = new RecordBuffer(HEADER_SIZE + products.size() * PRODUCT_RECORD_SIZE
+                + customers.size() * CUSTOMER_RECORD_SIZE);
+        RecordBuffer names = new RecordBuffer(Math.max(16, (products.size() + customers.size()) * 16));
+
+        records.writeInt(MAGIC);
+        records.writeInt(VERSION);
+        records.writeInt(products.size());
+        records.writeInt(customers.size());
+        records.writeLong(checkpointSequence);
+        for (Product product : products) {
+            records.writeInt(product.getId());
+            // Неподтвержденные резервы после перезапуска не восстанавливаются, их количество снова свободно
+            records.writeInt(product.getQuantityIncludingHolds());
+            records.writeLong(product.getPriceMinor());
+            writeName(product.getName(), records, names);
+        }
+        // Список покупателей - живое представление: в заголовок идет число действительно записанных
+        int customerCount = 0;
+        for (Customer customer : customers) {
+            records.writeInt(customer.getId());
+            writeName(customer.getName(), records, names);
+            records.writeInt(0);
+            records.writeLong(customer.getBalanceMinor());
+            customerCount++;
+        }
+        records.putInt(3 * Integer.BYTES, customerCount);
+
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            writeFully(channel, records.asByteBuffer());
+            writeFully(channel, names.asByteBuffer());
+            channel.force(true);
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    // Загружает снимок в менеджеры; возвращает номер записи журнала, на которой сделан снимок,
+    // или -1, если снимка нет
+    public long load(IProductManager productManager, ICustomerManager customerManager) throws IOException {
+        if (!exists()) {
+            return -1;
+        }
+        long checkpointSequence;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_SIZE || size > Integer.MAX_VALUE) {
+                throw new IOException("Некорректный размер снимка: " + size);
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+                throw new IOException("Файл не является снимком магазина версии " + VERSION + ": " + file);
+            }
+            int productCount = buffer.getInt(8);
+            int customerCount = buffer.getInt(12);
+            checkpointSequence = buffer.getLong(16);
+            long namesStart = HEADER_SIZE + (long) productCount * PRODUCT_RECORD_SIZE
+                    + (long) customerCount * CUSTOMER_RECORD_SIZE;
+            if (productCount < 0 || customerCount < 0 || namesStart > size) {
+                throw new IOException("Снимок поврежден: " + file);
+            }
+
+            int position = HEADER_SIZE;
+            for (int i = 0; i < productCount; i++, position += PRODUCT_RECORD_SIZE) {
+                String name = readName(buffer, (int) namesStart, buffer.getInt(position + 16), buffer.getInt(position + 20));
+                productManager.addProduct(Product.withPriceMinor(buffer.getInt(position), name,
+                        buffer.getLong(position + 8), buffer.getInt(position + 4)));
+            }
+            for (int i = 0; i < customerCount; i++, position += CUSTOMER_RECORD_SIZE) {
+                String name = readName(buffer, (int) namesStart, buffer.getInt(position + 4), buffer.getInt(position + 8));
+                customerManager.addCustomer(Customer.withBalanceMinor(buffer.getInt(position), name,
+                        buffer.getLong(position + 16)));
+            }
+        }
+        return checkpointSequence;
+    }
+
+    private static void writeName(String name, RecordBuffer records, RecordBuffer names) {
+        byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+        records.writeInt(names.size());
+        records.writeInt(bytes.length);
+        names.writeBytes(bytes);
+    }
+
+    private static String readName(ByteBuffer buffer, int namesStart, int offset, int length) throws IOException {
+        if (offset < 0 || length < 0 || (long) namesStart + offset + length > buffer.limit()) {
+            throw new IOException("Снимок поврежден: имя за пределами файла");
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(namesStart + offset, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer bytes) throws IOException {
+        while (bytes.hasRemaining()) {
+            channel.write(bytes);
+        }
+    }
+}
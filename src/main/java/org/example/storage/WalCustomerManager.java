@@ -0,0 +1,92 @@
+package org.example.storage;
+
+import org.example.interfaces.ICustomerManager;
+import org.example.model.Customer;
+
+import java.util.List;
+import java.util.concurrent.locks.Lock;
+import java.util.stream.Stream;
+
+// Декоратор менеджера покупателей: добавление и удаление фиксируются в журнале изменений
+public class WalCustomerManager implements ICustomerManager {
+
+    private final ICustomerManager delegate;
+    private final WriteAheadLog wal;
+
+    public WalCustomerManager(ICustomerManager delegate, WriteAheadLog wal) {
+        this.delegate = delegate;
+        this.wal = wal;
+    }
+
+    @Override
+    public void addCustomer(Customer customer) {
+        long sequence;
+        Lock lock = wal.mutationLock();
+        lock.lock();
+        try {
+            delegate.addCustomer(customer);
+            sequence = wal.append(WalRecords.ADD_CUSTOMER, out -> WalRecords.writeCustomer(out, customer));
+        } finally {
+            lock.unlock();
+        }
+        wal.awaitDurable(sequence);
+    }
+
+    @Override
+    public void addCustomers(List<Customer> customers) {
+        if (customers.isEmpty()) {
+            return;
+        }
+        long sequence = 0;
+        Lock lock = wal.mutationLock();
+        lock.lock();
+        try {
+            delegate.addCustomers(customers);
+            for (Customer customer : customers) {
+                sequence = wal.append(WalRecords.ADD_CUSTOMER, out -> WalRecords.writeCustomer(out, customer));
+            }
+        } finally {
+            lock.unlock();
+        }
+        wal.awaitDurable(sequence);
+    }
+
+    @Override
+    public void deleteCustomer(int customerId) {
+        long sequence;
+        Lock lock = wal.mutationLock();
+        lock.lock();
+        try {
+            delegate.deleteCustomer(customerId);
+            sequence = wal.append(WalRecords.DELETE_CUSTOMER, out -> out.writeInt(customerId));
+        } finally {
+            lock.unlock();
+        }
+        wal.awaitDurable(sequence);
+    }
+
+    @Override
+    public Customer findById(int customerId) {
+        return delegate.findById(customerId);
+    }
+
+    @Override
+    public boolean contains(int customerId) {
+        return delegate.contains(customerId);
+    }
+
+    @Override
+    public List<Customer> getAllCustomers() {
+        return delegate.getAllCustomers();
+    }
+
+    @Override
+    public Stream<Customer> streamCustomers() {
+        return delegate.streamCustomers();
+    }
+
+    @Override
+    public int getCustomerCount() {
+        return delegate.getCustomerCount();
+    }
+}
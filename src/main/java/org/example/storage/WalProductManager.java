@@ -0,0 +1,132 @@
+package org.example.storage;
+
+import org.example.interfaces.IProductManager;
+import org.example.model.Product;
+import org.example.model.Reservation;
+
+import java.util.List;
+import java.util.concurrent.locks.Lock;
+import java.util.stream.Stream;
+
+// Декоратор менеджера продуктов: каждое изменение каталога фиксируется в журнале изменений.
+// Правки каталога редки и идут под исключительной блокировкой журнала, не пересекаясь с покупками
+public class WalProductManager implements IProductManager {
+
+    private final IProductManager delegate;
+    private final WriteAheadLog wal;
+
+    public WalProductManager(IProductManager delegate, WriteAheadLog wal) {
+        this.delegate = delegate;
+        this.wal = wal;
+    }
+
+    @Override
+    public void addProduct(Product product) {
+        long sequence;
+        Lock lock = wal.exclusiveLock();
+        lock.lock();
+        try {
+            delegate.addProduct(product);
+            sequence = wal.append(WalRecords.ADD_PRODUCT, out -> WalRecords.writeProduct(out, product));
+        } finally {
+            lock.unlock();
+        }
+        wal.awaitDurable(sequence);
+    }
+
+    // Одна блокировка и одно ожидание сброса на весь пакет вместо fsync на каждый продукт
+    @Override
+    public void addProducts(List<Product> products) {
+        if (products.isEmpty()) {
+            return;
+        }
+        long sequence = 0;
+        Lock lock = wal.exclusiveLock();
+        lock.lock();
+        try {
+            delegate.addProducts(products);
+            for (Product product : products) {
+                sequence = wal.append(WalRecords.ADD_PRODUCT, out -> WalRecords.writeProduct(out, product));
+            }
+        } finally {
+            lock.unlock();
+        }
+        wal.awaitDurable(sequence);
+    }
+
+    @Override
+    public void updateProduct(int productId, Product updatedProduct) {
+        long sequence;
+        Lock lock = wal.exclusiveLock();
+        lock.lock();
+        try {
+            if (delegate.findById(productId) == null) {
+                return;
+            }
+            delegate.updateProduct(productId, updatedProduct);
+            // При восстановлении продукт заменяется по ID из записи
+            Product logged = Product.withPriceMinor(productId, updatedProduct.getName(),
+                    updatedProduct.getPriceMinor(), updatedProduct.getQuantity());
+            sequence = wal.append(WalRecords.UPDATE_PRODUCT, out -> WalRecords.writeProduct(out, logged));
+        } finally {
+            lock.unlock();
+        }
+        wal.awaitDurable(sequence);
+    }
+
+    @Override
+    public void deleteProduct(int productId) {
+        long sequence;
+        Lock lock = wal.exclusiveLock();
+        lock.lock();
+        try {
+            delegate.deleteProduct(productId);
+            sequence = wal.append(WalRecords.DELETE_PRODUCT, out -> out.writeInt(productId));
+        } finally {
+            lock.unlock();
+        }
+        wal.awaitDurable(sequence);
+    }
+
+    @Override
+    public Product findById(int productId) {
+        return delegate.findById(productId);
+    }
+
+    @Override
+    public Product findByName(String name) {
+        return delegate.findByName(name);
+    }
+
+    @Override
+    public List<Product> getAllProducts() {
+        return delegate.getAllProducts();
+    }
+
+    @Override
+    public Stream<Product> streamProducts() {
+        return delegate.streamProducts();
+    }
+
+    @Override
+    public int getProductCount() {
+        return delegate.getProductCount();
+    }
+
+    // Резервы не журналируются: после перезапуска они не восстанавливаются, а продажа по резерву
+    // попадает в журнал как покупка
+    @Override
+    public Reservation reserve(int productId, int quantity, long holdMillis) {
+        return delegate.reserve(productId, quantity, holdMillis);
+    }
+
+    @Override
+    public boolean confirmReservation(long reservationId) {
+        return delegate.confirmReservation(reservationId);
+    }
+
+    @Override
+    public boolean cancelReservation(long reservationId) {
+        return delegate.cancelReservation(reservationId);
+    }
+}
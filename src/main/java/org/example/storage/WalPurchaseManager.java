@@ -0,0 +1,74 @@
+package org.example.storage;
+
+import org.example.interfaces.IPurchaseManager;
+import org.example.model.Basket;
+import org.example.model.Purchase;
+import org.example.model.PurchaseResult;
+
+import java.util.concurrent.locks.Lock;
+
+// Декоратор менеджера покупок: списания баланса и остатков по каждой успешной покупке
+// фиксируются в журнале изменений до того, как касса получит результат
+public class WalPurchaseManager implements IPurchaseManager {
+
+    private final IPurchaseManager delegate;
+    private final WriteAheadLog wal;
+
+    public WalPurchaseManager(IPurchaseManager delegate, WriteAheadLog wal) {
+        this.delegate = delegate;
+        this.wal = wal;
+    }
+
+    @Override
+    public void makePurchase(int customerId, int productId) {
+        PurchaseResult result = makePurchase(customerId, productId, 1);
+        if (!result.isSuccess()) {
+            System.out.println("Недостаточно средств или товар не найден.");
+        }
+    }
+
+    @Override
+    public PurchaseResult makePurchase(int customerId, int productId, int quantity) {
+        Lock lock = wal.mutationLock();
+        lock.lock();
+        PurchaseResult result;
+        long sequence = 0;
+        try {
+            result = delegate.makePurchase(customerId, productId, quantity);
+            if (result.isSuccess()) {
+                sequence = logPurchase(result.getPurchase());
+            }
+        } finally {
+            lock.unlock();
+        }
+        wal.awaitDurable(sequence);
+        return result;
+    }
+
+    @Override
+    public PurchaseResult checkout(int customerId, Basket basket) {
+        Lock lock = wal.mutationLock();
+        lock.lock();
+        PurchaseResult result;
+        long sequence = 0;
+        try {
+            result = delegate.checkout(customerId, basket);
+            if (result.isSuccess()) {
+                sequence = logPurchase(result.getPurchase());
+            }
+        } finally {
+            lock.unlock();
+        }
+        wal.awaitDurable(sequence);
+        return result;
+    }
+
+    @Override
+    public void savePurchaseInfo(Purchase purchase) {
+        delegate.savePurchaseInfo(purchase);
+    }
+
+    private long logPurchase(Purchase purchase) {
+        return wal.append(WalRecords.PURCHASE, out -> WalRecords.writePurchase(out, purchase));
+    }
+}
@@ -0,0 +1,8 @@
+package org.example.storage;
+
+import java.nio.ByteBuffer;
+
+// Обработчик записей журнала изменений при восстановлении
+public interface WalRecordHandler {
+    void onRecord(long sequence, byte type, ByteBuffer payload);
+}
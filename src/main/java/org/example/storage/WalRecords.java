@@ -0,0 +1,102 @@
+package org.example.storage;
+
+import org.example.interfaces.ICustomerManager;
+import org.example.interfaces.IProductManager;
+import org.example.journal.RecordBuffer;
+import org.example.model.Customer;
+import org.example.model.Product;
+import org.example.model.Purchase;
+import org.example.model.PurchaseItem;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+// Типы записей журнала изменений, их кодирование и повторное применение при восстановлении
+public final class WalRecords {
+
+    public static final byte ADD_PRODUCT = 1;
+    public static final byte UPDATE_PRODUCT = 2;
+    public static final byte DELETE_PRODUCT = 3;
+    public static final byte ADD_CUSTOMER = 4;
+    public static final byte DELETE_CUSTOMER = 5;
+    public static final byte PURCHASE = 6;
+
+    private WalRecords() {
+    }
+
+    // ID, цена в копейках, количество, название
+    public static void writeProduct(RecordBuffer out, Product product) {
+        out.writeInt(product.getId());
+        out.writeLong(product.getPriceMinor());
+        out.writeInt(product.getQuantity());
+        out.writeString(product.getName());
+    }
+
+    // ID, баланс в копейках, имя
+    public static void writeCustomer(RecordBuffer out, Customer customer) {
+        out.writeInt(customer.getId());
+        out.writeLong(customer.getBalanceMinor());
+        out.writeString(customer.getName());
+    }
+
+    // ID покупателя, списанная сумма в копейках, число позиций, затем ID продукта и количество по каждой позиции
+    public static void writePurchase(RecordBuffer out, Purchase purchase) {
+        out.writeInt(purchase.getCustomerId());
+        out.writeLong(purchase.getTotalAmountMinor());
+        out.writeInt(purchase.getItems().size());
+        for (PurchaseItem item : purchase.getItems()) {
+            out.writeInt(item.getProductId());
+            out.writeInt(item.getQuantity());
+        }
+    }
+
+    public static void apply(byte type, ByteBuffer payload,
+                             IProductManager productManager, ICustomerManager customerManager) {
+        switch (type) {
+            case ADD_PRODUCT -> productManager.addProduct(readProduct(payload));
+            case UPDATE_PRODUCT -> {
+                Product product = readProduct(payload);
+                productManager.updateProduct(product.getId(), product);
+            }
+            case DELETE_PRODUCT -> productManager.deleteProduct(payload.getInt());
+            case ADD_CUSTOMER -> {
+                int id = payload.getInt();
+                long balance = payload.getLong();
+                customerManager.addCustomer(Customer.withBalanceMinor(id, readString(payload), balance));
+            }
+            case DELETE_CUSTOMER -> customerManager.deleteCustomer(payload.getInt());
+            case PURCHASE -> applyPurchase(payload, productManager, customerManager);
+            default -> throw new IllegalStateException("Неизвестный тип записи журнала изменений: " + type);
+        }
+    }
+
+    private static void applyPurchase(ByteBuffer payload, IProductManager productManager,
+                                      ICustomerManager customerManager) {
+        Customer customer = customerManager.findById(payload.getInt());
+        long totalAmount = payload.getLong();
+        if (customer != null) {
+            customer.deductBalanceMinor(totalAmount);
+        }
+        int lines = payload.getInt();
+        for (int i = 0; i < lines; i++) {
+            Product product = productManager.findById(payload.getInt());
+            int quantity = payload.getInt();
+            if (product != null) {
+                product.reduceQuantity(quantity);
+            }
+        }
+    }
+
+    private static Product readProduct(ByteBuffer payload) {
+        int id = payload.getInt();
+        long price = payload.getLong();
+        int quantity = payload.getInt();
+        return Product.withPriceMinor(id, readString(payload), price, quantity);
+    }
+
+    private static String readString(ByteBuffer payload) {
+        byte[] bytes = new byte[payload.getInt()];
+        payload.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,286 @@
+package org.example.storage;
+
+import org.example.journal.Durability;
+import org.example.journal.RecordBuffer;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+// Журнал упреждающей записи изменений состояния магазина.
+// Формат записи: int длина (без самого поля), int CRC32 остатка записи, long номер записи, byte тип, данные.
+// Записи копятся в буфере, фоновый поток дописывает их в конец файла и вызывает fsync один раз
+// на пачку (групповая фиксация): все кассы, ждущие одной пачки, разделяют один сброс на диск.
+public class WriteAheadLog implements AutoCloseable {
+
+    public static final long DEFAULT_SYNC_INTERVAL_MILLIS = 2;
+    private static final int RECORD_HEADER_SIZE = Integer.BYTES + Integer.BYTES + Long.BYTES + 1;
+
+    private final FileChannel channel;
+    private final Durability durability;
+    private final long syncIntervalMillis;
+    private final Thread flusher;
+
+    // Изменения берут блокировку на чтение, контрольная точка - на запись
+    private final ReentrantReadWriteLock checkpointLock = new ReentrantReadWriteLock();
+
+    private final Object bufferLock = new Object();
+    private final Object ioLock = new Object();
+    private RecordBuffer pending = new RecordBuffer(64 * 1024);
+    private RecordBuffer flushing = new RecordBuffer(64 * 1024);  // под ioLock
+    private long lastSequence;        // под bufferLock
+    private long pendingSequence;     // номер последней записи в pending, под bufferLock
+    private long durableSequence;     // под bufferLock
+    private IOException failure;      // под bufferLock
+    private volatile boolean closed;
+    private volatile boolean deferred;
+
+    public WriteAheadLog(Path file) throws IOException {
+        this(file, Durability.FSYNC, DEFAULT_SYNC_INTERVAL_MILLIS);
+    }
+
+    public WriteAheadLog(Path file, Durability durability, long syncIntervalMillis) throws IOException {
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        this.durability = durability;
+        this.syncIntervalMillis = syncIntervalMillis;
+        // Хвост, оборванный при сбое, отрезаем, чтобы новые записи шли сразу за последней целой
+        long validEnd = scan(0, null);
+        if (validEnd < channel.size()) {
+            channel.truncate(validEnd);
+        }
+        channel.position(validEnd);
+        this.durableSequence = lastSequence;
+        this.flusher = new Thread(this::flushLoop, "write-ahead-log-flusher");
+        this.flusher.setDaemon(true);
+        this.flusher.start();
+    }
+
+    public Lock mutationLock() {
+        return checkpointLock.readLock();
+    }
+
+    // Изменения каталога пишут абсолютный остаток, а покупки - разницу, поэтому правка продукта
+    // не должна пересекаться с покупкой: иначе в памяти и в журнале они окажутся в разном порядке
+    public Lock exclusiveLock() {
+        return checkpointLock.writeLock();
+    }
+
+    // Добавляет запись в буфер и возвращает ее номер; на диск она попадет со следующей пачкой
+    public long append(byte type, Consumer<RecordBuffer> payload) {
+        synchronized (bufferLock) {
+            if (closed) {
+                throw new IllegalStateException("Журнал изменений закрыт");
+            }
+            long sequence = ++lastSequence;
+            int start = pending.size();
+            pending.writeInt(0);
+            pending.writeInt(0);
+            pending.writeLong(sequence);
+            pending.write(type);
+            payload.accept(pending);
+            pending.putInt(start, pending.size() - start - Integer.BYTES);
+            pending.putInt(start + Integer.BYTES, pending.checksum(start + 2 * Integer.BYTES));
+            pendingSequence = sequence;
+            bufferLock.notifyAll();
+            return sequence;
+        }
+    }
+
+    // Ждет, пока запись с данным номером будет записана (и при FSYNC сброшена на диск)
+    public void awaitDurable(long sequence) {
+        if (deferred) {
+            return;
+        }
+        synchronized (bufferLock) {
+            while (durableSequence < sequence && failure == null && !closed) {
+                try {
+                    bufferLock.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+            if (failure != null && durableSequence < sequence) {
+                throw new IllegalStateException("Ошибка записи журнала изменений", failure);
+            }
+        }
+    }
+
+    // Пакетный режим: изменения не ждут сброса на диск по одному, записи по-прежнему уходят
+    // пачками в фоне, а весь пакет фиксируется одним ожиданием в endDeferred
+    public void beginDeferred() {
+        deferred = true;
+    }
+
+    public void endDeferred() {
+        deferred = false;
+        awaitDurable(getLastSequence());
+    }
+
+    public long getLastSequence() {
+        synchronized (bufferLock) {
+            return lastSequence;
+        }
+    }
+
+    // Продолжает нумерацию не ниже номера, на котором сделан снимок (журнал после контрольной точки пуст)
+    public void advanceSequence(long atLeast) {
+        synchronized (bufferLock) {
+            if (lastSequence < atLeast) {
+                lastSequence = atLeast;
+                durableSequence = atLeast;
+            }
+        }
+    }
+
+    // Повторно применяет записи с номером больше afterSequence
+    public void replay(long afterSequence, WalRecordHandler handler) throws IOException {
+        scan(afterSequence, handler);
+    }
+
+    // Контрольная точка: при остановленных изменениях сбрасывает буфер, сохраняет снимок
+    // на текущем номере записи и очищает журнал
+    public long checkpoint(CheckpointWriter writer) throws IOException {
+        Lock lock = checkpointLock.writeLock();
+        lock.lock();
+        try {
+            synchronized (ioLock) {
+                flushPending();
+                long sequence = getLastSequence();
+                writer.write(sequence);
+                channel.truncate(0);
+                return sequence;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        synchronized (bufferLock) {
+            closed = true;
+            bufferLock.notifyAll();
+        }
+        try {
+            flusher.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flushPending();
+        channel.close();
+    }
+
+    private void flushLoop() {
+        while (true) {
+            synchronized (bufferLock) {
+                while (pending.size() == 0 && !closed) {
+                    try {
+                        bufferLock.wait();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+                if (closed) {
+                    return;
+                }
+            }
+            // Даем другим кассам дописать свои изменения в ту же пачку
+            try {
+                TimeUnit.MILLISECONDS.sleep(syncIntervalMillis);
+            } catch (InterruptedException e) {
+                return;
+            }
+            try {
+                flushPending();
+            } catch (IOException e) {
+                synchronized (bufferLock) {
+                    failure = e;
+                    bufferLock.notifyAll();
+                }
+                e.printStackTrace();
+                return;
+            }
+        }
+    }
+
+    // Меняет буферы местами под bufferLock и пишет пачку уже без него, чтобы кассы могли
+    // продолжать добавлять записи во время записи и fsync
+    private void flushPending() throws IOException {
+        synchronized (ioLock) {
+            RecordBuffer batch;
+            long batchSequence;
+            synchronized (bufferLock) {
+                if (pending.size() == 0) {
+                    return;
+                }
+                batch = pending;
+                batchSequence = pendingSequence;
+                pending = flushing;
+                flushing = batch;
+            }
+            ByteBuffer bytes = batch.asByteBuffer();
+            while (bytes.hasRemaining()) {
+                channel.write(bytes);
+            }
+            if (durability == Durability.FSYNC) {
+                channel.force(false);
+            }
+            batch.reset();
+            synchronized (bufferLock) {
+                durableSequence = Math.max(durableSequence, batchSequence);
+                bufferLock.notifyAll();
+            }
+        }
+    }
+
+    // Проходит по целым записям файла; возвращает смещение конца последней целой записи
+    private long scan(long afterSequence, WalRecordHandler handler) throws IOException {
+        long size = channel.size();
+        if (size == 0) {
+            return 0;
+        }
+        if (size > Integer.MAX_VALUE) {
+            throw new IOException("Журнал изменений слишком велик для восстановления: " + size);
+        }
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        CRC32 crc = new CRC32();
+        int position = 0;
+        while (size - position >= RECORD_HEADER_SIZE) {
+            int length = buffer.getInt(position);
+            if (length < RECORD_HEADER_SIZE - Integer.BYTES || length > size - position - Integer.BYTES) {
+                break;
+            }
+            int bodyStart = position + 2 * Integer.BYTES;
+            int end = position + Integer.BYTES + length;
+            crc.reset();
+            crc.update(buffer.duplicate().position(bodyStart).limit(end));
+            if ((int) crc.getValue() != buffer.getInt(position + Integer.BYTES)) {
+                break;
+            }
+            long sequence = buffer.getLong(bodyStart);
+            lastSequence = Math.max(lastSequence, sequence);
+            if (handler != null && sequence > afterSequence) {
+                byte type = buffer.get(bodyStart + Long.BYTES);
+                ByteBuffer payload = buffer.duplicate().position(bodyStart + Long.BYTES + 1).limit(end).slice();
+                handler.onRecord(sequence, type, payload);
+            }
+            position = end;
+        }
+        return position;
+    }
+
+    // Сохранение снимка на заданном номере записи журнала
+    public interface CheckpointWriter {
+        void write(long sequence) throws IOException;
+    }
+}
@@ -0,0 +1,189 @@
+package org.example.util;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+
+// Хеш-таблица с открытой адресацией по примитивному int-ключу (без упаковки в Integer).
+// Таблица хранит позицию записи в плотных массивах keys/values, поэтому значения
+// можно обходить без пропусков и отдавать как живое представление List.
+public class IntObjectMap<V> {
+
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private int[] table;      // 0 - пустой слот, иначе позиция в плотных массивах + 1
+    private int mask;
+    private int[] keys;
+    private Object[] values;
+    private int size;
+
+    private final List<V> valuesView = new ValuesView();
+
+    public IntObjectMap() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public IntObjectMap(int expectedSize) {
+        int capacity = tableSizeFor(Math.max(expectedSize, DEFAULT_CAPACITY));
+        this.table = new int[capacity];
+        this.mask = capacity - 1;
+        this.keys = new int[Math.max(expectedSize, DEFAULT_CAPACITY)];
+        this.values = new Object[keys.length];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public boolean containsKey(int key) {
+        return slotOf(key) >= 0;
+    }
+
+    @SuppressWarnings("unchecked")
+    public V get(int key) {
+        int slot = slotOf(key);
+        return slot < 0 ? null : (V) values[table[slot] - 1];
+    }
+
+    @SuppressWarnings("unchecked")
+    public V put(int key, V value) {
+        int slot = hash(key) & mask;
+        while (table[slot] != 0) {
+            int position = table[slot] - 1;
+            if (keys[position] == key) {
+                V previous = (V) values[position];
+                values[position] = value;
+                return previous;
+            }
+            slot = (slot + 1) & mask;
+        }
+
+        if (size == keys.length) {
+            keys = Arrays.copyOf(keys, size * 2);
+            values = Arrays.copyOf(values, size * 2);
+        }
+        keys[size] = key;
+        values[size] = value;
+        table[slot] = ++size;
+
+        // Держим заполнение таблицы не выше 2/3, чтобы цепочки проб оставались короткими
+        if (size * 3 > table.length * 2) {
+            rehash(table.length * 2);
+        }
+        return null;
+    }
+
+    @SuppressWarnings("unchecked")
+    public V remove(int key) {
+        int slot = slotOf(key);
+        if (slot < 0) {
+            return null;
+        }
+        int position = table[slot] - 1;
+        V removed = (V) values[position];
+        deleteSlot(slot);
+
+        // Переносим последнюю запись на освободившееся место, чтобы массивы оставались плотными
+        int last = size - 1;
+        if (position != last) {
+            keys[position] = keys[last];
+            values[position] = values[last];
+            table[slotOf(keys[position])] = position + 1;
+        }
+        values[last] = null;
+        size = last;
+        return removed;
+    }
+
+    public void clear() {
+        Arrays.fill(table, 0);
+        Arrays.fill(values, 0, size, null);
+        size = 0;
+    }
+
+    public int keyAt(int index) {
+        return keys[index];
+    }
+
+    @SuppressWarnings("unchecked")
+    public V valueAt(int index) {
+        return (V) values[index];
+    }
+
+    // Живое представление значений только для чтения; порядок меняется после удалений
+    public List<V> values() {
+        return valuesView;
+    }
+
+    private int slotOf(int key) {
+        int slot = hash(key) & mask;
+        int entry;
+        while ((entry = table[slot]) != 0) {
+            if (keys[entry - 1] == key) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    // Удаление со сдвигом назад: без "надгробий" в таблице
+    private void deleteSlot(int slot) {
+        int gap = slot;
+        int current = slot;
+        while (true) {
+            current = (current + 1) & mask;
+            int entry = table[current];
+            if (entry == 0) {
+                break;
+            }
+            int home = hash(keys[entry - 1]) & mask;
+            if (((current - home) & mask) >= ((current - gap) & mask)) {
+                table[gap] = entry;
+                gap = current;
+            }
+        }
+        table[gap] = 0;
+    }
+
+    private void rehash(int capacity) {
+        table = new int[capacity];
+        mask = capacity - 1;
+        for (int position = 0; position < size; position++) {
+            int slot = hash(keys[position]) & mask;
+            while (table[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            table[slot] = position + 1;
+        }
+    }
+
+    private static int hash(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    private static int tableSizeFor(int expectedSize) {
+        int capacity = Integer.highestOneBit(expectedSize * 2 - 1) << 1;
+        return Math.max(capacity, DEFAULT_CAPACITY);
+    }
+
+    private class ValuesView extends AbstractList<V> {
+        @Override
+        public V get(int index) {
+            if (index < 0 || index >= size) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+            }
+            return valueAt(index);
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+}
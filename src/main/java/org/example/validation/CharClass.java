@@ -0,0 +1,98 @@
+package org.example.validation;
+
+import java.util.Arrays;
+
+// Набор символов, собранный один раз, вместо класса символов в регулярном выражении.
+// ASCII проверяется по битовой маске, остальные символы - по короткому списку диапазонов.
+public final class CharClass {
+
+    public static final CharClass DIGITS = ranges('0', '9');
+    // Те же символы, что \s в регулярных выражениях
+    public static final CharClass WHITESPACE = of(" \t\n\u000B\f\r");
+
+    private final long low;      // символы 0-63
+    private final long high;     // символы 64-127
+    private final char[] ranges; // пары границ [от, до] для символов вне ASCII
+
+    private CharClass(long low, long high, char[] ranges) {
+        this.low = low;
+        this.high = high;
+        this.ranges = ranges;
+    }
+
+    // Диапазоны включительно, парами: ranges('a', 'z', 'A', 'Z')
+    public static CharClass ranges(char... bounds) {
+        if (bounds.length % 2 != 0) {
+            throw new IllegalArgumentException("Границы диапазонов задаются парами");
+        }
+        long low = 0;
+        long high = 0;
+        char[] wide = new char[0];
+        for (int i = 0; i < bounds.length; i += 2) {
+            char from = bounds[i];
+            char to = bounds[i + 1];
+            for (char c = from; c <= to && c < 128; c++) {
+                if (c < 64) {
+                    low |= 1L << c;
+                } else {
+                    high |= 1L << (c - 64);
+                }
+            }
+            if (to >= 128) {
+                wide = Arrays.copyOf(wide, wide.length + 2);
+                wide[wide.length - 2] = (char) Math.max(from, 128);
+                wide[wide.length - 1] = to;
+            }
+        }
+        return new CharClass(low, high, wide);
+    }
+
+    public static CharClass of(String chars) {
+        char[] bounds = new char[chars.length() * 2];
+        for (int i = 0; i < chars.length(); i++) {
+            bounds[2 * i] = chars.charAt(i);
+            bounds[2 * i + 1] = chars.charAt(i);
+        }
+        return ranges(bounds);
+    }
+
+    public CharClass or(CharClass other) {
+        char[] wide = Arrays.copyOf(ranges, ranges.length + other.ranges.length);
+        System.arraycopy(other.ranges, 0, wide, ranges.length, other.ranges.length);
+        return new CharClass(low | other.low, high | other.high, wide);
+    }
+
+    public boolean contains(char c) {
+        if (c < 64) {
+            return (low & (1L << c)) != 0;
+        }
+        if (c < 128) {
+            return (high & (1L << (c - 64))) != 0;
+        }
+        for (int i = 0; i < ranges.length; i += 2) {
+            if (c >= ranges[i] && c <= ranges[i + 1]) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Все символы из набора; для пустой строки - true
+    public boolean containsAll(CharSequence text) {
+        for (int i = 0; i < text.length(); i++) {
+            if (!contains(text.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public boolean containsAny(CharSequence text) {
+        for (int i = 0; i < text.length(); i++) {
+            if (contains(text.charAt(i))) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,162 @@
+package org.example.validation;
+
+// Разбор чисел без исключений: неверная строка дает INVALID, а не NumberFormatException
+// со стеком вызовов. Для пакетного режима и импорта, где неверных строк может быть много.
+public final class NumberParser {
+
+    public static final long INVALID = Long.MIN_VALUE;
+
+    private static final long EXACT_MANTISSA = 1L << 53;
+    // Степени десяти, точно представимые в double
+    private static final double[] POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22};
+
+    private NumberParser() {
+    }
+
+    // Целое в пределах int, как Integer.parseInt; INVALID, если это не число или оно вне диапазона
+    public static long parseInt(CharSequence text) {
+        int length = text.length();
+        if (length == 0) {
+            return INVALID;
+        }
+        int i = 0;
+        boolean negative = false;
+        char first = text.charAt(0);
+        if (first == '-' || first == '+') {
+            negative = first == '-';
+            i++;
+        }
+        if (i == length) {
+            return INVALID;
+        }
+        long value = 0;
+        for (; i < length; i++) {
+            int digit = text.charAt(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return INVALID;
+            }
+            value = value * 10 + digit;
+            if (value > (long) Integer.MAX_VALUE + 1) {
+                return INVALID;
+            }
+        }
+        value = negative ? -value : value;
+        return value > Integer.MAX_VALUE ? INVALID : value;
+    }
+
+    // Десятичное число "12", "-0.5", "1.25" как double; NaN, если это не число. Пробелы по краям
+    // допускаются, экспонента - нет. Пока мантисса не длиннее 2^53, а дробная часть - 22 знаков,
+    // результат - одно деление точных double и совпадает с Double.parseDouble; иначе строка,
+    // уже проверенная здесь, разбирается им без риска исключения
+    public static double parseDecimal(CharSequence text) {
+        int from = 0;
+        int to = text.length();
+        while (from < to && text.charAt(from) <= ' ') {
+            from++;
+        }
+        while (to > from && text.charAt(to - 1) <= ' ') {
+            to--;
+        }
+        int start = from;
+        boolean negative = false;
+        if (from < to && (text.charAt(from) == '-' || text.charAt(from) == '+')) {
+            negative = text.charAt(from) == '-';
+            from++;
+        }
+        long mantissa = 0;
+        int digits = 0;
+        int scale = 0;
+        boolean exact = true;
+        boolean fraction = false;
+        for (int i = from; i < to; i++) {
+            char c = text.charAt(i);
+            if (c == '.' && !fraction) {
+                fraction = true;
+                continue;
+            }
+            int digit = c - '0';
+            if (digit < 0 || digit > 9) {
+                return Double.NaN;
+            }
+            digits++;
+            if (fraction) {
+                scale++;
+            }
+            if (mantissa > (EXACT_MANTISSA - digit) / 10) {
+                exact = false;
+            } else {
+                mantissa = mantissa * 10 + digit;
+            }
+        }
+        if (digits == 0) {
+            return Double.NaN;
+        }
+        if (!exact || scale >= POWERS_OF_TEN.length) {
+            return Double.parseDouble(text.subSequence(start, to).toString());
+        }
+        double value = mantissa / POWERS_OF_TEN[scale];
+        return negative ? -value : value;
+    }
+
+    // Денежная сумма "12", "-0.5", "1.999" в копейках. Лишние знаки после запятой округляются
+    // половиной вверх, как в Money.parse; пробелы по краям допускаются, экспонента - нет
+    public static long parseMinor(CharSequence text) {
+        int from = 0;
+        int to = text.length();
+        while (from < to && text.charAt(from) <= ' ') {
+            from++;
+        }
+        while (to > from && text.charAt(to - 1) <= ' ') {
+            to--;
+        }
+        if (from == to) {
+            return INVALID;
+        }
+        boolean negative = false;
+        char first = text.charAt(from);
+        if (first == '-' || first == '+') {
+            negative = first == '-';
+            from++;
+        }
+        long major = 0;
+        int digits = 0;
+        int i = from;
+        for (; i < to && text.charAt(i) != '.'; i++) {
+            int digit = text.charAt(i) - '0';
+            if (digit < 0 || digit > 9 || major > (Long.MAX_VALUE / 100 - 1 - digit) / 10) {
+                return INVALID;
+            }
+            major = major * 10 + digit;
+            digits++;
+        }
+        long minor = 0;
+        int scale = 0;
+        boolean roundUp = false;
+        if (i < to) {
+            for (i++; i < to; i++) {
+                int digit = text.charAt(i) - '0';
+                if (digit < 0 || digit > 9) {
+                    return INVALID;
+                }
+                if (scale < 2) {
+                    minor = minor * 10 + digit;
+                    scale++;
+                } else if (scale == 2) {
+                    roundUp = digit >= 5;
+                    scale++;
+                }
+                digits++;
+            }
+        }
+        if (digits == 0) {
+            return INVALID;
+        }
+        for (; scale < 2; scale++) {
+            minor *= 10;
+        }
+        long amount = major * 100 + minor + (roundUp ? 1 : 0);
+        return negative ? -amount : amount;
+    }
+}
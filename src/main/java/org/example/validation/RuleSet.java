@@ -0,0 +1,40 @@
+package org.example.validation;
+
+import java.util.Arrays;
+
+// Набор правил, проверяемых по порядку. Собирается один раз и используется и в диалоге
+// (сообщение первого нарушенного правила), и при импорте (только да/нет).
+public final class RuleSet {
+
+    private final TextRule[] rules;
+
+    public RuleSet(TextRule... rules) {
+        this.rules = rules.clone();
+    }
+
+    // Новый набор: правила этого набора, затем дополнительные
+    public RuleSet and(TextRule... more) {
+        TextRule[] combined = Arrays.copyOf(rules, rules.length + more.length);
+        System.arraycopy(more, 0, combined, rules.length, more.length);
+        return new RuleSet(combined);
+    }
+
+    public boolean test(CharSequence text) {
+        for (TextRule rule : rules) {
+            if (!rule.test(text)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Возвращает null, если строка проходит все правила, иначе сообщение первого нарушенного
+    public String firstViolation(CharSequence text) {
+        for (TextRule rule : rules) {
+            if (!rule.test(text)) {
+                return rule.getMessage();
+            }
+        }
+        return null;
+    }
+}
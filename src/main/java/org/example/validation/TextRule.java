@@ -0,0 +1,37 @@
+package org.example.validation;
+
+import java.util.function.Predicate;
+
+// Одно правило проверки строки вместе с сообщением для пользователя
+public final class TextRule {
+
+    private final Predicate<CharSequence> check;
+    private final String message;
+
+    private TextRule(Predicate<CharSequence> check, String message) {
+        this.check = check;
+        this.message = message;
+    }
+
+    public static TextRule notEmpty(String message) {
+        return new TextRule(text -> text.length() > 0, message);
+    }
+
+    // Строка состоит только из символов набора
+    public static TextRule onlyOf(CharClass allowed, String message) {
+        return new TextRule(allowed::containsAll, message);
+    }
+
+    // В строке нет ни одного символа из набора
+    public static TextRule noneOf(CharClass forbidden, String message) {
+        return new TextRule(text -> !forbidden.containsAny(text), message);
+    }
+
+    public boolean test(CharSequence text) {
+        return check.test(text);
+    }
+
+    public String getMessage() {
+        return message;
+    }
+}
@@ -1,6 +1,7 @@
 package org.example;
 
 import org.example.interfaces.Input;
+import org.example.manageClasses.ProductManager;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.example.model.Customer;
@@ -17,6 +18,9 @@ import java.util.List;
 import java.util.Scanner;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 
@@ -48,8 +52,7 @@ class InputValidatorTest {
     @Test
     void getValidDoubleInput_ValidDouble_ReturnsDouble() {
         // Мокаем ввод с использованием mocked input
-        when(input.nextDouble()).thenReturn(12.5);
-        when(input.nextLine()).thenReturn("");
+        when(input.nextLine()).thenReturn(" 12.5 ");
 
         double result = inputValidator.getValidDoubleInput("Введите число:");
         assertEquals(12.5, result, 0.01);
@@ -58,8 +61,7 @@ class InputValidatorTest {
     @Test
     void getValidDoubleInput_InvalidDouble_ShowsErrorUntilValid() {
         // Несколько вводов: неправильный ввод и потом правильный
-        when(input.nextLine()).thenReturn("abc");
-        when(input.nextDouble()).thenThrow(new java.util.InputMismatchException()).thenReturn(12.5);
+        when(input.nextLine()).thenReturn("abc").thenReturn("12,5").thenReturn("12.5");
         double result = inputValidator.getValidDoubleInput("Введите число:");
         assertEquals(12.5, result, 0.01);
     }
@@ -67,20 +69,22 @@ class InputValidatorTest {
     @Test
     void getValidIntInput_ValidInt_ReturnsInt() {
         // Мокаем ввод целого числа
-        when(input.nextInt()).thenReturn(42);
+        when(input.nextLine()).thenReturn("42");
         int result = inputValidator.getValidIntInput("Введите целое число:");
         assertEquals(42, result);
     }
 
     @Test
     void getValidIntInput_InvalidInt_ShowsErrorUntilValid() {
-        when(input.nextLine()).thenReturn("abc"); // Сначала текст, который вызовет ошибку
-        when(input.nextInt()).thenThrow(new java.util.InputMismatchException()) // Имитируем ошибку при вводе нечислового значения
-                .thenReturn(42); // Затем корректное целое число
-        when(input.nextLine()).thenReturn(""); // Очистка после nextInt
+        when(input.nextLine()).thenReturn("abc") // Сначала текст, который вызовет ошибку
+                .thenReturn("4.2") // Дробное число тоже не целое
+                .thenReturn("99999999999") // Вне диапазона int
+                .thenReturn(" 42"); // Затем корректное целое число
 
         int result = inputValidator.getValidIntInput("Введите целое число:");
         assertEquals(42, result);
+        verify(input, times(4)).nextLine();
+        verify(input, never()).nextInt();
     }
 
     @Test
@@ -102,7 +106,7 @@ class InputValidatorTest {
     @Test
     void getValidExistingCustomerId_InvalidId_ShowsErrorUntilValid() {
         // Несколько вводов: сначала неверный ID, потом верный
-        when(input.nextInt()).thenReturn(10).thenReturn(2);
+        when(input.nextLine()).thenReturn("10").thenReturn("2");
         int result = inputValidator.getValidExistingCustomerId("Введите ID покупателя:", customers);
         assertEquals(2, result);
     }
@@ -110,7 +114,7 @@ class InputValidatorTest {
     @Test
     void getValidExistingProductId_ValidId_ReturnsId() {
         // Мокаем ввод ID продукта
-        when(input.nextInt()).thenReturn(2);
+        when(input.nextLine()).thenReturn("2");
         int result = inputValidator.getValidExistingProductId("Введите ID продукта:", products);
         assertEquals(2, result);
     }
@@ -118,13 +122,44 @@ class InputValidatorTest {
     @Test
     void getValidExistingProductId_InvalidId_ShowsErrorUntilValid() {
         // Симуляция ввода: сначала неверный ID, затем корректный ID
-        when(input.nextInt()).thenReturn(10).thenReturn(1);
-        when(input.nextLine()).thenReturn(""); // Сброс после каждого nextInt()
+        when(input.nextLine()).thenReturn("10").thenReturn("1");
 
         int result = inputValidator.getValidExistingProductId("Введите ID продукта:", products);
         assertEquals(1, result);
     }
 
+    @Test
+    void getValidUniqueProductName_IndexedManager_IgnoresCase() {
+        // Проверка уникальности через индекс названий
+        ProductManager productManager = new ProductManager();
+        products.forEach(productManager::addProduct);
+        when(input.nextLine()).thenReturn("яблоки").thenReturn("Виноград");
+
+        String result = inputValidator.getValidUniqueProductName("Введите название продукта:", productManager);
+        assertEquals("Виноград", result);
+    }
+
+    @Test
+    void getValidUniqueProductName_Update_AllowsOwnNameOnly() {
+        ProductManager productManager = new ProductManager();
+        products.forEach(productManager::addProduct);
+        when(input.nextLine()).thenReturn("Хлеб").thenReturn("ЯБЛОКИ");
+
+        String result = inputValidator.getValidUniqueProductName("Введите название продукта:", productManager, 1);
+        assertEquals("ЯБЛОКИ", result);
+    }
+
+    @Test
+    void getValidExistingProductId_IndexedManager_SkipsDeletedId() {
+        ProductManager productManager = new ProductManager();
+        products.forEach(productManager::addProduct);
+        productManager.deleteProduct(1);
+        when(input.nextLine()).thenReturn("1").thenReturn("2");
+
+        int result = inputValidator.getValidExistingProductId("Введите ID продукта:", productManager);
+        assertEquals(2, result);
+    }
+
 
 
 
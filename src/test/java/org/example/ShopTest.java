@@ -1,23 +1,43 @@
 package org.example;
 
+import org.example.input.BufferedInput;
 import org.example.interfaces.ICustomerManager;
 import org.example.interfaces.IProductManager;
 import org.example.interfaces.IPurchaseManager;
+import org.example.model.Basket;
 import org.example.model.Customer;
 import org.example.model.Product;
 import org.example.model.Purchase;
+import org.example.model.PurchaseItem;
+import org.example.model.PurchaseResult;
+import org.example.model.Reservation;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import static org.mockito.Mockito.*;
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.io.StringReader;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 class ShopTest {
 
@@ -29,26 +49,38 @@ class ShopTest {
     private IPurchaseManager purchaseManager;
     @Mock
     private InputValidator inputValidator;
-    @Mock
-    private PurchaseFileSaver purchaseFileSaver;
 
 
 
+    @TempDir
+    Path dataDir;
+
     @InjectMocks
     private Shop shop;
+    private AutoCloseable mocks;
 
+    // Магазин создается явно: иначе Mockito выбрал бы конструктор сеанса кассы с наибольшим числом параметров.
+    // Журналы и снимок - во временном каталоге, чтобы тесты не зависели от файлов прошлых запусков
     @BeforeEach
     void setUp() {
-        MockitoAnnotations.openMocks(this);
+        shop = new Shop(dataDir);
+        mocks = MockitoAnnotations.openMocks(this);
+    }
+
+    // Останавливает фоновые потоки магазина и закрывает его файлы
+    @AfterEach
+    void tearDown() throws Exception {
+        shop.close();
+        mocks.close();
     }
 
     @Test
     void testAddProduct() {
         // Arrange
         // Ensure that all mocks return the correct values
-        when(inputValidator.getValidUniqueProductName(anyString(), anyList())).thenReturn("Orange");
+        when(inputValidator.getValidUniqueProductName(anyString(), any(IProductManager.class))).thenReturn("Orange");
         when(inputValidator.getValidPositivePrice(anyString())).thenReturn(10.6); // Ensure price is positive and valid
-        when(inputValidator.getValidIntInput(anyString())).thenReturn(10); // Ensure quantity is valid
+        when(inputValidator.getValidPositiveQuantity(anyString())).thenReturn(10); // Ensure quantity is valid
 
         // Act
         shop.addProduct();
@@ -69,8 +101,9 @@ class ShopTest {
         when(productManager.getAllProducts()).thenReturn(Collections.singletonList(existingProduct));
 
         // Настройка возвращаемых значений от inputValidator
-        when(inputValidator.getValidExistingProductId("Введите ID продукта для обновления: ", productManager.getAllProducts())).thenReturn(1);
-        when(inputValidator.getValidTextInput("Введите новое название продукта: ")).thenReturn("Banana");
+        when(inputValidator.getValidExistingProductId("Введите ID продукта для обновления: ", productManager)).thenReturn(1);
+        when(inputValidator.getValidUniqueProductName("Введите новое название продукта: ", productManager, 1))
+                .thenReturn("Banana");
         when(inputValidator.getValidPositivePrice("Введите новую цену продукта: ")).thenReturn(2.50); // Корректная цена
         when(inputValidator.getValidPositiveQuantity("Введите новое количество продукта: ")).thenReturn(28);
 
@@ -94,6 +127,7 @@ class ShopTest {
 
         // Mock getAllProducts to return a list with the product having ID 1
         when(productManager.getAllProducts()).thenReturn(productList);
+        when(productManager.findById(1)).thenReturn(product);
         when(inputValidator.getValidIntInput(anyString())).thenReturn(1);
 
         // Act
@@ -135,35 +169,32 @@ class ShopTest {
         // Setup
         Customer customer = new Customer(1, "Anna", 1000.0);
         Product product = new Product(1, "Apple", 2.0, 20);
+        Purchase purchase = new Purchase(1, List.of(product), 10.0);
 
-        when(inputValidator.getValidExistingCustomerId(anyString(), anyList())).thenReturn(1);
-        when(inputValidator.getValidExistingProductId(anyString(), anyList())).thenReturn(1);
+        when(inputValidator.getValidExistingCustomerId(anyString(), any(ICustomerManager.class))).thenReturn(1);
+        when(inputValidator.getValidExistingProductId(anyString(), any(IProductManager.class))).thenReturn(1);
         when(inputValidator.getValidIntInput(anyString())).thenReturn(5);
-        when(customerManager.getAllCustomers()).thenReturn(Collections.singletonList(customer));
-        when(productManager.getAllProducts()).thenReturn(Collections.singletonList(product));
+        when(customerManager.findById(1)).thenReturn(customer);
+        when(productManager.findById(1)).thenReturn(product);
+        when(purchaseManager.makePurchase(1, 1, 5)).thenReturn(PurchaseResult.success(purchase));
         when(inputValidator.getValidTextInput(anyString())).thenReturn("нет");
 
         // Act
         shop.makePurchase();
 
-        // Verify
-        verify(purchaseManager, times(1)).savePurchaseInfo(any(Purchase.class));
-        verify(purchaseFileSaver, times(1)).savePurchaseToFile(eq(customer), eq(product), eq(5));
-        assertEquals(new BigDecimal("990.00"), customer.getBalance());
-        assertEquals(15, product.getQuantity());
+        // Verify: списание и запись в журнал выполняет менеджер покупок, магазин покупку повторно не пишет
+        verify(purchaseManager, times(1)).makePurchase(1, 1, 5);
+        verify(purchaseManager, never()).savePurchaseInfo(any(Purchase.class));
     }
 
     @Test
     void testMakePurchase_InsufficientBalance() {
         // Setup
-        Customer customer = new Customer(1, "Anna", 5.0);
-        Product product = new Product(1, "Apple", 2.0, 20);
-
-        when(inputValidator.getValidExistingCustomerId(anyString(), anyList())).thenReturn(1);
-        when(inputValidator.getValidExistingProductId(anyString(), anyList())).thenReturn(1);
+        when(inputValidator.getValidExistingCustomerId(anyString(), any(ICustomerManager.class))).thenReturn(1);
+        when(inputValidator.getValidExistingProductId(anyString(), any(IProductManager.class))).thenReturn(1);
         when(inputValidator.getValidIntInput(anyString())).thenReturn(5);
-        when(customerManager.getAllCustomers()).thenReturn(Collections.singletonList(customer));
-        when(productManager.getAllProducts()).thenReturn(Collections.singletonList(product));
+        when(purchaseManager.makePurchase(1, 1, 5))
+                .thenReturn(PurchaseResult.failure(PurchaseResult.Status.INSUFFICIENT_FUNDS));
         when(inputValidator.getValidTextInput(anyString())).thenReturn("нет");
 
         // Act
@@ -171,20 +202,16 @@ class ShopTest {
 
         // Verify
         verify(purchaseManager, never()).savePurchaseInfo(any(Purchase.class));
-        verify(purchaseFileSaver, never()).savePurchaseToFile(any(), any(), anyInt());
     }
 
     @Test
     void testMakePurchase_InsufficientStock() {
         // Setup
-        Customer customer = new Customer(1, "Anna", 1000.0);
-        Product product = new Product(1, "Apple", 2.0, 2);
-
-        when(inputValidator.getValidExistingCustomerId(anyString(), anyList())).thenReturn(1);
-        when(inputValidator.getValidExistingProductId(anyString(), anyList())).thenReturn(1);
+        when(inputValidator.getValidExistingCustomerId(anyString(), any(ICustomerManager.class))).thenReturn(1);
+        when(inputValidator.getValidExistingProductId(anyString(), any(IProductManager.class))).thenReturn(1);
         when(inputValidator.getValidIntInput(anyString())).thenReturn(5);
-        when(customerManager.getAllCustomers()).thenReturn(Collections.singletonList(customer));
-        when(productManager.getAllProducts()).thenReturn(Collections.singletonList(product));
+        when(purchaseManager.makePurchase(1, 1, 5))
+                .thenReturn(PurchaseResult.failure(PurchaseResult.Status.OUT_OF_STOCK));
         when(inputValidator.getValidTextInput(anyString())).thenReturn("нет");
 
         // Act
@@ -192,13 +219,60 @@ class ShopTest {
 
         // Verify
         verify(purchaseManager, never()).savePurchaseInfo(any(Purchase.class));
-        verify(purchaseFileSaver, never()).savePurchaseToFile(any(), any(), anyInt());
+    }
+
+    @Test
+    void testCheckoutBasket_SavesOnePurchaseForAllLines() {
+        // Setup
+        Customer customer = new Customer(1, "Anna", 1000.0);
+        Product apple = new Product(1, "Apple", 2.0, 20);
+        Product bread = new Product(2, "Bread", 1.0, 20);
+        Purchase purchase = new Purchase(1, List.of(new PurchaseItem(apple, 200, 3), new PurchaseItem(bread, 100, 2)));
+
+        when(inputValidator.getValidExistingCustomerId(anyString(), any(ICustomerManager.class))).thenReturn(1);
+        when(inputValidator.getValidExistingProductId(anyString(), any(IProductManager.class))).thenReturn(1).thenReturn(2);
+        when(inputValidator.getValidPositiveQuantity(anyString())).thenReturn(3).thenReturn(2);
+        when(inputValidator.getValidTextInput(anyString())).thenReturn("да").thenReturn("нет");
+        when(productManager.reserve(eq(1), eq(3), anyLong())).thenReturn(new Reservation(11, 1, 3, Long.MAX_VALUE));
+        when(productManager.reserve(eq(2), eq(2), anyLong())).thenReturn(new Reservation(12, 2, 2, Long.MAX_VALUE));
+        when(customerManager.findById(1)).thenReturn(customer);
+        when(purchaseManager.checkout(eq(1), any(Basket.class))).thenReturn(PurchaseResult.success(purchase));
+
+        // Act
+        shop.checkoutBasket();
+
+        // Verify: обе строки оплачиваются под резервами, сделанными при добавлении в корзину
+        verify(purchaseManager, times(1)).checkout(eq(1),
+                argThat(basket -> basket.size() == 2 && basket.getReservations().size() == 2));
+        verify(purchaseManager, never()).makePurchase(anyInt(), anyInt(), anyInt());
+        verify(purchaseManager, never()).savePurchaseInfo(any(Purchase.class));
+        verify(productManager, never()).cancelReservation(anyLong());
+    }
+
+    @Test
+    void testCheckoutBasket_ReleasesReservationsWhenNotPaid() {
+        // Setup
+        when(inputValidator.getValidExistingCustomerId(anyString(), any(ICustomerManager.class))).thenReturn(1);
+        when(inputValidator.getValidExistingProductId(anyString(), any(IProductManager.class))).thenReturn(1).thenReturn(2);
+        when(inputValidator.getValidPositiveQuantity(anyString())).thenReturn(3).thenReturn(2);
+        when(inputValidator.getValidTextInput(anyString())).thenReturn("да").thenReturn("нет");
+        when(productManager.reserve(eq(1), eq(3), anyLong())).thenReturn(new Reservation(11, 1, 3, Long.MAX_VALUE));
+        when(productManager.reserve(eq(2), eq(2), anyLong())).thenReturn(null);
+        when(purchaseManager.checkout(eq(1), any(Basket.class)))
+                .thenReturn(PurchaseResult.failure(PurchaseResult.Status.INSUFFICIENT_FUNDS));
+
+        // Act
+        shop.checkoutBasket();
+
+        // Verify: строка без свободного товара в корзину не попала, резерв неоплаченной корзины снят
+        verify(purchaseManager, times(1)).checkout(eq(1), argThat(basket -> basket.size() == 1));
+        verify(productManager, times(1)).cancelReservation(11);
     }
 
     @Test
     void testAddProductWithInvalidData() {
         // Setup
-        when(inputValidator.getValidUniqueProductName(anyString(), anyList())).thenReturn("Orange");
+        when(inputValidator.getValidUniqueProductName(anyString(), any(IProductManager.class))).thenReturn("Orange");
         when(inputValidator.getValidPositivePrice(anyString())).thenReturn(-1.50);  // Invalid price
         when(inputValidator.getValidIntInput(anyString())).thenReturn(10);
 
@@ -212,7 +286,7 @@ class ShopTest {
     @Test
     void testAddProductWithNegativeQuantity() {
         // Setup
-        when(inputValidator.getValidUniqueProductName(anyString(), anyList())).thenReturn("Orange");
+        when(inputValidator.getValidUniqueProductName(anyString(), any(IProductManager.class))).thenReturn("Orange");
         when(inputValidator.getValidPositivePrice(anyString())).thenReturn(10.0);  // Correct price
         when(inputValidator.getValidPositiveQuantity(anyString())).thenReturn(-5);  // Negative quantity
 
@@ -229,7 +303,8 @@ class ShopTest {
         Product existingProduct = new Product(1, "Apple", 2.0, 20);
         when(productManager.getAllProducts()).thenReturn(Collections.singletonList(existingProduct));
         when(inputValidator.getValidIntInput("Введите ID продукта для обновления: ")).thenReturn(1);
-        when(inputValidator.getValidTextInput("Введите новое название продукта: ")).thenReturn("Banana");
+        when(inputValidator.getValidUniqueProductName("Введите новое название продукта: ", productManager, 1))
+                .thenReturn("Banana");
         when(inputValidator.getValidPositivePrice("Введите новую цену продукта: ")).thenReturn(-1.0); // Invalid price
         when(inputValidator.getValidIntInput("Введите новое количество продукта: ")).thenReturn(25);
 
@@ -240,6 +315,101 @@ class ShopTest {
         verify(productManager, never()).updateProduct(eq(1), any(Product.class));
     }
 
+    // Несколько настоящих сеансов касс над одним магазином: добавления и просмотр идут одновременно
+    @Test
+    void openTill_ConcurrentSessionsShareOneStore() throws Exception {
+        int tills = 4;
+        int rounds = 25;
+        Path storeDir = Files.createDirectory(dataDir.resolve("tills"));
+        Shop store = new Shop(storeDir);
+        try {
+            long productsBefore = exportedRows(store, "products", storeDir);
+            long customersBefore = exportedRows(store, "customers", storeDir);
+
+            ExecutorService pool = Executors.newFixedThreadPool(tills);
+            List<Future<?>> sessions = new ArrayList<>();
+            for (int t = 0; t < tills; t++) {
+                StringBuilder script = new StringBuilder();
+                for (int i = 0; i < rounds; i++) {
+                    String suffix = letters(t * rounds + i);
+                    script.append("5\nКлиент ").append(suffix).append("\n100\n")
+                            .append("1\nТовар ").append(suffix).append("\n1.5\n3\n")
+                            .append("4\n0\n")
+                            .append("7\n0\n");
+                }
+                script.append("0\n");
+                Shop till = store.openTill(new BufferedInput(new StringReader(script.toString())),
+                        new PrintStream(OutputStream.nullOutputStream(), true, StandardCharsets.UTF_8));
+                sessions.add(pool.submit(till::start));
+            }
+            for (Future<?> session : sessions) {
+                session.get(60, TimeUnit.SECONDS);
+            }
+            pool.shutdown();
+
+            assertEquals(productsBefore + tills * rounds, exportedRows(store, "products", storeDir));
+            assertEquals(customersBefore + tills * rounds, exportedRows(store, "customers", storeDir));
+        } finally {
+            store.close();
+        }
+    }
+
+    @Test
+    void setReorderPolicy_SurvivesRestartAndIsCheckedOnStart() throws Exception {
+        Path storeDir = Files.createDirectory(dataDir.resolve("restart"));
+        Shop store = new Shop(storeDir);
+        try {
+            // Порог 60 для яблок с остатком 50, срок поставки 2 дня
+            store.openTill(new BufferedInput(new StringReader("17\n1\n60\n2\n0\n")),
+                    new PrintStream(OutputStream.nullOutputStream(), true, StandardCharsets.UTF_8)).start();
+        } finally {
+            store.close();
+        }
+
+        Shop restarted = new Shop(storeDir);
+        try {
+            ByteArrayOutputStream plan = new ByteArrayOutputStream();
+            restarted.openTill(new BufferedInput(new StringReader("16\n0\n")),
+                    new PrintStream(plan, true, StandardCharsets.UTF_8)).start();
+
+            assertTrue(plan.toString(StandardCharsets.UTF_8).contains("- ID: 1, Название: Яблоки, Остаток: 50"));
+        } finally {
+            restarted.close();
+        }
+    }
+
+    @Test
+    void openTill_NonNumericMenuChoiceKeepsSessionOpen() throws Exception {
+        Shop store = new Shop(Files.createDirectory(dataDir.resolve("menu")));
+        try {
+            ByteArrayOutputStream output = new ByteArrayOutputStream();
+            store.openTill(new BufferedInput(new StringReader("abc\n\n99999999999\n0\n")),
+                    new PrintStream(output, true, StandardCharsets.UTF_8)).start();
+
+            String session = output.toString(StandardCharsets.UTF_8);
+            assertEquals(3, session.split("Неверный выбор. Попробуйте снова.", -1).length - 1);
+            assertTrue(session.contains("Сеанс кассы завершен."));
+        } finally {
+            store.close();
+        }
+    }
+
+    private static long exportedRows(Shop store, String kind, Path dir) throws IOException {
+        Path file = dir.resolve(kind + ".csv");
+        store.exportCatalogue(kind, file);
+        return Files.readAllLines(file, StandardCharsets.UTF_8).size() - 1;
+    }
+
+    // Названия без цифр: номер записывается буквами
+    private static String letters(int number) {
+        StringBuilder name = new StringBuilder();
+        do {
+            name.append((char) ('а' + number % 10));
+            number /= 10;
+        } while (number > 0);
+        return name.toString();
+    }
+
 }   // @Test
     //void testDeleteNonExistentProduct() {
      //   // Setup
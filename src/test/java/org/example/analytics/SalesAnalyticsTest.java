@@ -0,0 +1,150 @@
+package org.example.analytics;
+
+import org.example.journal.BinaryPurchaseEncoder;
+import org.example.journal.Durability;
+import org.example.journal.PurchaseJournal;
+import org.example.model.Product;
+import org.example.model.Purchase;
+import org.example.model.PurchaseItem;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SalesAnalyticsTest {
+
+    @TempDir
+    Path tempDir;
+
+    private final Product apples = new Product(1, "Яблоки", 1.99, 50);
+    private final Product bread = new Product(2, "Хлеб", 0.99, 30);
+    private final Product eggs = new Product(5, "Яйца (десяток)", 2.99, 25);
+
+    private static Purchase purchase(int customerId, LocalDateTime date, PurchaseItem... items) {
+        Purchase purchase = new Purchase(customerId, List.of(items));
+        purchase.setPurchaseDate(date);
+        return purchase;
+    }
+
+    private static void write(Path file, List<Purchase> purchases) throws Exception {
+        try (PurchaseJournal journal = new PurchaseJournal(file, new BinaryPurchaseEncoder(ZoneOffset.UTC), 64, 0,
+                Durability.NONE)) {
+            for (Purchase purchase : purchases) {
+                journal.append(purchase);
+            }
+        }
+    }
+
+    private List<Purchase> sampleDay() {
+        return List.of(
+                purchase(1, LocalDateTime.of(2024, 3, 1, 9, 15),
+                        new PurchaseItem(apples, 199, 3), new PurchaseItem(bread, 99, 1)),
+                purchase(2, LocalDateTime.of(2024, 3, 1, 9, 40), new PurchaseItem(eggs, 299, 2)),
+                purchase(1, LocalDateTime.of(2024, 3, 2, 18, 5), new PurchaseItem(apples, 199, 1)));
+    }
+
+    @Test
+    void analyze_BuildsDailyHourlyProductAndCustomerAggregates() throws Exception {
+        Path log = tempDir.resolve("purchases.bin");
+        write(log, sampleDay());
+
+        SalesReport report = new SalesAnalytics(ZoneOffset.UTC, 1, SalesAnalytics.DEFAULT_SPLIT_SIZE).analyze(log);
+
+        assertEquals(3, report.getPurchases());
+        assertEquals(7, report.getItemsSold());
+        assertEquals(696 + 598 + 199, report.getRevenueMinor());
+        assertEquals(696 + 598, report.getDailyRevenueMinor().get(LocalDate.of(2024, 3, 1)));
+        assertEquals(199, report.getDailyRevenueMinor().get(LocalDate.of(2024, 3, 2)));
+        assertEquals(2, report.getHourlyPurchases()[9]);
+        assertEquals(1, report.getHourlyPurchases()[18]);
+        assertEquals(4, report.getProductQuantity(1));
+        assertArrayEquals(new int[]{1, 5}, report.topProductsByRevenue(2));
+        assertArrayEquals(new int[]{1, 2}, report.topCustomersBySpend(5));
+        assertEquals(895, report.getCustomerSpendMinor(1));
+        assertEquals(Files.size(log), report.getProcessedOffset());
+    }
+
+    @Test
+    void analyze_ParallelSplitsMatchSingleThread() throws Exception {
+        Path log = tempDir.resolve("purchases.bin");
+        List<Purchase> purchases = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            purchases.add(purchase(i % 17 + 1, LocalDateTime.of(2024, 3, 1 + i % 5, i % 24, 0),
+                    new PurchaseItem(apples, 199, i % 3 + 1), new PurchaseItem(eggs, 299, 1)));
+        }
+        write(log, purchases);
+
+        SalesReport single = new SalesAnalytics(ZoneOffset.UTC, 1, Long.MAX_VALUE).analyze(log);
+        SalesReport parallel = new SalesAnalytics(ZoneOffset.UTC, 4, 1000).analyze(log);
+
+        assertEquals(single.getPurchases(), parallel.getPurchases());
+        assertEquals(single.getRevenueMinor(), parallel.getRevenueMinor());
+        assertEquals(single.getDailyRevenueMinor(), parallel.getDailyRevenueMinor());
+        assertArrayEquals(single.getHourlyRevenueMinor(), parallel.getHourlyRevenueMinor());
+        assertArrayEquals(single.topCustomersBySpend(17), parallel.topCustomersBySpend(17));
+        assertEquals(single.getCustomerSpendMinor(3), parallel.getCustomerSpendMinor(3));
+        assertEquals(Files.size(log), parallel.getProcessedOffset());
+    }
+
+    @Test
+    void update_ResumesFromSavedOffsetWithoutRecounting() throws Exception {
+        Path log = tempDir.resolve("purchases.bin");
+        SalesReportStore store = new SalesReportStore(tempDir.resolve("purchases.analytics"));
+        SalesAnalytics analytics = new SalesAnalytics(ZoneOffset.UTC, 2, SalesAnalytics.DEFAULT_SPLIT_SIZE);
+
+        write(log, sampleDay().subList(0, 2));
+        store.save(analytics.update(store.load(), log));
+        write(log, sampleDay().subList(2, 3));
+        SalesReport report = analytics.update(store.load(), log);
+
+        assertEquals(3, report.getPurchases());
+        assertEquals(696 + 598 + 199, report.getRevenueMinor());
+        assertEquals(895, report.getCustomerSpendMinor(1));
+        assertEquals(4, report.getProductQuantity(1));
+        assertEquals(199, report.getDailyRevenueMinor().get(LocalDate.of(2024, 3, 2)));
+
+        // Повторный запуск без новых записей ничего не добавляет
+        store.save(report);
+        assertEquals(3, analytics.update(store.load(), log).getPurchases());
+    }
+
+    @Test
+    void save_FromSeveralTillsAtOnceKeepsStateReadable() throws Exception {
+        Path log = tempDir.resolve("purchases.bin");
+        write(log, sampleDay());
+        SalesReport report = new SalesAnalytics(ZoneOffset.UTC, 1, SalesAnalytics.DEFAULT_SPLIT_SIZE).analyze(log);
+        SalesReportStore store = new SalesReportStore(tempDir.resolve("purchases.analytics"));
+
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        List<Future<?>> saves = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            saves.add(pool.submit(() -> {
+                store.save(report);
+                return null;
+            }));
+        }
+        for (Future<?> save : saves) {
+            save.get(30, TimeUnit.SECONDS);
+        }
+        pool.shutdown();
+
+        assertEquals(3, store.load().getPurchases());
+        try (Stream<Path> files = Files.list(tempDir)) {
+            assertEquals(List.of("purchases.analytics", "purchases.bin"),
+                    files.map(file -> file.getFileName().toString()).sorted().toList());
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package org.example.batch;
+
+import org.example.input.BufferedInput;
+import org.example.manageClasses.CustomerManager;
+import org.example.manageClasses.ProductManager;
+import org.example.manageClasses.PurchaseManager;
+import org.example.model.Product;
+import org.example.model.Purchase;
+import org.example.model.PurchaseResult;
+import org.example.storage.IdAllocator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringReader;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BatchProcessorTest {
+
+    private ProductManager productManager;
+    private CustomerManager customerManager;
+    private AtomicInteger savedPurchases;
+    private BatchProcessor processor;
+
+    @BeforeEach
+    void setUp() {
+        productManager = new ProductManager();
+        customerManager = new CustomerManager();
+        savedPurchases = new AtomicInteger();
+        PurchaseManager purchaseManager = new PurchaseManager(productManager, customerManager) {
+            @Override
+            public void savePurchaseInfo(Purchase purchase) {
+                savedPurchases.incrementAndGet();
+            }
+        };
+        processor = new BatchProcessor(productManager, customerManager, purchaseManager, new IdAllocator());
+    }
+
+    private BatchSummary run(String commands) {
+        return processor.run(new BufferedInput(new StringReader(commands)));
+    }
+
+    @Test
+    void run_ExecutesCommandsInOrder() {
+        BatchSummary summary = run(""
+                + "# начальные данные\n"
+                + "add-product;Яблоки;1.99;50\n"
+                + "add-product;Яйца (десяток);2.99;10\n"
+                + "add-customer;Анна;100.00\n"
+                + "\n"
+                + "purchase;1;1;3\n"
+                + "checkout;1;1:2, 2:1\n"
+                + "update-product;2;Яйца;3.50;20\n"
+                + "delete-product;1\n");
+
+        assertEquals(7, summary.getCommands());
+        assertEquals(7, summary.getSucceeded());
+        assertEquals(0, summary.getRejected());
+        assertEquals(2, summary.getPurchases(PurchaseResult.Status.SUCCESS));
+        assertEquals(2, savedPurchases.get());
+        assertNull(productManager.findById(1));
+        assertEquals(350, productManager.findByName("яйца").getPriceMinor());
+        // 100.00 - 3 * 1.99 - 2 * 1.99 - 2.99
+        assertEquals(10000 - 5 * 199 - 299, customerManager.findById(1).getBalanceMinor());
+    }
+
+    @Test
+    void run_RejectsInvalidLinesAndContinues() {
+        BatchSummary summary = run(""
+                + "add-product;Хлеб;0.99;5\n"
+                + "add-product;хлеб;1.00;5\n"
+                + "add-customer;Иван;abc\n"
+                + "add-customer;Иван;1.00\n"
+                + "purchase;1;1;2\n"
+                + "purchase;1;1\n"
+                + "sell;1;1;1\n"
+                + "delete-customer;7\n");
+
+        assertEquals(8, summary.getCommands());
+        assertEquals(2, summary.getSucceeded());
+        assertEquals(6, summary.getRejected());
+        assertEquals(1, summary.getPurchases(PurchaseResult.Status.INSUFFICIENT_FUNDS));
+        assertEquals(6, summary.getErrors().size());
+        assertTrue(summary.getErrors().get(0).startsWith("строка 2:"));
+        assertEquals(5, productManager.findById(1).getQuantity());
+    }
+
+    @Test
+    void run_DoesNotReuseIdsAfterDelete() {
+        run("add-product;Хлеб;0.99;5\n"
+                + "add-product;Сыр;3.49;5\n"
+                + "delete-product;1\n"
+                + "add-product;Молоко;0.89;5\n");
+
+        assertEquals("Сыр", productManager.findById(2).getName());
+        assertEquals("Молоко", productManager.findById(3).getName());
+    }
+
+    @Test
+    void run_RejectsRenameToAnotherProductsName() {
+        BatchSummary summary = run("add-product;Хлеб;0.99;5\n"
+                + "add-product;Сыр;3.49;5\n"
+                + "update-product;2;хлеб;3.49;5\n"
+                + "update-product;2;Сыр;3.99;5\n"
+                + "delete-product;1\n");
+
+        assertEquals(1, summary.getRejected());
+        assertTrue(summary.getErrors().get(0).startsWith("строка 3:"));
+        // Удаление первого не лишает второй поиска по названию
+        assertEquals(2, productManager.findByName("сыр").getId());
+        assertEquals(List.of(2), productManager.getAllProducts().stream().map(Product::getId).toList());
+        assertThrows(UnsupportedOperationException.class, () -> productManager.getAllProducts().clear());
+    }
+
+    @Test
+    void run_RejectsNamesThatImportWouldReject() {
+        BatchSummary summary = run("add-product;Хлеб;0.99;5\n"
+                + "add-product;Хлеб 2;0.99;5\n"
+                + "add-product;;0.99;5\n"
+                + "update-product;1;Хл\u0007еб;0.99;5\n"
+                + "update-product;1;Хлеб7;0.99;5\n"
+                + "add-customer;Анна1;10.00\n"
+                + "add-customer;Ан\u001Bна;10.00\n"
+                + "add-customer;Анна (опт);10.00\n");
+
+        assertEquals(2, summary.getSucceeded());
+        assertEquals(6, summary.getRejected());
+        assertTrue(summary.getErrors().get(0).contains("цифры"));
+        assertTrue(summary.getErrors().get(1).contains("пустым"));
+        assertTrue(summary.getErrors().get(2).contains("управляющие символы"));
+        assertEquals("Хлеб", productManager.findById(1).getName());
+        assertEquals(1, customerManager.getCustomerCount());
+        assertEquals("Анна (опт)", customerManager.getAllCustomers().get(0).getName());
+    }
+
+    @Test
+    void bufferedInput_ReadsTokensLikeScanner() {
+        BufferedInput input = new BufferedInput(new StringReader("  12 3.5\nстрока\n\n 7\n"));
+
+        assertEquals(12, input.nextInt());
+        assertEquals(3.5, input.nextDouble());
+        assertEquals("", input.nextLine());
+        assertEquals("строка", input.nextLine());
+        assertEquals(7, input.nextInt());
+        assertEquals("", input.nextLine());
+        assertNull(input.nextLine());
+    }
+}
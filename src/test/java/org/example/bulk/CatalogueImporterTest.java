@@ -0,0 +1,213 @@
+package org.example.bulk;
+
+import org.example.interfaces.ICustomerManager;
+import org.example.interfaces.IProductManager;
+import org.example.manageClasses.CustomerManager;
+import org.example.manageClasses.ProductManager;
+import org.example.manageClasses.ProductViewCache;
+import org.example.model.Customer;
+import org.example.model.Product;
+import org.example.model.Reservation;
+import org.example.storage.IdAllocator;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+class CatalogueImporterTest {
+
+    @TempDir
+    Path tempDir;
+
+    private final ProductManager products = new ProductManager();
+    private final CustomerManager customers = new CustomerManager();
+    private final IdAllocator ids = new IdAllocator();
+
+    private Path write(String name, String content) throws Exception {
+        Path file = tempDir.resolve(name);
+        Files.writeString(file, content, StandardCharsets.UTF_8);
+        return file;
+    }
+
+    // Название только из букв: номер записывается буквами
+    private static String letters(int number) {
+        StringBuilder name = new StringBuilder("Товар ");
+        do {
+            name.append((char) ('a' + number % 26));
+            number /= 26;
+        } while (number > 0);
+        return name.toString();
+    }
+
+    @Test
+    void importProducts_AppliesInputValidatorRules() throws Exception {
+        Path file = write("products.csv", "id,name,price,quantity\n"
+                + "7,Яблоки,1.99,50\n"
+                + "Хлеб,0.99,30\n"
+                + "Молоко2,0.89,20\n"
+                + "Сыр,-3.49,15\n"
+                + "Масло,2.50,0\n"
+                + "Кефир,abc,5\n"
+                + "Соль,1.00\n"
+                + "\n"
+                + "яблоки,2.10,5\n");
+
+        ImportSummary summary = new CatalogueImporter(products, customers, ids).importProducts(file);
+
+        assertEquals(2, summary.getAdded());
+        assertEquals(0, summary.getUpdated());
+        assertEquals(6, summary.getRejected());
+        assertEquals(2, products.getProductCount());
+        // ID из файла не используется
+        assertEquals(1, products.findByName("Яблоки").getId());
+        assertEquals(199, products.findByName("Яблоки").getPriceMinor());
+        assertEquals(2, products.findByName("Хлеб").getId());
+        assertTrue(summary.getErrors().get(0).startsWith("строка 4: "));
+        assertTrue(summary.getErrors().stream().anyMatch(error -> error.startsWith("строка 10: название повторяется")));
+    }
+
+    @Test
+    void importProducts_UpdatesExistingProductByName() throws Exception {
+        products.addProduct(new Product(ids.nextId(IdAllocator.Kind.PRODUCT), "Яблоки", 1.99, 50));
+        Path file = write("products.csv", "Яблоки,2.49,70\nГруши,3.10,40\n");
+
+        ImportSummary summary = new CatalogueImporter(products, customers, ids).importProducts(file);
+
+        assertEquals(1, summary.getAdded());
+        assertEquals(1, summary.getUpdated());
+        Product apples = products.findById(1);
+        assertEquals(249, apples.getPriceMinor());
+        assertEquals(70, apples.getQuantity());
+        assertEquals(2, products.findByName("Груши").getId());
+    }
+
+    @Test
+    void importProducts_ParallelChunksKeepFileOrderAndLineNumbers() throws Exception {
+        StringBuilder csv = new StringBuilder("name,price,quantity\n");
+        int rows = 20_000;
+        for (int i = 0; i < rows; i++) {
+            if (i == 14_998) {
+                csv.append("Ошибка,1.00,-1\n"); // строка 15000 с учетом заголовка
+            } else {
+                csv.append(letters(i)).append(",1.25,").append(i + 1).append('\n');
+            }
+        }
+        Path file = write("feed.csv", csv.toString());
+
+        ImportSummary summary = new CatalogueImporter(products, customers, ids, 4, 4096).importProducts(file);
+
+        assertEquals(rows - 1, summary.getAdded());
+        assertEquals(1, summary.getRejected());
+        assertEquals(List.of("строка 15000: цена и количество должны быть положительными"), summary.getErrors());
+        List<Product> loaded = products.getAllProducts();
+        assertEquals(letters(0), loaded.get(0).getName());
+        assertEquals(1, loaded.get(0).getId());
+        assertEquals(letters(rows - 1), loaded.get(rows - 2).getName());
+        assertEquals(rows - 1, loaded.get(rows - 2).getId());
+    }
+
+    @Test
+    void importProducts_InsertsWholeFileInOneBatch() throws Exception {
+        IProductManager manager = mock(IProductManager.class);
+        Path file = write("products.csv", "Яблоки,1.99,50\nХлеб,0.99,30\nМолоко,0.89,20\n");
+
+        new CatalogueImporter(manager, customers, ids, 2, 16).importProducts(file);
+
+        verify(manager).addProducts(argThat(batch -> batch.size() == 3));
+        verify(manager, never()).addProduct(any());
+    }
+
+    @Test
+    void importCustomers_AssignsIdsFromAllocator() throws Exception {
+        ids.nextId(IdAllocator.Kind.CUSTOMER);
+        Path file = write("customers.csv", "Анна,1000.00\n12,Иван,500\nОльга,0\n");
+        ICustomerManager manager = spy(customers);
+
+        ImportSummary summary = new CatalogueImporter(products, manager, ids).importCustomers(file);
+
+        assertEquals(2, summary.getAdded());
+        assertEquals(1, summary.getRejected());
+        assertEquals("Анна", customers.findById(2).getName());
+        assertEquals(50_000, customers.findById(3).getBalanceMinor());
+        verify(manager).addCustomers(anyList());
+        verify(manager, never()).addCustomer(any());
+    }
+
+    @Test
+    void export_ThenImportRestoresCatalogue() throws Exception {
+        products.addProduct(new Product(3, "Яблоки", 1.99, 50));
+        products.addProduct(new Product(8, "Сыр", 3.49, 15));
+        customers.addCustomer(new Customer(4, "Дмитрий", 1200.00));
+        CatalogueExporter exporter = new CatalogueExporter(products, customers);
+        Path productFile = tempDir.resolve("products.csv");
+        Path customerFile = tempDir.resolve("customers.csv");
+
+        assertEquals(2, exporter.exportProducts(productFile));
+        assertEquals(1, exporter.exportCustomers(customerFile));
+        assertEquals(List.of("id,name,price,quantity", "3,Яблоки,1.99,50", "8,Сыр,3.49,15"),
+                Files.readAllLines(productFile, StandardCharsets.UTF_8));
+
+        ProductManager restoredProducts = new ProductManager();
+        CustomerManager restoredCustomers = new CustomerManager();
+        CatalogueImporter importer = new CatalogueImporter(restoredProducts, restoredCustomers, new IdAllocator());
+        assertEquals(2, importer.importProducts(productFile).getAdded());
+        assertEquals(1, importer.importCustomers(customerFile).getAdded());
+        assertEquals(349, restoredProducts.findByName("Сыр").getPriceMinor());
+        assertEquals(15, restoredProducts.findByName("Сыр").getQuantity());
+        assertEquals(120_000, restoredCustomers.findById(1).getBalanceMinor());
+    }
+
+    @Test
+    void export_ThenImport_KeepsNamesWithPunctuation() throws Exception {
+        products.addProduct(new Product(5, "Яйца (десяток)", 2.99, 25));
+        products.addProduct(new Product(6, "Сыр, твердый", 3.49, 15));
+        products.addProduct(new Product(7, "Чай \"Липтон\"", 1.25, 40));
+        customers.addCustomer(new Customer(4, "Анна-Мария, старшая", 300.00));
+        CatalogueExporter exporter = new CatalogueExporter(products, customers);
+        Path productFile = tempDir.resolve("products.csv");
+        Path customerFile = tempDir.resolve("customers.csv");
+        exporter.exportProducts(productFile);
+        exporter.exportCustomers(customerFile);
+
+        assertEquals("6,\"Сыр, твердый\",3.49,15", Files.readAllLines(productFile, StandardCharsets.UTF_8).get(2));
+        ProductManager restoredProducts = new ProductManager();
+        CustomerManager restoredCustomers = new CustomerManager();
+        CatalogueImporter importer = new CatalogueImporter(restoredProducts, restoredCustomers, new IdAllocator());
+        ImportSummary summary = importer.importProducts(productFile);
+
+        assertEquals(3, summary.getAdded());
+        assertEquals(0, summary.getRejected());
+        assertEquals(299, restoredProducts.findByName("яйца (десяток)").getPriceMinor());
+        assertEquals(15, restoredProducts.findByName("Сыр, твердый").getQuantity());
+        assertEquals(40, restoredProducts.findByName("Чай \"Липтон\"").getQuantity());
+        assertEquals(1, importer.importCustomers(customerFile).getAdded());
+        assertEquals("Анна-Мария, старшая", restoredCustomers.findById(1).getName());
+    }
+
+    @Test
+    void export_ThenImportByName_DoesNotCountHeldStockTwice() throws Exception {
+        ProductViewCache catalogue = new ProductViewCache(new ProductManager());
+        catalogue.addProduct(new Product(1, "Яблоки", 1.99, 50));
+        Reservation reservation = catalogue.reserve(1, 10, 60_000);
+        Path productFile = tempDir.resolve("products.csv");
+        new CatalogueExporter(catalogue, customers).exportProducts(productFile);
+
+        assertEquals("1,Яблоки,1.99,40", Files.readAllLines(productFile, StandardCharsets.UTF_8).get(1));
+        ImportSummary summary = new CatalogueImporter(catalogue, customers, ids).importProducts(productFile);
+
+        assertEquals(1, summary.getUpdated());
+        Product apples = catalogue.findByName("яблоки");
+        assertEquals(40, apples.getQuantity());
+        assertEquals(50, apples.getQuantityIncludingHolds());
+        assertTrue(catalogue.cancelReservation(reservation.getId()));
+        assertEquals(50, apples.getQuantity());
+    }
+}
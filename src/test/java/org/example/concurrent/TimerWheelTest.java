@@ -0,0 +1,48 @@
+package org.example.concurrent;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimerWheelTest {
+
+    @Test
+    void advance_ExpiresTasksInTheirTick() {
+        TimerWheel<String> wheel = new TimerWheel<>(10, 4, 0);
+        List<String> expired = new ArrayList<>();
+        wheel.schedule(15, "a");
+        wheel.schedule(20, "b");
+        // Через два оборота в той же ячейке, что и "b"
+        wheel.schedule(100, "c");
+
+        wheel.advance(19, task -> false, expired::add);
+        assertEquals(List.of(), expired);
+        wheel.advance(20, task -> false, expired::add);
+        assertEquals(List.of("a", "b"), expired);
+        wheel.advance(99, task -> false, expired::add);
+        assertEquals(List.of("a", "b"), expired);
+        wheel.advance(100, task -> false, expired::add);
+        assertEquals(List.of("a", "b", "c"), expired);
+    }
+
+    @Test
+    void advance_AfterLongPause_SweepsEachSlotOnceAndDropsStaleTasks() {
+        TimerWheel<String> wheel = new TimerWheel<>(10, 4, 0);
+        List<String> expired = new ArrayList<>();
+        wheel.schedule(30, "due");
+        wheel.schedule(40, "stale");
+        wheel.schedule(1_000_000, "later");
+
+        assertEquals(1, wheel.advance(500_000, "stale"::equals, expired::add));
+        assertEquals(List.of("due"), expired);
+
+        // Срок, уже пройденный колесом, срабатывает на ближайшем такте
+        wheel.schedule(10, "late");
+        assertEquals(1, wheel.advance(500_010, task -> false, expired::add));
+        assertEquals(1, wheel.advance(1_000_000, task -> false, expired::add));
+        assertEquals(List.of("due", "late", "later"), expired);
+    }
+}
@@ -0,0 +1,161 @@
+package org.example.events;
+
+import org.example.interfaces.IPurchaseManager;
+import org.example.manageClasses.CustomerManager;
+import org.example.manageClasses.ProductManager;
+import org.example.manageClasses.ProductViewCache;
+import org.example.model.Basket;
+import org.example.model.Customer;
+import org.example.model.Product;
+import org.example.model.Purchase;
+import org.example.model.PurchaseItem;
+import org.example.model.PurchaseResult;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class EventBusTest {
+
+    // Запоминает копию нужных полей: сам объект события переиспользуется
+    private static final class Recorder implements EventHandler {
+        final List<DomainEvent.Type> types = Collections.synchronizedList(new ArrayList<>());
+        final List<Integer> ids = Collections.synchronizedList(new ArrayList<>());
+        volatile long lastSequence = -1;
+        volatile boolean ordered = true;
+        volatile long lastEndOfBatch = -1;
+
+        @Override
+        public void onEvent(DomainEvent event, long sequence, boolean endOfBatch) {
+            if (sequence <= lastSequence) {
+                ordered = false;
+            }
+            lastSequence = sequence;
+            types.add(event.getType());
+            ids.add(event.getEntityId());
+            if (endOfBatch) {
+                lastEndOfBatch = sequence;
+            }
+        }
+    }
+
+    @Test
+    void publish_ConcurrentProducersReachEverySubscriberInOrder() throws Exception {
+        int producers = 4;
+        int perProducer = 20_000;
+        EventBus bus = new EventBus(1 << 17);
+        Recorder first = new Recorder();
+        Recorder second = new Recorder();
+        EventBus.Subscription firstSubscription = bus.subscribe("first", first);
+        EventBus.Subscription secondSubscription = bus.subscribe("second", second);
+
+        ExecutorService pool = Executors.newFixedThreadPool(producers);
+        List<Future<?>> tasks = new ArrayList<>();
+        for (int p = 0; p < producers; p++) {
+            int base = p * perProducer;
+            tasks.add(pool.submit(() -> {
+                for (int i = 0; i < perProducer; i++) {
+                    bus.publishCustomerDeleted(base + i);
+                }
+            }));
+        }
+        for (Future<?> task : tasks) {
+            task.get(30, TimeUnit.SECONDS);
+        }
+        pool.shutdown();
+        bus.close();
+
+        int total = producers * perProducer;
+        assertEquals(total, bus.getPublished());
+        for (Recorder recorder : List.of(first, second)) {
+            assertEquals(total, recorder.ids.size());
+            assertEquals(total, recorder.ids.stream().distinct().count());
+            assertTrue(recorder.ordered);
+            assertEquals(total - 1, recorder.lastEndOfBatch);
+        }
+        assertEquals(0, firstSubscription.getLost());
+        assertEquals(total, secondSubscription.getProcessed());
+        assertEquals(0, secondSubscription.getLag());
+    }
+
+    @Test
+    void publish_SlowSubscriberNeverBlocksPublisher() throws Exception {
+        EventBus bus = new EventBus(16);
+        CountDownLatch release = new CountDownLatch(1);
+        EventBus.Subscription slow = bus.subscribe("slow", (event, sequence, endOfBatch) -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        Recorder fast = new Recorder();
+        bus.subscribe("fast", fast);
+
+        ExecutorService publisher = Executors.newSingleThreadExecutor();
+        Future<?> publishing = publisher.submit(() -> {
+            for (int i = 0; i < 10_000; i++) {
+                bus.publishCustomerDeleted(i);
+            }
+        });
+        // Подписчик стоит, а издатель успевает обернуть кольцо сотни раз
+        publishing.get(10, TimeUnit.SECONDS);
+        publisher.shutdown();
+        release.countDown();
+        bus.close();
+
+        assertTrue(slow.getLost() > 0);
+        assertEquals(10_000, slow.getProcessed() + slow.getLost());
+        assertTrue(fast.ordered);
+        assertEquals(9_999, fast.lastSequence);
+    }
+
+    @Test
+    void decorators_PublishOncePerMutation() {
+        EventBus bus = new EventBus(64);
+        Recorder recorder = new Recorder();
+        bus.subscribe("recorder", recorder);
+
+        ProductViewCache products = new ProductViewCache(new ProductManager());
+        products.addListener(bus::publishProductChange);
+        products.addProduct(new Product(1, "Яблоки", 1.99, 50));
+        products.updateProduct(1, new Product(1, "Яблоки", 2.10, 50));
+        products.updateProduct(9, new Product(9, "Нет", 1.00, 1));
+        products.deleteProduct(1);
+
+        PublishingCustomerManager customers = new PublishingCustomerManager(new CustomerManager(), bus);
+        customers.addCustomer(new Customer(1, "Анна", 1000.00));
+        customers.deleteCustomer(1);
+        customers.deleteCustomer(1);
+
+        IPurchaseManager delegate = mock(IPurchaseManager.class);
+        Purchase purchase = new Purchase(2, List.of(new PurchaseItem(new Product(3, "Сыр", 3.49, 15), 349, 2)));
+        when(delegate.makePurchase(anyInt(), anyInt(), anyInt()))
+                .thenReturn(PurchaseResult.success(purchase))
+                .thenReturn(PurchaseResult.failure(PurchaseResult.Status.INSUFFICIENT_FUNDS));
+        when(delegate.checkout(anyInt(), any(Basket.class)))
+                .thenReturn(PurchaseResult.failure(PurchaseResult.Status.OUT_OF_STOCK));
+        PublishingPurchaseManager purchases = new PublishingPurchaseManager(delegate, bus);
+        purchases.makePurchase(2, 3, 2);
+        purchases.makePurchase(2, 3, 200);
+        purchases.checkout(2, new Basket());
+        bus.close();
+
+        assertEquals(List.of(DomainEvent.Type.PRODUCT_ADDED, DomainEvent.Type.PRODUCT_UPDATED,
+                DomainEvent.Type.PRODUCT_DELETED, DomainEvent.Type.CUSTOMER_ADDED,
+                DomainEvent.Type.CUSTOMER_DELETED, DomainEvent.Type.PURCHASE_COMPLETED), recorder.types);
+        assertEquals(List.of(1, 1, 1, 1, 1, 2), recorder.ids);
+    }
+}
@@ -0,0 +1,202 @@
+package org.example.journal;
+
+import org.example.model.Product;
+import org.example.model.Purchase;
+import org.example.model.PurchaseItem;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class PurchaseJournalTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void append_FromManyThreads_WritesEveryPurchaseOnce() throws Exception {
+        Path file = tempDir.resolve("purchases.txt");
+        Product product = new Product(1, "Яблоки", 1.99, 50);
+
+        try (PurchaseJournal journal = new PurchaseJournal(file, new TextPurchaseEncoder(), 64, 2, Durability.FSYNC)) {
+            List<Thread> threads = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                int customerId = t + 1;
+                threads.add(new Thread(() -> {
+                    for (int i = 0; i < 500; i++) {
+                        journal.append(new Purchase(customerId, List.of(new PurchaseItem(product, 199, 2))));
+                    }
+                }));
+            }
+            threads.forEach(Thread::start);
+            for (Thread thread : threads) {
+                thread.join();
+            }
+            journal.flush();
+            assertEquals(2000, countRecords(file));
+            assertEquals(0, journal.getFailedBatches());
+        }
+    }
+
+    @Test
+    void close_DrainsQueuedPurchases() throws Exception {
+        Path file = tempDir.resolve("purchases.txt");
+        Product product = new Product(2, "Хлеб", 0.99, 30);
+
+        PurchaseJournal journal = new PurchaseJournal(file);
+        for (int i = 0; i < 100; i++) {
+            journal.append(new Purchase(1, List.of(new PurchaseItem(product, 99, 1))));
+        }
+        journal.close();
+
+        assertEquals(100, countRecords(file));
+        assertTrue(Files.readString(file, StandardCharsets.UTF_8).contains("- Хлеб: 0.99 x 1"));
+        assertThrows(IllegalStateException.class,
+                () -> journal.append(new Purchase(1, List.of(new PurchaseItem(product, 99, 1)))));
+    }
+
+    @Test
+    void close_WhileTillsAppend_KeepsEveryAcceptedPurchase() throws Exception {
+        Path file = tempDir.resolve("purchases.txt");
+        Product product = new Product(3, "Сыр", 3.49, 15);
+        PurchaseJournal journal = new PurchaseJournal(file, new TextPurchaseEncoder(), 8, 1, Durability.NONE);
+        AtomicInteger accepted = new AtomicInteger();
+
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            threads.add(new Thread(() -> {
+                try {
+                    while (true) {
+                        journal.append(new Purchase(1, List.of(new PurchaseItem(product, 349, 1))));
+                        accepted.incrementAndGet();
+                    }
+                } catch (IllegalStateException closed) {
+                    // журнал закрыт, касса останавливается
+                }
+            }));
+        }
+        threads.forEach(Thread::start);
+        Thread.sleep(20);
+        journal.close();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(accepted.get(), countRecords(file));
+    }
+
+    @Test
+    void append_RenameBeforeWriterRuns_AllFormatsKeepNameAtPurchase() throws Exception {
+        Path text = tempDir.resolve("purchases_text.txt");
+        Path summary = tempDir.resolve("purchases.txt");
+        Product apples = new Product(1, "Яблоки", 1.99, 50);
+        Purchase purchase = new Purchase(7, List.of(new PurchaseItem(apples, 199, 2)));
+        // Правка карточки на месте после продажи, но до фоновой записи
+        apples.assign(new Product(1, "Груши", 2.49, 50));
+
+        try (PurchaseJournal journal = new PurchaseJournal(List.of(new JournalOutput(text, new TextPurchaseEncoder()),
+                new JournalOutput(summary, new SummaryPurchaseEncoder(id -> "Иван"))), 16, 1, Durability.NONE)) {
+            journal.append(purchase);
+            journal.flush();
+        }
+
+        String block = Files.readString(text, StandardCharsets.UTF_8);
+        assertTrue(block.contains("- Яблоки: 1.99 x 2"));
+        assertFalse(block.contains("Груши"));
+        assertTrue(Files.readString(summary, StandardCharsets.UTF_8).contains("Продукт: Яблоки, Количество: 2"));
+    }
+
+    @Test
+    void writeFailure_IsReportedByFlushAndLaterAppends() throws Exception {
+        Path full = Path.of("/dev/full"); // любая запись в него завершается ошибкой "нет места"
+        assumeTrue(Files.isWritable(full));
+        Product product = new Product(1, "Яблоки", 1.99, 50);
+
+        PurchaseJournal journal = new PurchaseJournal(full, new TextPurchaseEncoder(), 4, 0, Durability.NONE);
+        journal.append(new Purchase(1, List.of(new PurchaseItem(product, 199, 1))));
+
+        IOException failure = assertThrows(IOException.class, journal::flush);
+        assertNotNull(failure.getCause());
+        assertEquals(1, journal.getFailedBatches());
+        assertThrows(IllegalStateException.class,
+                () -> journal.append(new Purchase(1, List.of(new PurchaseItem(product, 199, 1)))));
+        assertThrows(IOException.class, journal::close);
+    }
+
+    @Test
+    void writerFailure_FullQueueAppendFailsInsteadOfBlocking() throws Exception {
+        Path file = tempDir.resolve("purchases.txt");
+        Product product = new Product(1, "Яблоки", 1.99, 50);
+        PurchaseEncoder broken = (purchase, out) -> {
+            throw new IllegalArgumentException("сбой кодирования");
+        };
+
+        PurchaseJournal journal = new PurchaseJournal(file, broken, 2, 0, Durability.NONE);
+        IllegalStateException failure = assertTimeoutPreemptively(Duration.ofSeconds(10), () -> {
+            while (true) {
+                try {
+                    journal.append(new Purchase(1, List.of(new PurchaseItem(product, 199, 1))));
+                } catch (IllegalStateException e) {
+                    return e;
+                }
+            }
+        });
+
+        assertInstanceOf(IllegalArgumentException.class, failure.getCause());
+        assertThrows(IOException.class, journal::flush);
+        assertThrows(IOException.class, journal::close);
+    }
+
+    @Test
+    void append_WithSeveralOutputs_WritesEachPurchaseToEveryFileWithOneDate() throws Exception {
+        Path log = tempDir.resolve("purchases.bin");
+        Path summary = tempDir.resolve("purchases.txt");
+        Product apples = new Product(1, "Яблоки", 1.99, 50);
+        Product bread = new Product(2, "Хлеб", 0.99, 30);
+        Purchase single = new Purchase(7, List.of(new PurchaseItem(apples, 199, 2)));
+        Purchase basket = new Purchase(8, List.of(new PurchaseItem(apples, 199, 1), new PurchaseItem(bread, 99, 3)));
+        single.setPurchaseDate(LocalDateTime.of(2024, 3, 15, 10, 30, 5));
+
+        try (PurchaseJournal journal = new PurchaseJournal(List.of(new JournalOutput(log, new BinaryPurchaseEncoder()),
+                new JournalOutput(summary, new SummaryPurchaseEncoder(id -> id == 7 ? "Иван Иванов" : null))),
+                16, 1, Durability.NONE)) {
+            journal.append(single);
+            journal.append(basket);
+            journal.flush();
+            assertEquals(0, journal.getFailedBatches());
+        }
+
+        List<String> lines = Files.readAllLines(summary, StandardCharsets.UTF_8);
+        assertEquals(List.of(
+                "Дата: 2024-03-15 10:30:05, Покупатель: Иван Иванов, Продукт: Яблоки, Количество: 2",
+                "Дата: " + DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss").format(basket.getPurchaseDate())
+                        + ", Покупатель: ID 8, Продукты: Яблоки x 1; Хлеб x 3, Сумма: 4.96"), lines);
+
+        try (PurchaseLogReader reader = new PurchaseLogReader(log)) {
+            assertTrue(reader.next());
+            assertEquals(7, reader.customerId());
+            assertEquals(single.getPurchaseDate().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli(),
+                    reader.epochMillis());
+            assertTrue(reader.next());
+            assertEquals(8, reader.customerId());
+            assertFalse(reader.next());
+        }
+    }
+
+    private static long countRecords(Path file) throws Exception {
+        return Files.readAllLines(file, StandardCharsets.UTF_8).stream().filter("----"::equals).count();
+    }
+}
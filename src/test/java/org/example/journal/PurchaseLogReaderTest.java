@@ -0,0 +1,146 @@
+package org.example.journal;
+
+import org.example.manageClasses.ProductManager;
+import org.example.model.Product;
+import org.example.model.Purchase;
+import org.example.model.PurchaseItem;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.ZoneId;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PurchaseLogReaderTest {
+
+    @TempDir
+    Path tempDir;
+
+    private final Product apples = new Product(1, "Яблоки", 1.99, 50);
+    private final Product eggs = new Product(5, "Яйца (десяток)", 2.99, 25);
+
+    @Test
+    void next_ReadsBackEncodedRecords() throws Exception {
+        Path file = tempDir.resolve("purchases.bin");
+        Purchase first = new Purchase(7, List.of(new PurchaseItem(apples, 199, 3), new PurchaseItem(eggs, 299, 1)));
+        Purchase second = new Purchase(8, List.of(new PurchaseItem(eggs, 299, 2)));
+        write(file, first, second);
+
+        try (PurchaseLogReader reader = new PurchaseLogReader(file)) {
+            assertTrue(reader.next());
+            assertEquals(0, reader.recordOffset());
+            assertEquals(7, reader.customerId());
+            assertEquals(first.getPurchaseDate().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli(),
+                    reader.epochMillis());
+            assertEquals(2, reader.lineCount());
+            assertEquals(1, reader.productId(0));
+            assertEquals(3, reader.quantity(0));
+            assertEquals(199, reader.unitPriceMinor(0));
+            assertEquals(5, reader.productId(1));
+            assertEquals(896, reader.totalAmountMinor());
+
+            assertTrue(reader.next());
+            assertEquals(8, reader.customerId());
+            assertEquals(2, reader.quantity(0));
+            assertFalse(reader.next());
+            assertEquals(Files.size(file), reader.nextOffset());
+        }
+    }
+
+    @Test
+    void next_StopsAtTruncatedRecordAndResumesFromOffset() throws Exception {
+        Path file = tempDir.resolve("purchases.bin");
+        write(file, new Purchase(1, List.of(new PurchaseItem(apples, 199, 1))),
+                new Purchase(2, List.of(new PurchaseItem(apples, 199, 1))));
+        long fullSize = Files.size(file);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.truncate(fullSize - 3); // имитация сбоя посреди записи
+        }
+
+        long resumeOffset;
+        try (PurchaseLogReader reader = new PurchaseLogReader(file)) {
+            assertTrue(reader.next());
+            assertFalse(reader.next());
+            resumeOffset = reader.nextOffset();
+        }
+        try (PurchaseLogReader reader = new PurchaseLogReader(file, resumeOffset)) {
+            assertFalse(reader.next());
+        }
+    }
+
+    @Test
+    void journal_ReopenedAfterTornRecord_AppendsAfterLastWholeRecord() throws Exception {
+        Path file = tempDir.resolve("purchases.bin");
+        write(file, new Purchase(1, List.of(new PurchaseItem(apples, 199, 1))),
+                new Purchase(2, List.of(new PurchaseItem(apples, 199, 1))));
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.truncate(Files.size(file) - 3); // сбой посреди второй записи
+        }
+
+        write(file, new Purchase(3, List.of(new PurchaseItem(eggs, 299, 2))),
+                new Purchase(4, List.of(new PurchaseItem(eggs, 299, 1))));
+
+        try (PurchaseLogReader reader = new PurchaseLogReader(file)) {
+            assertTrue(reader.next());
+            assertEquals(1, reader.customerId());
+            assertTrue(reader.next());
+            assertEquals(3, reader.customerId());
+            assertEquals(2, reader.quantity(0));
+            assertTrue(reader.next());
+            assertEquals(4, reader.customerId());
+            assertFalse(reader.next());
+            assertEquals(Files.size(file), reader.nextOffset());
+        }
+    }
+
+    @Test
+    void next_StopsAtRecordWithWrongChecksum() throws Exception {
+        Path file = tempDir.resolve("purchases.bin");
+        write(file, new Purchase(1, List.of(new PurchaseItem(apples, 199, 1))),
+                new Purchase(2, List.of(new PurchaseItem(apples, 199, 1))));
+        long second = BinaryPurchaseEncoder.recordLength(1) + Integer.BYTES;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            // портим количество в позиции второй записи, длина при этом остается верной
+            long quantityOffset = second + 2 * Integer.BYTES + BinaryPurchaseEncoder.HEADER_SIZE + Integer.BYTES;
+            channel.write(ByteBuffer.wrap(new byte[]{0, 0, 0, 9}), quantityOffset);
+        }
+
+        try (PurchaseLogReader reader = new PurchaseLogReader(file)) {
+            assertTrue(reader.next());
+            assertEquals(1, reader.customerId());
+            assertFalse(reader.next());
+            assertEquals(second, reader.nextOffset());
+        }
+    }
+
+    @Test
+    void export_WritesLegacyTextFormat() throws Exception {
+        Path file = tempDir.resolve("purchases.bin");
+        Path text = tempDir.resolve("purchases.txt");
+        write(file, new Purchase(3, List.of(new PurchaseItem(eggs, 299, 2))));
+        ProductManager productManager = new ProductManager();
+        productManager.addProduct(eggs);
+
+        assertEquals(1, new PurchaseTextExporter(productManager).export(file, text));
+
+        String exported = Files.readString(text, StandardCharsets.UTF_8);
+        assertTrue(exported.contains("Покупатель ID: 3"));
+        assertTrue(exported.contains("- Яйца (десяток): 2.99 x 2"));
+        assertTrue(exported.endsWith("----\n"));
+    }
+
+    private static void write(Path file, Purchase... purchases) throws Exception {
+        try (PurchaseJournal journal = new PurchaseJournal(file, new BinaryPurchaseEncoder(), 16, 0, Durability.NONE)) {
+            for (Purchase purchase : purchases) {
+                journal.append(purchase);
+            }
+        }
+    }
+}
@@ -0,0 +1,197 @@
+package org.example.manageClasses;
+
+import org.example.model.Product;
+import org.example.model.Reservation;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ColumnarProductManagerTest {
+
+    private ColumnarProductManager catalogue;
+
+    @BeforeEach
+    void setUp() {
+        catalogue = new ColumnarProductManager();
+        catalogue.addProduct(new Product(1, "Яблоки", 1.99, 50));
+        catalogue.addProduct(new Product(2, "Хлеб", 0.99, 3));
+        catalogue.addProduct(new Product(3, "Сыр", 3.49, 15));
+    }
+
+    @AfterEach
+    void tearDown() {
+        catalogue.close();
+    }
+
+    @Test
+    void addUpdateDelete_BehaveLikeProductManager() {
+        assertEquals(3, catalogue.getProductCount());
+        assertEquals("Хлеб", catalogue.findById(2).getName());
+        assertEquals(2, catalogue.findByName("ХЛЕБ").getId());
+        assertNull(catalogue.findById(4));
+
+        catalogue.updateProduct(1, new Product(1, "Яблоки зеленые", 2.49, 40));
+        catalogue.addProduct(new Product(3, "Сыр твердый", 3.99, 10));
+        catalogue.updateProduct(9, new Product(9, "Нет", 1.00, 1));
+
+        assertNull(catalogue.findByName("яблоки"));
+        assertEquals(249, catalogue.findByName("яблоки зеленые").getPriceMinor());
+        assertEquals(10, catalogue.findById(3).getQuantity());
+        assertEquals(List.of(1, 2, 3), ids(catalogue.getAllProducts()));
+
+        catalogue.deleteProduct(2);
+        catalogue.addProduct(new Product(2, "Хлеб", 1.09, 20));
+
+        assertEquals(3, catalogue.getProductCount());
+        // Новый продукт занял строку удаленного, поэтому стоит на его месте
+        assertEquals(List.of(1, 2, 3), ids(catalogue.streamProducts().toList()));
+        assertEquals(109, catalogue.findByName("хлеб").getPriceMinor());
+        assertThrows(IllegalArgumentException.class, () -> catalogue.addProduct(new Product(0, "Нуль", 1.00, 1)));
+    }
+
+    @Test
+    void views_ReadAndWriteColumns() {
+        Product first = catalogue.findById(1);
+        Product second = catalogue.findById(1);
+
+        assertTrue(first.reduceQuantity(20));
+        assertFalse(first.reduceQuantity(31));
+        second.restoreQuantity(5);
+
+        assertEquals(35, first.getQuantity());
+        assertEquals(35, catalogue.findByName("яблоки").getQuantity());
+        assertEquals(first, second);
+        assertEquals(first.hashCode(), second.hashCode());
+
+        catalogue.updateProduct(1, new Product(1, "Яблоки", 2.10, 35));
+        assertEquals(210, first.getPriceMinor());
+
+        // После удаления представление отвязано от столбцов и остаток больше не меняет
+        catalogue.deleteProduct(1);
+        assertFalse(first.reduceQuantity(1));
+        first.restoreQuantity(100);
+        assertEquals("Яблоки", first.getName());
+        assertEquals(3 + 15, catalogue.totalUnits());
+    }
+
+    @Test
+    void reservations_HoldStockInColumns() {
+        Reservation reservation = catalogue.reserve(3, 5, 60_000);
+        Reservation cancelled = catalogue.reserve(3, 4, 60_000);
+
+        assertNotNull(reservation);
+        assertNull(catalogue.reserve(3, 7, 60_000));
+        Product cheese = catalogue.findById(3);
+        assertEquals(6, cheese.getQuantity());
+        assertEquals(9, cheese.getReservedQuantity());
+        assertEquals(15, cheese.getQuantityIncludingHolds());
+
+        assertTrue(catalogue.confirmReservation(reservation.getId()));
+        assertTrue(catalogue.cancelReservation(cancelled.getId()));
+        assertFalse(catalogue.confirmReservation(reservation.getId()));
+
+        assertEquals(10, cheese.getQuantity());
+        assertEquals(0, cheese.getReservedQuantity());
+    }
+
+    @Test
+    void aggregates_ScanAllSegments() {
+        ColumnarProductManager large = new ColumnarProductManager();
+        int size = ColumnarProductManager.SEGMENT_SIZE * 3 + 17;
+        List<Product> batch = new ArrayList<>();
+        long expectedValue = 0;
+        for (int id = 1; id <= size; id++) {
+            batch.add(Product.withPriceMinor(id, "Продукт " + id, 100 + id % 7, id % 10));
+            expectedValue += (100 + id % 7) * (long) (id % 10);
+        }
+        large.addProducts(batch);
+        large.deleteProduct(5);
+
+        assertEquals(size - 1, large.getProductCount());
+        assertEquals(expectedValue - 105 * 5, large.inventoryValueMinor());
+        // Остаток меньше 3 у ID, оканчивающихся на 0, 1 и 2
+        assertEquals(large.streamProducts().filter(p -> p.getQuantity() < 3).count(), large.countBelow(3));
+        assertEquals(large.countBelow(1), large.findBelow(1).size());
+        assertTrue(large.findBelow(1).stream().allMatch(p -> p.getId() % 10 == 0));
+
+        Reservation reservation = large.reserve(9, 4, 60_000);
+        assertNotNull(reservation);
+        assertEquals(expectedValue - 105 * 5, large.inventoryValueMinor());
+        large.close();
+    }
+
+    @Test
+    void deleteThenAdd_ReusesRowsAndDetachesOldViews() {
+        Product bread = catalogue.findById(2);
+        for (int id = 4; id < 10_000; id++) {
+            catalogue.deleteProduct(id - 2);
+            catalogue.addProduct(new Product(id, "Продукт", 1.00, 7));
+        }
+
+        assertEquals(3, catalogue.getProductCount());
+        assertEquals(3, catalogue.rowCount());
+        assertEquals(50 + 2 * 7, catalogue.totalUnits());
+
+        // Строку хлеба занимали другие продукты, в том числе снова с ID 2: старое представление их не видит
+        catalogue.deleteProduct(9_999);
+        catalogue.addProduct(new Product(2, "Хлеб", 0.99, 30));
+        assertEquals(0, bread.getQuantity());
+        assertFalse(bread.reduceQuantity(1));
+        assertEquals(0, bread.getQuantityIncludingHolds());
+        assertNotEquals(bread, catalogue.findById(2));
+        assertEquals(30, catalogue.findById(2).getQuantity());
+        assertEquals(3, catalogue.rowCount());
+    }
+
+    @Test
+    void addProduct_SharesRepeatedNames() {
+        catalogue.addProduct(new Product(4, new String("Хлеб"), 1.19, 5));
+
+        assertSame(catalogue.findById(2).getName(), catalogue.findById(4).getName());
+        // Последний добавленный занимает название в индексе, как в ProductManager
+        assertEquals(4, catalogue.findByName("хлеб").getId());
+    }
+
+    @Test
+    void reduceQuantity_ConcurrentWithGrowthLosesNothing() throws Exception {
+        int threads = 4;
+        int perThread = 5_000;
+        catalogue.addProduct(new Product(100, "Молоко", 0.89, threads * perThread));
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads + 1);
+        List<Future<?>> tasks = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            tasks.add(pool.submit(() -> {
+                for (int i = 0; i < perThread; i++) {
+                    assertTrue(catalogue.findById(100).reduceQuantity(1));
+                }
+            }));
+        }
+        // Параллельно каталог растет на несколько сегментов
+        tasks.add(pool.submit(() -> {
+            for (int id = 1_000; id < 1_000 + ColumnarProductManager.SEGMENT_SIZE * 4; id++) {
+                catalogue.addProduct(new Product(id, "Продукт " + id, 1.00, 1));
+            }
+        }));
+        for (Future<?> task : tasks) {
+            task.get(30, TimeUnit.SECONDS);
+        }
+        pool.shutdown();
+
+        assertEquals(0, catalogue.findById(100).getQuantity());
+        assertEquals(4 + ColumnarProductManager.SEGMENT_SIZE * 4, catalogue.getProductCount());
+    }
+
+    private static List<Integer> ids(List<Product> products) {
+        return products.stream().map(Product::getId).toList();
+    }
+}
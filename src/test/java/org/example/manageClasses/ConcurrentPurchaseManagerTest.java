@@ -0,0 +1,296 @@
+package org.example.manageClasses;
+
+import org.example.model.Basket;
+import org.example.model.Customer;
+import org.example.model.Product;
+import org.example.model.Purchase;
+import org.example.model.PurchaseResult;
+import org.example.model.Reservation;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConcurrentPurchaseManagerTest {
+
+    private static final int THREADS = 16;
+
+    private StockReservations reservations;
+    private ProductManager productManager;
+    private CustomerManager customerManager;
+    private AtomicInteger savedPurchases;
+    private ConcurrentPurchaseManager purchaseManager;
+
+    @BeforeEach
+    void setUp() {
+        reservations = new StockReservations();
+        productManager = new ProductManager(reservations);
+        customerManager = new CustomerManager();
+        savedPurchases = new AtomicInteger();
+        // Подменяем запись в файл счетчиком, чтобы тест проверял только списания
+        purchaseManager = new ConcurrentPurchaseManager(productManager, customerManager, 8) {
+            @Override
+            public void savePurchaseInfo(Purchase purchase) {
+                savedPurchases.incrementAndGet();
+            }
+        };
+    }
+
+    @AfterEach
+    void tearDown() {
+        reservations.close();
+    }
+
+    @Test
+    void makePurchase_DeductsBalanceAndStock() {
+        Customer customer = new Customer(1, "Anna", 1000.0);
+        Product product = new Product(1, "Apple", 2.0, 20);
+        customerManager.addCustomer(customer);
+        productManager.addProduct(product);
+
+        PurchaseResult result = purchaseManager.makePurchase(1, 1, 5);
+
+        assertTrue(result.isSuccess());
+        assertEquals(new BigDecimal("990.00"), customer.getBalance());
+        assertEquals(15, product.getQuantity());
+        assertEquals(1, savedPurchases.get());
+    }
+
+    @Test
+    void makePurchase_ReportsFailureReasons() {
+        customerManager.addCustomer(new Customer(1, "Anna", 5.0));
+        productManager.addProduct(new Product(1, "Apple", 2.0, 2));
+
+        assertEquals(PurchaseResult.Status.OUT_OF_STOCK, purchaseManager.makePurchase(1, 1, 5).getStatus());
+        productManager.findById(1).setQuantity(20);
+        assertEquals(PurchaseResult.Status.INSUFFICIENT_FUNDS, purchaseManager.makePurchase(1, 1, 5).getStatus());
+        assertEquals(PurchaseResult.Status.CUSTOMER_NOT_FOUND, purchaseManager.makePurchase(2, 1, 1).getStatus());
+        assertEquals(PurchaseResult.Status.PRODUCT_NOT_FOUND, purchaseManager.makePurchase(1, 2, 1).getStatus());
+        assertEquals(PurchaseResult.Status.INVALID_QUANTITY, purchaseManager.makePurchase(1, 1, 0).getStatus());
+        assertEquals(0, savedPurchases.get());
+    }
+
+    @Test
+    void concurrentPurchases_NeverOversellStock() throws Exception {
+        // Спрос заведомо больше остатка: несколько "горячих" товаров и много касс одновременно
+        int products = 4;
+        int stockPerProduct = 500;
+        for (int id = 1; id <= products; id++) {
+            productManager.addProduct(new Product(id, "Товар", 1.0, stockPerProduct));
+        }
+        for (int id = 1; id <= 32; id++) {
+            customerManager.addCustomer(new Customer(id, "Покупатель", 1_000_000.0));
+        }
+
+        AtomicInteger unitsSold = new AtomicInteger();
+        runConcurrently(() -> {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            for (int i = 0; i < 2_000; i++) {
+                int quantity = 1 + random.nextInt(3);
+                PurchaseResult result = purchaseManager.makePurchase(
+                        1 + random.nextInt(32), 1 + random.nextInt(products), quantity);
+                if (result.isSuccess()) {
+                    unitsSold.addAndGet(quantity);
+                } else {
+                    assertEquals(PurchaseResult.Status.OUT_OF_STOCK, result.getStatus());
+                }
+            }
+        });
+
+        int remaining = 0;
+        for (Product product : productManager.getAllProducts()) {
+            assertTrue(product.getQuantity() >= 0, "Остаток ушел в минус: " + product.getQuantity());
+            remaining += product.getQuantity();
+        }
+        assertEquals(products * stockPerProduct, remaining + unitsSold.get());
+
+        BigDecimal spent = BigDecimal.ZERO;
+        for (Customer customer : customerManager.getAllCustomers()) {
+            spent = spent.add(new BigDecimal("1000000.00").subtract(customer.getBalance()));
+        }
+        assertEquals(0, spent.compareTo(BigDecimal.valueOf(unitsSold.get())));
+    }
+
+    @Test
+    void concurrentPurchases_NeverOverdrawBalance() throws Exception {
+        // Один покупатель на всех кассах: баланса хватает ровно на 1000 единиц
+        customerManager.addCustomer(new Customer(1, "Anna", 1000.0));
+        for (int id = 1; id <= 8; id++) {
+            productManager.addProduct(new Product(id, "Товар", 1.0, 10_000));
+        }
+
+        AtomicInteger successes = new AtomicInteger();
+        runConcurrently(() -> {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            for (int i = 0; i < 500; i++) {
+                if (purchaseManager.makePurchase(1, 1 + random.nextInt(8), 1).isSuccess()) {
+                    successes.incrementAndGet();
+                }
+            }
+        });
+
+        assertEquals(1000, successes.get());
+        assertEquals(0, customerManager.findById(1).getBalance().signum());
+        assertEquals(1000, savedPurchases.get());
+    }
+
+    @Test
+    void checkout_AppliesWholeBasketOnce() {
+        Customer customer = new Customer(1, "Anna", 100.0);
+        customerManager.addCustomer(customer);
+        productManager.addProduct(new Product(1, "Apple", 2.0, 10));
+        productManager.addProduct(new Product(2, "Bread", 1.0, 10));
+
+        PurchaseResult result = purchaseManager.checkout(1, new Basket().addLine(1, 3).addLine(2, 4).addLine(1, 2));
+
+        assertTrue(result.isSuccess());
+        assertEquals(2, result.getPurchase().getItems().size());
+        assertEquals(1400, result.getPurchase().getTotalAmountMinor());
+        assertEquals(new BigDecimal("86.00"), customer.getBalance());
+        assertEquals(5, productManager.findById(1).getQuantity());
+        assertEquals(6, productManager.findById(2).getQuantity());
+        assertEquals(1, savedPurchases.get());
+    }
+
+    @Test
+    void checkout_OneShortLine_LeavesEverythingUntouched() {
+        Customer customer = new Customer(1, "Anna", 100.0);
+        customerManager.addCustomer(customer);
+        productManager.addProduct(new Product(1, "Apple", 2.0, 10));
+        productManager.addProduct(new Product(2, "Bread", 1.0, 1));
+
+        PurchaseResult result = purchaseManager.checkout(1, new Basket().addLine(1, 3).addLine(2, 4));
+
+        assertEquals(PurchaseResult.Status.OUT_OF_STOCK, result.getStatus());
+        assertEquals(2, result.getFailedProductId());
+        assertEquals(new BigDecimal("100.00"), customer.getBalance());
+        assertEquals(10, productManager.findById(1).getQuantity());
+        assertEquals(1, productManager.findById(2).getQuantity());
+        assertEquals(0, savedPurchases.get());
+    }
+
+    @Test
+    void concurrentBaskets_NeverOversellOrDeadlock() throws Exception {
+        // Корзины из пересекающихся продуктов в разном порядке не должны блокировать друг друга
+        int products = 16;
+        for (int id = 1; id <= products; id++) {
+            productManager.addProduct(new Product(id, "Товар", 1.0, 300));
+        }
+        for (int id = 1; id <= 8; id++) {
+            customerManager.addCustomer(new Customer(id, "Покупатель", 1_000_000.0));
+        }
+
+        AtomicInteger unitsSold = new AtomicInteger();
+        runConcurrently(() -> {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            for (int i = 0; i < 500; i++) {
+                Basket basket = new Basket();
+                int units = 0;
+                for (int line = 0; line < 5; line++) {
+                    basket.addLine(1 + random.nextInt(products), 1);
+                    units++;
+                }
+                if (purchaseManager.checkout(1 + random.nextInt(8), basket).isSuccess()) {
+                    unitsSold.addAndGet(units);
+                }
+            }
+        });
+
+        int remaining = 0;
+        for (Product product : productManager.getAllProducts()) {
+            assertTrue(product.getQuantity() >= 0);
+            remaining += product.getQuantity();
+        }
+        assertEquals(products * 300, remaining + unitsSold.get());
+    }
+
+    @Test
+    void checkout_WithReservations_SellsHeldStockEvenIfFreeStockIsGone() {
+        Customer customer = new Customer(1, "Anna", 1000.0);
+        Product product = new Product(1, "Apple", 2.0, 5);
+        customerManager.addCustomer(customer);
+        productManager.addProduct(product);
+
+        Reservation reservation = productManager.reserve(1, 3, 60_000);
+        assertTrue(purchaseManager.makePurchase(1, 1, 2).isSuccess());
+        assertEquals(PurchaseResult.Status.OUT_OF_STOCK, purchaseManager.makePurchase(1, 1, 1).getStatus());
+
+        PurchaseResult result = purchaseManager.checkout(1, new Basket().addReserved(reservation));
+
+        assertTrue(result.isSuccess());
+        assertEquals(0, product.getQuantity());
+        assertEquals(0, product.getReservedQuantity());
+        assertFalse(productManager.cancelReservation(reservation.getId()));
+        assertEquals(new BigDecimal("990.00"), customer.getBalance());
+    }
+
+    @Test
+    void concurrentReservationsAndPurchases_NeverOversellHotProduct() throws Exception {
+        Product product = new Product(1, "Apple", 1.0, 500);
+        productManager.addProduct(product);
+        for (int id = 1; id <= 8; id++) {
+            customerManager.addCustomer(new Customer(id, "C" + id, 1_000_000.0));
+        }
+        AtomicInteger unitsSold = new AtomicInteger();
+
+        runConcurrently(() -> {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            for (int i = 0; i < 200; i++) {
+                int customerId = 1 + random.nextInt(8);
+                if (random.nextBoolean()) {
+                    if (purchaseManager.makePurchase(customerId, 1, 1).isSuccess()) {
+                        unitsSold.incrementAndGet();
+                    }
+                    continue;
+                }
+                Reservation reservation = productManager.reserve(1, 2, 60_000);
+                if (reservation == null) {
+                    continue;
+                }
+                Basket basket = new Basket().addReserved(reservation).addLine(1, 1);
+                if (purchaseManager.checkout(customerId, basket).isSuccess()) {
+                    unitsSold.addAndGet(3);
+                } else {
+                    productManager.cancelReservation(reservation.getId());
+                }
+            }
+        });
+
+        assertTrue(product.getQuantity() >= 0);
+        assertEquals(0, product.getReservedQuantity());
+        assertEquals(500, product.getQuantity() + unitsSold.get());
+    }
+
+    private static void runConcurrently(Runnable task) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        try {
+            for (int i = 0; i < THREADS; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    task.run();
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
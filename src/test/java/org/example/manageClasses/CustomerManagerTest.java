@@ -0,0 +1,43 @@
+package org.example.manageClasses;
+
+import org.example.model.Customer;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CustomerManagerTest {
+
+    @Test
+    void getAllCustomers_IsLiveReadOnlyView() {
+        CustomerManager customerManager = new CustomerManager();
+        customerManager.addCustomer(new Customer(1, "Anna", 10.0));
+        List<Customer> customers = customerManager.getAllCustomers();
+
+        customerManager.addCustomer(new Customer(2, "Boris", 20.0));
+        customerManager.deleteCustomer(1);
+
+        assertSame(customers, customerManager.getAllCustomers());
+        assertEquals(1, customers.size());
+        assertEquals(2, customers.get(0).getId());
+        assertThrows(UnsupportedOperationException.class, () -> customers.add(new Customer(3, "Vera", 1.0)));
+    }
+
+    @Test
+    void getAllCustomers_IteratesEveryCustomerAcrossPages() {
+        CustomerManager customerManager = new CustomerManager();
+        for (int id = 1; id <= 2500; id++) {
+            customerManager.addCustomer(new Customer(id, "Customer", 1.0));
+        }
+
+        Set<Integer> seen = new HashSet<>();
+        for (Customer customer : customerManager.getAllCustomers()) {
+            assertTrue(seen.add(customer.getId()));
+        }
+        assertEquals(2500, seen.size());
+        assertEquals(2500, customerManager.streamCustomers().count());
+    }
+}
@@ -0,0 +1,154 @@
+package org.example.manageClasses;
+
+import org.example.model.Product;
+import org.example.model.ProductChange;
+import org.example.model.Reservation;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductViewCacheTest {
+
+    private ProductManager productManager;
+    private ProductViewCache cache;
+    private List<ProductChange> changes;
+
+    @BeforeEach
+    void setUp() {
+        productManager = new ProductManager();
+        productManager.addProduct(new Product(1, "Яблоки", 1.99, 50));
+        cache = new ProductViewCache(productManager);
+        changes = new ArrayList<>();
+        cache.addListener(changes::add);
+    }
+
+    @AfterEach
+    void tearDown() {
+        cache.close();
+    }
+
+    @Test
+    void constructor_IndexesExistingProducts() {
+        assertEquals("Яблоки", cache.findById(1).getName());
+        assertSame(cache.findById(1), cache.findByName("ЯБЛОКИ"));
+        assertEquals(0, cache.getVersion());
+    }
+
+    @Test
+    void updateProduct_PublishesChangeAndReindexesName() {
+        Product live = cache.findById(1);
+        Product updated = new Product(1, "Яблоки зеленые", 2.49, 40);
+
+        cache.updateProduct(1, updated);
+
+        assertEquals(1, cache.getVersion());
+        assertEquals(1, changes.size());
+        ProductChange change = changes.get(0);
+        assertEquals(ProductChange.Type.UPDATED, change.getType());
+        assertEquals(1, change.getVersion());
+        assertEquals("Яблоки", change.getPrevious().getName());
+        assertEquals(50, change.getPrevious().getQuantity());
+        assertSame(live, change.getCurrent());
+        assertNull(cache.findByName("Яблоки"));
+        // Поля меняются у живого объекта: ссылка, взятая кассой до правки, видит новые значения
+        assertSame(live, cache.findByName("яблоки зеленые"));
+        assertSame(live, productManager.findById(1));
+        assertEquals(249, live.getPriceMinor());
+        assertEquals(40, live.getQuantity());
+    }
+
+    @Test
+    void updateProduct_CheckoutHoldingOldReferenceSellsFromLiveStock() {
+        Product takenByTill = cache.findById(1);
+
+        cache.updateProduct(1, new Product(1, "Яблоки", 1.99, 10));
+        assertTrue(takenByTill.reduceQuantity(4));
+
+        assertEquals(6, cache.findById(1).getQuantity());
+        assertEquals(6, productManager.findById(1).getQuantity());
+    }
+
+    @Test
+    void reservations_SurviveUpdateAndReimport() {
+        Product live = cache.findById(1);
+        Reservation confirmed = cache.reserve(1, 5, 60_000);
+        Reservation cancelled = cache.reserve(1, 3, 60_000);
+
+        cache.updateProduct(1, new Product(1, "Яблоки", 2.19, 20));
+        // Повторный импорт каталога с тем же ID
+        cache.addProducts(List.of(new Product(1, "Яблоки", 2.29, 30), new Product(2, "Хлеб", 0.99, 10)));
+
+        assertSame(live, cache.findById(1));
+        assertSame(live, productManager.findById(1));
+        assertEquals(8, live.getReservedQuantity());
+        assertTrue(cache.confirmReservation(confirmed.getId()));
+        assertTrue(cache.cancelReservation(cancelled.getId()));
+
+        assertEquals(0, live.getReservedQuantity());
+        // Резервы ведет только кэш, основной менеджер своих не заводит
+        assertThrows(UnsupportedOperationException.class, () -> productManager.reserve(1, 1, 60_000));
+        assertEquals(33, cache.findById(1).getQuantity());
+        assertEquals(229, cache.findByName("яблоки").getPriceMinor());
+        assertEquals(List.of(ProductChange.Type.UPDATED, ProductChange.Type.UPDATED, ProductChange.Type.ADDED),
+                changes.stream().map(ProductChange::getType).toList());
+        assertEquals(20, changes.get(1).getPrevious().getQuantity());
+    }
+
+    @Test
+    void addAndDelete_PublishEventsInVersionOrder() {
+        cache.addProduct(new Product(2, "Хлеб", 0.99, 30));
+        cache.deleteProduct(1);
+        cache.deleteProduct(42);
+
+        assertEquals(2, changes.size());
+        assertEquals(ProductChange.Type.ADDED, changes.get(0).getType());
+        assertEquals(ProductChange.Type.DELETED, changes.get(1).getType());
+        assertEquals(1, changes.get(1).getProductId());
+        assertEquals(2, changes.get(1).getVersion());
+        assertNull(cache.findById(1));
+        assertNull(productManager.findById(1));
+        assertEquals(1, cache.getProductCount());
+    }
+
+    @Test
+    void readers_SeeEveryPublishedPriceWhileWriterUpdates() throws InterruptedException {
+        AtomicBoolean running = new AtomicBoolean(true);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        AtomicLong reads = new AtomicLong();
+        Thread reader = new Thread(() -> {
+            long lastSeenPrice = 0;
+            try {
+                while (running.get()) {
+                    long versionBefore = cache.getVersion();
+                    long price = cache.findById(1).getPriceMinor();
+                    // Цена растет с каждой версией: чтение после версии v видит цену не ниже 199 + v
+                    assertTrue(price >= 199 + versionBefore);
+                    assertTrue(price >= lastSeenPrice);
+                    lastSeenPrice = price;
+                    reads.incrementAndGet();
+                }
+            } catch (Throwable e) {
+                failure.set(e);
+            }
+        });
+        reader.start();
+
+        for (int i = 1; i <= 20_000; i++) {
+            cache.updateProduct(1, Product.withPriceMinor(1, "Яблоки", 199 + i, 50));
+        }
+        running.set(false);
+        reader.join();
+
+        assertNull(failure.get());
+        assertTrue(reads.get() > 0);
+        assertEquals(199 + 20_000, cache.findById(1).getPriceMinor());
+    }
+}
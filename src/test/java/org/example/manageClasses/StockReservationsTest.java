@@ -0,0 +1,120 @@
+package org.example.manageClasses;
+
+import org.example.model.Product;
+import org.example.model.Reservation;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StockReservationsTest {
+
+    private final AtomicLong now = new AtomicLong(1_000_000);
+    private final StockReservations reservations = new StockReservations(now::get, 10, 8);
+
+    @AfterEach
+    void tearDown() {
+        reservations.close();
+    }
+
+    @Test
+    void reserve_TakesStockUntilConfirmedOrCancelled() {
+        Product product = new Product(1, "Яблоки", 1.99, 10);
+
+        Reservation sold = reservations.reserve(product, 4, 1000);
+        Reservation returned = reservations.reserve(product, 3, 1000);
+        assertEquals(3, product.getQuantity());
+        assertEquals(7, product.getReservedQuantity());
+        assertEquals(10, product.getQuantityIncludingHolds());
+        assertNull(reservations.reserve(product, 4, 1000));
+
+        assertTrue(reservations.confirm(sold.getId()));
+        assertTrue(reservations.cancel(returned.getId()));
+        assertEquals(6, product.getQuantity());
+        assertEquals(0, product.getReservedQuantity());
+
+        // Каждый резерв завершается только один раз
+        assertFalse(reservations.confirm(sold.getId()));
+        assertFalse(reservations.cancel(sold.getId()));
+        assertFalse(reservations.confirm(returned.getId()));
+        assertEquals(0, reservations.getActiveCount());
+    }
+
+    @Test
+    void expireDue_ReturnsUnconfirmedHoldsAfterDeadline() {
+        Product product = new Product(1, "Хлеб", 0.99, 10);
+        Reservation shortHold = reservations.reserve(product, 2, 25);
+        // Срок дальше нескольких оборотов колеса (8 ячеек по 10 мс)
+        Reservation longHold = reservations.reserve(product, 3, 500);
+        Reservation confirmed = reservations.reserve(product, 1, 25);
+        assertTrue(reservations.confirm(confirmed.getId()));
+
+        // Фоновый проход идет по тем же часам, поэтому проверяется состояние, а не кто снял резерв
+        now.addAndGet(20);
+        reservations.expireDue();
+        assertEquals(4, product.getQuantity());
+        now.addAndGet(10);
+        reservations.expireDue();
+        assertEquals(6, product.getQuantity());
+        assertFalse(reservations.confirm(shortHold.getId()));
+
+        now.addAndGet(400);
+        reservations.expireDue();
+        assertEquals(1, reservations.getActiveCount());
+        now.addAndGet(100);
+        reservations.expireDue();
+        assertFalse(reservations.cancel(longHold.getId()));
+        assertEquals(0, reservations.getActiveCount());
+        assertEquals(9, product.getQuantity());
+        assertEquals(0, product.getReservedQuantity());
+    }
+
+    @Test
+    void reserve_OnHotProduct_FailsInsteadOfOverselling() throws Exception {
+        Product product = new Product(1, "Сыр", 3.49, 100);
+        int threads = 16;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Integer>> held = new ArrayList<>();
+        try {
+            for (int t = 0; t < threads; t++) {
+                held.add(executor.submit(() -> {
+                    start.await();
+                    int units = 0;
+                    for (int i = 0; i < 50; i++) {
+                        Reservation reservation = reservations.reserve(product, 1, 60_000);
+                        if (reservation == null) {
+                            continue;
+                        }
+                        // Часть резервов отменяется, остальные продаются
+                        if (i % 3 == 0) {
+                            assertTrue(reservations.cancel(reservation.getId()));
+                        } else if (reservations.confirm(reservation.getId())) {
+                            units++;
+                        }
+                    }
+                    return units;
+                }));
+            }
+            start.countDown();
+            int sold = 0;
+            for (Future<Integer> future : held) {
+                sold += future.get(30, TimeUnit.SECONDS);
+            }
+            assertTrue(sold <= 100);
+            assertEquals(100 - sold, product.getQuantity());
+            assertEquals(0, product.getReservedQuantity());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package org.example.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LatencyHistogramTest {
+
+    @Test
+    void indexOf_BucketsAreContiguousAndBounded() {
+        long[] values = {0, 1, 63, 64, 65, 127, 128, 1_000, 123_456_789, Long.MAX_VALUE};
+        for (long value : values) {
+            int index = LatencyHistogram.indexOf(value);
+            assertTrue(LatencyHistogram.highestValueAt(index) >= value);
+            // Погрешность корзины не больше 1/32 значения
+            assertTrue(LatencyHistogram.highestValueAt(index) - value <= Math.max(0, value / 32), "value " + value);
+            if (index > 0) {
+                assertTrue(LatencyHistogram.highestValueAt(index - 1) < value);
+            }
+        }
+    }
+
+    @Test
+    void snapshot_ReportsPercentilesWithinBucketPrecision() {
+        LatencyHistogram histogram = new LatencyHistogram(4);
+        for (long value = 1; value <= 10_000; value++) {
+            histogram.record(value * 1000);
+        }
+
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+        assertEquals(10_000, snapshot.getTotalCount());
+        assertEquals(5_000_000, snapshot.getValueAtPercentile(50), 5_000_000 / 32.0);
+        assertEquals(9_900_000, snapshot.getValueAtPercentile(99), 9_900_000 / 32.0);
+        assertEquals(9_990_000, snapshot.getValueAtPercentile(99.9), 9_990_000 / 32.0);
+        assertEquals(10_000_000, snapshot.getMaxValue(), 10_000_000 / 32.0);
+    }
+
+    @Test
+    void record_CountsEveryCallFromManyThreads() throws InterruptedException {
+        LatencyHistogram histogram = new LatencyHistogram(8);
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            Thread thread = new Thread(() -> {
+                for (int i = 0; i < 50_000; i++) {
+                    histogram.record(i);
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(400_000, histogram.snapshot().getTotalCount());
+    }
+}
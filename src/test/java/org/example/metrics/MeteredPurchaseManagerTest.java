@@ -0,0 +1,67 @@
+package org.example.metrics;
+
+import org.example.PurchaseFileSaver;
+import org.example.concurrent.StripedLocks;
+import org.example.interfaces.IPurchaseManager;
+import org.example.journal.PurchaseJournal;
+import org.example.manageClasses.ConcurrentPurchaseManager;
+import org.example.manageClasses.CustomerManager;
+import org.example.manageClasses.ProductManager;
+import org.example.model.Customer;
+import org.example.model.Product;
+import org.example.model.PurchaseResult;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class MeteredPurchaseManagerTest {
+
+    @Test
+    void makePurchase_RecordsLatencyAndOutcomeCounters() {
+        IPurchaseManager delegate = mock(IPurchaseManager.class);
+        when(delegate.makePurchase(1, 1, 1)).thenReturn(PurchaseResult.failure(PurchaseResult.Status.INSUFFICIENT_FUNDS));
+        when(delegate.makePurchase(1, 2, 1)).thenReturn(PurchaseResult.failure(PurchaseResult.Status.OUT_OF_STOCK));
+        MetricsRegistry metrics = new MetricsRegistry();
+        MeteredPurchaseManager purchaseManager = new MeteredPurchaseManager(delegate, metrics);
+
+        purchaseManager.makePurchase(1, 1, 1);
+        purchaseManager.makePurchase(1, 1, 1);
+        purchaseManager.makePurchase(1, 2, 1);
+
+        assertEquals(3, metrics.histogram("purchase.makePurchase").snapshot().getTotalCount());
+        assertEquals(2, metrics.counter("purchase.insufficient_funds").sum());
+        assertEquals(1, metrics.counter("purchase.out_of_stock").sum());
+        assertEquals(0, metrics.counter("purchase.success").sum());
+        String report = metrics.report();
+        assertTrue(report.contains("purchase.makePurchase"));
+        assertTrue(report.contains("purchase.insufficient_funds"));
+        assertFalse(report.contains("purchase.checkout"));
+    }
+
+    @Test
+    void savePurchaseInfo_RecordsSaveLatencyForJournalAndFileSaver(@TempDir Path dir) throws Exception {
+        MetricsRegistry metrics = new MetricsRegistry();
+        LatencyHistogram saveLatency = metrics.histogram(MeteredPurchaseManager.SAVE_PURCHASE_INFO);
+        ProductManager products = new ProductManager();
+        CustomerManager customers = new CustomerManager();
+        Customer customer = new Customer(1, "Anna", 100.0);
+        Product product = new Product(1, "Apple", 2.0, 20);
+        customers.addCustomer(customer);
+        products.addProduct(product);
+
+        try (PurchaseJournal journal = new PurchaseJournal(dir.resolve("purchases.txt"))) {
+            IPurchaseManager purchaseManager = new MeteredPurchaseManager(new ConcurrentPurchaseManager(products,
+                    customers, journal, new StripedLocks(8), saveLatency::record), metrics);
+            assertTrue(purchaseManager.makePurchase(1, 1, 2).isSuccess());
+            assertFalse(purchaseManager.makePurchase(1, 1, 100).isSuccess());
+        }
+        assertEquals(1, saveLatency.snapshot().getTotalCount());
+
+        new PurchaseFileSaver(dir.resolve("summary.txt"), saveLatency::record).savePurchaseToFile(customer, product, 1);
+        assertEquals(2, saveLatency.snapshot().getTotalCount());
+    }
+}
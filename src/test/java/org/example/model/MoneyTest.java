@@ -0,0 +1,48 @@
+package org.example.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MoneyTest {
+
+    @Test
+    void ofMajor_RoundsHalfUpToKopeck() {
+        assertEquals(199, Money.ofMajor(1.99));
+        assertEquals(101, Money.ofMajor(1.005));
+        assertEquals(100, Money.ofMajor(1.004));
+        assertEquals(-101, Money.ofMajor(-1.005));
+        assertEquals(1234, Money.parse(" 12.335 "));
+        assertThrows(ArithmeticException.class, () -> Money.ofMajor(Double.NaN));
+    }
+
+    @Test
+    void arithmetic_IsExactToTheKopeck() {
+        // 0.1 + 0.2 в double дает 0.30000000000000004, в копейках - ровно 30
+        assertEquals(30, Money.add(Money.ofMajor(0.1), Money.ofMajor(0.2)));
+        assertEquals(2990, Money.times(299, 10));
+        assertThrows(ArithmeticException.class, () -> Money.times(Long.MAX_VALUE / 2, 3));
+    }
+
+    @Test
+    void format_AlwaysTwoDigits() {
+        assertEquals("12.34", Money.format(1234));
+        assertEquals("0.05", Money.format(5));
+        assertEquals("-0.05", Money.format(-5));
+        assertEquals("10.00", Money.format(1000));
+        assertEquals(new BigDecimal("990.00"), Money.toBigDecimal(99000));
+    }
+
+    @Test
+    void customerBalance_DeductsExactly() {
+        Customer customer = new Customer(1, "Анна", 1.0);
+        for (int i = 0; i < 10; i++) {
+            customer.deductBalanceMinor(Money.ofMajor(0.1));
+        }
+        assertEquals(0, customer.getBalanceMinor());
+        assertTrue(customer.hasSufficientBalanceMinor(0));
+        assertFalse(customer.hasSufficientBalanceMinor(1));
+    }
+}
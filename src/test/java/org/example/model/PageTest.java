@@ -0,0 +1,46 @@
+package org.example.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PageTest {
+
+    @Test
+    void of_ReturnsRequestedSliceAndHasMore() {
+        Page<Integer> page = Page.of(IntStream.rangeClosed(1, 50).boxed(), 20, 20);
+
+        assertEquals(20, page.getOffset());
+        assertEquals(21, page.getItems().get(0));
+        assertEquals(40, page.getItems().get(19));
+        assertTrue(page.hasMore());
+    }
+
+    @Test
+    void of_LastPageHasNoMore() {
+        Page<Integer> page = Page.of(IntStream.rangeClosed(1, 40).boxed(), 20, 20);
+
+        assertEquals(20, page.getItems().size());
+        assertFalse(page.hasMore());
+        assertTrue(Page.of(IntStream.rangeClosed(1, 40).boxed(), 40, 20).isEmpty());
+    }
+
+    @Test
+    void of_ReadsNoMoreThanOneExtraElement() {
+        AtomicInteger visited = new AtomicInteger();
+
+        Page.of(IntStream.rangeClosed(1, 1_000_000).boxed().peek(i -> visited.incrementAndGet()), 0, 10);
+
+        assertEquals(11, visited.get());
+    }
+
+    @Test
+    void of_RejectsInvalidBounds() {
+        assertThrows(IllegalArgumentException.class, () -> Page.of(List.of(1).stream(), -1, 10));
+        assertThrows(IllegalArgumentException.class, () -> Page.of(List.of(1).stream(), 0, 0));
+    }
+}
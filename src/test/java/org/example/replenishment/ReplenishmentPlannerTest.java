@@ -0,0 +1,131 @@
+package org.example.replenishment;
+
+import org.example.events.EventBus;
+import org.example.model.Product;
+import org.example.model.Purchase;
+import org.example.model.PurchaseItem;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.example.replenishment.ReplenishmentPlanner.DAY_MILLIS;
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReplenishmentPlannerTest {
+
+    private final ReplenishmentPlanner planner = new ReplenishmentPlanner();
+
+    // Продажи по perDay штук в день равномерно в течение days дней, начиная с нуля
+    private long sell(Product product, int perDay, int days) {
+        long now = 0;
+        for (int day = 0; day < days; day++) {
+            for (int i = 0; i < perDay; i++) {
+                now = day * DAY_MILLIS + i * (DAY_MILLIS / perDay);
+                assertTrue(product.reduceQuantity(1));
+                planner.recordSale(product, 1, now);
+            }
+        }
+        return now;
+    }
+
+    @Test
+    void recordSale_TracksMovingVelocity() {
+        Product milk = new Product(1, "Молоко", 0.89, 10_000);
+
+        long now = sell(milk, 10, 60);
+
+        assertEquals(10.0, planner.getUnitsPerDay(1, now), 0.5);
+        // Без продаж скорость затухает
+        assertTrue(planner.getUnitsPerDay(1, now + 14 * DAY_MILLIS) < 2.0);
+    }
+
+    @Test
+    void recordSale_SuggestsWhenStockRunsOutWithinLeadTime() {
+        Product milk = new Product(1, "Молоко", 0.89, 625);
+
+        long now = sell(milk, 10, 60);
+
+        // 25 штук при 10 в день - на 2.5 дня, поставка идет 3 дня
+        ReorderSuggestion suggestion = planner.getSuggestion(1);
+        assertNotNull(suggestion);
+        assertEquals(25, suggestion.getStock());
+        assertEquals(2.5, suggestion.getDaysOfCover(), 0.2);
+        // продажи за 3 + 7 дней, плюс порог, минус остаток
+        assertEquals(80, suggestion.getQuantity(), 5);
+        assertEquals(now, suggestion.getCreatedAtMillis());
+    }
+
+    @Test
+    void recordSale_NoSuggestionWhileStockCoversLeadTime() {
+        Product bread = new Product(2, "Хлеб", 0.99, 700);
+
+        sell(bread, 10, 60);
+
+        assertNull(planner.getSuggestion(2));
+        assertTrue(planner.getSuggestions().isEmpty());
+    }
+
+    @Test
+    void check_RestockClosesSuggestionAndPolicyIsPerProduct() {
+        Product cheese = new Product(3, "Сыр", 3.49, 4);
+        Product eggs = new Product(4, "Яйца", 2.99, 8);
+
+        planner.check(cheese, 0);
+        planner.check(eggs, 0);
+        assertEquals(List.of(3), planner.getSuggestions().stream().map(ReorderSuggestion::getProductId).toList());
+
+        planner.setReorderPolicy(4, 10, 5 * DAY_MILLIS);
+        planner.check(eggs, 0);
+        assertEquals(10, planner.getReorderPoint(4));
+        assertNotNull(planner.getSuggestion(4));
+
+        planner.check(new Product(3, "Сыр", 3.49, 40), 0);
+        assertNull(planner.getSuggestion(3));
+    }
+
+    @Test
+    void reorderPolicies_SavedAndLoadedOnlyWhenSetManually(@TempDir Path tempDir) throws Exception {
+        ReorderPolicyStore store = new ReorderPolicyStore(tempDir.resolve("replenishment.policies"));
+        assertTrue(store.load().isEmpty());
+        planner.check(new Product(3, "Сыр", 3.49, 4), 0);
+        planner.setReorderPolicy(4, 10, 5 * DAY_MILLIS);
+
+        store.save(planner);
+        List<ReorderPolicy> policies = store.load();
+
+        assertEquals(1, policies.size());
+        assertEquals(4, policies.get(0).getProductId());
+        assertEquals(10, policies.get(0).getReorderPoint());
+        assertEquals(5 * DAY_MILLIS, policies.get(0).getLeadTimeMillis());
+    }
+
+    @Test
+    void checkAll_SuggestsForLowStockWithoutSales() {
+        ReplenishmentPlanner restarted = new ReplenishmentPlanner();
+        restarted.setReorderPolicy(2, 40, DAY_MILLIS);
+
+        restarted.checkAll(List.of(new Product(1, "Яблоки", 1.99, 50), new Product(2, "Хлеб", 0.99, 30),
+                new Product(3, "Сыр", 3.49, 4)), 0);
+
+        assertEquals(List.of(2, 3), restarted.getSuggestions().stream().map(ReorderSuggestion::getProductId)
+                .sorted().toList());
+    }
+
+    @Test
+    void onEvent_PurchaseEventsFromBusUpdatePlan() {
+        EventBus bus = new EventBus(64);
+        bus.subscribe("replenishment", planner);
+        Product apples = new Product(5, "Яблоки", 1.99, 6);
+
+        assertTrue(apples.reduceQuantity(3));
+        bus.publishPurchase(new Purchase(1, List.of(new PurchaseItem(apples, apples.getPriceMinor(), 3))));
+        bus.close();
+
+        ReorderSuggestion suggestion = planner.getSuggestion(5);
+        assertNotNull(suggestion);
+        assertEquals(3, suggestion.getStock());
+        assertTrue(suggestion.getUnitsPerDay() > 0);
+    }
+}
@@ -0,0 +1,84 @@
+package org.example.search;
+
+import org.example.manageClasses.ProductManager;
+import org.example.manageClasses.ProductViewCache;
+import org.example.model.Product;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductSearchIndexTest {
+
+    private ProductViewCache catalogue;
+    private ProductSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        catalogue = new ProductViewCache(new ProductManager());
+        catalogue.addProduct(new Product(1, "Яблоки", 1.99, 50));
+        catalogue.addProduct(new Product(2, "Хлеб", 0.99, 30));
+        catalogue.addProduct(new Product(5, "Яйца (десяток)", 2.99, 25));
+        index = new ProductSearchIndex(catalogue);
+        catalogue.addListener(index);
+    }
+
+    private List<Integer> ids(String query) {
+        return index.search(query, 100).stream().map(Product::getId).sorted().collect(Collectors.toList());
+    }
+
+    @Test
+    void tokens_SplitCyrillicNamesAndNormalize() {
+        assertEquals(List.of("яйца", "десяток"), ProductSearchIndex.tokens("Яйца (десяток)"));
+        assertEquals(List.of("еж", "2"), ProductSearchIndex.tokens("ЁЖ-2 ёж"));
+    }
+
+    @Test
+    void search_MatchesWordPrefixesIgnoringCase() {
+        assertEquals(List.of(1, 5), ids("я"));
+        assertEquals(List.of(5), ids("ЯЙ"));
+        assertEquals(List.of(5), ids("дес"));
+        assertEquals(List.of(5), ids("яйц дес"));
+        assertEquals(List.of(), ids("яйц хл"));
+        assertEquals(List.of(), ids("молоко"));
+    }
+
+    @Test
+    void search_FollowsAddUpdateAndDelete() {
+        catalogue.addProduct(new Product(6, "Молоко 3.2%", 0.89, 20));
+        catalogue.updateProduct(2, new Product(2, "Хлеб ржаной", 1.20, 30));
+        catalogue.deleteProduct(1);
+
+        assertEquals(List.of(6), ids("мол 3"));
+        assertEquals(List.of(2), ids("рж"));
+        assertEquals(List.of(5), ids("я"));
+        assertEquals(List.of(), ids("ябл"));
+
+        catalogue.updateProduct(2, new Product(2, "Батон", 1.20, 30));
+        assertEquals(List.of(), ids("хлеб"));
+        assertEquals(List.of(2), ids("бат"));
+    }
+
+    @Test
+    void search_StopsAtLimit() {
+        for (int id = 10; id < 110; id++) {
+            catalogue.addProduct(new Product(id, "Сок " + id, 1.0, 1));
+        }
+
+        assertEquals(5, index.search("сок", 5).size());
+        assertEquals(100, index.search("сок", 1000).size());
+    }
+
+    @Test
+    void remove_PrunesTokensWithoutProducts() {
+        int before = index.getTokenCount();
+        catalogue.addProduct(new Product(7, "Сыр пармезан", 9.99, 3));
+        catalogue.deleteProduct(7);
+
+        assertEquals(before, index.getTokenCount());
+        assertEquals(List.of(), ids("пар"));
+    }
+}
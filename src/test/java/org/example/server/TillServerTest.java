@@ -0,0 +1,149 @@
+package org.example.server;
+
+import org.example.Shop;
+import org.example.interfaces.Input;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.PrintWriter;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class TillServerTest {
+
+    private TillServer server;
+
+    // Вместо меню магазина каждая касса получает эхо: строки возвращаются с префиксом до команды 0
+    @BeforeEach
+    void setUp() throws Exception {
+        Shop store = mock(Shop.class);
+        when(store.openTill(any(Input.class), any(PrintStream.class))).thenAnswer(invocation -> {
+            Input input = invocation.getArgument(0);
+            PrintStream out = invocation.getArgument(1);
+            Shop till = mock(Shop.class);
+            doAnswer(start -> {
+                out.println("Касса готова");
+                String line;
+                while (!(line = input.nextLine()).equals("0")) {
+                    out.println("эхо: " + line);
+                }
+                out.println("Сеанс кассы завершен.");
+                return null;
+            }).when(till).start();
+            return till;
+        });
+        server = new TillServer(store, 0);
+        server.start();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        server.close();
+    }
+
+    @Test
+    void sessions_FromManyTills_RunConcurrentlyWithSeparateInputAndOutput() throws Exception {
+        int tills = 200;
+        CountDownLatch allConnected = new CountDownLatch(tills);
+        ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor();
+        List<Future<List<String>>> replies = new ArrayList<>();
+        for (int t = 0; t < tills; t++) {
+            int till = t;
+            replies.add(clients.submit(() -> {
+                try (Socket socket = connect()) {
+                    BufferedReader in = reader(socket);
+                    PrintWriter out = writer(socket);
+                    List<String> lines = new ArrayList<>();
+                    lines.add(in.readLine());
+                    // Все кассы держат сеансы открытыми одновременно
+                    allConnected.countDown();
+                    allConnected.await();
+                    out.println("касса " + till);
+                    lines.add(in.readLine());
+                    out.println("0");
+                    lines.add(in.readLine());
+                    return lines;
+                }
+            }));
+        }
+
+        for (int t = 0; t < tills; t++) {
+            assertEquals(List.of("Касса готова", "эхо: касса " + t, "Сеанс кассы завершен."),
+                    replies.get(t).get(10, TimeUnit.SECONDS));
+        }
+        clients.close();
+        assertEquals(tills, server.getAcceptedSessions());
+        awaitNoSessions();
+    }
+
+    @Test
+    void disconnect_EndsOnlyThatSession() throws Exception {
+        Socket leaving = connect();
+        Socket staying = connect();
+        BufferedReader stayingIn = reader(staying);
+        assertEquals("Касса готова", reader(leaving).readLine());
+        assertEquals("Касса готова", stayingIn.readLine());
+
+        leaving.close();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (server.getActiveSessions() > 1 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(1, server.getActiveSessions());
+
+        writer(staying).println("еще здесь");
+        assertEquals("эхо: еще здесь", stayingIn.readLine());
+        staying.close();
+        awaitNoSessions();
+    }
+
+    @Test
+    void close_DisconnectsIdleTills() throws Exception {
+        try (Socket socket = connect()) {
+            BufferedReader in = reader(socket);
+            assertEquals("Касса готова", in.readLine());
+
+            server.close();
+
+            assertNull(in.readLine());
+            assertEquals(0, server.getActiveSessions());
+        }
+    }
+
+    private Socket connect() throws Exception {
+        return new Socket(InetAddress.getLoopbackAddress(), server.getPort());
+    }
+
+    private static BufferedReader reader(Socket socket) throws Exception {
+        return new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+    }
+
+    private static PrintWriter writer(Socket socket) throws Exception {
+        return new PrintWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8), true);
+    }
+
+    private void awaitNoSessions() throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (server.getActiveSessions() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(0, server.getActiveSessions());
+    }
+}
@@ -0,0 +1,106 @@
+package org.example.storage;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IdAllocatorTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void nextId_IsIndependentPerKind() {
+        IdAllocator allocator = new IdAllocator();
+
+        assertEquals(1, allocator.nextId(IdAllocator.Kind.PRODUCT));
+        assertEquals(2, allocator.nextId(IdAllocator.Kind.PRODUCT));
+        assertEquals(1, allocator.nextId(IdAllocator.Kind.CUSTOMER));
+    }
+
+    @Test
+    void nextId_AfterRestartContinuesPastPersistedBlock() throws IOException {
+        Path file = tempDir.resolve("shop.ids");
+        IdAllocator allocator = new IdAllocator(file, 10);
+        for (int i = 0; i < 12; i++) {
+            allocator.nextId(IdAllocator.Kind.PRODUCT);
+        }
+        allocator.nextId(IdAllocator.Kind.CUSTOMER);
+
+        // Выдано 12 ID, сохранена граница блока 22: после перезапуска ни один из выданных не повторится
+        IdAllocator restarted = new IdAllocator(file, 10);
+        assertEquals(23, restarted.nextId(IdAllocator.Kind.PRODUCT));
+        assertEquals(12, restarted.nextId(IdAllocator.Kind.CUSTOMER));
+    }
+
+    @Test
+    void nextId_FailedSaveKeepsOldBound() throws IOException {
+        Path file = tempDir.resolve("shop.ids");
+        IdAllocator allocator = new IdAllocator(file, 2);
+        for (int i = 0; i < 3; i++) {
+            allocator.nextId(IdAllocator.Kind.PRODUCT);
+        }
+        // Каталог на месте временного файла: следующая граница не запишется
+        Path temp = Files.createDirectory(tempDir.resolve("shop.ids.tmp"));
+        Files.createFile(temp.resolve("busy"));
+
+        assertThrows(UncheckedIOException.class, () -> allocator.nextId(IdAllocator.Kind.PRODUCT));
+        assertThrows(UncheckedIOException.class, () -> allocator.nextId(IdAllocator.Kind.PRODUCT));
+
+        Files.delete(temp.resolve("busy"));
+        Files.delete(temp);
+        assertEquals(4, new IdAllocator(file, 2).nextId(IdAllocator.Kind.PRODUCT));
+        assertEquals(6, allocator.nextId(IdAllocator.Kind.PRODUCT));
+        assertEquals(9, new IdAllocator(file, 2).nextId(IdAllocator.Kind.PRODUCT));
+    }
+
+    @Test
+    void reserveBlockAndAdvancePast_SkipTakenIds() throws IOException {
+        IdAllocator allocator = new IdAllocator(tempDir.resolve("shop.ids"), 4);
+
+        assertEquals(1, allocator.reserveBlock(IdAllocator.Kind.PRODUCT, 100));
+        assertEquals(101, allocator.nextId(IdAllocator.Kind.PRODUCT));
+
+        allocator.advancePast(IdAllocator.Kind.CUSTOMER, 57);
+        assertEquals(58, allocator.nextId(IdAllocator.Kind.CUSTOMER));
+        allocator.advancePast(IdAllocator.Kind.CUSTOMER, 3);
+        assertEquals(59, allocator.nextId(IdAllocator.Kind.CUSTOMER));
+    }
+
+    @Test
+    void nextId_ConcurrentAddersNeverCollide() throws Exception {
+        IdAllocator allocator = new IdAllocator(tempDir.resolve("shop.ids"), 64);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<List<Integer>>> futures = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            futures.add(executor.submit(() -> {
+                List<Integer> ids = new ArrayList<>();
+                for (int i = 0; i < 2000; i++) {
+                    ids.add(allocator.nextId(IdAllocator.Kind.PRODUCT));
+                }
+                return ids;
+            }));
+        }
+        Set<Integer> unique = new HashSet<>();
+        for (Future<List<Integer>> future : futures) {
+            unique.addAll(future.get());
+        }
+        executor.shutdown();
+
+        assertEquals(16000, unique.size());
+        assertTrue(new IdAllocator(tempDir.resolve("shop.ids"), 64).nextId(IdAllocator.Kind.PRODUCT) > 16000);
+    }
+}
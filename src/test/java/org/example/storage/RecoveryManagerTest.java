@@ -0,0 +1,178 @@
+package org.example.storage;
+
+import org.example.journal.Durability;
+import org.example.manageClasses.ConcurrentPurchaseManager;
+import org.example.manageClasses.CustomerManager;
+import org.example.manageClasses.ProductManager;
+import org.example.model.Basket;
+import org.example.model.Customer;
+import org.example.model.Product;
+import org.example.model.Purchase;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RecoveryManagerTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void recover_ReplaysLogAfterCrash() throws IOException {
+        try (WriteAheadLog wal = openWal()) {
+            Store store = new Store(wal);
+            store.products.addProduct(new Product(1, "Яблоки", 2.0, 50));
+            store.products.addProduct(new Product(2, "Хлеб", 1.0, 30));
+            store.products.addProduct(new Product(3, "Сыр", 3.5, 15));
+            store.customers.addCustomer(new Customer(1, "Анна", 100.0));
+            store.customers.addCustomer(new Customer(2, "Иван", 50.0));
+            store.products.updateProduct(2, new Product(2, "Хлеб ржаной", 1.5, 40));
+            store.products.deleteProduct(3);
+            store.customers.deleteCustomer(2);
+            assertTrue(store.purchases.checkout(1, new Basket().addLine(1, 5).addLine(2, 2)).isSuccess());
+        } // снимок не сохраняется: имитация аварийной остановки
+
+        Recovered recovered = recover();
+        assertEquals(9, recovered.replayed);
+        assertEquals(45, recovered.products.findById(1).getQuantity());
+        assertEquals("Хлеб ржаной", recovered.products.findById(2).getName());
+        assertEquals(38, recovered.products.findById(2).getQuantity());
+        assertNull(recovered.products.findById(3));
+        assertFalse(recovered.customers.contains(2));
+        assertEquals(new BigDecimal("87.00"), recovered.customers.findById(1).getBalance());
+    }
+
+    @Test
+    void checkpoint_TruncatesLogAndKeepsNumbering() throws IOException {
+        try (WriteAheadLog wal = openWal()) {
+            Store store = new Store(wal);
+            store.products.addProduct(new Product(1, "Яблоки", 2.0, 50));
+            store.customers.addCustomer(new Customer(1, "Анна", 100.0));
+            assertEquals(2, store.recoveryManager.checkpoint());
+            assertEquals(0, Files.size(walFile()));
+        }
+
+        // После перезапуска журнал пуст, но новые записи должны идти после номера снимка
+        try (WriteAheadLog wal = openWal()) {
+            Store store = new Store(wal);
+            assertEquals(0, store.recoveryManager.recover());
+            assertTrue(store.purchases.makePurchase(1, 1, 10).isSuccess());
+        }
+
+        Recovered recovered = recover();
+        assertEquals(1, recovered.replayed);
+        assertEquals(40, recovered.products.findById(1).getQuantity());
+        assertEquals(new BigDecimal("80.00"), recovered.customers.findById(1).getBalance());
+    }
+
+    @Test
+    void recover_SkipsRecordsAlreadyInSnapshot() throws IOException {
+        // Сбой между сохранением снимка и очисткой журнала: записи не должны примениться дважды
+        try (WriteAheadLog wal = openWal()) {
+            Store store = new Store(wal);
+            store.products.addProduct(new Product(1, "Яблоки", 2.0, 50));
+            store.customers.addCustomer(new Customer(1, "Анна", 100.0));
+            assertTrue(store.purchases.makePurchase(1, 1, 5).isSuccess());
+            new SnapshotStore(snapshotFile()).save(store.rawProducts, store.rawCustomers, wal.getLastSequence());
+        }
+
+        Recovered recovered = recover();
+        assertEquals(0, recovered.replayed);
+        assertEquals(45, recovered.products.findById(1).getQuantity());
+        assertEquals(new BigDecimal("90.00"), recovered.customers.findById(1).getBalance());
+    }
+
+    @Test
+    void recover_IgnoresTornTail() throws IOException {
+        try (WriteAheadLog wal = openWal()) {
+            Store store = new Store(wal);
+            store.products.addProduct(new Product(1, "Яблоки", 2.0, 50));
+        }
+        long validSize = Files.size(walFile());
+        Files.write(walFile(), new byte[]{0, 0, 0, 40, 1, 2, 3}, StandardOpenOption.APPEND);
+
+        Recovered recovered = recover();
+        assertEquals(1, recovered.replayed);
+        assertEquals(50, recovered.products.findById(1).getQuantity());
+        assertEquals(validSize, Files.size(walFile()));
+    }
+
+    @Test
+    void recover_UpdatesRacingPurchases_RestoreSameQuantity() throws Exception {
+        int quantityInMemory;
+        try (WriteAheadLog wal = openWal()) {
+            Store store = new Store(wal);
+            store.products.addProduct(new Product(1, "Яблоки", 1.0, 1_000));
+            store.customers.addCustomer(new Customer(1, "Анна", 10_000.0));
+
+            Thread till = new Thread(() -> {
+                for (int i = 0; i < 300; i++) {
+                    store.purchases.checkout(1, new Basket().addLine(1, 1));
+                }
+            });
+            till.start();
+            for (int i = 0; i < 300; i++) {
+                store.products.updateProduct(1, new Product(1, "Яблоки", 1.0, 1_000 + i));
+            }
+            till.join();
+            quantityInMemory = store.rawProducts.findById(1).getQuantity();
+        }
+
+        assertEquals(quantityInMemory, recover().products.findById(1).getQuantity());
+    }
+
+    private Path walFile() {
+        return tempDir.resolve("shop.wal");
+    }
+
+    private Path snapshotFile() {
+        return tempDir.resolve("shop.snapshot");
+    }
+
+    private WriteAheadLog openWal() throws IOException {
+        return new WriteAheadLog(walFile(), Durability.FSYNC, 0);
+    }
+
+    private Recovered recover() throws IOException {
+        try (WriteAheadLog wal = openWal()) {
+            Recovered recovered = new Recovered();
+            recovered.replayed = new RecoveryManager(new SnapshotStore(snapshotFile()), wal,
+                    recovered.products, recovered.customers).recover();
+            return recovered;
+        }
+    }
+
+    private static class Recovered {
+        final ProductManager products = new ProductManager();
+        final CustomerManager customers = new CustomerManager();
+        long replayed;
+    }
+
+    private class Store {
+        final ProductManager rawProducts = new ProductManager();
+        final CustomerManager rawCustomers = new CustomerManager();
+        final WalProductManager products;
+        final WalCustomerManager customers;
+        final WalPurchaseManager purchases;
+        final RecoveryManager recoveryManager;
+
+        Store(WriteAheadLog wal) {
+            products = new WalProductManager(rawProducts, wal);
+            customers = new WalCustomerManager(rawCustomers, wal);
+            purchases = new WalPurchaseManager(new ConcurrentPurchaseManager(rawProducts, rawCustomers) {
+                @Override
+                public void savePurchaseInfo(Purchase purchase) {
+                    // журнал покупок в этом тесте не нужен
+                }
+            }, wal);
+            recoveryManager = new RecoveryManager(new SnapshotStore(snapshotFile()), wal, rawProducts, rawCustomers);
+        }
+    }
+}
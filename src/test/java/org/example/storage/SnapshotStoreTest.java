@@ -0,0 +1,73 @@
+package org.example.storage;
+
+import org.example.manageClasses.CustomerManager;
+import org.example.manageClasses.ProductManager;
+import org.example.model.Customer;
+import org.example.model.Product;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SnapshotStoreTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void saveAndLoad_RestoresCatalogueAndCustomers() throws IOException {
+        ProductManager products = new ProductManager();
+        CustomerManager customers = new CustomerManager();
+        products.addProduct(new Product(1, "Яблоки", 1.99, 50));
+        products.addProduct(new Product(5, "Яйца (десяток)", 2.99, 25));
+        customers.addCustomer(new Customer(1, "Анна", 1000.00));
+        customers.addCustomer(new Customer(4, "Дмитрий", 1199.37));
+
+        SnapshotStore store = new SnapshotStore(tempDir.resolve("shop.snapshot"));
+        store.save(products, customers, 42);
+        assertFalse(Files.exists(tempDir.resolve("shop.snapshot.tmp")));
+
+        ProductManager loadedProducts = new ProductManager();
+        CustomerManager loadedCustomers = new CustomerManager();
+        assertEquals(42, store.load(loadedProducts, loadedCustomers));
+
+        assertEquals(products.getAllProducts(), loadedProducts.getAllProducts());
+        assertEquals("Яйца (десяток)", loadedProducts.findByName("яйца (десяток)").getName());
+        assertEquals(2, loadedCustomers.getAllCustomers().size());
+        assertEquals("Дмитрий", loadedCustomers.findById(4).getName());
+        assertEquals(new BigDecimal("1199.37"), loadedCustomers.findById(4).getBalance());
+    }
+
+    @Test
+    void save_ReplacesPreviousSnapshot() throws IOException {
+        SnapshotStore store = new SnapshotStore(tempDir.resolve("shop.snapshot"));
+        ProductManager products = new ProductManager();
+        products.addProduct(new Product(1, "Хлеб", 0.99, 30));
+        store.save(products, new CustomerManager());
+
+        products.deleteProduct(1);
+        products.addProduct(new Product(2, "Сыр", 3.49, 15));
+        store.save(products, new CustomerManager());
+
+        ProductManager loaded = new ProductManager();
+        store.load(loaded, new CustomerManager());
+        assertNull(loaded.findById(1));
+        assertEquals(15, loaded.findById(2).getQuantity());
+    }
+
+    @Test
+    void load_MissingOrForeignFile() throws IOException {
+        SnapshotStore missing = new SnapshotStore(tempDir.resolve("absent.snapshot"));
+        assertEquals(-1, missing.load(new ProductManager(), new CustomerManager()));
+
+        Path foreign = tempDir.resolve("foreign.snapshot");
+        Files.writeString(foreign, "not a snapshot at all");
+        assertThrows(IOException.class,
+                () -> new SnapshotStore(foreign).load(new ProductManager(), new CustomerManager()));
+    }
+}
@@ -0,0 +1,69 @@
+package org.example.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IntObjectMapTest {
+
+    @Test
+    void putGetRemove_BasicOperations() {
+        IntObjectMap<String> map = new IntObjectMap<>();
+        assertNull(map.put(1, "Анна"));
+        assertNull(map.put(2, "Иван"));
+        assertEquals("Анна", map.put(1, "Ольга"));
+
+        assertEquals("Ольга", map.get(1));
+        assertTrue(map.containsKey(2));
+        assertEquals(2, map.size());
+
+        assertEquals("Иван", map.remove(2));
+        assertFalse(map.containsKey(2));
+        assertNull(map.remove(2));
+        assertEquals(1, map.size());
+    }
+
+    @Test
+    void valuesView_IsLiveAndReadOnly() {
+        IntObjectMap<String> map = new IntObjectMap<>();
+        List<String> values = map.values();
+        map.put(10, "a");
+        map.put(20, "b");
+        map.put(30, "c");
+        map.remove(10);
+
+        assertEquals(2, values.size());
+        assertTrue(values.containsAll(List.of("b", "c")));
+        assertThrows(UnsupportedOperationException.class, () -> values.add("d"));
+    }
+
+    @Test
+    void randomOperations_MatchHashMap() {
+        // Сверяем с HashMap на смеси вставок и удалений, включая рост таблицы и сдвиг при удалении
+        IntObjectMap<Integer> map = new IntObjectMap<>();
+        Map<Integer, Integer> expected = new HashMap<>();
+        Random random = new Random(42);
+
+        for (int i = 0; i < 200_000; i++) {
+            int key = random.nextInt(5_000) - 2_500;
+            if (random.nextInt(3) == 0) {
+                assertEquals(expected.remove(key), map.remove(key));
+            } else {
+                assertEquals(expected.put(key, i), map.put(key, i));
+            }
+        }
+
+        assertEquals(expected.size(), map.size());
+        for (Map.Entry<Integer, Integer> entry : expected.entrySet()) {
+            assertEquals(entry.getValue(), map.get(entry.getKey()));
+        }
+        for (int i = 0; i < map.size(); i++) {
+            assertEquals(expected.get(map.keyAt(i)), map.valueAt(i));
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package org.example.validation;
+
+import org.example.model.Money;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NumberParserTest {
+
+    @Test
+    void parseInt_MatchesIntegerParseInt() {
+        for (String text : new String[]{"0", "42", "-7", "+15", "2147483647", "-2147483648", "007"}) {
+            assertEquals(Integer.parseInt(text), NumberParser.parseInt(text), text);
+        }
+    }
+
+    @Test
+    void parseInt_InvalidTextReturnsInvalid() {
+        for (String text : new String[]{"", "-", "+", "abc", "12a", "1.5", " 1", "2147483648", "-2147483649",
+                "99999999999999999999"}) {
+            assertEquals(NumberParser.INVALID, NumberParser.parseInt(text), text);
+        }
+    }
+
+    @Test
+    void parseMinor_MatchesMoneyParse() {
+        for (String text : new String[]{"1.99", "0.99", "12", "1000.00", "-0.5", "+3.1", " 2.50 ", ".5", "7.",
+                "1.005", "1.004", "2.999", "-1.005", "92233720368547757.99"}) {
+            assertEquals(Money.parse(text), NumberParser.parseMinor(text), text);
+        }
+    }
+
+    @Test
+    void parseMinor_InvalidTextReturnsInvalid() {
+        for (String text : new String[]{"", "  ", ".", "-", "abc", "1,5", "1.2.3", "1e3", "1 000",
+                "92233720368547758.00"}) {
+            assertEquals(NumberParser.INVALID, NumberParser.parseMinor(text), text);
+        }
+    }
+
+    @Test
+    void parseDecimal_MatchesDoubleParseDouble() {
+        for (String text : new String[]{"12.5", "0.1", "-0.5", "+3.1", " 2.50 ", ".5", "7.", "1.99", "0.3",
+                "123456789.123456789", "9007199254740993", "0.000000000000000000000001", "1000000.00"}) {
+            assertEquals(Double.parseDouble(text.trim()), NumberParser.parseDecimal(text), text);
+        }
+    }
+
+    @Test
+    void parseDecimal_InvalidTextReturnsNaN() {
+        for (String text : new String[]{"", "  ", ".", "-", "abc", "1,5", "1.2.3", "1e3", "1 000", "NaN", "0x10"}) {
+            assertTrue(Double.isNaN(NumberParser.parseDecimal(text)), text);
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package org.example.validation;
+
+import org.example.InputValidator;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RuleSetTest {
+
+    @Test
+    void textRules_MatchPreviousRegex() {
+        String regex = "[a-zA-Zа-яА-ЯёЁ\\s]+";
+        for (String text : new String[]{"Яблоки", "Green Apple", "Ёлка ёж", "Хлеб\tбелый", "", "Молоко2",
+                "Яйца (десяток)", "café", "Ωmega", "-", "a_b"}) {
+            assertEquals(text.matches(regex), InputValidator.TEXT.test(text), text);
+        }
+    }
+
+    @Test
+    void firstViolation_ReturnsMessageOfFirstFailedRule() {
+        RuleSet rules = new RuleSet(TextRule.notEmpty("пусто"))
+                .and(TextRule.noneOf(CharClass.DIGITS, "цифры"), TextRule.onlyOf(CharClass.of("ab1"), "символы"));
+
+        assertNull(rules.firstViolation("abba"));
+        assertEquals("пусто", rules.firstViolation(""));
+        assertEquals("цифры", rules.firstViolation("ab1"));
+        assertEquals("символы", rules.firstViolation("abc"));
+    }
+
+    @Test
+    void charClass_CombinesAsciiAndWideRanges() {
+        CharClass letters = CharClass.ranges('a', 'c', 'а', 'в').or(CharClass.of("ё_"));
+
+        assertTrue(letters.containsAll("abcабвё_"));
+        assertFalse(letters.contains('d'));
+        assertFalse(letters.contains('г'));
+        assertTrue(CharClass.DIGITS.containsAny("Молоко2"));
+        assertFalse(CharClass.DIGITS.containsAny("Молоко"));
+    }
+}